@@ -3,28 +3,21 @@ package com.oms.api;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.modelmapper.ModelMapper;
 
 /**
  * OMS API メインアプリケーション
  */
 @SpringBootApplication
+@EnableScheduling
 public class OmsApiApplication {
 
     public static void main(String[] args) {
         SpringApplication.run(OmsApiApplication.class, args);
     }
 
-    /**
-     * ModelMapperのBean登録（Entity <-> DTO変換用）
-     */
-    @Bean
-    public ModelMapper modelMapper() {
-        return new ModelMapper();
-    }
-
     /**
      * CORS設定
      */
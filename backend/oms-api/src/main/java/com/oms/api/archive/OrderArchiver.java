@@ -0,0 +1,203 @@
+package com.oms.api.archive;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.model.EodRun;
+import com.oms.api.model.EodRunStatus;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.readmodel.OrderReadModel;
+import com.oms.api.repository.EodRunRepository;
+import com.oms.api.repository.OrderReadRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * 終了済み注文のアーカイブ（orders -> orders_archive）
+ *
+ * 終了済み（FILLED / CANCELED / REJECTED / EXPIRED）で発注日時・更新日時がともに締め日時より前の注文を、
+ * ステータスごとに (status, order_date) のインデックス順で chunk-size 件ずつ行ロックし、
+ * 1トランザクションで orders_archive に INSERT ... SELECT して orders から削除する。
+ * orders には作業中の注文と直近の終了済み注文だけが残り、検索用インデックスと登録のコストが履歴の件数に比例して増えない。
+ * 照会は OrderReadRepository が両方を併合する。
+ *
+ * 締め日時は OrderReadRepository#archiveHorizon を上限に、読み取りモデルの horizon（メモリ上の注文と重複させない）と、
+ * 日次損益バッチを使う場合は最後に完了した取引日の翌日（未処理の取引日の約定の注文は orders に残す）より前に抑える。
+ * クラスタ構成では定期実行はパーティション 0 の担当ノードだけが行う（複数ノードが重なっても行ロックで同じ注文は移さない）。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.archive.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiver {
+
+    private static final List<String> TERMINAL = Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isTerminal)
+            .map(OrderStatus::name)
+            .toList();
+
+    private static final String COLUMNS =
+            "order_id, user_id, security_id, order_no, side, order_type, quantity, price, stop_price, " +
+            "time_in_force, status, filled_quantity, average_price, commission, order_date, valid_until, notes, " +
+            "created_at, updated_at, version";
+    private static final String SELECT_SQL =
+            "SELECT order_id FROM orders WHERE status = ? AND order_date < ? AND updated_at < ? " +
+            "ORDER BY order_date LIMIT ? FOR UPDATE";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderReadRepository orderReadRepository;
+    private final EodRunRepository eodRunRepository;
+    private final ObjectProvider<OrderReadModel> readModel;
+    private final ObjectProvider<ClusterMembership> cluster;
+    private final MeterRegistry registry;
+
+    @Value("${oms.archive.chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${oms.eod.enabled:true}")
+    private boolean eodEnabled;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private volatile boolean stopping;
+    private Counter archived;
+
+    @PostConstruct
+    public void init() {
+        archived = Counter.builder("oms.orders.archived")
+                .description("Terminal orders moved to orders_archive")
+                .register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopping = true;
+    }
+
+    /**
+     * 定期実行（既定は毎日 2:00。クラスタ構成ではパーティション 0 の担当ノードだけ）
+     */
+    @Scheduled(cron = "${oms.archive.cron:0 0 2 * * *}")
+    public void runScheduled() {
+        ClusterMembership membership = cluster.getIfAvailable();
+        if (membership != null && !membership.isLeader()) {
+            log.debug("Scheduled order archive skipped: not the leader node");
+            return;
+        }
+        try {
+            archive();
+        } catch (IllegalStateException e) {
+            log.warn("Scheduled order archive skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 締め日時より前の終了済み注文をすべて orders_archive に移す
+     *
+     * @return 移した件数
+     * @throws IllegalStateException 別の実行が進行中の場合
+     */
+    public long archive() {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("Order archive is already running");
+        }
+        try {
+            LocalDateTime cutoff = cutoff();
+            if (cutoff == null) {
+                return 0;
+            }
+            long started = System.nanoTime();
+            long total = 0;
+            for (String status : TERMINAL) {
+                int moved = chunkSize;
+                while (moved == chunkSize && !stopping) {
+                    moved = transactionTemplate.execute(tx -> moveChunk(status, cutoff));
+                    total += moved;
+                    archived.increment(moved);
+                }
+            }
+            log.info("Archived {} orders before {} in {} ms", total, cutoff, (System.nanoTime() - started) / 1_000_000);
+            return total;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 締め日時（アーカイブできない場合は null）
+     */
+    private LocalDateTime cutoff() {
+        LocalDateTime cutoff = orderReadRepository.archiveHorizon();
+        OrderReadModel model = readModel.getIfAvailable();
+        if (model != null) {
+            if (!model.isReady()) {
+                log.info("Order archive skipped: read model is not loaded yet");
+                return null;
+            }
+            if (model.horizon().isBefore(cutoff)) {
+                cutoff = model.horizon();
+            }
+        }
+        if (eodEnabled) {
+            LocalDate lastTradeDate = eodRunRepository
+                    .findFirstByTradeDateBeforeAndStatusOrderByTradeDateDesc(LocalDate.now().plusDays(1),
+                            EodRunStatus.COMPLETED)
+                    .map(EodRun::getTradeDate)
+                    .orElse(null);
+            if (lastTradeDate == null) {
+                // 初回の日次損益バッチは全期間の約定を再生するため、注文を orders から移さない
+                log.info("Order archive skipped: no completed EOD run");
+                return null;
+            }
+            LocalDateTime processed = lastTradeDate.plusDays(1).atStartOfDay();
+            if (processed.isBefore(cutoff)) {
+                cutoff = processed;
+            }
+        }
+        return cutoff;
+    }
+
+    /**
+     * status の注文を最大 chunk-size 件移す（終了済みの注文は更新されないため、移す間に内容は変わらない）
+     *
+     * @return 移した件数
+     */
+    private int moveChunk(String status, LocalDateTime cutoff) {
+        Timestamp before = Timestamp.valueOf(cutoff);
+        List<Long> orderIds = jdbcTemplate.queryForList(SELECT_SQL, Long.class, status, before, before, chunkSize);
+        if (orderIds.isEmpty()) {
+            return 0;
+        }
+
+        String placeholders = orderIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        int inserted = jdbcTemplate.update("INSERT INTO orders_archive (" + COLUMNS + ", archived_at) " +
+                "SELECT " + COLUMNS + ", CURRENT_TIMESTAMP FROM orders WHERE order_id IN (" + placeholders + ")",
+                orderIds.toArray());
+        int deleted = jdbcTemplate.update("DELETE FROM orders WHERE order_id IN (" + placeholders + ")",
+                orderIds.toArray());
+        if (inserted != orderIds.size() || deleted != orderIds.size()) {
+            throw new IllegalStateException("Archived " + inserted + " and deleted " + deleted + " of "
+                    + orderIds.size() + " orders");
+        }
+        return orderIds.size();
+    }
+}
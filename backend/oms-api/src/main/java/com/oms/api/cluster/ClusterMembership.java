@@ -0,0 +1,438 @@
+package com.oms.api.cluster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.ClusterStatusDto;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * クラスタのメンバー管理とパーティションの担当決定
+ *
+ * ユーザーIDを固定数のパーティションに振り分け、生存しているメンバーのコンシステントハッシュで担当ノードを決める。
+ * 生存確認は各ノードが他の全メンバーに HTTP でハートビートを送り、failure-threshold 回続けて失敗したら離脱とみなす。
+ * 生存メンバーが変わったら、担当でなくなったパーティションの状態を書き戻して破棄し、
+ * 新たに担当になったパーティションは前の担当ノードに解放（書き戻し）を依頼してから DB から読み込む。
+ * 前の担当ノードが解放を確認しない（まだ担当とみなしている・エラー・接続不可）パーティションは、
+ * 解放が済むか前の担当ノードが離脱するまで ready に含めず、ハートビートごとに依頼し直す。
+ * 起動時は設定上の全メンバーが生存しているものとして担当を決める。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterMembership {
+
+    /** 送信元ノードIDのヘッダー（ハートビート・解放依頼・転送） */
+    public static final String NODE_HEADER = "X-OMS-Node";
+    /** クラスタで1ノードだけが実行する定期処理の実行ノードを決めるパーティション */
+    private static final int LEADER_PARTITION = 0;
+
+    private final ObjectProvider<PartitionListener> listeners;
+    private final String nodeId;
+    private final Map<String, ClusterNode> members = new LinkedHashMap<>();
+    private final int partitionCount;
+    private final int virtualNodes;
+    private final int failureThreshold;
+    private final Duration timeout;
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+
+    /** ノードID → 連続したハートビートの失敗回数 */
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    /** 担当の変更（引き継ぎ）を直列化する */
+    private final ReentrantLock lock = new ReentrantLock();
+    /** 解放の確認待ちのパーティション → 前の担当ノード（lock の内側で更新する） */
+    private final Map<Integer, String> handoffs = new HashMap<>();
+    private volatile View view;
+
+    /**
+     * 生存メンバーから決まる担当（ready は状態の読み込みが済んだ担当パーティション）
+     */
+    private record View(Set<String> live, ConsistentHashRing ring, PartitionSet owned, PartitionSet ready) {
+    }
+
+    public ClusterMembership(
+            ObjectProvider<PartitionListener> listeners,
+            ObjectMapper objectMapper,
+            @Value("${oms.cluster.node-id}") String nodeId,
+            @Value("${oms.cluster.members}") List<String> members,
+            @Value("${oms.cluster.partitions:256}") int partitionCount,
+            @Value("${oms.cluster.virtual-nodes:64}") int virtualNodes,
+            @Value("${oms.cluster.failure-threshold:3}") int failureThreshold,
+            @Value("${oms.cluster.timeout-ms:2000}") long timeoutMs) {
+        this.listeners = listeners;
+        this.objectMapper = objectMapper;
+        this.nodeId = nodeId;
+        for (String spec : members) {
+            ClusterNode node = ClusterNode.parse(spec);
+            this.members.put(node.id(), node);
+        }
+        if (!this.members.containsKey(nodeId)) {
+            throw new IllegalStateException("oms.cluster.node-id " + nodeId + " is not in oms.cluster.members");
+        }
+        this.partitionCount = partitionCount;
+        this.virtualNodes = virtualNodes;
+        this.failureThreshold = failureThreshold;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+    }
+
+    /**
+     * 起動時の担当決定（他のコンポーネントが担当分の状態を読み込む前に、前の担当ノードに解放を依頼する）
+     */
+    @PostConstruct
+    public void init() {
+        Set<String> live = new HashSet<>(members.keySet());
+        ConsistentHashRing ring = new ConsistentHashRing(live, virtualNodes);
+        PartitionSet owned = ownedBy(ring);
+        PartitionSet pending = PartitionSet.empty(partitionCount);
+        if (live.size() > 1) {
+            Set<String> others = new HashSet<>(live);
+            others.remove(nodeId);
+            addHandoffs(owned, new ConsistentHashRing(others, virtualNodes), others);
+            pending = requestRelease(live);
+        }
+        // 解放待ちの分は起動時にも読み込むが、解放後に読み込み直すまで要求を受けない
+        view = new View(live, ring, owned, owned.minus(pending));
+        log.info("Cluster node {} started: {}/{} partitions ({} awaiting release), members {}",
+                nodeId, owned.size(), partitionCount, pending.size(), members.keySet());
+    }
+
+    /**
+     * 他のメンバーへのハートビートと、生存メンバーが変わった場合の引き継ぎ
+     */
+    @Scheduled(fixedDelayString = "${oms.cluster.heartbeat-interval-ms:1000}")
+    public void heartbeat() {
+        Map<String, CompletableFuture<Boolean>> probes = new HashMap<>();
+        for (ClusterNode node : members.values()) {
+            if (node.id().equals(nodeId)) {
+                continue;
+            }
+            HttpRequest request = HttpRequest.newBuilder(URI.create(node.url() + "/api/cluster/status"))
+                    .timeout(timeout)
+                    .header(NODE_HEADER, nodeId)
+                    .GET()
+                    .build();
+            probes.put(node.id(), httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .thenApply(response -> response.statusCode() == 200)
+                    .exceptionally(e -> false));
+        }
+        probes.forEach((id, probe) -> {
+            if (probe.join()) {
+                failures.put(id, 0);
+            } else {
+                failures.merge(id, 1, Integer::sum);
+            }
+        });
+
+        lock.lock();
+        try {
+            Set<String> live = liveMembers();
+            if (!live.equals(view.live())) {
+                rebalance(live);
+            } else if (view.ready().size() < view.owned().size()) {
+                // 前回の解放依頼・読み込みに失敗したパーティションの再試行
+                PartitionSet pending = requestRelease(live);
+                PartitionSet retry = view.owned().minus(view.ready()).minus(pending);
+                if (!retry.isEmpty()) {
+                    assign(retry);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 他ノードからの通信（ハートビート）を受けた（次回のハートビートで生存に戻す）
+     */
+    public void touch(String from) {
+        if (from != null && members.containsKey(from) && !from.equals(nodeId)) {
+            failures.put(from, 0);
+        }
+    }
+
+    /**
+     * 転送先への接続に失敗した（ハートビートの失敗と同様に数える）
+     */
+    public void reportFailure(String node) {
+        failures.merge(node, 1, Integer::sum);
+    }
+
+    /**
+     * 他ノードからの解放依頼（依頼元を生存とみなして担当を計算し直し、担当でなくなった分を書き戻して破棄する）
+     *
+     * @return 依頼されたうち、このノードの計算ではまだ担当のパーティション（メンバーの見え方が一致していない）
+     */
+    public int[] release(String from, int[] partitions) {
+        if (!members.containsKey(from) || from.equals(nodeId)) {
+            throw new IllegalArgumentException("Unknown cluster member: " + from);
+        }
+        failures.put(from, 0);
+        lock.lock();
+        try {
+            Set<String> live = liveMembers();
+            if (!live.equals(view.live())) {
+                rebalance(live);
+            }
+            PartitionSet owned = view.owned();
+            int[] retained = Arrays.stream(partitions).filter(owned::contains).toArray();
+            if (retained.length > 0) {
+                log.warn("Release requested by {} for {} partitions still owned by {}", from, retained.length, nodeId);
+            }
+            return retained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public ClusterNode self() {
+        return members.get(nodeId);
+    }
+
+    public int partitionOf(long userId) {
+        return ConsistentHashRing.partitionOf(userId, partitionCount);
+    }
+
+    /**
+     * ユーザーの担当ノード（このノードから見た生存メンバーで決まる）
+     */
+    public ClusterNode ownerOf(long userId) {
+        return members.get(view.ring().ownerOf(partitionOf(userId)));
+    }
+
+    public boolean owns(long userId) {
+        return view.owned().containsUser(userId);
+    }
+
+    /**
+     * 担当しており、状態の読み込みも済んでいる（要求を処理できる）
+     */
+    public boolean isReady(long userId) {
+        return view.ready().containsUser(userId);
+    }
+
+    /**
+     * クラスタ全体で1ノードだけが実行する定期処理（日次損益バッチ・アーカイブ）の実行ノードか
+     *
+     * パーティション 0 の担当ノードを実行ノードとする。メンバーの見え方が一致するまでは複数のノードが
+     * 該当することがあるため、処理自体の排他は各処理が DB で行う。
+     */
+    public boolean isLeader() {
+        return view.owned().contains(LEADER_PARTITION);
+    }
+
+    /**
+     * 担当パーティション（起動時の読み込みの絞り込みに使う）
+     */
+    public PartitionSet ownedPartitions() {
+        return view.owned();
+    }
+
+    public ClusterStatusDto status() {
+        View current = view;
+        Map<String, Integer> counts = new HashMap<>();
+        for (int p = 0; p < partitionCount; p++) {
+            counts.merge(current.ring().ownerOf(p), 1, Integer::sum);
+        }
+        ClusterStatusDto dto = new ClusterStatusDto();
+        dto.setNodeId(nodeId);
+        dto.setPartitionCount(partitionCount);
+        dto.setOwnedPartitions(current.owned().size());
+        dto.setReadyPartitions(current.ready().size());
+        List<ClusterStatusDto.Member> result = new ArrayList<>(members.size());
+        for (ClusterNode node : members.values()) {
+            ClusterStatusDto.Member member = new ClusterStatusDto.Member();
+            member.setNodeId(node.id());
+            member.setUrl(node.url());
+            member.setLive(current.live().contains(node.id()));
+            member.setFailures(failures.getOrDefault(node.id(), 0));
+            member.setPartitions(counts.getOrDefault(node.id(), 0));
+            result.add(member);
+        }
+        dto.setMembers(result);
+        return dto;
+    }
+
+    // ===== Private Methods =====
+
+    private Set<String> liveMembers() {
+        Set<String> live = new HashSet<>();
+        for (String id : members.keySet()) {
+            if (id.equals(nodeId) || failures.getOrDefault(id, 0) < failureThreshold) {
+                live.add(id);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * 生存メンバーの変更に伴う引き継ぎ（lock の内側で呼ぶ）
+     *
+     * 担当でなくなった分は先に書き戻して破棄し、以降の要求は新しい担当ノードに転送される。
+     * 新たに担当になった分は前の担当ノードの解放と読み込みが済むまで ready に含めない。
+     */
+    private void rebalance(Set<String> live) {
+        View current = view;
+        ConsistentHashRing ring = new ConsistentHashRing(live, virtualNodes);
+        PartitionSet owned = ownedBy(ring);
+        PartitionSet revoked = current.owned().minus(owned);
+        PartitionSet assigned = owned.minus(current.owned());
+        view = new View(live, ring, owned, current.ready().minus(revoked));
+        for (int partition : revoked.toArray()) {
+            handoffs.remove(partition);
+        }
+        log.info("Cluster membership changed: live {} -> {}, {} partitions revoked, {} assigned",
+                current.live(), live, revoked.size(), assigned.size());
+
+        if (!revoked.isEmpty()) {
+            for (PartitionListener listener : listeners) {
+                try {
+                    listener.onPartitionsRevoked(revoked);
+                } catch (RuntimeException e) {
+                    log.error("Failed to revoke partitions in {}", listener.getClass().getSimpleName(), e);
+                }
+            }
+        }
+        if (!assigned.isEmpty()) {
+            addHandoffs(assigned, current.ring(), live);
+        }
+        PartitionSet pending = requestRelease(live);
+        PartitionSet load = assigned.minus(pending);
+        if (!load.isEmpty()) {
+            assign(load);
+        }
+    }
+
+    /**
+     * 担当になったパーティションの読み込み（失敗した場合は ready に含めず、次回のハートビートで再試行する）
+     */
+    private void assign(PartitionSet partitions) {
+        for (PartitionListener listener : listeners) {
+            try {
+                listener.onPartitionsAssigned(partitions);
+            } catch (RuntimeException e) {
+                log.error("Failed to load partitions in {}, will retry", listener.getClass().getSimpleName(), e);
+                return;
+            }
+        }
+        View current = view;
+        view = new View(current.live(), current.ring(), current.owned(),
+                current.ready().union(partitions));
+    }
+
+    /**
+     * 前の担当ノード（previous で決まる持ち主）のうち生存しているものを解放の確認待ちに加える
+     *
+     * 前の担当ノードが停止している場合は、そのノードが書き戻していない変更は引き継げない。
+     */
+    private void addHandoffs(PartitionSet partitions, ConsistentHashRing previous, Set<String> live) {
+        for (int partition : partitions.toArray()) {
+            String owner = previous.ownerOf(partition);
+            if (!owner.equals(nodeId) && live.contains(owner)) {
+                handoffs.put(partition, owner);
+            }
+        }
+    }
+
+    /**
+     * 解放の確認待ちのパーティションを前の担当ノードごとに依頼する（離脱したノードの分は待たない）
+     *
+     * @return 解放を確認できなかったパーティション
+     */
+    private PartitionSet requestRelease(Set<String> live) {
+        Map<String, List<Integer>> byOwner = new HashMap<>();
+        for (Iterator<Map.Entry<Integer, String>> it = handoffs.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, String> handoff = it.next();
+            if (live.contains(handoff.getValue())) {
+                byOwner.computeIfAbsent(handoff.getValue(), k -> new ArrayList<>()).add(handoff.getKey());
+            } else {
+                it.remove();
+            }
+        }
+        byOwner.forEach((owner, owned) -> {
+            List<Integer> retained = sendRelease(owner, owned);
+            owned.removeAll(retained);
+            owned.forEach(handoffs::remove);
+        });
+        BitSet pending = new BitSet(partitionCount);
+        handoffs.keySet().forEach(pending::set);
+        return new PartitionSet(pending, partitionCount);
+    }
+
+    /**
+     * 1ノードへの解放依頼
+     *
+     * @return 解放されなかったパーティション（エラー・接続不可の場合は依頼した全件）
+     */
+    private List<Integer> sendRelease(String owner, List<Integer> partitions) {
+        String query = partitions.stream().map(String::valueOf).collect(Collectors.joining(","));
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create(members.get(owner).url() + "/api/cluster/release?partitions=" + query))
+                .timeout(timeout)
+                .header(NODE_HEADER, nodeId)
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        try {
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                log.warn("Node {} failed to release {} partitions: HTTP {}",
+                        owner, partitions.size(), response.statusCode());
+                return partitions;
+            }
+            ApiResponse<List<Integer>> body = objectMapper.readValue(response.body(),
+                    new TypeReference<ApiResponse<List<Integer>>>() {
+                    });
+            List<Integer> retained = body.getData() != null ? body.getData() : partitions;
+            if (retained.isEmpty()) {
+                log.info("Node {} released {} partitions", owner, partitions.size());
+            } else {
+                log.warn("Node {} still owns {} of {} partitions, will retry", owner, retained.size(), partitions.size());
+            }
+            return retained;
+        } catch (IOException e) {
+            log.warn("Node {} unreachable for release of {} partitions: {}", owner, partitions.size(), e.getMessage());
+            return partitions;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return partitions;
+        }
+    }
+
+    private PartitionSet ownedBy(ConsistentHashRing ring) {
+        BitSet owned = new BitSet(partitionCount);
+        for (int p = 0; p < partitionCount; p++) {
+            if (ring.ownerOf(p).equals(nodeId)) {
+                owned.set(p);
+            }
+        }
+        return new PartitionSet(owned, partitionCount);
+    }
+}
@@ -0,0 +1,20 @@
+package com.oms.api.cluster;
+
+/**
+ * クラスタのメンバー（ノードIDと API のベース URL）
+ */
+public record ClusterNode(String id, String url) {
+
+    /**
+     * "node-a=http://localhost:8080" 形式の設定値から作成
+     */
+    static ClusterNode parse(String spec) {
+        int separator = spec.indexOf('=');
+        if (separator <= 0 || separator == spec.length() - 1) {
+            throw new IllegalArgumentException("Cluster member must be id=url: " + spec);
+        }
+        String url = spec.substring(separator + 1).trim();
+        return new ClusterNode(spec.substring(0, separator).trim(),
+                url.endsWith("/") ? url.substring(0, url.length() - 1) : url);
+    }
+}
@@ -0,0 +1,237 @@
+package com.oms.api.cluster;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.api.controller.OrderController;
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * クラスタモードの要求の振り分け
+ *
+ * ユーザー単位の API（発注・修正・取消・一覧・ポジション・リスク限度）は、対象ユーザーの担当ノードでなければ
+ * 担当ノードにそのまま転送して応答を中継する。修正・取消は注文IDから注文のユーザーを引く。
+ * 転送は1回だけ行い、転送された要求を受けたノードが担当でない場合（メンバーの見え方の不一致）や
+ * 引き継ぎ中のパーティションの要求は 503 を返してクライアントに再試行させる。
+ * 送信後に応答がタイムアウトした更新系の要求は、担当ノードで処理された可能性があるため 504 を返し再試行させない。
+ * ユーザーを指定しない一覧・エクスポートは受けたノードで DB から返す。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.cluster.enabled", havingValue = "true")
+@Slf4j
+public class ClusterRoutingFilter extends OncePerRequestFilter {
+
+    private static final Pattern ORDER_PATH = Pattern.compile("^/api/orders/(\\d+)$");
+    private static final Pattern RISK_USER_PATH = Pattern.compile("^/api/risk/users/(\\d+)$");
+
+    private final ClusterMembership membership;
+    private final OrderRepository orderRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration forwardTimeout;
+    private final HttpClient httpClient;
+    private final Counter forwarded;
+
+    public ClusterRoutingFilter(
+            ClusterMembership membership,
+            OrderRepository orderRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry registry,
+            @Value("${oms.cluster.timeout-ms:2000}") long connectTimeoutMs,
+            @Value("${oms.cluster.forward-timeout-ms:30000}") long forwardTimeoutMs) {
+        this.membership = membership;
+        this.orderRepository = orderRepository;
+        this.objectMapper = objectMapper;
+        this.forwardTimeout = Duration.ofMillis(forwardTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        this.forwarded = Counter.builder("oms.cluster.forwarded")
+                .description("Requests forwarded to the owner node")
+                .register(registry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return !uri.startsWith("/api/") || uri.startsWith("/api/cluster/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        if (uri.equals("/api/orders/mass-cancel") && request.getParameter("userId") == null) {
+            // 担当外のユーザーの注文を取り消すと、担当ノードの拘束・読み取りモデルに反映されない
+            error(response, HttpStatus.BAD_REQUEST, "クラスタモードの一括取消は userId の指定が必要です");
+            return;
+        }
+        Long userId = routingUser(request, uri);
+        if (userId == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        ClusterNode owner = membership.ownerOf(userId);
+        if (owner.id().equals(membership.self().id())) {
+            if (membership.isReady(userId)) {
+                chain.doFilter(request, response);
+            } else {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                error(response, HttpStatus.SERVICE_UNAVAILABLE, "担当パーティションの引き継ぎ中です。再試行してください");
+            }
+            return;
+        }
+        String from = request.getHeader(ClusterMembership.NODE_HEADER);
+        if (from != null) {
+            log.warn("Request for user {} forwarded by {} but owned by {}", userId, from, owner.id());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "担当ノードが確定していません。再試行してください");
+            return;
+        }
+        forward(request, response, owner);
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 振り分けに使うユーザーID（ユーザー単位の API でなければ null）
+     */
+    private Long routingUser(HttpServletRequest request, String uri) {
+        String method = request.getMethod();
+        if (uri.equals("/api/orders") || uri.equals("/api/orders/batch")) {
+            String userId = request.getParameter("userId");
+            if (userId == null && "POST".equals(method)) {
+                // 発注 API の userId の既定値
+                return 1L;
+            }
+            return parse(userId);
+        }
+        if (uri.startsWith("/api/orders/") || uri.equals("/api/positions")) {
+            Matcher order = ORDER_PATH.matcher(uri);
+            if (order.matches()) {
+                if ("GET".equals(method)) {
+                    // 詳細は DB から読めるため受けたノードで返す
+                    return null;
+                }
+                Long orderId = parse(order.group(1));
+                return orderId == null ? null : orderRepository.findUserIdByOrderId(orderId).orElse(null);
+            }
+            return parse(request.getParameter("userId"));
+        }
+        Matcher risk = RISK_USER_PATH.matcher(uri);
+        if (risk.matches()) {
+            return parse(risk.group(1));
+        }
+        return null;
+    }
+
+    private void forward(HttpServletRequest request, HttpServletResponse response, ClusterNode owner)
+            throws IOException {
+        String query = request.getQueryString();
+        URI target = URI.create(owner.url() + request.getRequestURI() + (query != null ? "?" + query : ""));
+        byte[] body = request.getInputStream().readAllBytes();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(target)
+                .timeout(forwardTimeout)
+                .header(ClusterMembership.NODE_HEADER, membership.self().id())
+                .method(request.getMethod(), body.length == 0
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofByteArray(body));
+        if (request.getContentType() != null) {
+            builder.header(HttpHeaders.CONTENT_TYPE, request.getContentType());
+        }
+        if (request.getHeader(HttpHeaders.ACCEPT) != null) {
+            builder.header(HttpHeaders.ACCEPT, request.getHeader(HttpHeaders.ACCEPT));
+        }
+
+        HttpResponse<InputStream> reply;
+        try {
+            reply = httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (HttpTimeoutException e) {
+            if (!(e instanceof HttpConnectTimeoutException) && !isIdempotent(request.getMethod())) {
+                // 送信済みのため担当ノードで処理された可能性がある。再試行を促さず、ノードの障害とも数えない
+                log.warn("Timed out forwarding {} {} to {}", request.getMethod(), target, owner.id());
+                error(response, HttpStatus.GATEWAY_TIMEOUT,
+                        "担当ノード " + owner.id() + " の応答がタイムアウトしました。処理結果を照会してください");
+                return;
+            }
+            log.warn("Failed to forward {} {} to {}: {}", request.getMethod(), target, owner.id(), e.getMessage());
+            membership.reportFailure(owner.id());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "担当ノード " + owner.id() + " に転送できません");
+            return;
+        } catch (IOException e) {
+            log.warn("Failed to forward {} {} to {}: {}", request.getMethod(), target, owner.id(), e.getMessage());
+            membership.reportFailure(owner.id());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "担当ノード " + owner.id() + " に転送できません");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error(response, HttpStatus.SERVICE_UNAVAILABLE, "担当ノード " + owner.id() + " への転送が中断されました");
+            return;
+        }
+        forwarded.increment();
+        response.setStatus(reply.statusCode());
+        reply.headers().firstValue(HttpHeaders.CONTENT_TYPE).ifPresent(response::setContentType);
+        reply.headers().firstValue(HttpHeaders.RETRY_AFTER)
+                .ifPresent(value -> response.setHeader(HttpHeaders.RETRY_AFTER, value));
+        reply.headers().firstValue(OrderController.NEXT_CURSOR_HEADER)
+                .ifPresent(value -> response.setHeader(OrderController.NEXT_CURSOR_HEADER, value));
+        try (InputStream in = reply.body()) {
+            // エクスポート（NDJSON）も受け取った分から中継する
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    /**
+     * 再送しても結果が変わらないメソッド（タイムアウト時に再試行させてよい）
+     */
+    private static boolean isIdempotent(String method) {
+        return "GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method);
+    }
+
+    private void error(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static Long parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            // 不正な値はコントローラーで 400 にする
+            return null;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.oms.api.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * パーティションをノードに割り当てるコンシステントハッシュのリング（不変）
+ *
+ * ユーザーIDは固定数のパーティションに振り分け、パーティションをリング上の位置から時計回りで
+ * 最初の仮想ノードの持ち主に割り当てる。ノードの増減で持ち主が変わるのは、
+ * 増減したノードの仮想ノードに隣接する区間のパーティションだけになる。
+ * 同じノードID集合からは常に同じ割り当てが得られるため、各ノードが独立に計算しても一致する。
+ */
+public final class ConsistentHashRing {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    /** 仮想ノードの位置（昇順） */
+    private final long[] points;
+    private final String[] owners;
+
+    public ConsistentHashRing(Collection<String> nodeIds, int virtualNodes) {
+        if (nodeIds.isEmpty() || virtualNodes <= 0) {
+            throw new IllegalArgumentException("Ring needs at least one node and one virtual node");
+        }
+        // 位置が衝突した場合も結果が決まるよう、ノードIDの順に並べてから配置する
+        List<String> ids = nodeIds.stream().sorted().toList();
+        long[][] entries = new long[ids.size() * virtualNodes][];
+        int n = 0;
+        for (int node = 0; node < ids.size(); node++) {
+            long base = fnv1a(ids.get(node));
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[]{mix(base + v * GOLDEN), node};
+            }
+        }
+        Arrays.sort(entries, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+        points = new long[entries.length];
+        owners = new String[entries.length];
+        for (int i = 0; i < entries.length; i++) {
+            points[i] = entries[i][0];
+            owners[i] = ids.get((int) entries[i][1]);
+        }
+    }
+
+    /**
+     * ユーザーIDのパーティション
+     */
+    public static int partitionOf(long userId, int partitionCount) {
+        return (int) Long.remainderUnsigned(mix(userId), partitionCount);
+    }
+
+    /**
+     * パーティションの持ち主のノードID
+     */
+    public String ownerOf(int partition) {
+        long point = mix((partition + 1L) * GOLDEN);
+        int index = Arrays.binarySearch(points, point);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return owners[index == points.length ? 0 : index];
+    }
+
+    // ===== Private Methods =====
+
+    private static long fnv1a(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * 64bit の攪拌（MurmurHash3 の fmix64）
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.oms.api.cluster;
+
+/**
+ * ユーザー単位のメモリ上の状態を持つコンポーネントのパーティション引き継ぎ
+ *
+ * クラスタモードでは各コンポーネントは担当パーティションのユーザーの状態だけを保持する。
+ * 通知は ClusterMembership のスレッドから同期的に行い、assigned の完了まで
+ * 該当パーティションへの要求は受け付けない（503）。
+ */
+public interface PartitionListener {
+
+    /**
+     * 担当になったパーティションのユーザーの状態を DB から読み込む（前の担当ノードの書き戻し後に呼ばれる）
+     */
+    void onPartitionsAssigned(PartitionSet partitions);
+
+    /**
+     * 担当でなくなったパーティションのユーザーの状態を書き戻して破棄する
+     */
+    void onPartitionsRevoked(PartitionSet partitions);
+}
@@ -0,0 +1,70 @@
+package com.oms.api.cluster;
+
+import java.util.BitSet;
+import java.util.function.LongPredicate;
+
+/**
+ * パーティション番号の集合（不変）
+ *
+ * ユーザーIDがどのパーティションに属するかは partitionCount から決まるため、
+ * containsUser で「このユーザーの状態が引き継ぎ対象か」を判定できる。
+ */
+public final class PartitionSet implements LongPredicate {
+
+    private final BitSet partitions;
+    private final int partitionCount;
+
+    PartitionSet(BitSet partitions, int partitionCount) {
+        this.partitions = (BitSet) partitions.clone();
+        this.partitionCount = partitionCount;
+    }
+
+    public static PartitionSet empty(int partitionCount) {
+        return new PartitionSet(new BitSet(partitionCount), partitionCount);
+    }
+
+    public boolean contains(int partition) {
+        return partitions.get(partition);
+    }
+
+    public boolean containsUser(long userId) {
+        return partitions.get(ConsistentHashRing.partitionOf(userId, partitionCount));
+    }
+
+    /**
+     * ユーザーの絞り込み条件として使う（containsUser と同じ）
+     */
+    @Override
+    public boolean test(long userId) {
+        return containsUser(userId);
+    }
+
+    public boolean isEmpty() {
+        return partitions.isEmpty();
+    }
+
+    public int size() {
+        return partitions.cardinality();
+    }
+
+    public int[] toArray() {
+        return partitions.stream().toArray();
+    }
+
+    public PartitionSet union(PartitionSet other) {
+        BitSet result = (BitSet) partitions.clone();
+        result.or(other.partitions);
+        return new PartitionSet(result, partitionCount);
+    }
+
+    public PartitionSet minus(PartitionSet other) {
+        BitSet result = (BitSet) partitions.clone();
+        result.andNot(other.partitions);
+        return new PartitionSet(result, partitionCount);
+    }
+
+    @Override
+    public String toString() {
+        return partitions.toString();
+    }
+}
@@ -0,0 +1,76 @@
+package com.oms.api.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.api.dto.ApiResponse;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API の同時実行数制限（仮想スレッドモード用）
+ *
+ * 仮想スレッドではリクエストごとにスレッドが作られ、Tomcat のスレッド数上限が効かなくなるため、
+ * /api/** の同時実行数をセマフォで制限して DB 接続プールへの殺到を防ぐ。
+ * 待ち時間内に許可を得られなかったリクエストは 503 を返す。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.concurrency.max-in-flight")
+@Slf4j
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Semaphore permits;
+    private final long acquireTimeoutMs;
+    private final ObjectMapper objectMapper;
+
+    public ConcurrencyLimitFilter(
+            @Value("${oms.concurrency.max-in-flight}") int maxInFlight,
+            @Value("${oms.concurrency.acquire-timeout-ms:2000}") long acquireTimeoutMs,
+            ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxInFlight);
+        this.acquireTimeoutMs = acquireTimeoutMs;
+        this.objectMapper = objectMapper;
+        log.info("API concurrency limit: {} in-flight requests", maxInFlight);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding("UTF-8");
+            objectMapper.writeValue(response.getOutputStream(),
+                    ApiResponse.error("リクエストが混雑しています。時間をおいて再試行してください"));
+            return;
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            permits.release();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package com.oms.api.config;
+
+import com.oms.api.journal.OrderJournal;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 注文ジャーナル設定
+ *
+ * oms.journal.dir 配下にセグメントファイル（oms.journal.segment-size-mb ごと）を作成する。
+ * ディレクトリはローカルディスク上に置くこと（fsync の遅いネットワークストレージは避ける）。
+ */
+@Configuration
+@ConditionalOnProperty(name = "oms.journal.enabled", havingValue = "true")
+public class JournalConfig {
+
+    @Bean(destroyMethod = "close")
+    public OrderJournal orderJournal(
+            @Value("${oms.journal.dir:./data/journal}") String directory,
+            @Value("${oms.journal.segment-size-mb:64}") int segmentSizeMb) throws IOException {
+        return OrderJournal.open(Path.of(directory), segmentSizeMb * 1024 * 1024);
+    }
+}
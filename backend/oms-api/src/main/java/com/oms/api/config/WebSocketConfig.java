@@ -0,0 +1,43 @@
+package com.oms.api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+/**
+ * WebSocket（STOMP）設定
+ *
+ * クライアントは /ws に接続し、/topic/users/{userId}/orders・/topic/users/{userId}/executions を購読する。
+ * 送信が詰まったセッション（送信時間・バッファ上限超過）は切断され、再接続時にスナップショットで再同期する。
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Value("${oms.push.send-time-limit-ms:10000}")
+    private int sendTimeLimit;
+
+    @Value("${oms.push.send-buffer-size-limit:524288}")
+    private int sendBufferSizeLimit;
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        registry.addEndpoint("/ws").setAllowedOriginPatterns("http://localhost:*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimit);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
+}
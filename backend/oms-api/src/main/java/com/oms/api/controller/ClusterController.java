@@ -0,0 +1,66 @@
+package com.oms.api.controller;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.ClusterNode;
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.ClusterOwnerDto;
+import com.oms.api.dto.ClusterStatusDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * クラスタAPI コントローラー
+ *
+ * エンドポイント:
+ * - GET  /api/cluster/status             : メンバーの生存状態と担当パーティション数（ハートビート兼用）
+ * - GET  /api/cluster/owner?userId=      : ユーザーの担当ノード（WebSocket の接続先）
+ * - POST /api/cluster/release?partitions= : パーティションの解放依頼（ノード間の引き継ぎ用）
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@ConditionalOnProperty(name = "oms.cluster.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Cluster", description = "クラスタAPI")
+public class ClusterController {
+
+    private final ClusterMembership membership;
+
+    @GetMapping("/status")
+    @Operation(summary = "クラスタ状態取得", description = "このノードから見たメンバーの生存状態と担当パーティション数を取得します")
+    public ResponseEntity<ApiResponse<ClusterStatusDto>> getStatus(
+            @RequestHeader(name = ClusterMembership.NODE_HEADER, required = false) String from) {
+        membership.touch(from);
+        return ResponseEntity.ok(ApiResponse.success(membership.status()));
+    }
+
+    @GetMapping("/owner")
+    @Operation(summary = "担当ノード取得", description = "ユーザーの注文・ポジションを担当するノードを取得します")
+    public ResponseEntity<ApiResponse<ClusterOwnerDto>> getOwner(@RequestParam Long userId) {
+        ClusterNode owner = membership.ownerOf(userId);
+        return ResponseEntity.ok(ApiResponse.success(
+                new ClusterOwnerDto(userId, membership.partitionOf(userId), owner.id(), owner.url())));
+    }
+
+    @PostMapping("/release")
+    @Operation(summary = "パーティション解放", description = "担当でなくなったパーティションの状態を書き戻して破棄します（ノード間の引き継ぎ用）")
+    public ResponseEntity<ApiResponse<List<Integer>>> release(
+            @RequestHeader(ClusterMembership.NODE_HEADER) String from,
+            @RequestParam List<Integer> partitions) {
+        log.info("POST /api/cluster/release - from: {}, partitions: {}", from, partitions.size());
+        try {
+            int[] retained = membership.release(from, partitions.stream().mapToInt(Integer::intValue).toArray());
+            return ResponseEntity.ok(ApiResponse.success(Arrays.stream(retained).boxed().toList()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.oms.api.controller;
+
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.EodRunDto;
+import com.oms.api.eod.EodPnlJob;
+import com.oms.api.model.EodRunStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+
+/**
+ * 日次損益バッチAPI コントローラー
+ *
+ * エンドポイント:
+ * - POST /api/eod/pnl?tradeDate=      : 日次損益バッチの実行（完了まで待つ）
+ * - GET  /api/eod/pnl/{tradeDate}     : 実行状況の取得
+ */
+@RestController
+@RequestMapping("/api/eod")
+@ConditionalOnProperty(name = "oms.eod.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "EOD", description = "日次損益バッチAPI")
+public class EodController {
+
+    private final EodPnlJob eodPnlJob;
+
+    @PostMapping("/pnl")
+    @Operation(summary = "日次損益バッチ実行", description = "取引日の約定から取引履歴（金額・純額・実現損益）を作成します。未完了の実行はチェックポイントから再開し、完了済みは force=true の場合だけやり直します")
+    public ResponseEntity<ApiResponse<EodRunDto>> run(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate tradeDate,
+            @RequestParam(defaultValue = "false") boolean force) {
+        log.info("POST /api/eod/pnl - tradeDate: {}, force: {}", tradeDate, force);
+        try {
+            EodRunDto run = eodPnlJob.run(tradeDate, force);
+            if (run.getStatus() == EodRunStatus.FAILED) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.error("日次損益バッチが失敗しました（再実行でチェックポイントから再開します）: "
+                                + run.getErrorMessage()));
+            }
+            return ResponseEntity.ok(ApiResponse.success(run));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error("日次損益バッチは実行中です"));
+        }
+    }
+
+    @GetMapping("/pnl/{tradeDate}")
+    @Operation(summary = "日次損益バッチ状況取得", description = "取引日の実行状況（状態・チェックポイント・件数）を取得します")
+    public ResponseEntity<ApiResponse<EodRunDto>> getRun(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate tradeDate) {
+        EodRunDto run = eodPnlJob.getRun(tradeDate);
+        if (run == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(ApiResponse.error("実行記録が見つかりません"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(run));
+    }
+}
@@ -0,0 +1,106 @@
+package com.oms.api.controller;
+
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.MarketBarDto;
+import com.oms.api.dto.MarketStatsDto;
+import com.oms.api.dto.MarketTickDto;
+import com.oms.api.marketdata.MarketDataService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 市場データAPI コントローラー
+ *
+ * エンドポイント:
+ * - POST /api/market-data/ticks               : ティックの一括取り込み
+ * - POST /api/market-data/bars                : 日足の一括取り込み
+ * - GET  /api/market-data/{securityId}/ticks  : 期間のティック取得
+ * - GET  /api/market-data/{securityId}/stats  : 期間の集計（VWAP・高値・安値）
+ * - GET  /api/market-data/{securityId}/bars   : 期間の日足取得
+ */
+@RestController
+@RequestMapping("/api/market-data")
+@ConditionalOnProperty(name = "oms.marketdata.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "MarketData", description = "市場データAPI")
+public class MarketDataController {
+
+    private static final int MAX_TICKS = 10000;
+
+    private final MarketDataService marketDataService;
+
+    @PostMapping("/ticks")
+    @Operation(summary = "ティック取り込み", description = "ティックを取り込み、該当銘柄のポジションを値洗いします")
+    public ResponseEntity<ApiResponse<Integer>> ingestTicks(@RequestBody List<MarketTickDto> ticks) {
+        log.debug("POST /api/market-data/ticks - count: {}", ticks.size());
+        try {
+            return ResponseEntity.ok(ApiResponse.success(marketDataService.onTicks(ticks)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/bars")
+    @Operation(summary = "日足取り込み", description = "日足を取り込みます（当日分はメモリ上の当日足を置き換えます）")
+    public ResponseEntity<ApiResponse<Integer>> ingestBars(@RequestBody List<MarketBarDto> bars) {
+        log.info("POST /api/market-data/bars - count: {}", bars.size());
+        try {
+            return ResponseEntity.ok(ApiResponse.success(marketDataService.onBars(bars)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+        }
+    }
+
+    @GetMapping("/{securityId}/ticks")
+    @Operation(summary = "ティック取得", description = "期間 [from, to) のティックを時刻順に取得します（直近の保持分のみ）")
+    public ResponseEntity<ApiResponse<List<MarketTickDto>>> getTicks(
+            @PathVariable Long securityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "1000") int limit) {
+        if (limit <= 0 || limit > MAX_TICKS) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(ApiResponse.error("limit は 1〜" + MAX_TICKS + " で指定してください"));
+        }
+        return ResponseEntity.ok(ApiResponse.success(marketDataService.getTicks(securityId, from, to, limit)));
+    }
+
+    @GetMapping("/{securityId}/stats")
+    @Operation(summary = "期間集計", description = "期間 [from, to) の VWAP・高値・安値・出来高を集計します。windowSeconds 指定時は直近の指定秒数が対象です")
+    public ResponseEntity<ApiResponse<MarketStatsDto>> getStats(
+            @PathVariable Long securityId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long windowSeconds) {
+        if (windowSeconds != null) {
+            if (windowSeconds <= 0) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body(ApiResponse.error("windowSeconds は正の値で指定してください"));
+            }
+            to = null;
+            from = LocalDateTime.now().minusSeconds(windowSeconds);
+        }
+        return ResponseEntity.ok(ApiResponse.success(marketDataService.getStats(securityId, from, to)));
+    }
+
+    @GetMapping("/{securityId}/bars")
+    @Operation(summary = "日足取得", description = "期間の日足を取得します（当日足は未書き戻しでも含みます）")
+    public ResponseEntity<ApiResponse<List<MarketBarDto>>> getBars(
+            @PathVariable Long securityId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return ResponseEntity.ok(ApiResponse.success(marketDataService.getBars(securityId, from, to)));
+    }
+}
@@ -0,0 +1,39 @@
+package com.oms.api.controller;
+
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.OrderBookDto;
+import com.oms.api.orderbook.OrderBookManager;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 板情報API コントローラー
+ *
+ * エンドポイント:
+ * - GET /api/orderbook/{securityId} : 板情報取得（最良気配 + 上位N段）
+ */
+@RestController
+@RequestMapping("/api/orderbook")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "OrderBook", description = "板情報API")
+public class OrderBookController {
+
+    private final OrderBookManager orderBookManager;
+
+    /**
+     * 板情報取得
+     */
+    @GetMapping("/{securityId}")
+    @Operation(summary = "板情報取得", description = "指定銘柄の最良気配と上位N段の気配を取得します")
+    public ResponseEntity<ApiResponse<OrderBookDto>> getOrderBook(
+            @PathVariable Long securityId,
+            @RequestParam(required = false, defaultValue = "10") int depth) {
+        log.debug("GET /api/orderbook/{} - depth: {}", securityId, depth);
+        return ResponseEntity.ok(ApiResponse.success(orderBookManager.getOrderBook(securityId, depth)));
+    }
+}
@@ -1,31 +1,53 @@
 package com.oms.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oms.api.dto.*;
+import com.oms.api.journal.JournalNotAppliedException;
+import com.oms.api.metrics.OrderMetrics;
+import com.oms.api.metrics.OrderMetrics.Stage;
 import com.oms.api.model.OrderStatus;
+import com.oms.api.push.OrderPushService;
+import com.oms.api.service.MassCancelService;
+import com.oms.api.service.OrderConflictException;
 import com.oms.api.service.OrderService;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * 発注API コントローラー
  *
  * エンドポイント:
  * - POST   /api/orders           : 新規発注
+ * - POST   /api/orders/batch     : 一括発注（バスケット・プログラム売買）
  * - GET    /api/orders           : 発注一覧取得（フィルター可）
+ * - GET    /api/orders/page      : 発注一覧ページ取得（キーセットページング）
+ * - GET    /api/orders/export    : 発注エクスポート（NDJSON）
  * - GET    /api/orders/{id}      : 発注詳細取得
  * - PUT    /api/orders/{id}      : 発注修正
  * - DELETE /api/orders/{id}      : 発注取消
+ * - POST   /api/orders/mass-cancel : 一括取消（ユーザー・銘柄・検索条件指定）
  * - GET    /api/orders/active    : アクティブな発注一覧
+ * - GET    /api/orders/snapshot  : 再同期用スナップショット（配信連番 + アクティブ注文）
  */
 @RestController
 @RequestMapping("/api/orders")
@@ -34,7 +56,15 @@ import java.util.List;
 @Tag(name = "Order", description = "発注管理API")
 public class OrderController {
 
+    private static final String NDJSON = "application/x-ndjson";
+    /** 一覧が先頭ページで打ち切られた場合の次ページのカーソル（/page の cursor に指定する） */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final OrderService orderService;
+    private final MassCancelService massCancelService;
+    private final OrderPushService orderPushService;
+    private final OrderMetrics orderMetrics;
+    private final ObjectMapper objectMapper;
 
     /**
      * 新規発注
@@ -57,7 +87,7 @@ public class OrderController {
             @Valid @RequestBody CreateOrderDto dto) {
         try {
             log.info("POST /api/orders - userId: {}", userId);
-            OrderDto order = orderService.createOrder(userId, dto);
+            OrderDto order = timed(Stage.CREATE, () -> orderService.createOrder(userId, dto));
             return ResponseEntity.status(HttpStatus.CREATED)
                     .body(ApiResponse.success(order, "発注が完了しました"));
         } catch (IllegalArgumentException e) {
@@ -71,6 +101,42 @@ public class OrderController {
         }
     }
 
+    /**
+     * 一括発注
+     *
+     * 明細ごとにバリデーション結果を返す。不合格の明細は登録されず、合格分のみ登録される。
+     */
+    @PostMapping("/batch")
+    @Operation(summary = "一括発注", description = "複数の注文を1トランザクションで一括作成します")
+    public ResponseEntity<ApiResponse<BatchOrderResultDto>> createOrders(
+            @RequestParam(required = false, defaultValue = "1") Long userId,
+            @RequestBody List<CreateOrderDto> dtos) {
+        try {
+            log.info("POST /api/orders/batch - userId: {}, count: {}", userId, dtos.size());
+            BatchOrderResultDto result = orderService.createOrders(userId, dtos);
+
+            List<String> errors = new ArrayList<>();
+            for (BatchOrderItemResultDto item : result.getResults()) {
+                if (!item.isSuccess()) {
+                    errors.add("[" + item.getIndex() + "] " + String.join(", ", item.getErrors()));
+                }
+            }
+            String message = String.format("%d件中%d件の発注が完了しました",
+                    result.getTotalCount(), result.getSuccessCount());
+            HttpStatus status = result.getSuccessCount() > 0 ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status)
+                    .body(ApiResponse.of(result.getFailureCount() == 0, result, message, errors.isEmpty() ? null : errors));
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error creating batch orders", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("一括発注処理中にエラーが発生しました"));
+        }
+    }
+
     /**
      * 発注詳細取得
      */
@@ -81,6 +147,8 @@ public class OrderController {
             log.info("GET /api/orders/{}", id);
             OrderDto order = orderService.getOrderById(id);
             return ResponseEntity.ok(ApiResponse.success(order));
+        } catch (JournalNotAppliedException e) {
+            return notYetApplied(e);
         } catch (RuntimeException e) {
             log.error("Order not found: {}", id);
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
@@ -97,34 +165,32 @@ public class OrderController {
      * - statuses: ステータス（カンマ区切り）
      * - startDate: 開始日時
      * - endDate: 終了日時
+     * - limit: 最大件数（省略時はデフォルトページサイズ）
+     *
+     * 先頭ページのみを返す。続きがある場合は X-Next-Cursor ヘッダーに次ページのカーソルを返すので、
+     * 全件が必要な場合はそれを /page の cursor に指定して辿るか /export を利用する。
      */
     @GetMapping
-    @Operation(summary = "発注一覧取得", description = "フィルター条件に合致する注文一覧を取得します")
+    @Operation(summary = "発注一覧取得", description = "フィルター条件に合致する注文一覧の先頭ページを取得します。続きがある場合は X-Next-Cursor ヘッダーのカーソルで /page から取得します")
     public ResponseEntity<ApiResponse<List<OrderDto>>> getOrders(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) Long securityId,
             @RequestParam(required = false) List<OrderStatus> statuses,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Integer limit) {
         try {
             log.info("GET /api/orders - userId: {}, filters: securityId={}, statuses={}, dates={}-{}",
                     userId, securityId, statuses, startDate, endDate);
 
-            List<OrderDto> orders;
-            if (userId != null) {
-                if (securityId != null || statuses != null || startDate != null || endDate != null) {
-                    // フィルター検索
-                    orders = orderService.findOrdersByFilters(userId, securityId, statuses, startDate, endDate);
-                } else {
-                    // 全件取得
-                    orders = orderService.getOrdersByUserId(userId);
-                }
-            } else {
-                // userId指定なしの場合は全ユーザーの注文を取得
-                orders = orderService.getAllOrders();
+            OrderSearchCriteria criteria = new OrderSearchCriteria(userId, securityId, statuses, startDate, endDate);
+            OrderPageDto page = fetchPage(criteria, null, limit);
+            if (page.isHasMore()) {
+                return ResponseEntity.ok()
+                        .header(NEXT_CURSOR_HEADER, page.getNextCursor())
+                        .body(ApiResponse.success(page.getItems()));
             }
-
-            return ResponseEntity.ok(ApiResponse.success(orders));
+            return ResponseEntity.ok(ApiResponse.success(page.getItems()));
         } catch (Exception e) {
             log.error("Error fetching orders", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -132,6 +198,70 @@ public class OrderController {
         }
     }
 
+    /**
+     * 発注一覧ページ取得（キーセットページング）
+     *
+     * レスポンスの nextCursor を cursor に指定すると次ページを取得できる。
+     */
+    @GetMapping("/page")
+    @Operation(summary = "発注一覧ページ取得", description = "カーソル指定で注文一覧をページ単位に取得します")
+    public ResponseEntity<ApiResponse<OrderPageDto>> getOrderPage(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long securityId,
+            @RequestParam(required = false) List<OrderStatus> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            log.info("GET /api/orders/page - userId: {}, cursor: {}, limit: {}", userId, cursor, limit);
+            OrderSearchCriteria criteria = new OrderSearchCriteria(userId, securityId, statuses, startDate, endDate);
+            return ResponseEntity.ok(ApiResponse.success(fetchPage(criteria, cursor, limit)));
+        } catch (IllegalArgumentException e) {
+            log.error("Validation error: {}", e.getMessage());
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error fetching order page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("注文一覧取得中にエラーが発生しました"));
+        }
+    }
+
+    /**
+     * 発注エクスポート（NDJSON ストリーミング）
+     *
+     * 1行1注文の JSON を逐次書き出す。件数に関わらずサーバーのメモリ使用量は一定。
+     */
+    @GetMapping(value = "/export", produces = NDJSON)
+    @Operation(summary = "発注エクスポート", description = "フィルター条件に合致する注文を NDJSON でストリーミング出力します")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long securityId,
+            @RequestParam(required = false) List<OrderStatus> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        log.info("GET /api/orders/export - userId: {}, filters: securityId={}, statuses={}, dates={}-{}",
+                userId, securityId, statuses, startDate, endDate);
+        OrderSearchCriteria criteria = new OrderSearchCriteria(userId, securityId, statuses, startDate, endDate);
+
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, 64 * 1024);
+            orderService.exportOrders(criteria, order -> {
+                try {
+                    out.write(objectMapper.writeValueAsBytes(order));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+
     /**
      * アクティブな発注一覧取得
      */
@@ -149,6 +279,26 @@ public class OrderController {
         }
     }
 
+    /**
+     * 再同期用スナップショット取得
+     *
+     * 連番を先に読むため、取得後に届く連番 sequence 以下のメッセージは反映済みとして破棄できる。
+     */
+    @GetMapping("/snapshot")
+    @Operation(summary = "再同期用スナップショット", description = "WebSocket 配信の現在の連番とアクティブ注文を取得します")
+    public ResponseEntity<ApiResponse<OrderSnapshotDto>> getSnapshot(@RequestParam Long userId) {
+        try {
+            log.info("GET /api/orders/snapshot - userId: {}", userId);
+            long sequence = orderPushService.currentSequence(userId);
+            List<OrderDto> orders = orderService.getActiveOrders(userId);
+            return ResponseEntity.ok(ApiResponse.success(new OrderSnapshotDto(sequence, orders)));
+        } catch (Exception e) {
+            log.error("Error fetching order snapshot", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("スナップショット取得中にエラーが発生しました"));
+        }
+    }
+
     /**
      * 発注修正
      */
@@ -159,8 +309,14 @@ public class OrderController {
             @Valid @RequestBody UpdateOrderDto dto) {
         try {
             log.info("PUT /api/orders/{}", id);
-            OrderDto order = orderService.updateOrder(id, dto);
+            OrderDto order = timed(Stage.UPDATE, () -> orderService.updateOrder(id, dto));
             return ResponseEntity.ok(ApiResponse.success(order, "注文を更新しました"));
+        } catch (OrderConflictException e) {
+            log.warn("Conflict updating order: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (JournalNotAppliedException e) {
+            return notYetApplied(e);
         } catch (RuntimeException e) {
             log.error("Error updating order: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -176,8 +332,14 @@ public class OrderController {
     public ResponseEntity<ApiResponse<OrderDto>> cancelOrder(@PathVariable Long id) {
         try {
             log.info("DELETE /api/orders/{}", id);
-            OrderDto order = orderService.cancelOrder(id);
+            OrderDto order = timed(Stage.CANCEL, () -> orderService.cancelOrder(id));
             return ResponseEntity.ok(ApiResponse.success(order, "注文を取り消しました"));
+        } catch (OrderConflictException e) {
+            log.warn("Conflict canceling order: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(ApiResponse.error(e.getMessage()));
+        } catch (JournalNotAppliedException e) {
+            return notYetApplied(e);
         } catch (RuntimeException e) {
             log.error("Error canceling order: {}", e.getMessage());
             return ResponseEntity.badRequest()
@@ -185,6 +347,82 @@ public class OrderController {
         }
     }
 
+    /**
+     * 一括取消
+     *
+     * 検索条件（/api/orders と同じ）に合致する NEW / PARTIAL の注文をまとめて取り消し、注文ごとの結果を返す。
+     * 条件を指定しない全注文の取消は all=true の指定が必要。
+     */
+    @PostMapping("/mass-cancel")
+    @Operation(summary = "一括取消", description = "条件に合致するアクティブな注文をまとめて取り消します")
+    public ResponseEntity<ApiResponse<MassCancelResultDto>> massCancel(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) Long securityId,
+            @RequestParam(required = false) List<OrderStatus> statuses,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false, defaultValue = "false") boolean all) {
+        log.warn("POST /api/orders/mass-cancel - userId: {}, filters: securityId={}, statuses={}, dates={}-{}, all={}",
+                userId, securityId, statuses, startDate, endDate, all);
+        OrderSearchCriteria criteria = new OrderSearchCriteria(userId, securityId, statuses, startDate, endDate);
+        if (userId == null && securityId == null && startDate == null && endDate == null && !all) {
+            return ResponseEntity.badRequest()
+                    .body(ApiResponse.error("取消対象の条件を指定してください（全注文の取消は all=true）"));
+        }
+        try {
+            MassCancelResultDto result = massCancelService.cancelAll(criteria);
+            if (!result.isComplete()) {
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                        .body(ApiResponse.of(false, result, result.getMessage(), null));
+            }
+            return ResponseEntity.ok(ApiResponse.success(result,
+                    String.format("%d件の注文を取り消しました", result.getCanceledCount())));
+        } catch (JournalNotAppliedException e) {
+            return notYetApplied(e);
+        } catch (Exception e) {
+            log.error("Error in mass cancel", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(ApiResponse.error("一括取消処理中にエラーが発生しました"));
+        }
+    }
+
+    /**
+     * ジャーナルのみで確定した注文の DB 登録待ち（503、再試行可）
+     */
+    private <T> ResponseEntity<ApiResponse<T>> notYetApplied(JournalNotAppliedException e) {
+        log.warn("Journaled orders not yet persisted: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ApiResponse.error("受付済みの注文の登録待ちです。再試行してください"));
+    }
+
+    /**
+     * サービス呼び出しの計測（トランザクションのコミットを含む。失敗時も記録する）
+     */
+    private <T> T timed(Stage stage, Supplier<T> call) {
+        Timer.Sample sample = orderMetrics.start();
+        try {
+            return call.get();
+        } finally {
+            orderMetrics.stop(sample, stage);
+        }
+    }
+
+    /**
+     * 検索条件に応じた一覧ページ取得
+     */
+    private OrderPageDto fetchPage(OrderSearchCriteria criteria, String cursor, Integer limit) {
+        if (criteria.getUserId() == null && !criteria.hasFilters()) {
+            // userId指定なしの場合は全ユーザーの注文を取得
+            return orderService.getAllOrders(cursor, limit);
+        }
+        if (criteria.getUserId() != null && !criteria.hasFilters()) {
+            return orderService.getOrdersByUserId(criteria.getUserId(), cursor, limit);
+        }
+        // フィルター検索
+        return orderService.findOrdersByFilters(criteria, cursor, limit);
+    }
+
     /**
      * グローバルエラーハンドラー
      */
@@ -0,0 +1,41 @@
+package com.oms.api.controller;
+
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.PositionDto;
+import com.oms.api.position.PositionService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * ポジションAPI コントローラー
+ *
+ * エンドポイント:
+ * - GET /api/positions : ポジション一覧取得（メモリ上のポジション）
+ */
+@RestController
+@RequestMapping("/api/positions")
+@ConditionalOnProperty(name = "oms.position.engine.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Position", description = "ポジションAPI")
+public class PositionController {
+
+    private final PositionService positionService;
+
+    /**
+     * ポジション一覧取得
+     */
+    @GetMapping
+    @Operation(summary = "ポジション一覧取得", description = "指定ユーザーの銘柄別ポジションを取得します")
+    public ResponseEntity<ApiResponse<List<PositionDto>>> getPositions(@RequestParam Long userId) {
+        log.debug("GET /api/positions - userId: {}", userId);
+        return ResponseEntity.ok(ApiResponse.success(positionService.getPositions(userId)));
+    }
+}
@@ -0,0 +1,67 @@
+package com.oms.api.controller;
+
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.RiskExposureDto;
+import com.oms.api.dto.SecurityRiskLimitsDto;
+import com.oms.api.dto.UserRiskLimitsDto;
+import com.oms.api.risk.RiskEngine;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 発注前リスク管理API コントローラー
+ *
+ * エンドポイント:
+ * - GET /api/risk/users/{userId}          : 限度と拘束状況の取得
+ * - PUT /api/risk/users/{userId}          : ユーザー別限度の変更
+ * - GET /api/risk/securities/{securityId} : 銘柄別限度の取得
+ * - PUT /api/risk/securities/{securityId} : 銘柄別限度の変更
+ */
+@RestController
+@RequestMapping("/api/risk")
+@ConditionalOnProperty(name = "oms.risk.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Risk", description = "発注前リスク管理API")
+public class RiskController {
+
+    private final RiskEngine riskEngine;
+
+    @GetMapping("/users/{userId}")
+    @Operation(summary = "リスク状況取得", description = "ユーザーの限度・拘束代金・銘柄別の建玉と未約定数量を取得します")
+    public ResponseEntity<ApiResponse<RiskExposureDto>> getExposure(@PathVariable Long userId) {
+        log.debug("GET /api/risk/users/{}", userId);
+        return ResponseEntity.ok(ApiResponse.success(riskEngine.getExposure(userId)));
+    }
+
+    @PutMapping("/users/{userId}")
+    @Operation(summary = "ユーザー別限度変更", description = "買付余力・1注文の上限金額・銘柄別の建玉上限を変更します（再起動で既定値に戻ります）")
+    public ResponseEntity<ApiResponse<RiskExposureDto>> updateUserLimits(
+            @PathVariable Long userId,
+            @Valid @RequestBody UserRiskLimitsDto limits) {
+        log.info("PUT /api/risk/users/{}", userId);
+        return ResponseEntity.ok(ApiResponse.success(riskEngine.updateUserLimits(userId, limits), "限度を変更しました"));
+    }
+
+    @GetMapping("/securities/{securityId}")
+    @Operation(summary = "銘柄別限度取得", description = "1注文の上限数量・値幅制限と基準価格を取得します")
+    public ResponseEntity<ApiResponse<SecurityRiskLimitsDto>> getSecurityLimits(@PathVariable Long securityId) {
+        log.debug("GET /api/risk/securities/{}", securityId);
+        return ResponseEntity.ok(ApiResponse.success(riskEngine.getSecurityLimits(securityId)));
+    }
+
+    @PutMapping("/securities/{securityId}")
+    @Operation(summary = "銘柄別限度変更", description = "1注文の上限数量・値幅制限を変更します（再起動で既定値に戻ります）")
+    public ResponseEntity<ApiResponse<SecurityRiskLimitsDto>> updateSecurityLimits(
+            @PathVariable Long securityId,
+            @Valid @RequestBody SecurityRiskLimitsDto limits) {
+        log.info("PUT /api/risk/securities/{}", securityId);
+        return ResponseEntity.ok(ApiResponse.success(riskEngine.updateSecurityLimits(securityId, limits), "限度を変更しました"));
+    }
+}
@@ -41,4 +41,13 @@ public class ApiResponse<T> {
         response.setErrors(errors);
         return response;
     }
+
+    public static <T> ApiResponse<T> of(boolean success, T data, String message, java.util.List<String> errors) {
+        ApiResponse<T> response = new ApiResponse<>();
+        response.setSuccess(success);
+        response.setData(data);
+        response.setMessage(message);
+        response.setErrors(errors);
+        return response;
+    }
 }
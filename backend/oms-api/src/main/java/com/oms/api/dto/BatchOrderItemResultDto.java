@@ -0,0 +1,31 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 一括発注の明細ごとの結果DTO
+ */
+@Data
+public class BatchOrderItemResultDto {
+    private int index;
+    private boolean success;
+    private OrderDto order;
+    private List<String> errors;
+
+    public static BatchOrderItemResultDto success(int index, OrderDto order) {
+        BatchOrderItemResultDto result = new BatchOrderItemResultDto();
+        result.setIndex(index);
+        result.setSuccess(true);
+        result.setOrder(order);
+        return result;
+    }
+
+    public static BatchOrderItemResultDto failure(int index, List<String> errors) {
+        BatchOrderItemResultDto result = new BatchOrderItemResultDto();
+        result.setIndex(index);
+        result.setSuccess(false);
+        result.setErrors(errors);
+        return result;
+    }
+}
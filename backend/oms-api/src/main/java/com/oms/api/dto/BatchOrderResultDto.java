@@ -0,0 +1,15 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 一括発注結果DTO
+ */
+@Data
+public class BatchOrderResultDto {
+    private int totalCount;
+    private int successCount;
+    private int failureCount;
+    private List<BatchOrderItemResultDto> results;
+}
@@ -0,0 +1,18 @@
+package com.oms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ユーザーの担当ノードレスポンスDTO（WebSocket の接続先の決定用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClusterOwnerDto {
+    private Long userId;
+    private int partition;
+    private String nodeId;
+    private String url;
+}
@@ -0,0 +1,32 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * クラスタの状態レスポンスDTO（応答したノードから見た状態）
+ */
+@Data
+public class ClusterStatusDto {
+    private String nodeId;
+    private int partitionCount;
+    /** 担当パーティション数 */
+    private int ownedPartitions;
+    /** 担当パーティションのうち状態の読み込みが済んだ数（残りは引き継ぎ中） */
+    private int readyPartitions;
+    private List<Member> members;
+
+    /**
+     * メンバーの生存状態
+     */
+    @Data
+    public static class Member {
+        private String nodeId;
+        private String url;
+        private boolean live;
+        /** 連続したハートビートの失敗回数 */
+        private int failures;
+        /** 担当パーティション数（生存していなければ 0） */
+        private int partitions;
+    }
+}
@@ -0,0 +1,24 @@
+package com.oms.api.dto;
+
+import com.oms.api.model.EodRunStatus;
+import lombok.Data;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日次損益バッチの実行状況DTO
+ */
+@Data
+public class EodRunDto {
+    private LocalDate tradeDate;
+    private EodRunStatus status;
+    /** このユーザーID以下は処理済み */
+    private Long checkpointUserId;
+    /** 処理済みの約定件数（前回完了日の翌日以降の再生分を含む） */
+    private Long executions;
+    /** 登録した取引履歴の件数 */
+    private Long trades;
+    private String errorMessage;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,30 @@
+package com.oms.api.dto;
+
+import com.oms.api.model.OrderSide;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 約定レスポンスDTO
+ */
+@Data
+public class ExecutionDto {
+    private Long executionId;
+    private Long orderId;
+    private Long securityId;
+    private String executionNo;
+    private BigDecimal executionPrice;
+    private BigDecimal executionQuantity;
+    private BigDecimal commission;
+    private LocalDateTime executionDate;
+    private LocalDate settlementDate;
+    private String contraBroker;
+    private String notes;
+    private LocalDateTime createdAt;
+
+    // 関連データ（発注から）
+    private Long userId;
+    private OrderSide side;
+}
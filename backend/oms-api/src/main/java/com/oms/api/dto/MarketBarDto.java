@@ -0,0 +1,38 @@
+package com.oms.api.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 市場データ（日足）DTO
+ */
+@Data
+public class MarketBarDto {
+    @NotNull(message = "銘柄IDは必須です")
+    private Long securityId;
+
+    @NotNull(message = "日付は必須です")
+    private LocalDate dataDate;
+
+    @NotNull(message = "始値は必須です")
+    @DecimalMin(value = "0.0001", message = "始値は0より大きい必要があります")
+    private BigDecimal openPrice;
+
+    @NotNull(message = "高値は必須です")
+    @DecimalMin(value = "0.0001", message = "高値は0より大きい必要があります")
+    private BigDecimal highPrice;
+
+    @NotNull(message = "安値は必須です")
+    @DecimalMin(value = "0.0001", message = "安値は0より大きい必要があります")
+    private BigDecimal lowPrice;
+
+    @NotNull(message = "終値は必須です")
+    @DecimalMin(value = "0.0001", message = "終値は0より大きい必要があります")
+    private BigDecimal closePrice;
+
+    @NotNull(message = "出来高は必須です")
+    @PositiveOrZero(message = "出来高は0以上である必要があります")
+    private Long volume;
+}
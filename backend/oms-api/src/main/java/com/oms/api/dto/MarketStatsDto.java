@@ -0,0 +1,23 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 市場データの期間集計DTO（ティック0件の場合、価格項目は null）
+ */
+@Data
+public class MarketStatsDto {
+    private Long securityId;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long tickCount;
+    private BigDecimal open;
+    private BigDecimal high;
+    private BigDecimal low;
+    private BigDecimal close;
+    private long volume;
+    /** 出来高加重平均価格 */
+    private BigDecimal vwap;
+}
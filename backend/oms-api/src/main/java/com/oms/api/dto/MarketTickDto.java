@@ -0,0 +1,25 @@
+package com.oms.api.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 市場データ（ティック）DTO（timestamp 省略時は受信時刻）
+ */
+@Data
+public class MarketTickDto {
+    @NotNull(message = "銘柄IDは必須です")
+    private Long securityId;
+
+    @NotNull(message = "価格は必須です")
+    @DecimalMin(value = "0.0001", message = "価格は0より大きい必要があります")
+    private BigDecimal price;
+
+    @NotNull(message = "出来高は必須です")
+    @PositiveOrZero(message = "出来高は0以上である必要があります")
+    private Long volume;
+
+    private LocalDateTime timestamp;
+}
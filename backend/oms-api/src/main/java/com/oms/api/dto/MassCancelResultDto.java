@@ -0,0 +1,30 @@
+package com.oms.api.dto;
+
+import com.oms.api.model.OrderStatus;
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 一括取消結果DTO
+ */
+@Data
+public class MassCancelResultDto {
+    private int canceledCount;
+    /** 全件処理できたか（途中のチャンクで失敗した場合は false。それまでのチャンクは取消済み） */
+    private boolean complete = true;
+    private String message;
+    private List<Item> results = new ArrayList<>();
+
+    /**
+     * 注文ごとの結果
+     */
+    @Data
+    public static class Item {
+        private Long orderId;
+        private String orderNo;
+        private OrderStatus previousStatus;
+        private OrderStatus status;
+        private Long version;
+    }
+}
@@ -0,0 +1,18 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 板情報DTO（最良気配 + 指定段数の気配）
+ */
+@Data
+public class OrderBookDto {
+    private Long securityId;
+    private BigDecimal bestBid;
+    private BigDecimal bestAsk;
+    private BigDecimal lastTradePrice;
+    private List<PriceLevelDto> bids;
+    private List<PriceLevelDto> asks;
+}
@@ -0,0 +1,29 @@
+package com.oms.api.dto;
+
+import com.oms.api.event.OrderEventType;
+import com.oms.api.model.OrderStatus;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 注文の差分（変化しうる項目のみ、値は変更後の絶対値）
+ */
+@Data
+public class OrderDeltaDto {
+    private Long orderId;
+    private String orderNo;
+    private OrderEventType eventType;
+    private OrderStatus status;
+    private BigDecimal quantity;
+    private BigDecimal price;
+    private BigDecimal stopPrice;
+    private BigDecimal filledQuantity;
+    private BigDecimal averagePrice;
+    private BigDecimal remainingQuantity;
+    private LocalDateTime updatedAt;
+    private Long version;
+
+    /** 新規注文のみ設定（クライアント未知の注文のため全項目を送る） */
+    private OrderDto order;
+}
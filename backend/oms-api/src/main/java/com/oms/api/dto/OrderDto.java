@@ -29,6 +29,7 @@ public class OrderDto {
     private String notes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // 関連データ（JOIN結果）
     private String securityCode;
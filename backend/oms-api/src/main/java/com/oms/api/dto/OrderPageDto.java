@@ -0,0 +1,16 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * 注文一覧ページDTO（キーセットページング）
+ *
+ * 次ページは nextCursor を cursor パラメータに指定して取得する。
+ */
+@Data
+public class OrderPageDto {
+    private List<OrderDto> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
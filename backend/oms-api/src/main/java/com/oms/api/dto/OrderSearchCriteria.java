@@ -0,0 +1,29 @@
+package com.oms.api.dto;
+
+import com.oms.api.model.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 注文検索条件（null の項目は条件に含めない）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchCriteria {
+    private Long userId;
+    private Long securityId;
+    private List<OrderStatus> statuses;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+
+    /**
+     * userId 以外の絞り込み条件があるか
+     */
+    public boolean hasFilters() {
+        return securityId != null || statuses != null || startDate != null || endDate != null;
+    }
+}
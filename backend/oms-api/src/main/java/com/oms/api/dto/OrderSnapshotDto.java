@@ -0,0 +1,18 @@
+package com.oms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 再同期用スナップショット（取得時点の配信連番 + アクティブ注文）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSnapshotDto {
+    private long sequence;
+    private List<OrderDto> orders;
+}
@@ -0,0 +1,20 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ポジションレスポンスDTO
+ */
+@Data
+public class PositionDto {
+    private Long userId;
+    private Long securityId;
+    private BigDecimal quantity;
+    private BigDecimal averageCost;
+    private BigDecimal realizedPnl;
+    private BigDecimal currentPrice;
+    private BigDecimal unrealizedPnl;
+    private LocalDateTime lastUpdated;
+}
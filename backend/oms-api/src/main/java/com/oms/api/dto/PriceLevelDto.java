@@ -0,0 +1,18 @@
+package com.oms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.math.BigDecimal;
+
+/**
+ * 板の価格レベルDTO
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceLevelDto {
+    private BigDecimal price;
+    private BigDecimal quantity;
+    private int orderCount;
+}
@@ -0,0 +1,21 @@
+package com.oms.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * WebSocket 配信メッセージ
+ *
+ * seq はユーザーごとの連番（注文・約定トピック共通）。欠番を検知したクライアントは
+ * GET /api/orders/snapshot で再同期し、スナップショットの sequence 以下のメッセージを破棄する。
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PushMessageDto<T> {
+    /** ORDER / EXECUTION / RESYNC */
+    private String type;
+    private long seq;
+    private T payload;
+}
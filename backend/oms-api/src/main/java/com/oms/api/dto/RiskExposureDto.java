@@ -0,0 +1,34 @@
+package com.oms.api.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * ユーザーのリスク限度・拘束状況レスポンスDTO
+ */
+@Data
+public class RiskExposureDto {
+    private Long userId;
+    private BigDecimal buyingPower;
+    private BigDecimal maxOrderNotional;
+    private BigDecimal maxPositionQuantity;
+    /** 未約定の買い注文の拘束代金 */
+    private BigDecimal reservedNotional;
+    /** 起動後の約定代金（買いは加算、売りは減算） */
+    private BigDecimal executedNotional;
+    private BigDecimal availableBuyingPower;
+    private int openOrders;
+    private List<SecurityExposure> securities;
+
+    /**
+     * 銘柄別の建玉と未約定数量
+     */
+    @Data
+    public static class SecurityExposure {
+        private Long securityId;
+        private BigDecimal position;
+        private BigDecimal openBuyQuantity;
+        private BigDecimal openSellQuantity;
+    }
+}
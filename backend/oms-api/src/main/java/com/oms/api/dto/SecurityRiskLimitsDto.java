@@ -0,0 +1,22 @@
+package com.oms.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * 銘柄別リスク限度DTO（変更時は null の項目を変更しない。referencePrice は参照のみ）
+ */
+@Data
+public class SecurityRiskLimitsDto {
+    private Long securityId;
+
+    @DecimalMin(value = "0", message = "1注文の上限数量は0以上である必要があります")
+    private BigDecimal maxOrderQuantity;
+
+    @DecimalMin(value = "0", message = "値幅制限は0以上である必要があります")
+    private BigDecimal priceBandPercent;
+
+    /** 値幅制限の基準価格（直近約定価格） */
+    private BigDecimal referencePrice;
+}
@@ -0,0 +1,20 @@
+package com.oms.api.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import lombok.Data;
+import java.math.BigDecimal;
+
+/**
+ * ユーザー別リスク限度の変更DTO（null の項目は変更しない）
+ */
+@Data
+public class UserRiskLimitsDto {
+    @DecimalMin(value = "0", message = "買付余力は0以上である必要があります")
+    private BigDecimal buyingPower;
+
+    @DecimalMin(value = "0", message = "1注文の上限金額は0以上である必要があります")
+    private BigDecimal maxOrderNotional;
+
+    @DecimalMin(value = "0", message = "銘柄別の建玉上限は0以上である必要があります")
+    private BigDecimal maxPositionQuantity;
+}
@@ -0,0 +1,555 @@
+package com.oms.api.eod;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.dto.EodRunDto;
+import com.oms.api.model.EodRun;
+import com.oms.api.model.EodRunStatus;
+import com.oms.api.model.OrderSide;
+import com.oms.api.position.CostBasis;
+import com.oms.api.repository.EodRunRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 日次損益バッチ（trade_history の作成）
+ *
+ * 取引日の約定を (user_id, security_id, 約定日時) 順に1本のカーソルで読み、ユーザー単位で区切ったチャンクを
+ * ForkJoinPool で並列に処理する。チャンクごとに始値の建玉（eod_positions）を読み、銘柄ごとに移動平均法で
+ * 実現損益・金額・純額を計算して、trade_history と大引けの建玉を1トランザクションで一括登録する。
+ * 処理中のチャンク数を上限で抑えるため、約定件数に関わらずメモリ使用量は一定になる。
+ *
+ * 完了したチャンクが先頭から連続した分だけ eod_runs.checkpoint_user_id を進め、再実行時はその次のユーザーから再開する。
+ * チャンクの登録は対象ユーザー範囲の既存行を削除してから行うため、再開時に処理し直しても重複しない。
+ * 前回完了した取引日の翌日から取引日の前日までの約定は、建玉の計算にだけ使う（取引履歴は作らない）。
+ * 約定の注文は orders と orders_archive の両方から引くため、アーカイブ後の取引日も再実行（force）できる。
+ *
+ * クラスタ構成では定期実行はパーティション 0 の担当ノードだけが行う。手動実行を含む実行の開始は eod_runs の行ロックで
+ * 直列化し、他のノードが実行中（RUNNING で lease-ms 以内に進捗を更新している）の取引日は開始しない。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.eod.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class EodPnlJob {
+
+    private static final int SCALE = 4;
+    /** 1タスクで計算するユーザー・銘柄の組数（これを超えると分割する） */
+    private static final int PAIRS_PER_TASK = 64;
+    /** 完了した実行がない場合の再生開始日（全期間） */
+    private static final LocalDate EPOCH = LocalDate.of(1970, 1, 1);
+
+    private static final String EXECUTIONS_SQL =
+            "SELECT e.execution_id, e.order_id, o.user_id, e.security_id, o.side, e.execution_price, " +
+            "e.execution_quantity, e.commission, e.execution_date " +
+            "FROM executions e JOIN (SELECT order_id, user_id, side FROM orders " +
+            "UNION ALL SELECT order_id, user_id, side FROM orders_archive) o ON o.order_id = e.order_id " +
+            "WHERE e.execution_date >= ? AND e.execution_date < ? AND o.user_id > ? " +
+            "ORDER BY o.user_id, e.security_id, e.execution_date, e.execution_id";
+    private static final String OPENINGS_SQL =
+            "SELECT p.user_id, p.security_id, p.quantity, p.average_cost FROM eod_positions p " +
+            "WHERE p.user_id BETWEEN ? AND ? AND p.trade_date = (SELECT MAX(q.trade_date) FROM eod_positions q " +
+            "WHERE q.user_id = p.user_id AND q.security_id = p.security_id AND q.trade_date < ?)";
+    private static final String DELETE_TRADES_SQL =
+            "DELETE FROM trade_history WHERE trade_date = ? AND user_id > ? AND user_id <= ?";
+    private static final String DELETE_POSITIONS_SQL =
+            "DELETE FROM eod_positions WHERE trade_date = ? AND user_id > ? AND user_id <= ?";
+    private static final String INSERT_TRADE_SQL =
+            "INSERT INTO trade_history (order_id, execution_id, user_id, security_id, trade_date, side, quantity, " +
+            "price, amount, commission, net_amount, pnl, created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_POSITION_SQL =
+            "INSERT INTO eod_positions (user_id, security_id, trade_date, quantity, average_cost) VALUES (?, ?, ?, ?, ?)";
+    private static final String CHECKPOINT_SQL =
+            "UPDATE eod_runs SET checkpoint_user_id = ?, executions = ?, trades = ?, updated_at = ? WHERE trade_date = ?";
+
+    private final EodRunRepository eodRunRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    @Value("${oms.eod.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${oms.eod.parallelism:0}")
+    private int parallelism;
+
+    /** parallelism=0 の場合にオンライン処理用に残す接続数 */
+    @Value("${oms.eod.connection-reserve:4}")
+    private int connectionReserve;
+
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int maximumPoolSize;
+
+    @Value("${oms.eod.fetch-size:1000}")
+    private int fetchSize;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    /** 他のノードの RUNNING を停止済みとみなすまでの、進捗の更新がない時間 */
+    @Value("${oms.eod.lease-ms:600000}")
+    private long leaseMs;
+
+    @Value("${oms.cluster.node-id:local}")
+    private String nodeId;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+    private ForkJoinPool pool;
+    private JdbcTemplate cursorJdbc;
+
+    /**
+     * 約定1件（建玉計算の入力）
+     */
+    private record ExecutionRow(long executionId, long orderId, long userId, long securityId, OrderSide side,
+                                BigDecimal price, BigDecimal quantity, BigDecimal commission,
+                                LocalDateTime executionDate) {
+    }
+
+    /**
+     * ユーザー範囲 (afterUserId, lastUserId] の約定（ユーザーをまたいで分割しない）
+     */
+    private record Chunk(int index, long afterUserId, long lastUserId, List<ExecutionRow> rows) {
+    }
+
+    private record PairKey(long userId, long securityId) {
+    }
+
+    /**
+     * 開始した実行（rerun は以前の実行で登録した行が残っている可能性がある）
+     */
+    private record Claim(EodRun run, boolean rerun) {
+    }
+
+    @PostConstruct
+    public void init() {
+        // 各スレッドがチャンクの登録で接続を1本ずつ使い、カーソルも1本使う。
+        // 既定ではプールを使い切ってオンラインの発注が接続待ちにならないよう、予備を残した本数に抑える
+        int threads = parallelism > 0 ? parallelism
+                : Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(),
+                        maximumPoolSize - 1 - connectionReserve));
+        if (threads + 1 > maximumPoolSize - connectionReserve) {
+            log.warn("EOD P&L job uses {} threads with a connection pool of {}; online requests may wait for connections",
+                    threads, maximumPoolSize);
+        }
+        pool = new ForkJoinPool(threads, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("eod-pnl-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        // 約定は1本のカーソルで読むため、全件をメモリに載せないよう fetch size を指定する
+        cursorJdbc = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorJdbc.setFetchSize(fetchSize);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 平日の大引け後に当日分を実行（クラスタ構成ではパーティション 0 の担当ノードだけ）
+     */
+    @Scheduled(cron = "${oms.eod.cron:0 30 17 * * MON-FRI}")
+    public void runToday() {
+        ClusterMembership membership = cluster.getIfAvailable();
+        if (membership != null && !membership.isLeader()) {
+            log.debug("Scheduled EOD run skipped: not the leader node");
+            return;
+        }
+        try {
+            run(LocalDate.now(), false);
+        } catch (IllegalStateException e) {
+            log.warn("Scheduled EOD run skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 取引日の損益計算と取引履歴の作成
+     *
+     * 完了済みの取引日は force=true の場合だけ最初からやり直す。未完了（実行中に停止・失敗）はチェックポイントから再開する。
+     *
+     * @throws IllegalStateException 別の実行（このノード・他のノード）が進行中の場合
+     */
+    public EodRunDto run(LocalDate tradeDate, boolean force) {
+        if (!runLock.tryLock()) {
+            throw new IllegalStateException("EOD job is already running");
+        }
+        try {
+            Claim claim = claim(tradeDate, force);
+            if (claim.run().getStatus() == EodRunStatus.COMPLETED) {
+                return toDto(claim.run());
+            }
+            return toDto(execute(claim.run(), claim.rerun()));
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * 実行状況（未実行は null）
+     */
+    public EodRunDto getRun(LocalDate tradeDate) {
+        return eodRunRepository.findById(tradeDate).map(EodPnlJob::toDto).orElse(null);
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 実行の開始（取引日の行をロックして RUNNING と実行ノードを記録する）
+     *
+     * このノードが記録した RUNNING は、runLock を取得できた時点で停止済みの実行のためそのまま再開する。
+     * 完了済みで force=false の場合は何も更新せずに返す。
+     *
+     * @throws IllegalStateException 他のノードが実行中の場合
+     */
+    private Claim claim(LocalDate tradeDate, boolean force) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        try {
+            return transactionTemplate.execute(status -> {
+                EodRun existing = eodRunRepository.findForUpdate(tradeDate).orElse(null);
+                if (existing != null && existing.getStatus() == EodRunStatus.RUNNING
+                        && !nodeId.equals(existing.getRunBy())
+                        && existing.getUpdatedAt().isAfter(LocalDateTime.now().minus(Duration.ofMillis(leaseMs)))) {
+                    throw new IllegalStateException("EOD job is already running on " + existing.getRunBy());
+                }
+                EodRun run = existing != null ? existing : new EodRun(tradeDate);
+                if (run.getStatus() == EodRunStatus.COMPLETED) {
+                    if (!force) {
+                        return new Claim(run, false);
+                    }
+                    run = new EodRun(tradeDate);
+                }
+                run.setStatus(EodRunStatus.RUNNING);
+                run.setRunBy(nodeId);
+                run.setErrorMessage(null);
+                run.setCompletedAt(null);
+                return new Claim(eodRunRepository.save(run), existing != null);
+            });
+        } catch (DataIntegrityViolationException e) {
+            // 行のない取引日を他のノードが同時に開始した
+            throw new IllegalStateException("EOD job for " + tradeDate + " was started on another node", e);
+        }
+    }
+
+    /**
+     * @param rerun 以前の実行で登録した行が残っている可能性がある（チャンクの登録前に削除する）
+     */
+    private EodRun execute(EodRun run, boolean rerun) {
+        LocalDate tradeDate = run.getTradeDate();
+        LocalDate replayFrom = eodRunRepository
+                .findFirstByTradeDateBeforeAndStatusOrderByTradeDateDesc(tradeDate, EodRunStatus.COMPLETED)
+                .map(previous -> previous.getTradeDate().plusDays(1))
+                .orElse(EPOCH);
+        long started = System.nanoTime();
+        log.info("EOD run started: tradeDate={}, replayFrom={}, checkpointUserId={}",
+                tradeDate, replayFrom, run.getCheckpointUserId());
+
+        Progress progress = new Progress(run);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Semaphore inFlight = new Semaphore(pool.getParallelism() * 2);
+        Phaser pending = new Phaser(1);
+        List<ExecutionRow> rows = new ArrayList<>();
+        long[] cursor = {run.getCheckpointUserId(), run.getCheckpointUserId()};
+        int[] chunks = {0};
+
+        try {
+            cursorJdbc.query(EXECUTIONS_SQL, rs -> {
+                if (failure.get() != null) {
+                    throw new IllegalStateException("EOD run aborted");
+                }
+                long userId = rs.getLong(3);
+                if (userId != cursor[1] && rows.size() >= chunkSize) {
+                    Chunk chunk = new Chunk(chunks[0]++, cursor[0], cursor[1], new ArrayList<>(rows));
+                    submit(chunk, tradeDate, replayFrom, rerun, progress, failure, inFlight, pending);
+                    rows.clear();
+                    cursor[0] = cursor[1];
+                }
+                cursor[1] = userId;
+                rows.add(new ExecutionRow(rs.getLong(1), rs.getLong(2), userId, rs.getLong(4),
+                        OrderSide.valueOf(rs.getString(5)), rs.getBigDecimal(6), rs.getBigDecimal(7),
+                        rs.getBigDecimal(8), rs.getTimestamp(9).toLocalDateTime()));
+            }, Timestamp.valueOf(replayFrom.atStartOfDay()), Timestamp.valueOf(tradeDate.plusDays(1).atStartOfDay()),
+                    run.getCheckpointUserId());
+            if (!rows.isEmpty() && failure.get() == null) {
+                submit(new Chunk(chunks[0]++, cursor[0], cursor[1], new ArrayList<>(rows)),
+                        tradeDate, replayFrom, rerun, progress, failure, inFlight, pending);
+            }
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            pending.arriveAndAwaitAdvance();
+        }
+
+        if (failure.get() == null && rerun) {
+            try {
+                // 前回の実行で登録した、今回の最終ユーザーより後ろの行を削除する
+                TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(DELETE_TRADES_SQL, Date.valueOf(tradeDate), cursor[1], Long.MAX_VALUE);
+                    jdbcTemplate.update(DELETE_POSITIONS_SQL, Date.valueOf(tradeDate), cursor[1], Long.MAX_VALUE);
+                });
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        }
+        // 進捗は JDBC で更新しているため、エンティティには Progress の値を反映してから保存する
+        run.setCheckpointUserId(progress.checkpointUserId);
+        run.setExecutions(progress.executions);
+        run.setTrades(progress.trades);
+        Throwable error = failure.get();
+        if (error == null) {
+            run.setStatus(EodRunStatus.COMPLETED);
+            run.setCompletedAt(LocalDateTime.now());
+            log.info("EOD run completed: tradeDate={}, {} chunks, {} executions, {} trades ({} ms)",
+                    tradeDate, chunks[0], run.getExecutions(), run.getTrades(),
+                    (System.nanoTime() - started) / 1_000_000);
+        } else {
+            run.setStatus(EodRunStatus.FAILED);
+            String message = String.valueOf(error.getMessage());
+            run.setErrorMessage(message.length() > 500 ? message.substring(0, 500) : message);
+            log.error("EOD run failed: tradeDate={}, checkpointUserId={}",
+                    tradeDate, run.getCheckpointUserId(), error);
+        }
+        return eodRunRepository.save(run);
+    }
+
+    private void submit(Chunk chunk, LocalDate tradeDate, LocalDate replayFrom, boolean rerun, Progress progress,
+                        AtomicReference<Throwable> failure, Semaphore inFlight, Phaser pending) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("EOD run interrupted", e);
+        }
+        pending.register();
+        pool.execute(new RecursiveAction() {
+            @Override
+            protected void compute() {
+                try {
+                    int trades = process(chunk, tradeDate, replayFrom, rerun);
+                    progress.completed(chunk, trades);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                } finally {
+                    inFlight.release();
+                    pending.arriveAndDeregister();
+                }
+            }
+        });
+    }
+
+    /**
+     * チャンクの損益計算と登録
+     *
+     * @return 登録した取引履歴の件数
+     */
+    private int process(Chunk chunk, LocalDate tradeDate, LocalDate replayFrom, boolean rerun) {
+        List<ExecutionRow> rows = chunk.rows();
+        Map<PairKey, CostBasis> openings = loadOpenings(rows.get(0).userId(), chunk.lastUserId(), replayFrom);
+
+        // ユーザー・銘柄の組ごとの開始位置（行は組ごとに連続している）
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            if (i == 0 || rows.get(i).userId() != rows.get(i - 1).userId()
+                    || rows.get(i).securityId() != rows.get(i - 1).securityId()) {
+                starts.add(i);
+            }
+        }
+        starts.add(rows.size());
+        Object[][] trades = new Object[rows.size()][];
+        CostBasis[] closing = new CostBasis[starts.size() - 1];
+        new PnlTask(rows, starts, 0, closing.length, openings, tradeDate.atStartOfDay(), trades, closing).invoke();
+
+        List<Object[]> tradeArgs = new ArrayList<>(rows.size());
+        for (Object[] trade : trades) {
+            if (trade != null) {
+                tradeArgs.add(trade);
+            }
+        }
+        List<Object[]> positionArgs = new ArrayList<>(closing.length);
+        Date date = Date.valueOf(tradeDate);
+        for (int p = 0; p < closing.length; p++) {
+            ExecutionRow first = rows.get(starts.get(p));
+            positionArgs.add(new Object[] {first.userId(), first.securityId(), date,
+                    closing[p].getQuantity(), closing[p].getAverageCost()});
+        }
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (rerun) {
+                jdbcTemplate.update(DELETE_TRADES_SQL, date, chunk.afterUserId(), chunk.lastUserId());
+                jdbcTemplate.update(DELETE_POSITIONS_SQL, date, chunk.afterUserId(), chunk.lastUserId());
+            }
+            for (int from = 0; from < tradeArgs.size(); from += jdbcBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_TRADE_SQL,
+                        tradeArgs.subList(from, Math.min(from + jdbcBatchSize, tradeArgs.size())));
+            }
+            for (int from = 0; from < positionArgs.size(); from += jdbcBatchSize) {
+                jdbcTemplate.batchUpdate(INSERT_POSITION_SQL,
+                        positionArgs.subList(from, Math.min(from + jdbcBatchSize, positionArgs.size())));
+            }
+        });
+        return tradeArgs.size();
+    }
+
+    /**
+     * 再生開始日より前の直近の大引け建玉（ユーザー範囲内の全銘柄）
+     */
+    private Map<PairKey, CostBasis> loadOpenings(long firstUserId, long lastUserId, LocalDate replayFrom) {
+        Map<PairKey, CostBasis> openings = new HashMap<>();
+        if (replayFrom.equals(EPOCH)) {
+            return openings;
+        }
+        jdbcTemplate.query(OPENINGS_SQL, rs -> {
+            openings.put(new PairKey(rs.getLong(1), rs.getLong(2)),
+                    new CostBasis(rs.getBigDecimal(3), rs.getBigDecimal(4)));
+        }, firstUserId, lastUserId, Date.valueOf(replayFrom));
+        return openings;
+    }
+
+    /**
+     * ユーザー・銘柄の組 [lo, hi) の建玉計算（組の数が多い場合は分割して並列に計算する）
+     */
+    private static final class PnlTask extends RecursiveAction {
+
+        private final List<ExecutionRow> rows;
+        private final List<Integer> starts;
+        private final int lo;
+        private final int hi;
+        private final Map<PairKey, CostBasis> openings;
+        private final LocalDateTime tradeStart;
+        private final Object[][] trades;
+        private final CostBasis[] closing;
+
+        PnlTask(List<ExecutionRow> rows, List<Integer> starts, int lo, int hi, Map<PairKey, CostBasis> openings,
+                LocalDateTime tradeStart, Object[][] trades, CostBasis[] closing) {
+            this.rows = rows;
+            this.starts = starts;
+            this.lo = lo;
+            this.hi = hi;
+            this.openings = openings;
+            this.tradeStart = tradeStart;
+            this.trades = trades;
+            this.closing = closing;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > PAIRS_PER_TASK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new PnlTask(rows, starts, lo, mid, openings, tradeStart, trades, closing),
+                        new PnlTask(rows, starts, mid, hi, openings, tradeStart, trades, closing));
+                return;
+            }
+            Date tradeDate = Date.valueOf(tradeStart.toLocalDate());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int p = lo; p < hi; p++) {
+                ExecutionRow first = rows.get(starts.get(p));
+                CostBasis opening = openings.get(new PairKey(first.userId(), first.securityId()));
+                CostBasis basis = opening != null
+                        ? new CostBasis(opening.getQuantity(), opening.getAverageCost())
+                        : new CostBasis();
+                for (int i = starts.get(p); i < starts.get(p + 1); i++) {
+                    ExecutionRow row = rows.get(i);
+                    BigDecimal pnl = basis.apply(row.side(), row.price(), row.quantity());
+                    if (row.executionDate().isBefore(tradeStart)) {
+                        continue;
+                    }
+                    BigDecimal amount = row.price().multiply(row.quantity()).setScale(SCALE, RoundingMode.HALF_UP);
+                    BigDecimal commission = row.commission() != null ? row.commission() : BigDecimal.ZERO;
+                    // 純額: 買いは受渡代金（金額 + 手数料）、売りは受取額（金額 - 手数料）
+                    BigDecimal netAmount = row.side() == OrderSide.BUY
+                            ? amount.add(commission)
+                            : amount.subtract(commission);
+                    trades[i] = new Object[] {row.orderId(), row.executionId(), row.userId(), row.securityId(),
+                            tradeDate, row.side().name(), row.quantity(), row.price(), amount, commission, netAmount,
+                            pnl, now};
+                }
+                closing[p] = basis;
+            }
+        }
+    }
+
+    /**
+     * 完了したチャンクのうち、先頭から連続した分だけチェックポイントを進める
+     */
+    private final class Progress {
+
+        private final LocalDate tradeDate;
+        private final Map<Integer, long[]> completed = new HashMap<>();
+        private final ReentrantLock lock = new ReentrantLock();
+        private int next;
+        private long checkpointUserId;
+        private long executions;
+        private long trades;
+
+        Progress(EodRun run) {
+            this.tradeDate = run.getTradeDate();
+            this.checkpointUserId = run.getCheckpointUserId();
+            this.executions = run.getExecutions();
+            this.trades = run.getTrades();
+        }
+
+        void completed(Chunk chunk, int chunkTrades) {
+            lock.lock();
+            try {
+                completed.put(chunk.index(), new long[] {chunk.lastUserId(), chunk.rows().size(), chunkTrades});
+                boolean advanced = false;
+                for (long[] done; (done = completed.remove(next)) != null; next++) {
+                    checkpointUserId = done[0];
+                    executions += done[1];
+                    trades += done[2];
+                    advanced = true;
+                }
+                if (advanced) {
+                    jdbcTemplate.update(CHECKPOINT_SQL, checkpointUserId, executions, trades,
+                            Timestamp.valueOf(LocalDateTime.now()), Date.valueOf(tradeDate));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static EodRunDto toDto(EodRun run) {
+        EodRunDto dto = new EodRunDto();
+        dto.setTradeDate(run.getTradeDate());
+        dto.setStatus(run.getStatus());
+        dto.setCheckpointUserId(run.getCheckpointUserId());
+        dto.setExecutions(run.getExecutions());
+        dto.setTrades(run.getTrades());
+        dto.setErrorMessage(run.getErrorMessage());
+        dto.setStartedAt(run.getStartedAt());
+        dto.setCompletedAt(run.getCompletedAt());
+        return dto;
+    }
+}
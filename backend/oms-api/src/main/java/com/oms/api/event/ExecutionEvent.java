@@ -0,0 +1,9 @@
+package com.oms.api.event;
+
+import com.oms.api.dto.ExecutionDto;
+
+/**
+ * 約定イベント（約定の永続化コミット後に受け取る）
+ */
+public record ExecutionEvent(ExecutionDto execution) {
+}
@@ -0,0 +1,30 @@
+package com.oms.api.event;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.model.OrderStatus;
+
+/**
+ * 注文イベント
+ *
+ * OrderService がトランザクション内で発行し、リスナーはコミット後に受け取る
+ * （@TransactionalEventListener）。order は変更後の注文のスナップショット。
+ *
+ * @param type           イベント種別
+ * @param previousStatus 変更前ステータス（新規の場合は null）
+ * @param order          変更後の注文
+ * @param journaled      ジャーナル記録済み（ジャーナルから DB へ適用した変更の通知。再記録しない）
+ */
+public record OrderEvent(OrderEventType type, OrderStatus previousStatus, OrderDto order, boolean journaled) {
+
+    public static OrderEvent created(OrderDto order) {
+        return new OrderEvent(OrderEventType.CREATED, null, order, false);
+    }
+
+    public static OrderEvent of(OrderEventType type, OrderStatus previousStatus, OrderDto order) {
+        return new OrderEvent(type, previousStatus, order, false);
+    }
+
+    public static OrderEvent fromJournal(OrderEventType type, OrderStatus previousStatus, OrderDto order) {
+        return new OrderEvent(type, previousStatus, order, true);
+    }
+}
@@ -0,0 +1,13 @@
+package com.oms.api.event;
+
+/**
+ * 注文イベント種別
+ */
+public enum OrderEventType {
+    CREATED,   // 新規
+    AMENDED,   // 修正
+    CANCELED,  // 取消
+    FILLED,    // 約定（一部約定を含む）
+    REJECTED,  // 拒否
+    EXPIRED    // 期限切れ
+}
@@ -0,0 +1,413 @@
+package com.oms.api.expiry;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.PartitionListener;
+import com.oms.api.cluster.PartitionSet;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.LongArrayList;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * 注文の期限切れ処理
+ *
+ * validUntil を持つ注文は注文IDをタイミングホイールに登録し、期限が到来したものをチャンク単位で EXPIRED にする。
+ * DAY 注文は注文ごとには登録せず、ホイール上の大引け（平日の session-close）のタイマーで
+ * 大引け前に発注された DAY 注文をまとめて期限切れにする。
+ * 更新は主キーで行ロックしたチャンクごとに1回の UPDATE で行い、テーブル全体はロックしない。
+ * 起動時は (status, valid_until) のインデックスから未到来の期限を読み込み、停止中に過ぎた期限と大引けを処理する。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.expiry.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExpiryService implements SmartLifecycle, PartitionListener {
+
+    /** マッチングエンジン・ジャーナル適用の起動後に追いつき処理を行い、停止時は先に止まる */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 512;
+
+    /** ホイール上の大引けタイマー（注文IDは 1 以上） */
+    private static final long SESSION_CLOSE = -1L;
+
+    private static final List<String> ACTIVE = List.of(OrderStatus.NEW.name(), OrderStatus.PARTIAL.name());
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    @Value("${oms.expiry.tick-ms:1000}")
+    private long tickMillis;
+
+    @Value("${oms.expiry.wheel-levels:5}")
+    private int wheelLevels;
+
+    @Value("${oms.expiry.session-close:15:30}")
+    private String sessionCloseTime;
+
+    @Value("${oms.expiry.chunk-size:500}")
+    private int chunkSize;
+
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ReentrantLock lock = new ReentrantLock();
+    private LocalTime sessionClose;
+    private TimingWheel wheel;
+    /** 期限到来済みの ID（lock で保護。処理スレッドが spare と入れ替えて取り出す） */
+    private LongArrayList due = new LongArrayList();
+    private LongArrayList spare = new LongArrayList();
+    private Thread thread;
+    private volatile boolean running;
+
+    /**
+     * 行ロックしたチャンクの結果
+     *
+     * @param locked  行ロックした注文ID（order_id 順。DAY 注文の走査位置に使う）
+     * @param expired 期限切れにした件数
+     */
+    private record Chunk(List<Long> locked, int expired) {
+    }
+
+    @PostConstruct
+    public void init() {
+        sessionClose = LocalTime.parse(sessionCloseTime);
+        wheel = new TimingWheel(tickMillis, wheelLevels, System.currentTimeMillis());
+        wheel.add(SESSION_CLOSE, toMillis(nextClose(LocalDateTime.now())), due);
+    }
+
+    /**
+     * 新規・修正された注文の期限を登録する（期限の延長・短縮は再登録し、古い登録は期限到来時の再確認で除外される）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        if (event.type() != OrderEventType.CREATED && event.type() != OrderEventType.AMENDED) {
+            return;
+        }
+        OrderDto order = event.order();
+        if (order.getValidUntil() == null || order.getStatus() == null || !order.getStatus().isActive()) {
+            return;
+        }
+        schedule(order.getOrderId(), toMillis(order.getValidUntil()));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "order-expiry");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Order expiry started: tick {} ms, session close {}", tickMillis, sessionClose);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Order expiry stopped: {} pending", pending());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * ホイールに登録中の期限の件数
+     */
+    public int pending() {
+        lock.lock();
+        try {
+            return wheel.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 担当になったユーザーの validUntil を登録する（他ノードで発注・修正された注文を含む）
+     */
+    @Override
+    public void onPartitionsAssigned(PartitionSet partitions) {
+        int loaded = loadValidUntil(partitions);
+        log.info("Order expiry loaded {} validUntil entries for {} assigned partitions", loaded, partitions.size());
+    }
+
+    /**
+     * 登録済みの期限は残し、期限到来時に担当外のユーザーの注文として除外する
+     */
+    @Override
+    public void onPartitionsRevoked(PartitionSet partitions) {
+    }
+
+    // ===== Private Methods =====
+
+    private void run() {
+        try {
+            recover();
+        } catch (RuntimeException e) {
+            log.error("Order expiry recovery failed", e);
+        }
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        while (running) {
+            LockSupport.parkNanos(tickNanos);
+            if (!running) {
+                break;
+            }
+            LongArrayList batch;
+            lock.lock();
+            try {
+                wheel.advance(System.currentTimeMillis(), due);
+                batch = due;
+                due = spare;
+                spare = batch;
+            } finally {
+                lock.unlock();
+            }
+            if (batch.isEmpty()) {
+                continue;
+            }
+            try {
+                process(batch);
+            } catch (RuntimeException e) {
+                log.error("Order expiry failed for {} entries", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * 起動時の追いつき処理（直近の大引けを過ぎた DAY 注文の期限切れと、validUntil の読み込み）
+     */
+    private void recover() {
+        long started = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int expiredDay = expireDayOrders(previousClose(now));
+
+        ClusterMembership membership = cluster.getIfAvailable();
+        int loaded = loadValidUntil(membership != null ? membership.ownedPartitions() : userId -> true);
+        log.info("Order expiry recovered: {} DAY orders expired, {} validUntil entries loaded ({} ms)",
+                expiredDay, loaded, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 対象ユーザーのアクティブな注文の validUntil をホイールに登録する
+     *
+     * @return 登録した件数
+     */
+    private int loadValidUntil(LongPredicate users) {
+        LongArrayList entries = new LongArrayList();
+        for (String status : ACTIVE) {
+            // (status, valid_until) のインデックスを範囲走査する
+            jdbcTemplate.query("SELECT order_id, valid_until, user_id FROM orders " +
+                            "WHERE status = ? AND valid_until IS NOT NULL",
+                    rs -> {
+                        if (users.test(rs.getLong(3))) {
+                            entries.addLong(rs.getLong(1));
+                            entries.addLong(toMillis(rs.getTimestamp(2).toLocalDateTime()));
+                        }
+                    }, status);
+        }
+        lock.lock();
+        try {
+            for (int i = 0; i < entries.size(); i += 2) {
+                wheel.add(entries.getLong(i), entries.getLong(i + 1), due);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return entries.size() / 2;
+    }
+
+    private void schedule(long orderId, long deadlineMillis) {
+        lock.lock();
+        try {
+            wheel.add(orderId, deadlineMillis, due);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void process(LongArrayList batch) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> orderIds = new ArrayList<>(Math.min(batch.size(), chunkSize));
+        int expired = 0;
+        for (int i = 0; i < batch.size(); i++) {
+            long id = batch.getLong(i);
+            if (id == SESSION_CLOSE) {
+                expired += expireDayOrders(previousClose(now));
+                schedule(SESSION_CLOSE, toMillis(nextClose(now)));
+                continue;
+            }
+            orderIds.add(id);
+            if (orderIds.size() == chunkSize) {
+                expired += expireValidUntil(orderIds, now);
+                orderIds.clear();
+            }
+        }
+        if (!orderIds.isEmpty()) {
+            expired += expireValidUntil(orderIds, now);
+        }
+        if (expired > 0) {
+            log.info("Expired {} orders", expired);
+        }
+    }
+
+    /**
+     * 期限が到来した注文の期限切れ（修正で期限が延びた注文・約定や取消で終了した注文は除外）
+     *
+     * valid_until がまだ now より後の注文（DB の日時の丸めで登録時より遅くなった場合・修正で延びた場合）は
+     * 取り出した時点でホイールから外れているため、valid_until で登録し直す。重複した登録は期限到来時に除外される。
+     */
+    private int expireValidUntil(List<Long> orderIds, LocalDateTime now) {
+        String placeholders = orderIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        List<Object> args = new ArrayList<>(orderIds.size() + 1);
+        args.addAll(orderIds);
+        args.add(Timestamp.valueOf(now));
+        String select = "SELECT order_id, status, user_id FROM orders WHERE order_id IN (" + placeholders + ") " +
+                "AND status IN ('NEW', 'PARTIAL') AND valid_until <= ? ORDER BY order_id FOR UPDATE";
+        int expired = transactionTemplate.execute(tx -> expireLocked(select, args).expired());
+
+        jdbcTemplate.query("SELECT order_id, valid_until FROM orders WHERE order_id IN (" + placeholders + ") " +
+                        "AND status IN ('NEW', 'PARTIAL') AND valid_until > ?",
+                rs -> {
+                    schedule(rs.getLong(1), toMillis(rs.getTimestamp(2).toLocalDateTime()));
+                }, args.toArray());
+        return expired;
+    }
+
+    /**
+     * close より前に発注された DAY 注文をステータスごとに order_id 順のチャンクで期限切れにする
+     */
+    private int expireDayOrders(LocalDateTime close) {
+        int expired = 0;
+        for (String status : ACTIVE) {
+            long lastOrderId = 0;
+            while (running) {
+                List<Object> args = List.of(status, Timestamp.valueOf(close), lastOrderId, chunkSize);
+                Chunk chunk = transactionTemplate.execute(tx -> expireLocked(
+                        "SELECT order_id, status, user_id FROM orders WHERE status = ? AND time_in_force = 'DAY' " +
+                        "AND order_date < ? AND order_id > ? ORDER BY order_id LIMIT ? FOR UPDATE", args));
+                List<Long> locked = chunk.locked();
+                if (locked.isEmpty()) {
+                    break;
+                }
+                expired += chunk.expired();
+                lastOrderId = locked.get(locked.size() - 1);
+                if (locked.size() < chunkSize) {
+                    break;
+                }
+            }
+        }
+        return expired;
+    }
+
+    /**
+     * select で行ロックした注文を一括で EXPIRED にし、期限切れイベントを発行する
+     *
+     * select は order_id, status, user_id の順に返すこと。クラスタモードでは担当外のユーザーの注文は
+     * 担当ノードの拘束・読み取りモデルに反映されないため変更せず、担当ノードの期限切れ処理に任せる。
+     */
+    private Chunk expireLocked(String select, List<Object> args) {
+        ClusterMembership membership = cluster.getIfAvailable();
+        List<Long> locked = new ArrayList<>();
+        Map<Long, OrderStatus> previous = new LinkedHashMap<>();
+        jdbcTemplate.query(select, rs -> {
+            locked.add(rs.getLong(1));
+            if (membership == null || membership.owns(rs.getLong(3))) {
+                previous.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+            }
+        }, args.toArray());
+        if (previous.isEmpty()) {
+            return new Chunk(locked, 0);
+        }
+
+        String placeholders = previous.keySet().stream().map(id -> "?").collect(Collectors.joining(","));
+        List<Object> updateArgs = new ArrayList<>(previous.size() + 1);
+        updateArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        updateArgs.addAll(previous.keySet());
+        jdbcTemplate.update("UPDATE orders SET status = 'EXPIRED', version = version + 1, updated_at = ? " +
+                "WHERE order_id IN (" + placeholders + ")", updateArgs.toArray());
+
+        for (Order order : orderRepository.findAllById(previous.keySet())) {
+            OrderDto dto = referenceDataCache.enrich(orderMapper.toDto(order));
+            eventPublisher.publishEvent(OrderEvent.of(OrderEventType.EXPIRED, previous.get(order.getOrderId()), dto));
+        }
+        return new Chunk(locked, previous.size());
+    }
+
+    /**
+     * now 以前で直近の大引け（土日は除く）
+     */
+    private LocalDateTime previousClose(LocalDateTime now) {
+        LocalDate date = now.toLocalTime().isBefore(sessionClose) ? now.toLocalDate().minusDays(1) : now.toLocalDate();
+        while (isWeekend(date)) {
+            date = date.minusDays(1);
+        }
+        return date.atTime(sessionClose);
+    }
+
+    /**
+     * now より後で次の大引け（土日は除く）
+     */
+    private LocalDateTime nextClose(LocalDateTime now) {
+        LocalDate date = now.toLocalTime().isBefore(sessionClose) ? now.toLocalDate() : now.toLocalDate().plusDays(1);
+        while (isWeekend(date)) {
+            date = date.plusDays(1);
+        }
+        return date.atTime(sessionClose);
+    }
+
+    private static boolean isWeekend(LocalDate date) {
+        return date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(zone).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,140 @@
+package com.oms.api.expiry;
+
+import org.agrona.collections.LongArrayList;
+
+/**
+ * 階層型タイミングホイール（注文IDを期限の tick で管理する。スレッドセーフではない）
+ *
+ * 各階層は 64 スロットで、階層 n の1スロットは 64^n tick 分。期限と現在 tick の上位桁が一致する最も下の階層に置き、
+ * 上位階層のスロットは現在 tick がその範囲に入った時点で下の階層へ振り直す。
+ * 登録・取り出しとも件数に比例するだけで、期限順の並べ替えは行わない。
+ * 最上位階層の範囲を超える期限は overflow に置き、最上位階層が一周するたびに振り直す。
+ */
+public final class TimingWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+
+    private final long tickMillis;
+    private final int levels;
+    /** [階層][スロット]。要素は (注文ID, 期限 tick) の組を交互に格納 */
+    private final LongArrayList[][] wheels;
+    private final LongArrayList overflow = new LongArrayList();
+    private long currentTick;
+    private int size;
+
+    public TimingWheel(long tickMillis, int levels, long nowMillis) {
+        if (tickMillis <= 0 || levels <= 0 || levels * SLOT_BITS >= Long.SIZE - 1) {
+            throw new IllegalArgumentException("Invalid timing wheel: tick " + tickMillis + " ms, " + levels + " levels");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.wheels = new LongArrayList[levels][SLOTS];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * 期限の登録（期限到来済みの場合は due に入れて true を返す）
+     *
+     * 期限は tick の途中なら次の tick 境界に切り上げ、期限より前に取り出さない。
+     */
+    public boolean add(long id, long deadlineMillis, LongArrayList due) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        if (deadlineTick <= currentTick) {
+            due.addLong(id);
+            return true;
+        }
+        place(id, deadlineTick);
+        size++;
+        return false;
+    }
+
+    /**
+     * nowMillis まで時刻を進め、期限が到来した ID を due に追加する
+     *
+     * @return 追加した件数
+     */
+    public int advance(long nowMillis, LongArrayList due) {
+        long targetTick = nowMillis / tickMillis;
+        int before = due.size();
+        while (currentTick < targetTick) {
+            if (size == 0) {
+                // 空のときはスロットを巡回せずに進める
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            if ((currentTick & ((1L << (levels * SLOT_BITS)) - 1)) == 0) {
+                cascade(overflow, due);
+            }
+            for (int level = levels - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (level * SLOT_BITS)) - 1)) == 0) {
+                    cascade(wheels[level][(int) (currentTick >>> (level * SLOT_BITS)) & SLOT_MASK], due);
+                }
+            }
+            cascade(wheels[0][(int) currentTick & SLOT_MASK], due);
+        }
+        return due.size() - before;
+    }
+
+    /**
+     * 登録中の件数（期限到来前に取り出されていないもの）
+     */
+    public int size() {
+        return size;
+    }
+
+    public long tickMillis() {
+        return tickMillis;
+    }
+
+    // ===== Private Methods =====
+
+    private void place(long id, long deadlineTick) {
+        LongArrayList slot = null;
+        for (int level = 0; level < levels; level++) {
+            int shift = (level + 1) * SLOT_BITS;
+            if ((deadlineTick >>> shift) == (currentTick >>> shift)) {
+                int index = (int) (deadlineTick >>> (level * SLOT_BITS)) & SLOT_MASK;
+                slot = wheels[level][index];
+                if (slot == null) {
+                    slot = new LongArrayList();
+                    wheels[level][index] = slot;
+                }
+                break;
+            }
+        }
+        if (slot == null) {
+            slot = overflow;
+        }
+        slot.addLong(id);
+        slot.addLong(deadlineTick);
+    }
+
+    /**
+     * スロットの全件を現在 tick 基準で振り直す（期限到来分は due へ）
+     */
+    private void cascade(LongArrayList slot, LongArrayList due) {
+        if (slot == null || slot.isEmpty()) {
+            return;
+        }
+        int count = slot.size();
+        // overflow は同じリストに戻ることがあるため、先に退避してから空にする
+        long[] entries = new long[count];
+        for (int i = 0; i < count; i++) {
+            entries[i] = slot.getLong(i);
+        }
+        slot.clear();
+        for (int i = 0; i < count; i += 2) {
+            long id = entries[i];
+            long deadlineTick = entries[i + 1];
+            if (deadlineTick <= currentTick) {
+                due.addLong(id);
+                size--;
+            } else {
+                place(id, deadlineTick);
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package com.oms.api.gateway;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 発注バイナリゲートウェイ（TCP、NIO）
+ *
+ * 単一のセレクタースレッドが全接続の受信・送信を行い、受信バッファから固定長メッセージを
+ * 直接読み取ってワーカーに渡す。クライアントは応答を待たずに要求を続けて送ってよく（パイプライン）、
+ * 応答は完了順に correlationId 付きで返る。接続ごとの処理中の要求が上限に達したら受信を止める。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.gateway.binary.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BinaryOrderGateway implements SmartLifecycle, Runnable {
+
+    private final BinaryOrderHandler handler;
+
+    @Value("${oms.gateway.binary.port:9090}")
+    private int port;
+
+    @Value("${oms.gateway.binary.workers:16}")
+    private int workerCount;
+
+    @Value("${oms.gateway.binary.max-in-flight:256}")
+    private int maxInFlight;
+
+    @Value("${oms.gateway.binary.receive-buffer-size:65536}")
+    private int receiveBufferSize;
+
+    /** 応答が積まれ、送信待ちの接続 */
+    private final Queue<GatewayConnection> flushQueue = new ConcurrentLinkedQueue<>();
+    private final List<GatewayConnection> connections = new ArrayList<>();
+
+    private Selector selector;
+    private ServerSocketChannel server;
+    private ExecutorService workers;
+    private Thread thread;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        try {
+            selector = Selector.open();
+            server = ServerSocketChannel.open();
+            server.bind(new InetSocketAddress(port));
+            server.configureBlocking(false);
+            server.register(selector, SelectionKey.OP_ACCEPT);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start binary gateway on port " + port, e);
+        }
+        AtomicInteger workerIds = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount,
+                task -> new Thread(task, "binary-gateway-worker-" + workerIds.incrementAndGet()));
+        running = true;
+        thread = new Thread(this, "binary-gateway");
+        thread.start();
+        log.info("Binary order gateway listening on port {} ({} workers, max {} in flight per connection)",
+                localPort(), workerCount, maxInFlight);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        selector.wakeup();
+        try {
+            thread.join();
+            // 処理中の要求を完了させ、応答を送ってから切断する
+            workers.shutdown();
+            if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+                log.warn("Binary gateway workers did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drainFlushQueue();
+        for (GatewayConnection connection : new ArrayList<>(connections)) {
+            close(connection);
+        }
+        try {
+            selector.close();
+        } catch (IOException e) {
+            log.warn("Failed to close selector", e);
+        }
+        log.info("Binary order gateway stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        // 最後に起動し、最初に停止する（停止時は発注サービスがまだ動いている）
+        return SmartLifecycle.DEFAULT_PHASE;
+    }
+
+    /**
+     * 待ち受けポート（oms.gateway.binary.port=0 の場合は割り当てられたポート）
+     */
+    public int localPort() {
+        return server.socket().getLocalPort();
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            try {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (!key.isValid()) {
+                        continue;
+                    }
+                    if (key.isAcceptable()) {
+                        accept();
+                    } else {
+                        GatewayConnection connection = (GatewayConnection) key.attachment();
+                        if (key.isWritable()) {
+                            flush(connection);
+                        }
+                        if (key.isValid() && key.isReadable()) {
+                            read(connection);
+                        }
+                    }
+                }
+                drainFlushQueue();
+            } catch (IOException e) {
+                log.error("Binary gateway selector failed", e);
+            }
+        }
+        try {
+            server.close();
+        } catch (IOException e) {
+            log.warn("Failed to close gateway server socket", e);
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel = server.accept();
+        if (channel == null) {
+            return;
+        }
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+        GatewayConnection connection = new GatewayConnection(channel, key, receiveBufferSize);
+        key.attach(connection);
+        connections.add(connection);
+        log.info("Binary gateway connection from {}", connection.remoteAddress());
+    }
+
+    private void read(GatewayConnection connection) {
+        try {
+            if (connection.channel.read(connection.receiveBuffer) < 0) {
+                close(connection);
+                return;
+            }
+        } catch (IOException e) {
+            log.warn("Read failed on {}: {}", connection.remoteAddress(), e.getMessage());
+            close(connection);
+            return;
+        }
+        process(connection);
+    }
+
+    /**
+     * 受信バッファ内の完全なメッセージを順に処理する（不完全な末尾は次の受信まで残す）
+     */
+    private void process(GatewayConnection connection) {
+        ByteBuffer buffer = connection.receiveBuffer;
+        buffer.flip();
+        while (buffer.remaining() >= BinaryProtocol.HEADER_LENGTH && connection.inFlight.get() < maxInFlight) {
+            int offset = buffer.position();
+            int length = BinaryProtocol.length(buffer, offset);
+            byte type = BinaryProtocol.type(buffer, offset);
+            int expected = BinaryProtocol.expectedLength(type);
+            if (length < BinaryProtocol.HEADER_LENGTH || length > buffer.capacity()
+                    || (expected >= 0 && length != expected)) {
+                // 区切りが分からなくなるため接続を切る
+                log.warn("Invalid message (type {}, length {}) from {}, closing", type, length, connection.remoteAddress());
+                close(connection);
+                return;
+            }
+            if (buffer.remaining() < length) {
+                break;
+            }
+            dispatch(connection, buffer, offset, type);
+            buffer.position(offset + length);
+        }
+        buffer.compact();
+
+        boolean pause = connection.inFlight.get() >= maxInFlight;
+        if (pause != connection.readPaused) {
+            connection.readPaused = pause;
+            SelectionKey key = connection.key;
+            key.interestOps(pause ? key.interestOps() & ~SelectionKey.OP_READ : key.interestOps() | SelectionKey.OP_READ);
+        }
+    }
+
+    private void dispatch(GatewayConnection connection, ByteBuffer buffer, int offset, byte type) {
+        long correlationId = BinaryProtocol.correlationId(buffer, offset);
+        Runnable task;
+        switch (type) {
+            case BinaryProtocol.NEW_ORDER -> {
+                long userId = BinaryProtocol.userId(buffer, offset);
+                CreateOrderDto dto = BinaryProtocol.decodeNewOrder(buffer, offset);
+                task = () -> complete(connection, handler.newOrder(correlationId, userId, dto));
+            }
+            case BinaryProtocol.AMEND -> {
+                long orderId = BinaryProtocol.orderId(buffer, offset);
+                UpdateOrderDto dto = BinaryProtocol.decodeAmend(buffer, offset);
+                task = () -> complete(connection, handler.amend(correlationId, orderId, dto));
+            }
+            case BinaryProtocol.CANCEL -> {
+                long orderId = BinaryProtocol.orderId(buffer, offset);
+                task = () -> complete(connection, handler.cancel(correlationId, orderId));
+            }
+            default -> {
+                connection.inFlight.incrementAndGet();
+                complete(connection, BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, 0,
+                        "Unknown message type: " + type));
+                return;
+            }
+        }
+        connection.inFlight.incrementAndGet();
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            complete(connection, BinaryProtocol.rejected(correlationId, BinaryProtocol.ERROR, 0, "Gateway is shutting down"));
+        }
+    }
+
+    /**
+     * 応答を送信キューに積み、セレクタースレッドに送信を依頼する（接続ごとに1回の起床にまとめる）
+     */
+    private void complete(GatewayConnection connection, ByteBuffer ack) {
+        connection.outbound.add(ack);
+        connection.inFlight.decrementAndGet();
+        if (connection.flushScheduled.compareAndSet(false, true)) {
+            flushQueue.add(connection);
+            selector.wakeup();
+        }
+    }
+
+    private void drainFlushQueue() {
+        GatewayConnection connection;
+        while ((connection = flushQueue.poll()) != null) {
+            connection.flushScheduled.set(false);
+            if (!connection.key.isValid()) {
+                continue;
+            }
+            flush(connection);
+            if (connection.readPaused && connection.key.isValid() && connection.inFlight.get() < maxInFlight) {
+                // 受信済みで未処理のメッセージから再開する
+                process(connection);
+            }
+        }
+    }
+
+    private void flush(GatewayConnection connection) {
+        try {
+            boolean complete = connection.flush();
+            SelectionKey key = connection.key;
+            key.interestOps(complete ? key.interestOps() & ~SelectionKey.OP_WRITE : key.interestOps() | SelectionKey.OP_WRITE);
+        } catch (IOException e) {
+            log.warn("Write failed on {}: {}", connection.remoteAddress(), e.getMessage());
+            close(connection);
+        }
+    }
+
+    private void close(GatewayConnection connection) {
+        log.info("Binary gateway connection closed: {}", connection.remoteAddress());
+        connection.key.cancel();
+        connections.remove(connection);
+        try {
+            connection.channel.close();
+        } catch (IOException e) {
+            log.debug("Failed to close gateway connection", e);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.oms.api.gateway;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.ClusterNode;
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.metrics.OrderMetrics;
+import com.oms.api.metrics.OrderMetrics.Stage;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.service.OrderConflictException;
+import com.oms.api.service.OrderService;
+import com.oms.api.service.OrderValidator;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * バイナリ要求の発注サービスへの受け渡しと応答の組み立て（ワーカースレッドで実行）
+ *
+ * 応答の区分は REST API と揃える（バリデーション・状態エラーは REJECTED、競合は CONFLICT）。
+ * クラスタモードでは TCP 接続を転送できないため、担当外のユーザーの要求は担当ノードを示して REJECTED にする。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.gateway.binary.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BinaryOrderHandler {
+
+    private final OrderService orderService;
+    private final OrderValidator orderValidator;
+    private final OrderMetrics orderMetrics;
+    private final OrderRepository orderRepository;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    public ByteBuffer newOrder(long correlationId, long userId, CreateOrderDto dto) {
+        // @Valid を経由しないため Bean Validation もここで行う
+        List<String> errors = orderValidator.errors(dto);
+        if (!errors.isEmpty()) {
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, 0, String.join(", ", errors));
+        }
+        String misrouted = misrouted(userId);
+        if (misrouted != null) {
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, 0, misrouted);
+        }
+        return execute(correlationId, 0, Stage.CREATE, () -> orderService.createOrder(userId, dto));
+    }
+
+    public ByteBuffer amend(long correlationId, long orderId, UpdateOrderDto dto) {
+        String misrouted = misroutedOrder(orderId);
+        if (misrouted != null) {
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, orderId, misrouted);
+        }
+        return execute(correlationId, orderId, Stage.UPDATE, () -> orderService.updateOrder(orderId, dto));
+    }
+
+    public ByteBuffer cancel(long correlationId, long orderId) {
+        String misrouted = misroutedOrder(orderId);
+        if (misrouted != null) {
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, orderId, misrouted);
+        }
+        return execute(correlationId, orderId, Stage.CANCEL, () -> orderService.cancelOrder(orderId));
+    }
+
+    /**
+     * 担当外・引き継ぎ中のユーザーなら拒否理由（クラスタモード以外は常に null）
+     */
+    private String misrouted(long userId) {
+        ClusterMembership membership = cluster.getIfAvailable();
+        if (membership == null || membership.isReady(userId)) {
+            return null;
+        }
+        ClusterNode owner = membership.ownerOf(userId);
+        if (owner.id().equals(membership.self().id())) {
+            return "担当パーティションの引き継ぎ中です。再試行してください";
+        }
+        return "ユーザー " + userId + " の担当ノードは " + owner.id() + " (" + owner.url() + ") です";
+    }
+
+    private String misroutedOrder(long orderId) {
+        if (cluster.getIfAvailable() == null) {
+            return null;
+        }
+        // 注文が見つからない場合は発注サービスのエラーに任せる
+        return orderRepository.findUserIdByOrderId(orderId).map(this::misrouted).orElse(null);
+    }
+
+    private ByteBuffer execute(long correlationId, long orderId, Stage stage, Supplier<OrderDto> call) {
+        Timer.Sample sample = orderMetrics.start();
+        try {
+            return BinaryProtocol.accepted(correlationId, call.get());
+        } catch (OrderConflictException e) {
+            log.warn("Conflict on binary {} request: {}", stage, e.getMessage());
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.CONFLICT, orderId, e.getMessage());
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            log.warn("Binary {} request rejected: {}", stage, e.getMessage());
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, orderId, e.getMessage());
+        } catch (RuntimeException e) {
+            if (stage != Stage.CREATE) {
+                // 注文が見つからない等（REST の 400 に相当）
+                log.error("Error on binary {} request: {}", stage, e.getMessage());
+                return BinaryProtocol.rejected(correlationId, BinaryProtocol.REJECTED, orderId, e.getMessage());
+            }
+            log.error("Error on binary create request", e);
+            return BinaryProtocol.rejected(correlationId, BinaryProtocol.ERROR, orderId, "発注処理中にエラーが発生しました");
+        } finally {
+            orderMetrics.stop(sample, stage);
+        }
+    }
+}
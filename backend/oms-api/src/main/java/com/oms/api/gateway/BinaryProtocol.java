@@ -0,0 +1,179 @@
+package com.oms.api.gateway;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.util.FixedPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * 発注バイナリプロトコル（固定長メッセージ、リトルエンディアン）
+ *
+ * <pre>
+ * ヘッダー（全メッセージ共通、16 バイト）
+ *   0  int32  length          メッセージ全体の長さ（ヘッダーを含む）
+ *   4  int8   type            1=新規 2=修正 3=取消 / 0x81=応答
+ *   5  -      (予約 3 バイト)
+ *   8  int64  correlationId   クライアントが付与する要求ID（応答にそのまま返す）
+ *
+ * 新規 NEW_ORDER（72 バイト）
+ *   16 int64 userId / 24 int64 securityId / 32 int64 quantity / 40 int64 price
+ *   48 int64 stopPrice / 56 int64 validUntil（エポックミリ秒）
+ *   64 int8 side / 65 int8 orderType / 66 int8 timeInForce（各 enum の定義順）/ 67 (予約 5 バイト)
+ *
+ * 修正 AMEND（56 バイト）
+ *   16 int64 orderId / 24 int64 quantity / 32 int64 price / 40 int64 stopPrice / 48 int64 validUntil
+ *
+ * 取消 CANCEL（24 バイト）
+ *   16 int64 orderId
+ *
+ * 応答 ACK（36 バイト + 理由）
+ *   16 int64 orderId / 24 int64 version / 32 int8 result / 33 int8 orderStatus（不明は -1）
+ *   34 int16 reasonLength / 36 理由（UTF-8、reasonLength バイト）
+ * </pre>
+ *
+ * 価格・数量は小数4桁の固定小数点（FixedPoint）。省略値（修正の「変更なし」を含む）は Long.MIN_VALUE。
+ */
+public final class BinaryProtocol {
+
+    public static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    public static final int HEADER_LENGTH = 16;
+    public static final int NEW_ORDER_LENGTH = 72;
+    public static final int AMEND_LENGTH = 56;
+    public static final int CANCEL_LENGTH = 24;
+    public static final int ACK_FIXED_LENGTH = 36;
+    public static final int MAX_REASON_LENGTH = 512;
+
+    public static final byte NEW_ORDER = 1;
+    public static final byte AMEND = 2;
+    public static final byte CANCEL = 3;
+    public static final byte ACK = (byte) 0x81;
+
+    public static final byte ACCEPTED = 0;
+    public static final byte REJECTED = 1;
+    public static final byte CONFLICT = 2;
+    public static final byte ERROR = 3;
+
+    private static final int LENGTH = 0;
+    private static final int TYPE = 4;
+    private static final int CORRELATION_ID = 8;
+
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final TimeInForce[] TIME_IN_FORCES = TimeInForce.values();
+
+    private BinaryProtocol() {
+    }
+
+    public static int length(ByteBuffer buffer, int offset) {
+        return buffer.getInt(offset + LENGTH);
+    }
+
+    public static byte type(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + TYPE);
+    }
+
+    public static long correlationId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + CORRELATION_ID);
+    }
+
+    /**
+     * メッセージ種別ごとの長さ（未知の種別は -1）
+     */
+    public static int expectedLength(byte type) {
+        return switch (type) {
+            case NEW_ORDER -> NEW_ORDER_LENGTH;
+            case AMEND -> AMEND_LENGTH;
+            case CANCEL -> CANCEL_LENGTH;
+            default -> -1;
+        };
+    }
+
+    public static long userId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 16);
+    }
+
+    public static long orderId(ByteBuffer buffer, int offset) {
+        return buffer.getLong(offset + 16);
+    }
+
+    /**
+     * NEW_ORDER -> CreateOrderDto（区分値が範囲外の項目は null のまま残し、バリデーションで弾く）
+     */
+    public static CreateOrderDto decodeNewOrder(ByteBuffer buffer, int offset) {
+        CreateOrderDto dto = new CreateOrderDto();
+        dto.setSecurityId(buffer.getLong(offset + 24));
+        dto.setQuantity(FixedPoint.toDecimal(buffer.getLong(offset + 32)));
+        dto.setPrice(FixedPoint.toDecimal(buffer.getLong(offset + 40)));
+        dto.setStopPrice(FixedPoint.toDecimal(buffer.getLong(offset + 48)));
+        dto.setValidUntil(toDateTime(buffer.getLong(offset + 56)));
+        dto.setSide(code(SIDES, buffer.get(offset + 64)));
+        dto.setOrderType(code(ORDER_TYPES, buffer.get(offset + 65)));
+        dto.setTimeInForce(code(TIME_IN_FORCES, buffer.get(offset + 66)));
+        return dto;
+    }
+
+    /**
+     * AMEND -> UpdateOrderDto
+     */
+    public static UpdateOrderDto decodeAmend(ByteBuffer buffer, int offset) {
+        UpdateOrderDto dto = new UpdateOrderDto();
+        dto.setQuantity(FixedPoint.toDecimal(buffer.getLong(offset + 24)));
+        dto.setPrice(FixedPoint.toDecimal(buffer.getLong(offset + 32)));
+        dto.setStopPrice(FixedPoint.toDecimal(buffer.getLong(offset + 40)));
+        dto.setValidUntil(toDateTime(buffer.getLong(offset + 48)));
+        return dto;
+    }
+
+    /**
+     * 受付応答
+     */
+    public static ByteBuffer accepted(long correlationId, OrderDto order) {
+        return ack(correlationId, ACCEPTED, order.getOrderId(), order.getVersion(), order.getStatus().ordinal(), null);
+    }
+
+    /**
+     * 拒否・競合・エラー応答
+     */
+    public static ByteBuffer rejected(long correlationId, byte result, long orderId, String reason) {
+        return ack(correlationId, result, orderId, null, -1, reason);
+    }
+
+    private static ByteBuffer ack(long correlationId, byte result, long orderId, Long version, int status, String reason) {
+        byte[] text = reason != null ? reason.getBytes(StandardCharsets.UTF_8) : null;
+        int reasonLength = text != null ? Math.min(text.length, MAX_REASON_LENGTH) : 0;
+        int length = ACK_FIXED_LENGTH + reasonLength;
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(BYTE_ORDER);
+        buffer.putInt(LENGTH, length)
+                .put(TYPE, ACK)
+                .putLong(CORRELATION_ID, correlationId)
+                .putLong(16, orderId)
+                .putLong(24, version != null ? version : 0)
+                .put(32, result)
+                .put(33, (byte) status)
+                .putShort(34, (short) reasonLength);
+        if (reasonLength > 0) {
+            buffer.put(ACK_FIXED_LENGTH, text, 0, reasonLength);
+        }
+        return buffer;
+    }
+
+    private static <E extends Enum<E>> E code(E[] values, byte code) {
+        return code >= 0 && code < values.length ? values[code] : null;
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis == FixedPoint.NULL ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,84 @@
+package com.oms.api.gateway;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * バイナリゲートウェイの接続ごとの状態
+ *
+ * 受信バッファと送信キューを持つ。受信・送信はセレクタースレッドのみが行い、
+ * ワーカーは応答を送信キューに積むだけ。
+ */
+final class GatewayConnection {
+
+    private static final int WRITE_BATCH = 64;
+
+    final SocketChannel channel;
+    final SelectionKey key;
+    final ByteBuffer receiveBuffer;
+    final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+    /** 処理中（応答未送信）の要求数 */
+    final AtomicInteger inFlight = new AtomicInteger();
+
+    /** 送信待ちとしてゲートウェイに登録済みか */
+    final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+    /** 処理中の要求が上限に達して受信を止めているか（セレクタースレッドのみ参照） */
+    boolean readPaused;
+
+    private final ByteBuffer[] batch = new ByteBuffer[WRITE_BATCH];
+
+    GatewayConnection(SocketChannel channel, SelectionKey key, int receiveBufferSize) {
+        this.channel = channel;
+        this.key = key;
+        this.receiveBuffer = ByteBuffer.allocateDirect(receiveBufferSize).order(BinaryProtocol.BYTE_ORDER);
+    }
+
+    /**
+     * 送信キューをまとめて書き出す（最大 WRITE_BATCH 件ずつ gathering write）
+     *
+     * @return 全て書き出せたら true（ソケットの送信バッファが一杯なら false）
+     */
+    boolean flush() throws IOException {
+        while (true) {
+            int count = 0;
+            for (ByteBuffer ack : outbound) {
+                if (count == batch.length) {
+                    break;
+                }
+                batch[count++] = ack;
+            }
+            if (count == 0) {
+                return true;
+            }
+            channel.write(batch, 0, count);
+            boolean complete = true;
+            for (int i = 0; i < count; i++) {
+                if (complete && !batch[i].hasRemaining()) {
+                    outbound.poll();
+                } else {
+                    complete = false;
+                }
+                batch[i] = null;
+            }
+            if (!complete) {
+                return false;
+            }
+        }
+    }
+
+    String remoteAddress() {
+        try {
+            return String.valueOf(channel.getRemoteAddress());
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.oms.api.journal;
+
+/**
+ * 新規注文の応答タイミング
+ */
+public enum JournalAckMode {
+    COMMIT,   // DB コミット後（ジャーナルは DB コミット直前に fsync）
+    JOURNAL   // ジャーナルの fsync 後（DB へは JournalApplier が非同期に登録）
+}
@@ -0,0 +1,402 @@
+package com.oms.api.journal;
+
+import com.oms.api.event.OrderEvent;
+import com.oms.api.model.AuditAction;
+import com.oms.api.model.JournalCheckpoint;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.JournalCheckpointRepository;
+import com.oms.api.util.FixedPoint;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ジャーナルから DB への非同期適用
+ *
+ * 確定したイベントをバッチ単位で1トランザクションにまとめ、次を行う。
+ * <ul>
+ *   <li>orders: スナップショットの version が DB より新しい注文のみ登録・更新（DB 側が先にコミット済みなら何もしない）</li>
+ *   <li>order_audit_log: 1イベント1行で追記</li>
+ *   <li>journal_checkpoints: 適用位置を更新（同一トランザクションのため再起動時に二重適用しない）</li>
+ * </ul>
+ * 起動時は前回の適用位置から末尾まで適用し、未決のトランザクションを DB の状態から確定してから受付を始める。
+ * DB に登録・更新した注文は、コミット後に注文イベントとして通知する。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class JournalApplier implements SmartLifecycle {
+
+    /** マッチングエンジンの起動後に復旧し（復旧した注文を板に載せるため）、停止時は先に止まる */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1024;
+
+    private static final String CHECKPOINT = "orders";
+
+    private static final String INSERT_ORDER_SQL =
+            "INSERT INTO orders (order_id, user_id, security_id, order_no, side, order_type, quantity, price, " +
+            "stop_price, time_in_force, status, filled_quantity, average_price, commission, order_date, " +
+            "valid_until, notes, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_ORDER_SQL =
+            "UPDATE orders SET quantity = ?, price = ?, stop_price = ?, time_in_force = ?, status = ?, " +
+            "filled_quantity = ?, average_price = ?, commission = ?, valid_until = ?, notes = ?, " +
+            "updated_at = ?, version = ? WHERE order_id = ? AND version < ?";
+    private static final String INSERT_AUDIT_SQL =
+            "INSERT INTO order_audit_log (order_id, user_id, action, old_status, new_status, change_details, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String UPDATE_CHECKPOINT_SQL =
+            "UPDATE journal_checkpoints SET scan_position = ?, applied_position = ?, updated_at = ? WHERE name = ?";
+    private static final int IN_CLAUSE_SIZE = 1000;
+
+    private final OrderJournal journal;
+    private final OrderJournalRecorder recorder;
+    private final JournalCheckpointRepository checkpointRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReferenceDataCache referenceDataCache;
+
+    @Value("${oms.journal.apply-batch-size:1000}")
+    private int batchSize;
+
+    @Value("${oms.journal.rebuild-on-startup:false}")
+    private boolean rebuildOnStartup;
+
+    private TransactionTemplate transactionTemplate;
+    private JournalReplayer replayer;
+    private long savedScanPosition;
+    private long savedAppliedPosition;
+    private Thread thread;
+    private volatile boolean running;
+
+    @Override
+    public void start() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        recover();
+        running = true;
+        thread = new Thread(this::run, "journal-applier");
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Journal applier stopped at position {}", savedAppliedPosition);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 起動時の復旧（前回の適用位置から末尾まで適用し、未決トランザクションを確定する）
+     */
+    private void recover() {
+        long started = System.nanoTime();
+        JournalCheckpoint checkpoint = transactionTemplate.execute(status -> {
+            if (rebuildOnStartup) {
+                log.warn("Rebuilding order_audit_log from the journal");
+                jdbcTemplate.update("DELETE FROM order_audit_log");
+                checkpointRepository.deleteById(CHECKPOINT);
+            }
+            return checkpointRepository.findById(CHECKPOINT)
+                    .orElseGet(() -> checkpointRepository.save(new JournalCheckpoint(CHECKPOINT)));
+        });
+        savedScanPosition = checkpoint.getScanPosition();
+        savedAppliedPosition = checkpoint.getAppliedPosition();
+        replayer = new JournalReplayer(journal, savedScanPosition, savedAppliedPosition);
+
+        long applied = 0;
+        int count;
+        while ((count = applyBatch()) > 0) {
+            applied += count;
+        }
+        applied += resolveInDoubt();
+        log.info("Journal recovered: {} events applied in {} ms (position {})",
+                applied, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), savedAppliedPosition);
+    }
+
+    /**
+     * 前回のプロセスで未決のまま残ったトランザクションの確定
+     *
+     * PREPARE 済みで、全イベントの version 以上が DB にあればコミット済み。それ以外は破棄。
+     */
+    private long resolveInDoubt() {
+        long[] txIds = replayer.openTransactions().keySet().stream().mapToLong(Long::longValue).toArray();
+        long applied = 0;
+        for (long txId : txIds) {
+            List<JournalEntry> events = new ArrayList<>();
+            replayer.forEachEvent(txId, e -> events.add(e.copy()));
+            boolean commit = replayer.openTransactions().get(txId).isPrepared() && isInDatabase(events);
+            List<JournalEntry> batch = new ArrayList<>();
+            replayer.resolve(txId, commit, e -> batch.add(e.copy()));
+            JournalEntry.Kind kind = commit ? JournalEntry.Kind.COMMIT : JournalEntry.Kind.ABORT;
+            journal.sync(journal.append(JournalCodec.encodeMarker(kind, txId, System.currentTimeMillis())));
+            if (!batch.isEmpty()) {
+                applyWithRetry(batch);
+                applied += batch.size();
+            }
+            log.warn("In-doubt journal transaction {} resolved as {} ({} events)", txId, kind, events.size());
+        }
+        return applied;
+    }
+
+    private void run() {
+        IdleStrategy idleStrategy = new BackoffIdleStrategy(
+                100, 10, TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(1));
+        while (running) {
+            if (applyBatch() > 0) {
+                idleStrategy.reset();
+            } else if (journal.writtenPosition() > journal.durablePosition()) {
+                // COMMIT / ABORT は追記のみのため、追いついたらまとめて fsync して読めるようにする
+                journal.sync(journal.writtenPosition());
+            } else {
+                idleStrategy.idle();
+            }
+        }
+        journal.sync(journal.writtenPosition());
+        while (applyBatch() > 0) {
+            // 停止前に残りを適用
+        }
+    }
+
+    /**
+     * 確定したイベントを最大 batchSize 件適用（読み込み位置のみ進んだ場合は適用位置だけ保存）
+     *
+     * @return 適用したイベント数
+     */
+    private int applyBatch() {
+        List<JournalEntry> batch = new ArrayList<>();
+        replayer.poll(e -> batch.add(e.copy()), batchSize);
+        if (batch.isEmpty() && replayer.scanPosition() == savedScanPosition
+                && replayer.appliedPosition() == savedAppliedPosition) {
+            return 0;
+        }
+        applyWithRetry(batch);
+        return batch.size();
+    }
+
+    /**
+     * バッチの適用（読み込み済みのため、DB エラー時は成功するまで同じバッチを再試行する）
+     */
+    private void applyWithRetry(List<JournalEntry> batch) {
+        long scanPosition = replayer.scanPosition();
+        long appliedPosition = replayer.appliedPosition();
+        while (true) {
+            try {
+                Set<Long> changed = transactionTemplate.execute(
+                        status -> apply(batch, scanPosition, appliedPosition));
+                savedScanPosition = scanPosition;
+                savedAppliedPosition = appliedPosition;
+                publish(batch, changed);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to apply {} journal events, retrying", batch.size(), e);
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 1トランザクションでの適用
+     *
+     * @return 登録・更新した注文ID
+     */
+    private Set<Long> apply(List<JournalEntry> batch, long scanPosition, long appliedPosition) {
+        Set<Long> changed = new HashSet<>();
+        if (!batch.isEmpty()) {
+            Map<Long, JournalEntry> latest = new LinkedHashMap<>();
+            for (JournalEntry e : batch) {
+                latest.merge(e.orderId, e, (a, b) -> b.version >= a.version ? b : a);
+            }
+            Map<Long, Long> versions = loadVersions(latest.keySet());
+            List<JournalEntry> inserts = new ArrayList<>();
+            List<JournalEntry> updates = new ArrayList<>();
+            for (JournalEntry e : latest.values()) {
+                Long version = versions.get(e.orderId);
+                if (version == null) {
+                    inserts.add(e);
+                } else if (version < e.version) {
+                    updates.add(e);
+                }
+            }
+            jdbcTemplate.batchUpdate(INSERT_ORDER_SQL, inserts, batchSize, JournalApplier::bindInsert);
+            jdbcTemplate.batchUpdate(UPDATE_ORDER_SQL, updates, batchSize, JournalApplier::bindUpdate);
+            jdbcTemplate.batchUpdate(INSERT_AUDIT_SQL, batch, batchSize, JournalApplier::bindAudit);
+            inserts.forEach(e -> changed.add(e.orderId));
+            updates.forEach(e -> changed.add(e.orderId));
+        }
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, scanPosition, appliedPosition,
+                new Timestamp(System.currentTimeMillis()), CHECKPOINT);
+        return changed;
+    }
+
+    /**
+     * DB に反映した変更の通知（DB 側が先にコミットしていたものは発行元が通知済み）
+     */
+    private void publish(List<JournalEntry> batch, Set<Long> changed) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<Long> orderIds = new HashSet<>();
+        for (JournalEntry e : batch) {
+            orderIds.add(e.orderId);
+            if (changed.contains(e.orderId)) {
+                eventPublisher.publishEvent(OrderEvent.fromJournal(
+                        e.eventType, e.previousStatus, referenceDataCache.enrich(e.toOrderDto())));
+            }
+        }
+        recorder.markApplied(orderIds);
+    }
+
+    private boolean isInDatabase(List<JournalEntry> events) {
+        Set<Long> orderIds = new HashSet<>();
+        events.forEach(e -> orderIds.add(e.orderId));
+        Map<Long, Long> versions = loadVersions(orderIds);
+        for (JournalEntry e : events) {
+            Long version = versions.get(e.orderId);
+            if (version == null || version < e.version) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<Long, Long> loadVersions(Collection<Long> orderIds) {
+        Map<Long, Long> versions = new HashMap<>(orderIds.size() * 2);
+        List<Long> ids = new ArrayList<>(orderIds);
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()));
+            String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+            jdbcTemplate.query("SELECT order_id, version FROM orders WHERE order_id IN (" + placeholders + ")",
+                    rs -> {
+                        versions.put(rs.getLong(1), rs.getLong(2));
+                    }, chunk.toArray());
+        }
+        return versions;
+    }
+
+    private static void bindInsert(PreparedStatement ps, JournalEntry e) throws SQLException {
+        ps.setLong(1, e.orderId);
+        ps.setLong(2, e.userId);
+        ps.setLong(3, e.securityId);
+        ps.setString(4, e.orderNo);
+        ps.setString(5, e.side.name());
+        ps.setString(6, e.orderType.name());
+        ps.setBigDecimal(7, FixedPoint.toDecimal(e.quantity));
+        ps.setBigDecimal(8, FixedPoint.toDecimal(e.price));
+        ps.setBigDecimal(9, FixedPoint.toDecimal(e.stopPrice));
+        ps.setString(10, e.timeInForce.name());
+        ps.setString(11, e.status.name());
+        ps.setBigDecimal(12, FixedPoint.toDecimal(e.filledQuantity));
+        ps.setBigDecimal(13, FixedPoint.toDecimal(e.averagePrice));
+        ps.setBigDecimal(14, FixedPoint.toDecimal(e.commission));
+        ps.setTimestamp(15, timestamp(e.orderDate));
+        ps.setTimestamp(16, timestamp(e.validUntil));
+        ps.setString(17, e.notes);
+        ps.setTimestamp(18, timestamp(e.orderDate));
+        ps.setTimestamp(19, timestamp(e.timestamp));
+        ps.setLong(20, e.version);
+    }
+
+    private static void bindUpdate(PreparedStatement ps, JournalEntry e) throws SQLException {
+        ps.setBigDecimal(1, FixedPoint.toDecimal(e.quantity));
+        ps.setBigDecimal(2, FixedPoint.toDecimal(e.price));
+        ps.setBigDecimal(3, FixedPoint.toDecimal(e.stopPrice));
+        ps.setString(4, e.timeInForce.name());
+        ps.setString(5, e.status.name());
+        ps.setBigDecimal(6, FixedPoint.toDecimal(e.filledQuantity));
+        ps.setBigDecimal(7, FixedPoint.toDecimal(e.averagePrice));
+        ps.setBigDecimal(8, FixedPoint.toDecimal(e.commission));
+        ps.setTimestamp(9, timestamp(e.validUntil));
+        ps.setString(10, e.notes);
+        ps.setTimestamp(11, timestamp(e.timestamp));
+        ps.setLong(12, e.version);
+        ps.setLong(13, e.orderId);
+        ps.setLong(14, e.version);
+    }
+
+    private static void bindAudit(PreparedStatement ps, JournalEntry e) throws SQLException {
+        ps.setLong(1, e.orderId);
+        ps.setLong(2, e.userId);
+        ps.setString(3, action(e).name());
+        if (e.previousStatus != null) {
+            ps.setString(4, e.previousStatus.name());
+        } else {
+            ps.setNull(4, Types.VARCHAR);
+        }
+        ps.setString(5, e.status.name());
+        ps.setString(6, details(e));
+        ps.setTimestamp(7, timestamp(e.timestamp));
+    }
+
+    private static AuditAction action(JournalEntry e) {
+        return switch (e.eventType) {
+            case CREATED -> AuditAction.CREATE;
+            case AMENDED -> AuditAction.UPDATE;
+            case CANCELED -> AuditAction.CANCEL;
+            case FILLED -> e.status == OrderStatus.FILLED ? AuditAction.FILL : AuditAction.PARTIAL_FILL;
+            case REJECTED -> AuditAction.REJECT;
+            case EXPIRED -> AuditAction.EXPIRE;
+        };
+    }
+
+    /**
+     * 変更詳細（変更後の数量・価格と version、ジャーナル位置）
+     */
+    private static String details(JournalEntry e) {
+        StringBuilder json = new StringBuilder(192).append("{\"version\":").append(e.version);
+        decimal(json, "quantity", e.quantity);
+        decimal(json, "price", e.price);
+        decimal(json, "stopPrice", e.stopPrice);
+        decimal(json, "filledQuantity", e.filledQuantity);
+        decimal(json, "averagePrice", e.averagePrice);
+        return json.append(",\"journalPosition\":").append(e.position).append('}').toString();
+    }
+
+    private static void decimal(StringBuilder json, String name, long value) {
+        BigDecimal decimal = FixedPoint.toDecimal(value);
+        json.append(",\"").append(name).append("\":").append(decimal != null ? decimal.toPlainString() : "null");
+    }
+
+    private static Timestamp timestamp(long epochMillis) {
+        return epochMillis == FixedPoint.NULL ? null : new Timestamp(epochMillis);
+    }
+}
@@ -0,0 +1,141 @@
+package com.oms.api.journal;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.model.*;
+import com.oms.api.util.FixedPoint;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ジャーナルレコードのバイナリ形式
+ *
+ * <pre>
+ * フレーム: int 本体長 | int CRC32C(本体) | 本体
+ * 本体:     byte 種別 | long txId | long タイムスタンプ | （EVENT のみ）注文スナップショット
+ * </pre>
+ * 列挙型は序数で格納するため、各列挙型の定数は末尾への追加のみ可。
+ */
+public final class JournalCodec {
+
+    /** フレームヘッダ（本体長 + CRC） */
+    public static final int FRAME_HEADER = 8;
+
+    /** 種別 + txId + タイムスタンプ */
+    static final int MARKER_BODY = 17;
+
+    /** EVENT の固定長部分（注文番号・備考を除く） */
+    static final int EVENT_FIXED_BODY = MARKER_BODY + 2 + 4 * 8 + 4 + 8 * 8 + 2 + 4;
+
+    private static final JournalEntry.Kind[] KINDS = JournalEntry.Kind.values();
+    private static final OrderEventType[] EVENT_TYPES = OrderEventType.values();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+    private static final OrderSide[] SIDES = OrderSide.values();
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final TimeInForce[] TIME_IN_FORCES = TimeInForce.values();
+
+    private JournalCodec() {
+    }
+
+    /**
+     * 注文イベントの本体を作成
+     */
+    public static ByteBuffer encodeEvent(long txId, long timestamp, OrderEvent event) {
+        return encodeEvent(txId, timestamp, event.type(), event.previousStatus(), event.order());
+    }
+
+    public static ByteBuffer encodeEvent(long txId, long timestamp, OrderEventType type,
+                                         OrderStatus previousStatus, OrderDto order) {
+        byte[] orderNo = order.getOrderNo().getBytes(StandardCharsets.UTF_8);
+        byte[] notes = order.getNotes() != null ? order.getNotes().getBytes(StandardCharsets.UTF_8) : null;
+        ByteBuffer body = ByteBuffer.allocate(EVENT_FIXED_BODY + orderNo.length + (notes != null ? notes.length : 0));
+        body.put((byte) JournalEntry.Kind.EVENT.ordinal())
+                .putLong(txId)
+                .putLong(timestamp)
+                .put((byte) type.ordinal())
+                .put(previousStatus != null ? (byte) previousStatus.ordinal() : -1)
+                .putLong(order.getOrderId())
+                .putLong(order.getVersion() != null ? order.getVersion() : 0L)
+                .putLong(order.getUserId())
+                .putLong(order.getSecurityId())
+                .put((byte) order.getSide().ordinal())
+                .put((byte) order.getOrderType().ordinal())
+                .put((byte) order.getTimeInForce().ordinal())
+                .put((byte) order.getStatus().ordinal())
+                .putLong(FixedPoint.toScaled(order.getQuantity()))
+                .putLong(FixedPoint.toScaled(order.getPrice()))
+                .putLong(FixedPoint.toScaled(order.getStopPrice()))
+                .putLong(FixedPoint.toScaled(order.getFilledQuantity()))
+                .putLong(FixedPoint.toScaled(order.getAveragePrice()))
+                .putLong(FixedPoint.toScaled(order.getCommission()))
+                .putLong(JournalEntry.toEpochMillis(order.getOrderDate()))
+                .putLong(JournalEntry.toEpochMillis(order.getValidUntil()))
+                .putShort((short) orderNo.length)
+                .put(orderNo)
+                .putInt(notes != null ? notes.length : -1);
+        if (notes != null) {
+            body.put(notes);
+        }
+        return body.flip();
+    }
+
+    /**
+     * PREPARE / COMMIT / ABORT の本体を作成
+     */
+    public static ByteBuffer encodeMarker(JournalEntry.Kind kind, long txId, long timestamp) {
+        return ByteBuffer.allocate(MARKER_BODY)
+                .put((byte) kind.ordinal())
+                .putLong(txId)
+                .putLong(timestamp)
+                .flip();
+    }
+
+    /**
+     * 本体の読み込み（offset は本体の先頭。位置情報は呼び出し側で設定する）
+     */
+    static void decode(ByteBuffer buffer, int offset, JournalEntry entry) {
+        entry.kind = KINDS[buffer.get(offset)];
+        entry.txId = buffer.getLong(offset + 1);
+        entry.timestamp = buffer.getLong(offset + 9);
+        if (entry.kind != JournalEntry.Kind.EVENT) {
+            return;
+        }
+        int i = offset + MARKER_BODY;
+        entry.eventType = EVENT_TYPES[buffer.get(i)];
+        byte previous = buffer.get(i + 1);
+        entry.previousStatus = previous >= 0 ? STATUSES[previous] : null;
+        i += 2;
+        entry.orderId = buffer.getLong(i);
+        entry.version = buffer.getLong(i + 8);
+        entry.userId = buffer.getLong(i + 16);
+        entry.securityId = buffer.getLong(i + 24);
+        i += 32;
+        entry.side = SIDES[buffer.get(i)];
+        entry.orderType = ORDER_TYPES[buffer.get(i + 1)];
+        entry.timeInForce = TIME_IN_FORCES[buffer.get(i + 2)];
+        entry.status = STATUSES[buffer.get(i + 3)];
+        i += 4;
+        entry.quantity = buffer.getLong(i);
+        entry.price = buffer.getLong(i + 8);
+        entry.stopPrice = buffer.getLong(i + 16);
+        entry.filledQuantity = buffer.getLong(i + 24);
+        entry.averagePrice = buffer.getLong(i + 32);
+        entry.commission = buffer.getLong(i + 40);
+        entry.orderDate = buffer.getLong(i + 48);
+        entry.validUntil = buffer.getLong(i + 56);
+        i += 64;
+        int orderNoLength = buffer.getShort(i);
+        entry.orderNo = readString(buffer, i + 2, orderNoLength, entry);
+        i += 2 + orderNoLength;
+        int notesLength = buffer.getInt(i);
+        entry.notes = notesLength >= 0 ? readString(buffer, i + 4, notesLength, entry) : null;
+    }
+
+    private static String readString(ByteBuffer buffer, int offset, int length, JournalEntry entry) {
+        byte[] bytes = entry.scratch(length);
+        buffer.get(offset, bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
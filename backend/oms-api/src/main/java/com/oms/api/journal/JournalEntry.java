@@ -0,0 +1,155 @@
+package com.oms.api.journal;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.model.*;
+import com.oms.api.util.FixedPoint;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * ジャーナルレコード（読み込み時に再利用する可変オブジェクト）
+ *
+ * EVENT は変更後の注文の全項目を持つスナップショット。数量・価格は FixedPoint、日時はエポックミリ秒。
+ * 保持する場合は copy() すること。
+ */
+@Getter
+public final class JournalEntry {
+
+    /**
+     * レコード種別
+     */
+    public enum Kind {
+        EVENT,    // 注文イベント
+        PREPARE,  // トランザクションのコミット直前（fsync 済み）
+        COMMIT,   // トランザクション確定
+        ABORT     // トランザクション破棄
+    }
+
+    long position;
+    long nextPosition;
+
+    Kind kind;
+    long txId;
+    long timestamp;
+
+    OrderEventType eventType;
+    OrderStatus previousStatus;
+    long orderId;
+    long version;
+    long userId;
+    long securityId;
+    OrderSide side;
+    OrderType orderType;
+    TimeInForce timeInForce;
+    OrderStatus status;
+    long quantity;
+    long price;
+    long stopPrice;
+    long filledQuantity;
+    long averagePrice;
+    long commission;
+    long orderDate;
+    long validUntil;
+    String orderNo;
+    String notes;
+
+    @Getter(AccessLevel.NONE)
+    private byte[] scratch = new byte[64];
+
+    /**
+     * 自動コミット（単独で確定する）レコードか
+     */
+    public boolean isAutoCommit() {
+        return txId == 0;
+    }
+
+    public JournalEntry copy() {
+        JournalEntry copy = new JournalEntry();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    public void copyFrom(JournalEntry other) {
+        position = other.position;
+        nextPosition = other.nextPosition;
+        kind = other.kind;
+        txId = other.txId;
+        timestamp = other.timestamp;
+        eventType = other.eventType;
+        previousStatus = other.previousStatus;
+        orderId = other.orderId;
+        version = other.version;
+        userId = other.userId;
+        securityId = other.securityId;
+        side = other.side;
+        orderType = other.orderType;
+        timeInForce = other.timeInForce;
+        status = other.status;
+        quantity = other.quantity;
+        price = other.price;
+        stopPrice = other.stopPrice;
+        filledQuantity = other.filledQuantity;
+        averagePrice = other.averagePrice;
+        commission = other.commission;
+        orderDate = other.orderDate;
+        validUntil = other.validUntil;
+        orderNo = other.orderNo;
+        notes = other.notes;
+    }
+
+    /**
+     * スナップショット -> 注文DTO（銘柄・ユーザーの関連項目は未設定）
+     */
+    public OrderDto toOrderDto() {
+        OrderDto dto = new OrderDto();
+        dto.setOrderId(orderId);
+        dto.setUserId(userId);
+        dto.setSecurityId(securityId);
+        dto.setOrderNo(orderNo);
+        dto.setSide(side);
+        dto.setOrderType(orderType);
+        dto.setQuantity(FixedPoint.toDecimal(quantity));
+        dto.setPrice(FixedPoint.toDecimal(price));
+        dto.setStopPrice(FixedPoint.toDecimal(stopPrice));
+        dto.setTimeInForce(timeInForce);
+        dto.setStatus(status);
+        dto.setFilledQuantity(FixedPoint.toDecimal(filledQuantity));
+        dto.setAveragePrice(FixedPoint.toDecimal(averagePrice));
+        dto.setCommission(FixedPoint.toDecimal(commission));
+        dto.setOrderDate(toDateTime(orderDate));
+        dto.setValidUntil(toDateTime(validUntil));
+        dto.setNotes(notes);
+        dto.setCreatedAt(toDateTime(orderDate));
+        dto.setUpdatedAt(toDateTime(timestamp));
+        dto.setVersion(version);
+        dto.setRemainingQuantity(FixedPoint.toDecimal(quantity - filledQuantity));
+        // Order#getFillRate と同じ計算
+        BigDecimal total = FixedPoint.toDecimal(quantity);
+        dto.setFillRate(total.signum() == 0 ? BigDecimal.ZERO
+                : dto.getFilledQuantity().divide(total, 4, RoundingMode.HALF_UP).multiply(BigDecimal.valueOf(100)));
+        return dto;
+    }
+
+    byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime == null ? FixedPoint.NULL : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    static LocalDateTime toDateTime(long epochMillis) {
+        return epochMillis == FixedPoint.NULL ? null
+                : LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
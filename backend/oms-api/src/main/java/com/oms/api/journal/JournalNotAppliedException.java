@@ -0,0 +1,11 @@
+package com.oms.api.journal;
+
+/**
+ * ジャーナルのみで確定した注文が apply-wait-ms 以内に DB に登録されなかった場合の例外（HTTP 503、再試行可）
+ */
+public class JournalNotAppliedException extends RuntimeException {
+
+    public JournalNotAppliedException(String message) {
+        super(message);
+    }
+}
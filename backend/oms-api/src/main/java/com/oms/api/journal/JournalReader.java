@@ -0,0 +1,77 @@
+package com.oms.api.journal;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * ジャーナルの順次読み込み（単一スレッドで使用）
+ *
+ * 永続化済みの位置までを読み、追記が進めば続きから読める（末尾の追跡に使える）。
+ */
+public final class JournalReader {
+
+    private final OrderJournal journal;
+    private final CRC32C crc = new CRC32C();
+    private long position;
+
+    JournalReader(OrderJournal journal, long position) {
+        this.journal = journal;
+        this.position = position;
+    }
+
+    /**
+     * 次のレコードを entry に読み込む
+     *
+     * @return 永続化済みのレコードがなければ false
+     */
+    public boolean next(JournalEntry entry) {
+        long limit = journal.durablePosition();
+        while (position < limit) {
+            OrderJournal.Segment segment = journal.segmentAt(position);
+            int offset = (int) (position - segment.base());
+            int length = offset + JournalCodec.FRAME_HEADER <= journal.segmentSize()
+                    ? segment.buffer().getInt(offset) : 0;
+            if (length == 0) {
+                // セグメント末尾の空き（次のセグメントへ）
+                position = segment.base() + journal.segmentSize();
+                continue;
+            }
+            decodeFrame(segment, offset, length, entry);
+            entry.position = position;
+            position += JournalCodec.FRAME_HEADER + length;
+            entry.nextPosition = position;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 指定位置のレコードを読み込む（読み込み位置は変えない）
+     */
+    public void read(long recordPosition, JournalEntry entry) {
+        OrderJournal.Segment segment = journal.segmentAt(recordPosition);
+        int offset = (int) (recordPosition - segment.base());
+        int length = segment.buffer().getInt(offset);
+        decodeFrame(segment, offset, length, entry);
+        entry.position = recordPosition;
+        entry.nextPosition = recordPosition + JournalCodec.FRAME_HEADER + length;
+    }
+
+    /**
+     * 次に読む位置
+     */
+    public long position() {
+        return position;
+    }
+
+    private void decodeFrame(OrderJournal.Segment segment, int offset, int length, JournalEntry entry) {
+        ByteBuffer buffer = segment.buffer();
+        int body = offset + JournalCodec.FRAME_HEADER;
+        crc.reset();
+        crc.update(buffer.slice(body, length));
+        if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+            throw new IllegalStateException("Corrupt journal record at position " + (segment.base() + offset));
+        }
+        JournalCodec.decode(buffer, body, entry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.oms.api.journal;
+
+import com.oms.api.model.OrderStatus;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * ジャーナルのリプレイ（注文状態のメモリ上での再構築と件数・速度の表示）
+ *
+ * Spring を起動せずにジャーナルを読み込み専用で開く。DB（orders・order_audit_log）の再構築は
+ * アプリを oms.journal.rebuild-on-startup=true で起動して行う。
+ *
+ * <pre>
+ * java -cp oms-api.jar -Dloader.main=com.oms.api.journal.JournalReplayTool \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher ./data/journal
+ * </pre>
+ */
+public final class JournalReplayTool {
+
+    private JournalReplayTool() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path directory = Path.of(args.length > 0 ? args[0] : "./data/journal");
+        try (OrderJournal journal = OrderJournal.openReadOnly(directory)) {
+            long started = System.nanoTime();
+            Long2ObjectHashMap<JournalEntry> orders = new Long2ObjectHashMap<>();
+            JournalReplayer replayer = new JournalReplayer(journal, journal.startPosition(), 0);
+            long events = rebuild(replayer, orders);
+            double seconds = (System.nanoTime() - started) / 1e9;
+
+            Map<OrderStatus, Integer> byStatus = new EnumMap<>(OrderStatus.class);
+            for (JournalEntry order : orders.values()) {
+                byStatus.merge(order.status, 1, Integer::sum);
+            }
+            System.out.printf("journal     : %s (%d bytes)%n", directory, journal.durablePosition() - journal.startPosition());
+            System.out.printf("events      : %d in %.3f s (%.0f events/s)%n", events, seconds, events / seconds);
+            System.out.printf("orders      : %d %s%n", orders.size(), byStatus);
+            System.out.printf("in doubt    : %d transactions (not applied)%n", replayer.openTransactions().size());
+        }
+    }
+
+    /**
+     * 確定したイベントを末尾まで適用し、注文ごとの最新スナップショットを orders に構築する
+     *
+     * @return 適用したイベント数
+     */
+    public static long rebuild(JournalReplayer replayer, Long2ObjectHashMap<JournalEntry> orders) {
+        long[] events = new long[1];
+        while (replayer.poll(entry -> {
+            JournalEntry current = orders.get(entry.orderId);
+            if (current == null) {
+                orders.put(entry.orderId, entry.copy());
+            } else if (entry.version >= current.version) {
+                current.copyFrom(entry);
+            }
+            events[0]++;
+        }, 65536) > 0) {
+            // 末尾まで読む
+        }
+        return events[0];
+    }
+}
@@ -0,0 +1,138 @@
+package com.oms.api.journal;
+
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.collections.LongArrayList;
+
+import java.util.function.Consumer;
+
+/**
+ * 確定したイベントだけを確定順に取り出すジャーナルの読み手
+ *
+ * トランザクション内のイベントは COMMIT まで位置だけを保持し、COMMIT で読み直して渡す。
+ * ABORT されたもの・未決のものは渡さない。自動コミットのレコードは読んだ時点で渡す。
+ * appliedPosition より前で確定したものは適用済みとして読み飛ばす（再起動時の重複適用防止）。
+ */
+public final class JournalReplayer {
+
+    private final JournalReader reader;
+    private final long skipBefore;
+    private final Long2ObjectHashMap<OpenTransaction> open = new Long2ObjectHashMap<>();
+    private final JournalEntry entry = new JournalEntry();
+    private final JournalEntry txEntry = new JournalEntry();
+
+    /**
+     * 未決トランザクション
+     */
+    public static final class OpenTransaction {
+        private final long firstPosition;
+        private final LongArrayList positions = new LongArrayList();
+        private boolean prepared;
+
+        private OpenTransaction(long firstPosition) {
+            this.firstPosition = firstPosition;
+        }
+
+        /** PREPARE 済み（DB のコミット直前まで進んでいた）か */
+        public boolean isPrepared() {
+            return prepared;
+        }
+    }
+
+    /**
+     * @param scanPosition    読み始める位置
+     * @param appliedPosition この位置より前で確定したものは渡さない
+     */
+    public JournalReplayer(OrderJournal journal, long scanPosition, long appliedPosition) {
+        this.reader = journal.reader(scanPosition);
+        this.skipBefore = appliedPosition;
+    }
+
+    /**
+     * 確定したイベントを sink に渡す（max 件以上渡したら戻る。トランザクションは分割しない）
+     *
+     * sink に渡す JournalEntry は再利用されるため、保持する場合は copy() すること。
+     *
+     * @return 渡したイベント数
+     */
+    public int poll(Consumer<JournalEntry> sink, int max) {
+        int delivered = 0;
+        while (delivered < max && reader.next(entry)) {
+            switch (entry.kind) {
+                case EVENT -> {
+                    if (entry.isAutoCommit()) {
+                        if (entry.position >= skipBefore) {
+                            sink.accept(entry);
+                            delivered++;
+                        }
+                    } else {
+                        open.computeIfAbsent(entry.txId, id -> new OpenTransaction(entry.position))
+                                .positions.addLong(entry.position);
+                    }
+                }
+                case PREPARE -> open.computeIfAbsent(entry.txId, id -> new OpenTransaction(entry.position))
+                        .prepared = true;
+                case COMMIT -> {
+                    OpenTransaction tx = open.remove(entry.txId);
+                    if (tx != null && entry.position >= skipBefore) {
+                        delivered += deliver(tx, sink);
+                    }
+                }
+                case ABORT -> open.remove(entry.txId);
+            }
+        }
+        return delivered;
+    }
+
+    /**
+     * 未決トランザクション（末尾まで読んだ時点で COMMIT / ABORT のないもの）
+     */
+    public Long2ObjectHashMap<OpenTransaction> openTransactions() {
+        return open;
+    }
+
+    /**
+     * 未決トランザクションのイベントを読む（確定判定用）
+     */
+    public void forEachEvent(long txId, Consumer<JournalEntry> sink) {
+        OpenTransaction tx = open.get(txId);
+        if (tx != null) {
+            deliver(tx, sink);
+        }
+    }
+
+    /**
+     * 未決トランザクションの確定（commit = true なら sink に渡す）
+     *
+     * @return 渡したイベント数
+     */
+    public int resolve(long txId, boolean commit, Consumer<JournalEntry> sink) {
+        OpenTransaction tx = open.remove(txId);
+        return tx != null && commit ? deliver(tx, sink) : 0;
+    }
+
+    /**
+     * 再起動時に読み始める位置（未決トランザクションがあればその先頭）
+     */
+    public long scanPosition() {
+        long position = reader.position();
+        for (OpenTransaction tx : open.values()) {
+            position = Math.min(position, tx.firstPosition);
+        }
+        return position;
+    }
+
+    /**
+     * ここより前で確定したものは渡し済み
+     */
+    public long appliedPosition() {
+        return reader.position();
+    }
+
+    private int deliver(OpenTransaction tx, Consumer<JournalEntry> sink) {
+        for (int i = 0; i < tx.positions.size(); i++) {
+            reader.read(tx.positions.getLong(i), txEntry);
+            sink.accept(txEntry);
+        }
+        return tx.positions.size();
+    }
+}
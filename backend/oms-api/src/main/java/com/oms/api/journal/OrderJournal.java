@@ -0,0 +1,276 @@
+package com.oms.api.journal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * 追記専用の注文ジャーナル（メモリマップした固定長セグメントファイル）
+ *
+ * 位置はジャーナル先頭からの通し番号で、セグメントファイル名はそのセグメントの開始位置。
+ * レコードがセグメントの残りに収まらない場合は残りを空けて次のセグメントへ進む。
+ * sync はグループコミット方式で、待機中の書き込みをまとめて1回の force で永続化する。
+ */
+@Slf4j
+public final class OrderJournal implements Closeable {
+
+    private static final String SUFFIX = ".journal";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean readOnly;
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final ReentrantLock syncLock = new ReentrantLock();
+    private final CRC32C crc = new CRC32C();
+
+    private Segment current;
+    private int writeOffset;
+    private volatile long writtenPosition;
+    private volatile long durablePosition;
+    private volatile boolean closed;
+
+    record Segment(long base, FileChannel channel, MappedByteBuffer buffer) {
+    }
+
+    private OrderJournal(Path directory, int segmentSize, boolean readOnly) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * ジャーナルを開く（なければ作成。末尾の書きかけレコードは切り捨てる）
+     */
+    public static OrderJournal open(Path directory, int segmentSize) throws IOException {
+        Files.createDirectories(directory);
+        OrderJournal journal = new OrderJournal(directory, segmentSize, false);
+        journal.load();
+        return journal;
+    }
+
+    /**
+     * 読み込み専用で開く（リプレイツール用。セグメント長は既存ファイルから決まる）
+     */
+    public static OrderJournal openReadOnly(Path directory) throws IOException {
+        List<Path> files = list(directory);
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No journal segments in " + directory);
+        }
+        OrderJournal journal = new OrderJournal(directory, (int) Files.size(files.get(0)), true);
+        journal.load();
+        return journal;
+    }
+
+    /**
+     * レコード本体の追記（body の position から limit まで）
+     *
+     * @return 追記後の末尾位置（sync に渡す）
+     */
+    public long append(ByteBuffer body) {
+        int length = body.remaining();
+        int frameLength = JournalCodec.FRAME_HEADER + length;
+        if (frameLength > segmentSize) {
+            throw new IllegalArgumentException("Journal record too large: " + length + " bytes");
+        }
+        appendLock.lock();
+        try {
+            if (closed || readOnly) {
+                throw new IllegalStateException("Journal is not writable: " + directory);
+            }
+            if (writeOffset + frameLength > segmentSize) {
+                roll();
+            }
+            crc.reset();
+            crc.update(body.duplicate());
+            MappedByteBuffer buffer = current.buffer();
+            buffer.putInt(writeOffset + 4, (int) crc.getValue());
+            buffer.put(writeOffset + JournalCodec.FRAME_HEADER, body, body.position(), length);
+            buffer.putInt(writeOffset, length);
+            writeOffset += frameLength;
+            writtenPosition = current.base() + writeOffset;
+            return writtenPosition;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to roll journal segment in " + directory, e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * position までの永続化（他スレッドの sync で永続化済みなら待たずに戻る）
+     */
+    public void sync(long position) {
+        if (durablePosition >= position) {
+            return;
+        }
+        syncLock.lock();
+        try {
+            if (durablePosition >= position) {
+                return;
+            }
+            long from = durablePosition;
+            long to = writtenPosition;
+            for (Segment segment : segments) {
+                long start = Math.max(from, segment.base());
+                long end = Math.min(to, segment.base() + segmentSize);
+                if (start < end) {
+                    segment.buffer().force((int) (start - segment.base()), (int) (end - start));
+                }
+            }
+            durablePosition = to;
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * 読み込み開始（永続化済みの範囲のみ読む）
+     */
+    public JournalReader reader(long fromPosition) {
+        return new JournalReader(this, Math.max(fromPosition, startPosition()));
+    }
+
+    public long startPosition() {
+        return segments.isEmpty() ? 0 : segments.get(0).base();
+    }
+
+    public long writtenPosition() {
+        return writtenPosition;
+    }
+
+    public long durablePosition() {
+        return durablePosition;
+    }
+
+    int segmentSize() {
+        return segmentSize;
+    }
+
+    Segment segmentAt(long position) {
+        return segments.get((int) ((position - startPosition()) / segmentSize));
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!readOnly) {
+            sync(writtenPosition);
+        }
+        appendLock.lock();
+        try {
+            closed = true;
+            for (Segment segment : segments) {
+                segment.channel().close();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        log.info("Journal closed at position {}", writtenPosition);
+    }
+
+    // ===== Private Methods =====
+
+    private void load() throws IOException {
+        for (Path file : list(directory)) {
+            segments.add(map(file, parseBase(file)));
+        }
+        if (segments.isEmpty()) {
+            if (readOnly) {
+                return;
+            }
+            segments.add(map(directory.resolve(fileName(0)), 0));
+        }
+        current = segments.get(segments.size() - 1);
+        writeOffset = recoverEnd(current);
+        writtenPosition = current.base() + writeOffset;
+        durablePosition = writtenPosition;
+        log.info("Journal opened: {} ({} segments, position {})", directory, segments.size(), writtenPosition);
+    }
+
+    /**
+     * 最終セグメントの有効な末尾を探す（CRC 不一致以降は書きかけとみなしてゼロクリア）
+     */
+    private int recoverEnd(Segment segment) {
+        MappedByteBuffer buffer = segment.buffer();
+        CRC32C check = new CRC32C();
+        ByteBuffer view = buffer.duplicate();
+        int offset = 0;
+        while (offset + JournalCodec.FRAME_HEADER <= segmentSize) {
+            int length = buffer.getInt(offset);
+            if (length == 0) {
+                return offset;
+            }
+            int end = offset + JournalCodec.FRAME_HEADER + length;
+            boolean valid = length > 0 && end <= segmentSize;
+            if (valid) {
+                check.reset();
+                check.update(view.limit(end).position(offset + JournalCodec.FRAME_HEADER));
+                view.clear();
+                valid = (int) check.getValue() == buffer.getInt(offset + 4);
+            }
+            if (!valid) {
+                log.warn("Truncating torn journal record at position {}", segment.base() + offset);
+                if (!readOnly) {
+                    for (int i = offset; i < segmentSize; i++) {
+                        buffer.put(i, (byte) 0);
+                    }
+                    buffer.force();
+                }
+                return offset;
+            }
+            offset = end;
+        }
+        return offset;
+    }
+
+    private void roll() throws IOException {
+        long base = current.base() + segmentSize;
+        Segment next = map(directory.resolve(fileName(base)), base);
+        segments.add(next);
+        current = next;
+        writeOffset = 0;
+        log.info("Journal rolled to segment {}", base);
+    }
+
+    private Segment map(Path file, long base) throws IOException {
+        FileChannel channel = readOnly
+                ? FileChannel.open(file, StandardOpenOption.READ)
+                : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(
+                readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        return new Segment(base, channel, buffer);
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> sorted = new ArrayList<>(files.filter(f -> f.getFileName().toString().endsWith(SUFFIX)).toList());
+            sorted.sort((a, b) -> Long.compare(parseBase(a), parseBase(b)));
+            return sorted;
+        }
+    }
+
+    private static String fileName(long base) {
+        return String.format("%020d%s", base, SUFFIX);
+    }
+
+    private static long parseBase(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+}
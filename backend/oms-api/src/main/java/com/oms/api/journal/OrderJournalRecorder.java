@@ -0,0 +1,160 @@
+package com.oms.api.journal;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.metrics.OrderMetrics;
+import com.oms.api.metrics.OrderMetrics.Stage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 注文イベントのジャーナル記録
+ *
+ * トランザクション内のイベントは発行時に追記し、DB コミット直前に PREPARE を書いて fsync する。
+ * コミット・ロールバック後に COMMIT / ABORT を追記する（fsync は後続の sync にまとめる）。
+ * トランザクション外のイベントは単独で確定するレコードとして追記・fsync する。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.journal.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderJournalRecorder {
+
+    private final OrderJournal journal;
+    private final OrderMetrics orderMetrics;
+
+    /** トランザクションID（起動時刻を上位ビットに置き、再起動をまたいで重複させない） */
+    private final AtomicLong txIds = new AtomicLong(System.currentTimeMillis() << 20);
+
+    /** ジャーナル確定済みで DB 未適用の注文（journal 応答モードの新規注文） */
+    private final Set<Long> unapplied = ConcurrentHashMap.newKeySet();
+
+    @Value("${oms.journal.apply-wait-ms:5000}")
+    private long applyWaitMs;
+
+    @EventListener
+    public void onOrderEvent(OrderEvent event) {
+        if (event.journaled()) {
+            return;
+        }
+        long timestamp = System.currentTimeMillis();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            long end = journal.append(JournalCodec.encodeEvent(0, timestamp, event));
+            orderMetrics.record(Stage.JOURNAL, () -> journal.sync(end));
+            return;
+        }
+        JournalTransaction tx = (JournalTransaction) TransactionSynchronizationManager.getResource(this);
+        if (tx == null) {
+            tx = new JournalTransaction(txIds.incrementAndGet());
+            TransactionSynchronizationManager.bindResource(this, tx);
+            TransactionSynchronizationManager.registerSynchronization(tx);
+        }
+        journal.append(JournalCodec.encodeEvent(tx.id, timestamp, event));
+    }
+
+    /**
+     * 新規注文をジャーナルのみに記録して確定する（DB への登録は JournalApplier が非同期に行う）
+     */
+    public void recordCreated(OrderDto order) {
+        unapplied.add(order.getOrderId());
+        long end = journal.append(JournalCodec.encodeEvent(0, System.currentTimeMillis(), OrderEvent.created(order)));
+        orderMetrics.record(Stage.JOURNAL, () -> journal.sync(end));
+    }
+
+    /**
+     * 注文が DB に登録されるまで待つ（ジャーナルのみで確定した直後の修正・取消・照会用）
+     *
+     * @throws JournalNotAppliedException apply-wait-ms 以内に登録されなかった場合
+     */
+    public void awaitApplied(Long orderId) {
+        if (!unapplied.contains(orderId)) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(applyWaitMs);
+        while (unapplied.contains(orderId)) {
+            if (System.nanoTime() > deadline) {
+                throw new JournalNotAppliedException("Order " + orderId + " is not yet persisted, retry later");
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * 呼び出し時点でジャーナルのみで確定している注文がすべて DB に登録されるまで待つ（一括取消用）
+     *
+     * @throws JournalNotAppliedException apply-wait-ms 以内に登録されなかった場合
+     */
+    public void awaitAllApplied() {
+        if (unapplied.isEmpty()) {
+            return;
+        }
+        Set<Long> pending = new HashSet<>(unapplied);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(applyWaitMs);
+        while (true) {
+            pending.retainAll(unapplied);
+            if (pending.isEmpty()) {
+                return;
+            }
+            if (System.nanoTime() > deadline) {
+                throw new JournalNotAppliedException(pending.size() + " journaled orders are not yet persisted, retry later");
+            }
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    /**
+     * DB 適用済みの通知（JournalApplier のコミット後）
+     */
+    void markApplied(Collection<Long> orderIds) {
+        if (!unapplied.isEmpty()) {
+            unapplied.removeAll(orderIds);
+        }
+    }
+
+    /**
+     * トランザクション単位の記録（コミット直前の PREPARE + fsync、完了後の COMMIT / ABORT）
+     */
+    private final class JournalTransaction implements TransactionSynchronization {
+        private final long id;
+
+        private JournalTransaction(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            long end = journal.append(JournalCodec.encodeMarker(JournalEntry.Kind.PREPARE, id, System.currentTimeMillis()));
+            orderMetrics.record(Stage.JOURNAL, () -> journal.sync(end));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResource(OrderJournalRecorder.this);
+            if (status == STATUS_UNKNOWN) {
+                log.warn("Outcome of transaction {} is unknown, leaving it in doubt until the next recovery", id);
+                return;
+            }
+            JournalEntry.Kind kind = status == STATUS_COMMITTED ? JournalEntry.Kind.COMMIT : JournalEntry.Kind.ABORT;
+            try {
+                journal.append(JournalCodec.encodeMarker(kind, id, System.currentTimeMillis()));
+            } catch (RuntimeException e) {
+                // 未決のまま残ったトランザクションは次回起動時に DB の状態から確定する
+                log.error("Failed to journal {} for transaction {}", kind, id, e);
+            }
+        }
+    }
+}
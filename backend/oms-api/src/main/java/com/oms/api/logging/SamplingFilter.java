@@ -0,0 +1,43 @@
+package com.oms.api.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ログのサンプリングフィルター（1秒あたり maxPerSecond 件まで通し、超過分は捨てる）
+ *
+ * スロークエリログのように負荷が高いときほど件数が増えるログに付け、
+ * ログ出力自体が負荷を増幅しないようにする。捨てた件数は次の秒の最初の判定時に Logback のステータスへ WARN で記録する。
+ */
+public class SamplingFilter extends Filter<ILoggingEvent> {
+
+    private int maxPerSecond = 10;
+    private final AtomicLong window = new AtomicLong();
+    private final AtomicLong passed = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        long second = event.getTimeStamp() / 1000;
+        long current = window.get();
+        if (second != current && window.compareAndSet(current, second)) {
+            passed.set(0);
+            long droppedLastWindow = dropped.getAndSet(0);
+            if (droppedLastWindow > 0) {
+                addWarn("Sampled out " + droppedLastWindow + " events from " + event.getLoggerName());
+            }
+        }
+        if (passed.incrementAndGet() <= maxPerSecond) {
+            return FilterReply.NEUTRAL;
+        }
+        dropped.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    public void setMaxPerSecond(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+}
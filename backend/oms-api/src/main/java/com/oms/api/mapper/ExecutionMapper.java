@@ -0,0 +1,23 @@
+package com.oms.api.mapper;
+
+import com.oms.api.dto.ExecutionDto;
+import com.oms.api.model.Execution;
+import com.oms.api.model.OrderSide;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 約定 Entity -> DTO 変換（MapStruct によるコンパイル時生成）
+ *
+ * userId / side は発注側の項目のため呼び出し側から渡す。
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface ExecutionMapper {
+
+    @Mapping(target = "userId", source = "userId")
+    @Mapping(target = "side", source = "side")
+    ExecutionDto toDto(Execution execution, Long userId, OrderSide side);
+}
@@ -0,0 +1,31 @@
+package com.oms.api.mapper;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.model.ArchivedOrder;
+import com.oms.api.model.Order;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+
+/**
+ * 発注 Entity -> DTO 変換（MapStruct によるコンパイル時生成）
+ *
+ * 計算フィールド remainingQuantity / fillRate は Order の同名 getter から写像される。
+ * 関連データ（銘柄・ユーザー）は JOIN 結果のため対象外。
+ * アーカイブ済みの注文は toOrder で Order に詰め替えてから変換する。
+ */
+@Mapper(componentModel = MappingConstants.ComponentModel.SPRING,
+        unmappedTargetPolicy = ReportingPolicy.ERROR)
+public interface OrderMapper {
+
+    @Mapping(target = "securityCode", ignore = true)
+    @Mapping(target = "securityName", ignore = true)
+    @Mapping(target = "username", ignore = true)
+    OrderDto toDto(Order order);
+
+    /**
+     * アーカイブ済み注文の Order への詰め替え（永続化コンテキストに属さない Order を返す）
+     */
+    Order toOrder(ArchivedOrder archived);
+}
@@ -0,0 +1,38 @@
+package com.oms.api.marketdata;
+
+import com.oms.api.dto.MarketBarDto;
+import com.oms.api.model.MarketData;
+import com.oms.api.util.FixedPoint;
+
+import java.time.LocalDate;
+
+/**
+ * 日足のスナップショット（価格は FixedPoint）
+ */
+public record DailyBar(long securityId, LocalDate date, long open, long high, long low, long close, long volume) {
+
+    static DailyBar of(MarketBarDto dto) {
+        return new DailyBar(dto.getSecurityId(), dto.getDataDate(),
+                FixedPoint.toScaled(dto.getOpenPrice()), FixedPoint.toScaled(dto.getHighPrice()),
+                FixedPoint.toScaled(dto.getLowPrice()), FixedPoint.toScaled(dto.getClosePrice()), dto.getVolume());
+    }
+
+    static DailyBar of(MarketData data) {
+        return new DailyBar(data.getSecurityId(), data.getDataDate(),
+                FixedPoint.toScaled(data.getOpenPrice()), FixedPoint.toScaled(data.getHighPrice()),
+                FixedPoint.toScaled(data.getLowPrice()), FixedPoint.toScaled(data.getClosePrice()),
+                data.getVolume() != null ? data.getVolume() : 0);
+    }
+
+    MarketBarDto toDto() {
+        MarketBarDto dto = new MarketBarDto();
+        dto.setSecurityId(securityId);
+        dto.setDataDate(date);
+        dto.setOpenPrice(FixedPoint.toDecimal(open));
+        dto.setHighPrice(FixedPoint.toDecimal(high));
+        dto.setLowPrice(FixedPoint.toDecimal(low));
+        dto.setClosePrice(FixedPoint.toDecimal(close));
+        dto.setVolume(volume);
+        return dto;
+    }
+}
@@ -0,0 +1,395 @@
+package com.oms.api.marketdata;
+
+import com.oms.api.dto.MarketBarDto;
+import com.oms.api.dto.MarketStatsDto;
+import com.oms.api.dto.MarketTickDto;
+import com.oms.api.model.MarketData;
+import com.oms.api.position.PositionService;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.MarketDataRepository;
+import com.oms.api.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.Long2LongHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 市場データサービス（ティック・日足の取り込み、期間照会、ポジションの値洗い）
+ *
+ * ティックは銘柄ごとの TickSeries（オフヒープの列指向リングバッファ）に追加し、当日足もメモリ上で更新する。
+ * ティックごとの DB 書き込みは行わず、変更された足を一定間隔で market_data にまとめて書き戻す。
+ * 値洗い（評価損益の再計算）は PositionService に委譲し、その銘柄の保有ポジションだけが対象になる。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.marketdata.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class MarketDataService {
+
+    private static final int IN_CLAUSE_SIZE = 500;
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final String UPDATE_SQL =
+            "UPDATE market_data SET open_price = ?, high_price = ?, low_price = ?, close_price = ?, volume = ? " +
+            "WHERE security_id = ? AND data_date = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO market_data (open_price, high_price, low_price, close_price, volume, security_id, data_date, " +
+            "created_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final MarketDataRepository marketDataRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final ObjectProvider<PositionService> positionService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${oms.marketdata.tick-capacity:16384}")
+    private int tickCapacity;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    private final ConcurrentHashMap<Long, TickSeries> series = new ConcurrentHashMap<>();
+    private final Set<TickSeries> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<DailyBar> closedBars = new ConcurrentLinkedQueue<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 起動時に当日足を復元し、終値でポジションを値洗いする
+     */
+    @PostConstruct
+    public void load() {
+        if (tickCapacity <= 0 || Integer.bitCount(tickCapacity) != 1) {
+            throw new IllegalStateException("oms.marketdata.tick-capacity must be a power of two: " + tickCapacity);
+        }
+        List<MarketData> today = marketDataRepository.findByDataDate(LocalDate.now());
+        for (MarketData data : today) {
+            if (data.getClosePrice() == null) {
+                continue;
+            }
+            TickSeries s = seriesFor(data.getSecurityId());
+            s.putBar(DailyBar.of(data), true);
+            markToMarket(data.getSecurityId(), s.lastPrice());
+        }
+        log.info("Market data loaded: {} bars for {}", today.size(), LocalDate.now());
+    }
+
+    /**
+     * ティックの取り込み
+     */
+    public void onTick(MarketTickDto tick) {
+        validate(tick);
+        markToMarket(tick.getSecurityId(), append(tick));
+    }
+
+    /**
+     * ティックの一括取り込み（値洗いは銘柄ごとに最後の価格で1回だけ行う）
+     *
+     * @return 取り込んだ件数
+     */
+    public int onTicks(List<MarketTickDto> ticks) {
+        // 不正な銘柄を含む場合は1件も取り込まない
+        for (MarketTickDto tick : ticks) {
+            validate(tick);
+        }
+        Long2LongHashMap lastPrices = new Long2LongHashMap(FixedPoint.NULL);
+        for (MarketTickDto tick : ticks) {
+            lastPrices.put(tick.getSecurityId().longValue(), append(tick));
+        }
+        for (Long2LongHashMap.EntryIterator it = lastPrices.entrySet().iterator(); it.hasNext(); ) {
+            it.next();
+            markToMarket(it.getLongKey(), it.getLongValue());
+        }
+        return ticks.size();
+    }
+
+    /**
+     * 日足の一括取り込み（当日以降の足はメモリ上の当日足を置き換え、過去分は次回の書き戻しで登録する）
+     *
+     * @return 取り込んだ件数
+     */
+    public int onBars(List<MarketBarDto> bars) {
+        for (MarketBarDto bar : bars) {
+            validate(bar);
+        }
+        for (MarketBarDto bar : bars) {
+            TickSeries s = seriesFor(bar.getSecurityId());
+            s.putBar(DailyBar.of(bar), false);
+            dirty.add(s);
+        }
+        return bars.size();
+    }
+
+    /**
+     * 期間 [from, to) のティック（時刻順、最大 limit 件）
+     */
+    public List<MarketTickDto> getTicks(Long securityId, LocalDateTime from, LocalDateTime to, int limit) {
+        TickSeries s = series.get(securityId);
+        List<MarketTickDto> result = new ArrayList<>(Math.min(limit, 1024));
+        if (s == null) {
+            return result;
+        }
+        s.ticks(toMillis(from, Long.MIN_VALUE), toMillis(to, Long.MAX_VALUE), limit, (time, price, volume) -> {
+            MarketTickDto dto = new MarketTickDto();
+            dto.setSecurityId(securityId);
+            dto.setPrice(FixedPoint.toDecimal(price));
+            dto.setVolume(volume);
+            dto.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(time), ZONE));
+            result.add(dto);
+        });
+        return result;
+    }
+
+    /**
+     * 期間 [from, to) の集計（VWAP・高値・安値など。from/to 省略時は保持している全ティック）
+     */
+    public MarketStatsDto getStats(Long securityId, LocalDateTime from, LocalDateTime to) {
+        MarketStatsDto dto = new MarketStatsDto();
+        dto.setSecurityId(securityId);
+        dto.setFrom(from);
+        dto.setTo(to);
+        TickSeries s = series.get(securityId);
+        if (s == null) {
+            return dto;
+        }
+        TickSeries.Stats stats = s.stats(toMillis(from, Long.MIN_VALUE), toMillis(to, Long.MAX_VALUE));
+        dto.setTickCount(stats.tickCount());
+        dto.setOpen(FixedPoint.toDecimal(stats.open()));
+        dto.setHigh(FixedPoint.toDecimal(stats.high()));
+        dto.setLow(FixedPoint.toDecimal(stats.low()));
+        dto.setClose(FixedPoint.toDecimal(stats.close()));
+        dto.setVolume(stats.volume());
+        if (stats.volume() > 0) {
+            dto.setVwap(FixedPoint.toDecimal(Math.round(stats.notional() / stats.volume())));
+        }
+        return dto;
+    }
+
+    /**
+     * 期間の日足（market_data に未書き戻しの当日足はメモリ上の値で補う）
+     */
+    public List<MarketBarDto> getBars(Long securityId, LocalDate from, LocalDate to) {
+        Map<LocalDate, MarketBarDto> bars = new TreeMap<>();
+        List<MarketData> stored =
+                marketDataRepository.findBySecurityIdAndDataDateBetweenOrderByDataDate(securityId, from, to);
+        for (MarketData data : stored) {
+            bars.put(data.getDataDate(), DailyBar.of(data).toDto());
+        }
+        TickSeries s = series.get(securityId);
+        DailyBar current = s != null ? s.currentBar() : null;
+        if (current != null && !current.date().isBefore(from) && !current.date().isAfter(to)) {
+            bars.put(current.date(), current.toDto());
+        }
+        return new ArrayList<>(bars.values());
+    }
+
+    /**
+     * 直近の価格（なければ null）
+     */
+    public BigDecimal getLastPrice(Long securityId) {
+        TickSeries s = series.get(securityId);
+        return s != null ? FixedPoint.toDecimal(s.lastPrice()) : null;
+    }
+
+    /**
+     * 停止時に未書き込みの足を書き戻す
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 変更された日足の一括書き戻し
+     *
+     * 日付ごとに既存行を1回の IN 検索で確認し、既存は UPDATE、未登録は INSERT を JDBC バッチで実行する。
+     * 失敗時は次回の書き戻しで再試行する。
+     */
+    @Scheduled(fixedDelayString = "${oms.marketdata.flush-interval-ms:1000}")
+    public void flush() {
+        if (dirty.isEmpty() && closedBars.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    private long append(MarketTickDto tick) {
+        LocalDateTime timestamp = tick.getTimestamp() != null ? tick.getTimestamp() : LocalDateTime.now();
+        long price = FixedPoint.toScaled(tick.getPrice());
+        TickSeries s = seriesFor(tick.getSecurityId());
+        s.append(toMillis(timestamp, 0), timestamp.toLocalDate(), price, tick.getVolume());
+        dirty.add(s);
+        return price;
+    }
+
+    private void markToMarket(long securityId, long price) {
+        PositionService positions = positionService.getIfAvailable();
+        if (positions != null && price != FixedPoint.NULL) {
+            positions.markToMarket(securityId, FixedPoint.toDecimal(price));
+        }
+    }
+
+    private void validate(MarketTickDto tick) {
+        requireSecurity(tick.getSecurityId());
+        if (tick.getPrice() == null || tick.getPrice().signum() <= 0) {
+            throw new IllegalArgumentException("Price must be positive: securityId=" + tick.getSecurityId());
+        }
+        if (tick.getVolume() == null || tick.getVolume() < 0) {
+            throw new IllegalArgumentException("Volume must not be negative: securityId=" + tick.getSecurityId());
+        }
+    }
+
+    private void validate(MarketBarDto bar) {
+        requireSecurity(bar.getSecurityId());
+        if (bar.getDataDate() == null || bar.getVolume() == null || bar.getVolume() < 0
+                || !isPositive(bar.getOpenPrice()) || !isPositive(bar.getHighPrice())
+                || !isPositive(bar.getLowPrice()) || !isPositive(bar.getClosePrice())) {
+            throw new IllegalArgumentException("Invalid bar: securityId=" + bar.getSecurityId()
+                    + ", date=" + bar.getDataDate());
+        }
+        if (bar.getLowPrice().compareTo(bar.getHighPrice()) > 0) {
+            throw new IllegalArgumentException("Low price exceeds high price: securityId=" + bar.getSecurityId()
+                    + ", date=" + bar.getDataDate());
+        }
+    }
+
+    private void requireSecurity(Long securityId) {
+        if (securityId == null || referenceDataCache.getSecurity(securityId) == null) {
+            throw new IllegalArgumentException("Security not found: " + securityId);
+        }
+    }
+
+    private static boolean isPositive(BigDecimal value) {
+        return value != null && value.signum() > 0;
+    }
+
+    private TickSeries seriesFor(long securityId) {
+        return series.computeIfAbsent(securityId, id -> new TickSeries(id, tickCapacity, closedBars));
+    }
+
+    private void doFlush() {
+        // 確定済みの足を先に並べ、同じ銘柄・日付は後から取り出した（新しい）足で上書きする
+        Map<BarKey, DailyBar> bars = new LinkedHashMap<>();
+        for (DailyBar bar; (bar = closedBars.poll()) != null; ) {
+            bars.put(new BarKey(bar.securityId(), bar.date()), bar);
+        }
+        for (Iterator<TickSeries> it = dirty.iterator(); it.hasNext(); ) {
+            TickSeries s = it.next();
+            it.remove();
+            DailyBar bar = s.takeDirtyBar();
+            if (bar != null) {
+                bars.put(new BarKey(bar.securityId(), bar.date()), bar);
+            }
+        }
+        if (bars.isEmpty()) {
+            return;
+        }
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            transactionTemplate.executeWithoutResult(status -> write(bars));
+            log.debug("Market data flushed: {} bars", bars.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} market data bars, will retry", bars.size(), e);
+            closedBars.addAll(bars.values());
+        }
+    }
+
+    private void write(Map<BarKey, DailyBar> bars) {
+        Set<BarKey> existing = loadExisting(bars.keySet());
+        List<DailyBar> updates = new ArrayList<>();
+        List<DailyBar> inserts = new ArrayList<>();
+        for (Map.Entry<BarKey, DailyBar> entry : bars.entrySet()) {
+            (existing.contains(entry.getKey()) ? updates : inserts).add(entry.getValue());
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, updates, jdbcBatchSize, (ps, bar) -> {
+            ps.setBigDecimal(1, FixedPoint.toDecimal(bar.open()));
+            ps.setBigDecimal(2, FixedPoint.toDecimal(bar.high()));
+            ps.setBigDecimal(3, FixedPoint.toDecimal(bar.low()));
+            ps.setBigDecimal(4, FixedPoint.toDecimal(bar.close()));
+            ps.setLong(5, bar.volume());
+            ps.setLong(6, bar.securityId());
+            ps.setDate(7, Date.valueOf(bar.date()));
+        });
+        jdbcTemplate.batchUpdate(INSERT_SQL, inserts, jdbcBatchSize, (ps, bar) -> {
+            ps.setBigDecimal(1, FixedPoint.toDecimal(bar.open()));
+            ps.setBigDecimal(2, FixedPoint.toDecimal(bar.high()));
+            ps.setBigDecimal(3, FixedPoint.toDecimal(bar.low()));
+            ps.setBigDecimal(4, FixedPoint.toDecimal(bar.close()));
+            ps.setLong(5, bar.volume());
+            ps.setLong(6, bar.securityId());
+            ps.setDate(7, Date.valueOf(bar.date()));
+            ps.setTimestamp(8, now);
+        });
+    }
+
+    /**
+     * market_data に既に行がある (銘柄, 日付)
+     */
+    private Set<BarKey> loadExisting(Set<BarKey> keys) {
+        Map<LocalDate, List<Long>> byDate = new TreeMap<>();
+        for (BarKey key : keys) {
+            byDate.computeIfAbsent(key.date(), d -> new ArrayList<>()).add(key.securityId());
+        }
+        Set<BarKey> existing = new HashSet<>();
+        for (Map.Entry<LocalDate, List<Long>> entry : byDate.entrySet()) {
+            List<Long> ids = entry.getValue();
+            for (int from = 0; from < ids.size(); from += IN_CLAUSE_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + IN_CLAUSE_SIZE, ids.size()));
+                String placeholders = String.join(",", Collections.nCopies(chunk.size(), "?"));
+                List<Object> args = new ArrayList<>(chunk.size() + 1);
+                args.add(Date.valueOf(entry.getKey()));
+                args.addAll(chunk);
+                jdbcTemplate.query("SELECT security_id FROM market_data WHERE data_date = ? " +
+                                "AND security_id IN (" + placeholders + ")",
+                        rs -> {
+                            existing.add(new BarKey(rs.getLong(1), entry.getKey()));
+                        }, args.toArray());
+            }
+        }
+        return existing;
+    }
+
+    private static long toMillis(LocalDateTime time, long defaultValue) {
+        return time != null ? time.atZone(ZONE).toInstant().toEpochMilli() : defaultValue;
+    }
+
+    private record BarKey(long securityId, LocalDate date) {
+    }
+}
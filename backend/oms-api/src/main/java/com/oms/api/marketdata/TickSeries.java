@@ -0,0 +1,280 @@
+package com.oms.api.marketdata;
+
+import com.oms.api.util.FixedPoint;
+import org.agrona.concurrent.UnsafeBuffer;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Queue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 1銘柄のティック系列と当日足
+ *
+ * ティックは時刻・価格・出来高の3列を別々のオフヒープ領域（direct バッファ）に long で並べ、
+ * 直近 capacity 件をリングバッファとして保持する（古いティックは上書き）。
+ * 時刻は単調増加に揃える（遅れて届いたティックは直前の時刻として扱う）ため、期間の検索は二分探索になる。
+ * 価格は FixedPoint（小数4桁）。読み書きは系列単位のロックで直列化する。
+ */
+public final class TickSeries {
+
+    private final long securityId;
+    private final int mask;
+    private final UnsafeBuffer times;
+    private final UnsafeBuffer prices;
+    private final UnsafeBuffer volumes;
+    /** 日付が変わって確定した足の書き戻し待ち */
+    private final Queue<DailyBar> closedBars;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** 通算の追加件数（次の書き込み位置は count & mask） */
+    private long count;
+    private long lastTime = Long.MIN_VALUE;
+    private long lastPrice = FixedPoint.NULL;
+
+    private LocalDate barDate;
+    private long open;
+    private long high;
+    private long low;
+    private long close;
+    private long barVolume;
+    private boolean barDirty;
+
+    /**
+     * 期間集計の結果（tickCount が 0 の場合、価格は FixedPoint.NULL）
+     */
+    public record Stats(long tickCount, long open, long high, long low, long close, long volume, double notional) {
+    }
+
+    /**
+     * ティックの読み出し先
+     */
+    @FunctionalInterface
+    public interface TickConsumer {
+        void accept(long timeMillis, long price, long volume);
+    }
+
+    public TickSeries(long securityId, int capacity, Queue<DailyBar> closedBars) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Tick capacity must be a power of two: " + capacity);
+        }
+        this.securityId = securityId;
+        this.mask = capacity - 1;
+        this.times = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity * Long.BYTES));
+        this.prices = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity * Long.BYTES));
+        this.volumes = new UnsafeBuffer(ByteBuffer.allocateDirect(capacity * Long.BYTES));
+        this.closedBars = closedBars;
+    }
+
+    public long getSecurityId() {
+        return securityId;
+    }
+
+    /**
+     * ティックの追加と当日足の更新
+     *
+     * @param date ティックの日付（当日足より新しければ足を切り替える）
+     */
+    public void append(long timeMillis, LocalDate date, long price, long volume) {
+        lock.lock();
+        try {
+            long time = Math.max(timeMillis, lastTime);
+            int offset = (int) (count & mask) * Long.BYTES;
+            times.putLong(offset, time);
+            prices.putLong(offset, price);
+            volumes.putLong(offset, volume);
+            count++;
+            lastTime = time;
+            lastPrice = price;
+
+            if (barDate == null || date.isAfter(barDate)) {
+                roll(date);
+                open = price;
+                high = price;
+                low = price;
+                barVolume = 0;
+            } else {
+                high = Math.max(high, price);
+                low = Math.min(low, price);
+            }
+            close = price;
+            barVolume += volume;
+            barDirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 足の取り込み（当日足より古い日付はそのまま書き戻し待ちにする）
+     *
+     * @param persisted market_data から復元した足（書き戻し不要）
+     */
+    public void putBar(DailyBar bar, boolean persisted) {
+        lock.lock();
+        try {
+            if (barDate != null && bar.date().isBefore(barDate)) {
+                if (!persisted) {
+                    closedBars.add(bar);
+                }
+                return;
+            }
+            if (barDate == null || bar.date().isAfter(barDate)) {
+                roll(bar.date());
+            }
+            open = bar.open();
+            high = bar.high();
+            low = bar.low();
+            close = bar.close();
+            barVolume = bar.volume();
+            barDirty = !persisted;
+            if (lastPrice == FixedPoint.NULL) {
+                lastPrice = bar.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 当日足（足がなければ null）
+     */
+    public DailyBar currentBar() {
+        lock.lock();
+        try {
+            return barDate == null ? null : snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 前回から変更があれば当日足のスナップショットを返し、変更なしとする
+     */
+    public DailyBar takeDirtyBar() {
+        lock.lock();
+        try {
+            if (!barDirty) {
+                return null;
+            }
+            barDirty = false;
+            return snapshot();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 直近の価格（ティック・足がなければ FixedPoint.NULL）
+     */
+    public long lastPrice() {
+        lock.lock();
+        try {
+            return lastPrice;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 保持しているティック数
+     */
+    public int size() {
+        lock.lock();
+        try {
+            return (int) Math.min(count, mask + 1L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 期間 [fromMillis, toMillis) のティックを時刻順に最大 limit 件読み出す
+     *
+     * @return 読み出した件数
+     */
+    public int ticks(long fromMillis, long toMillis, int limit, TickConsumer consumer) {
+        lock.lock();
+        try {
+            int read = 0;
+            for (long i = lowerBound(fromMillis); i < count && read < limit; i++, read++) {
+                int offset = (int) (i & mask) * Long.BYTES;
+                long time = times.getLong(offset);
+                if (time >= toMillis) {
+                    break;
+                }
+                consumer.accept(time, prices.getLong(offset), volumes.getLong(offset));
+            }
+            return read;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 期間 [fromMillis, toMillis) の集計（始値・高値・安値・終値・出来高・売買代金）
+     *
+     * 列ごとに連続した領域を走査するため、価格と出来高だけを読む。
+     */
+    public Stats stats(long fromMillis, long toMillis) {
+        lock.lock();
+        try {
+            long start = lowerBound(fromMillis);
+            long end = lowerBound(toMillis);
+            if (start >= end) {
+                return new Stats(0, FixedPoint.NULL, FixedPoint.NULL, FixedPoint.NULL, FixedPoint.NULL, 0, 0);
+            }
+            long first = prices.getLong((int) (start & mask) * Long.BYTES);
+            long maxPrice = Long.MIN_VALUE;
+            long minPrice = Long.MAX_VALUE;
+            long last = first;
+            long volume = 0;
+            // 価格(小数4桁) × 出来高は long を溢れうるため売買代金は double で積算する
+            double notional = 0;
+            for (long i = start; i < end; i++) {
+                int offset = (int) (i & mask) * Long.BYTES;
+                long price = prices.getLong(offset);
+                long quantity = volumes.getLong(offset);
+                maxPrice = Math.max(maxPrice, price);
+                minPrice = Math.min(minPrice, price);
+                volume += quantity;
+                notional += (double) price * quantity;
+                last = price;
+            }
+            return new Stats(end - start, first, maxPrice, minPrice, last, volume, notional);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 時刻が timeMillis 以上となる最初の通算位置（なければ count）
+     */
+    private long lowerBound(long timeMillis) {
+        long lo = Math.max(0, count - (mask + 1L));
+        long hi = count;
+        while (lo < hi) {
+            long mid = (lo + hi) >>> 1;
+            if (times.getLong((int) (mid & mask) * Long.BYTES) < timeMillis) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private void roll(LocalDate date) {
+        if (barDate != null && barDirty) {
+            closedBars.add(snapshot());
+        }
+        barDate = date;
+        barDirty = false;
+    }
+
+    private DailyBar snapshot() {
+        return new DailyBar(securityId, barDate, open, high, low, close, barVolume);
+    }
+}
@@ -0,0 +1,31 @@
+package com.oms.api.matching;
+
+import com.oms.api.model.OrderSide;
+
+/**
+ * マッチングエンジンの出力（ExecutionWriter が一括で永続化する）
+ *
+ * 価格・数量は FixedPoint の long 表現。
+ */
+public sealed interface EngineOutput {
+
+    long orderId();
+
+    /**
+     * 約定（1回の対当につき買い・売りの2件）
+     *
+     * @param leavesQuantity 約定後の残数量（0 = 全量約定）
+     * @param contraOrderId  相手方の発注ID
+     * @param timestamp      約定時刻（エポックミリ秒）
+     */
+    record Fill(long orderId, long userId, long securityId, OrderSide side,
+                long price, long quantity, long leavesQuantity,
+                long contraOrderId, long timestamp) implements EngineOutput {
+    }
+
+    /**
+     * 残数量の取消（成行・IOC の未約定分、FOK の不成立）
+     */
+    record Cancel(long orderId, long securityId, String reason) implements EngineOutput {
+    }
+}
@@ -0,0 +1,505 @@
+package com.oms.api.matching;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oms.api.event.ExecutionEvent;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.mapper.ExecutionMapper;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Execution;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.ExecutionRepository;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.service.ExecutionNoAllocator;
+import com.oms.api.util.FixedPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 約定の一括永続化（マッチングエンジンの出力を専用スレッドでまとめて書き込む）
+ *
+ * 1バッチを1トランザクションで処理する:
+ * 約定の一括 INSERT、発注の約定数量・平均価格・ステータスの JDBC バッチ更新、
+ * 未約定分の取消。コミット後に約定イベントと注文イベントを配信する。
+ * 取消・失効が先にコミットされて更新できなかった発注の約定は相手方の約定ごと捨て、
+ * エンジンに通知して終了済みの発注を板から除かせ、相手方には数量を戻させる。
+ * writer-max-attempts 回続けて失敗したバッチは dead-letter-dir に書き出して先に進み
+ * （oms.matching.dead.letters で検知する）、対象の発注を板から除かせる。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ExecutionWriter implements SmartLifecycle {
+
+    /** マッチングエンジンより後に停止し、残りの出力を書き切る */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private static final String CONTRA_BROKER = "INTERNAL";
+
+    // 行ロックで作業中と確認した注文のみ更新する（取消・失効との競合時は先にコミットされた側を優先）
+    private static final String UPDATE_FILL_SQL =
+            "UPDATE orders SET filled_quantity = ?, average_price = ?, status = ?, updated_at = ?, " +
+            "version = version + 1 " +
+            "WHERE order_id = ? AND status IN ('NEW', 'PARTIAL')";
+    private static final String UPDATE_CANCEL_SQL =
+            "UPDATE orders SET status = 'CANCELED', updated_at = ?, version = version + 1 " +
+            "WHERE order_id = ? AND status IN ('NEW', 'PARTIAL')";
+
+    private final ExecutionRepository executionRepository;
+    private final OrderRepository orderRepository;
+    private final ExecutionNoAllocator executionNoAllocator;
+    private final ExecutionMapper executionMapper;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    @Value("${oms.matching.writer-batch-size:500}")
+    private int batchSize;
+
+    @Value("${oms.matching.writer-max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${oms.matching.dead-letter-dir:./data/matching-dead-letter}")
+    private String deadLetterDir;
+
+    @Value("${oms.matching.writer-queue-capacity:262144}")
+    private int queueCapacity;
+
+    private ManyToOneConcurrentArrayQueue<EngineOutput> queue;
+    private TransactionTemplate transactionTemplate;
+    private TransactionTemplate requiresNew;
+    private Counter deadLetters;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile PersistListener listener;
+
+    /**
+     * 永続化結果の通知先（エンジンが終了させた発注、DB 側で終了済みのため反映できなかった発注、
+     * または相手方が終了済みのため約定を捨てた発注）
+     */
+    @FunctionalInterface
+    interface PersistListener {
+
+        /**
+         * @param applied          false = DB 側で既に終了済みのため約定・取消を捨てた
+         * @param restoredQuantity 相手方が終了済みのため捨てた約定の数量（板の残数量に戻す。FixedPoint）
+         */
+        void persisted(long securityId, long orderId, boolean applied, long restoredQuantity);
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ManyToOneConcurrentArrayQueue<>(queueCapacity);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        requiresNew = new TransactionTemplate(transactionManager);
+        requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        deadLetters = Counter.builder("oms.matching.dead.letters")
+                .description("永続化できずに dead letter に書き出したマッチングエンジンの出力バッチ数")
+                .register(registry);
+    }
+
+    /**
+     * エンジン出力の投入（満杯の間は待機してエンジンに背圧をかける）
+     */
+    void offer(EngineOutput output) {
+        if (queue.offer(output)) {
+            return;
+        }
+        IdleStrategy backoff = new BackoffIdleStrategy(
+                10, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        while (!queue.offer(output)) {
+            backoff.idle();
+        }
+    }
+
+    /**
+     * マッチングエンジンに渡せなかった発注の取消（呼び出し元のスレッドで行う）
+     *
+     * 板に載らなかった新規・修正を作業中のまま残すと DB と板が食い違うため取り消す。
+     * コミット後のイベントリスナーから呼ばれるため別トランザクションで実行する。
+     */
+    void cancelUnrouted(long orderId) {
+        requiresNew.executeWithoutResult(status -> {
+            List<String> current = jdbcTemplate.queryForList(
+                    "SELECT status FROM orders WHERE order_id = ? FOR UPDATE", String.class, orderId);
+            if (current.isEmpty() || OrderStatus.valueOf(current.get(0)).isTerminal()) {
+                return;
+            }
+            jdbcTemplate.update(UPDATE_CANCEL_SQL, Timestamp.valueOf(LocalDateTime.now()), orderId);
+            orderRepository.findById(orderId).ifPresent(order -> eventPublisher.publishEvent(OrderEvent.of(
+                    OrderEventType.CANCELED, OrderStatus.valueOf(current.get(0)),
+                    referenceDataCache.enrich(orderMapper.toDto(order)))));
+        });
+        log.warn("Canceled order {}: the matching engine did not accept it in time", orderId);
+    }
+
+    /**
+     * 永続化結果の通知先の登録（MatchingEngine が起動時に登録する）
+     */
+    void setListener(PersistListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::run, "execution-writer");
+        thread.start();
+        log.info("Execution writer started (batch size {})", batchSize);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Execution writer stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    // ===== Private Methods =====
+
+    private void run() {
+        IdleStrategy idleStrategy = new BackoffIdleStrategy(
+                100, 10, TimeUnit.MICROSECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(1));
+        List<EngineOutput> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            queue.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                idleStrategy.idle();
+                continue;
+            }
+            idleStrategy.reset();
+            persist(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * バッチの永続化（エンジンの出力は再生できないため、DB エラー時は同じバッチを再試行し、
+     * maxAttempts 回失敗したら dead letter に書き出して後続のバッチを止めない）
+     */
+    private void persist(List<EngineOutput> batch) {
+        List<Execution> executions = new ArrayList<>();
+        List<EngineOutput.Fill> executionFills = new ArrayList<>();
+        List<EngineOutput.Cancel> cancels = new ArrayList<>();
+        for (EngineOutput output : batch) {
+            if (output instanceof EngineOutput.Fill fill) {
+                executions.add(toExecution(fill));
+                executionFills.add(fill);
+            } else if (output instanceof EngineOutput.Cancel cancel) {
+                cancels.add(cancel);
+                log.debug("Engine cancel: orderId={}, reason={}", cancel.orderId(), cancel.reason());
+            }
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Outcome outcome = transactionTemplate.execute(status -> write(executions, executionFills, cancels));
+                confirm(executionFills, cancels, outcome);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    deadLetter(batch, e);
+                    return;
+                }
+                log.error("Failed to persist {} executions / {} cancels from the matching engine (attempt {}/{}), " +
+                        "retrying", executions.size(), cancels.size(), attempt, maxAttempts, e);
+                // ロールバックされた INSERT の採番を捨てる
+                executions.forEach(execution -> execution.setExecutionId(null));
+                try {
+                    Thread.sleep(1000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 永続化できなかったバッチを1行の JSON として書き出し、対象の発注を板から除かせる
+     *
+     * DB 上の状態が分からないため、除いた発注は修正または再起動時の板の再構築で板に戻る。
+     */
+    private void deadLetter(List<EngineOutput> batch, RuntimeException error) {
+        deadLetters.increment();
+        Path file = Path.of(deadLetterDir).resolve("engine-output-" + LocalDate.now() + ".ndjson");
+        log.error("Giving up on {} matching engine outputs after {} attempts, writing them to {}",
+                batch.size(), maxAttempts, file, error);
+        try {
+            Files.createDirectories(file.getParent());
+            String line = objectMapper.writeValueAsString(
+                    new DeadLetter(LocalDateTime.now().toString(), String.valueOf(error), batch));
+            Files.writeString(file, line + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.error("Failed to write the dead letter, engine output is lost: {}", batch, e);
+        }
+        PersistListener target = listener;
+        if (target == null) {
+            return;
+        }
+        Map<Long, Long> orders = new LinkedHashMap<>();
+        for (EngineOutput output : batch) {
+            long securityId = output instanceof EngineOutput.Fill fill
+                    ? fill.securityId() : ((EngineOutput.Cancel) output).securityId();
+            orders.putIfAbsent(output.orderId(), securityId);
+        }
+        orders.forEach((orderId, securityId) -> target.persisted(securityId, orderId, false, 0));
+    }
+
+    /**
+     * 1トランザクションでの書き込み
+     *
+     * 対象の発注を行ロックし、DB 上で終了済みの発注を含む対当は買い・売りの両側とも捨てる
+     * （相手方のない片側だけの約定を作らない）。累計約定数量・平均価格は DB の値に採用した約定を積み上げて求める。
+     */
+    private Outcome write(List<Execution> executions, List<EngineOutput.Fill> fills, List<EngineOutput.Cancel> cancels) {
+        Map<Long, LockedOrder> live = lockActive(fills, cancels);
+        Set<Long> rejected = new HashSet<>();
+        Map<Long, Long> restored = new HashMap<>();
+        Map<Long, LockedOrder> filled = new LinkedHashMap<>();
+        List<Execution> accepted = new ArrayList<>(executions.size());
+        List<EngineOutput.Fill> acceptedFills = new ArrayList<>(fills.size());
+        for (int i = 0; i < fills.size(); i++) {
+            EngineOutput.Fill fill = fills.get(i);
+            LockedOrder order = live.get(fill.orderId());
+            if (order == null) {
+                rejected.add(fill.orderId());
+                continue;
+            }
+            if (!live.containsKey(fill.contraOrderId())) {
+                // 生存側の約定も捨て、エンジンに数量を板へ戻させる
+                restored.merge(fill.orderId(), fill.quantity(), Long::sum);
+                continue;
+            }
+            order.fill(fill.price(), fill.quantity());
+            filled.put(fill.orderId(), order);
+            accepted.add(executions.get(i));
+            acceptedFills.add(fill);
+        }
+        List<EngineOutput.Cancel> acceptedCancels = new ArrayList<>(cancels.size());
+        for (EngineOutput.Cancel cancel : cancels) {
+            if (live.containsKey(cancel.orderId())) {
+                acceptedCancels.add(cancel);
+                // 未約定分ごと取り消すため戻さない
+                restored.remove(cancel.orderId());
+            } else {
+                rejected.add(cancel.orderId());
+            }
+        }
+        if (!rejected.isEmpty()) {
+            log.warn("Discarding engine output for {} orders already terminated in the database " +
+                    "and their contra orders: {}", rejected.size(), rejected);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_FILL_SQL, new ArrayList<>(filled.values()), batchSize, (ps, order) -> {
+            ps.setBigDecimal(1, FixedPoint.toDecimal(order.filledQuantity));
+            ps.setBigDecimal(2, FixedPoint.toDecimal(order.averagePrice));
+            ps.setString(3, (order.filledQuantity >= order.quantity ? OrderStatus.FILLED : OrderStatus.PARTIAL).name());
+            ps.setTimestamp(4, now);
+            ps.setLong(5, order.orderId);
+        });
+        jdbcTemplate.batchUpdate(UPDATE_CANCEL_SQL, acceptedCancels, batchSize, (ps, cancel) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, cancel.orderId());
+        });
+        executionRepository.saveAll(accepted);
+        publishEvents(accepted, acceptedFills, live, filled.keySet(), acceptedCancels);
+        return new Outcome(rejected, restored);
+    }
+
+    /**
+     * 出力対象の発注のうち作業中（NEW/PARTIAL）のものを order_id 順に行ロックして読む
+     */
+    private Map<Long, LockedOrder> lockActive(List<EngineOutput.Fill> fills, List<EngineOutput.Cancel> cancels) {
+        Set<Long> orderIds = new TreeSet<>();
+        fills.forEach(fill -> orderIds.add(fill.orderId()));
+        cancels.forEach(cancel -> orderIds.add(cancel.orderId()));
+        Map<Long, LockedOrder> live = new HashMap<>();
+        if (orderIds.isEmpty()) {
+            return live;
+        }
+        String placeholders = orderIds.stream().map(id -> "?").collect(Collectors.joining(","));
+        jdbcTemplate.query("SELECT order_id, quantity, filled_quantity, average_price, status FROM orders " +
+                        "WHERE order_id IN (" + placeholders + ") ORDER BY order_id FOR UPDATE",
+                rs -> {
+                    OrderStatus status = OrderStatus.valueOf(rs.getString("status"));
+                    if (status.isActive()) {
+                        LockedOrder order = new LockedOrder(rs.getLong("order_id"), status,
+                                FixedPoint.toScaled(rs.getBigDecimal("quantity")),
+                                FixedPoint.toScaled(Objects.requireNonNullElse(rs.getBigDecimal("filled_quantity"),
+                                        BigDecimal.ZERO)),
+                                FixedPoint.toScaled(rs.getBigDecimal("average_price")));
+                        live.put(order.orderId, order);
+                    }
+                }, orderIds.toArray());
+        return live;
+    }
+
+    /**
+     * コミット後、パーティションに永続化結果を通知する
+     * （エンジンが終了させた発注、反映できなかった発注、相手方の終了で約定を捨てた発注）
+     */
+    private void confirm(List<EngineOutput.Fill> fills, List<EngineOutput.Cancel> cancels, Outcome outcome) {
+        PersistListener target = listener;
+        if (target == null) {
+            return;
+        }
+        Map<Long, EngineOutput.Fill> lastFills = new LinkedHashMap<>();
+        fills.forEach(fill -> lastFills.put(fill.orderId(), fill));
+        for (EngineOutput.Fill fill : lastFills.values()) {
+            boolean applied = !outcome.rejected().contains(fill.orderId());
+            long restored = outcome.restored().getOrDefault(fill.orderId(), 0L);
+            if (fill.leavesQuantity() == 0 || !applied || restored > 0) {
+                target.persisted(fill.securityId(), fill.orderId(), applied, applied ? restored : 0);
+            }
+        }
+        for (EngineOutput.Cancel cancel : cancels) {
+            target.persisted(cancel.securityId(), cancel.orderId(), !outcome.rejected().contains(cancel.orderId()), 0);
+        }
+    }
+
+    /**
+     * 約定・注文イベントの発行（トランザクション内で発行し、リスナーはコミット後に受け取る）
+     */
+    private void publishEvents(List<Execution> executions, List<EngineOutput.Fill> executionFills,
+                               Map<Long, LockedOrder> locked, Set<Long> filled, List<EngineOutput.Cancel> cancels) {
+        for (int i = 0; i < executions.size(); i++) {
+            EngineOutput.Fill fill = executionFills.get(i);
+            eventPublisher.publishEvent(new ExecutionEvent(
+                    executionMapper.toDto(executions.get(i), fill.userId(), fill.side())));
+        }
+        Set<Long> canceled = new HashSet<>();
+        for (EngineOutput.Cancel cancel : cancels) {
+            canceled.add(cancel.orderId());
+        }
+        Set<Long> orderIds = new HashSet<>(filled);
+        orderIds.addAll(canceled);
+        for (Order order : orderRepository.findAllById(orderIds)) {
+            OrderStatus previousStatus = locked.get(order.getOrderId()).status;
+            OrderEventType type = canceled.contains(order.getOrderId()) ? OrderEventType.CANCELED : OrderEventType.FILLED;
+            eventPublisher.publishEvent(OrderEvent.of(type, previousStatus, referenceDataCache.enrich(orderMapper.toDto(order))));
+        }
+    }
+
+    private Execution toExecution(EngineOutput.Fill fill) {
+        LocalDateTime executionDate = LocalDateTime.ofInstant(Instant.ofEpochMilli(fill.timestamp()), ZoneId.systemDefault());
+        Execution execution = new Execution();
+        execution.setOrderId(fill.orderId());
+        execution.setSecurityId(fill.securityId());
+        execution.setExecutionNo(executionNoAllocator.nextExecutionNo());
+        execution.setExecutionPrice(FixedPoint.toDecimal(fill.price()));
+        execution.setExecutionQuantity(FixedPoint.toDecimal(fill.quantity()));
+        execution.setExecutionDate(executionDate);
+        execution.setSettlementDate(settlementDate(executionDate.toLocalDate()));
+        execution.setContraBroker(CONTRA_BROKER);
+        execution.setNotes("contra order " + fill.contraOrderId());
+        return execution;
+    }
+
+    /**
+     * 受渡日（約定日から2営業日後。祝日は考慮しない）
+     */
+    private static LocalDate settlementDate(LocalDate tradeDate) {
+        LocalDate date = tradeDate;
+        int businessDays = 0;
+        while (businessDays < 2) {
+            date = date.plusDays(1);
+            if (date.getDayOfWeek() != DayOfWeek.SATURDAY && date.getDayOfWeek() != DayOfWeek.SUNDAY) {
+                businessDays++;
+            }
+        }
+        return date;
+    }
+
+    /**
+     * dead letter の1行（failedAt: 書き出し時刻、error: 最後の失敗、outputs: バッチのエンジン出力）
+     */
+    private record DeadLetter(String failedAt, String error, List<EngineOutput> outputs) {
+    }
+
+    /**
+     * 書き込み結果
+     *
+     * @param rejected DB 側で既に終了済みのため反映できなかった発注ID
+     * @param restored 相手方が終了済みのため捨てた約定の数量（発注ID -> FixedPoint の数量）
+     */
+    private record Outcome(Set<Long> rejected, Map<Long, Long> restored) {
+    }
+
+    /**
+     * 行ロックした作業中の発注（採用した約定を累計約定数量・平均価格に積み上げる）
+     */
+    private static final class LockedOrder {
+        private final long orderId;
+        private final OrderStatus status;
+        private final long quantity;
+        private long filledQuantity;
+        private long averagePrice;
+
+        private LockedOrder(long orderId, OrderStatus status, long quantity, long filledQuantity, long averagePrice) {
+            this.orderId = orderId;
+            this.status = status;
+            this.quantity = quantity;
+            this.filledQuantity = filledQuantity;
+            this.averagePrice = averagePrice;
+        }
+
+        private void fill(long price, long fillQuantity) {
+            long total = filledQuantity + fillQuantity;
+            averagePrice = averagePrice == FixedPoint.NULL || filledQuantity == 0
+                    ? price
+                    : averagePrice + Math.round((double) (price - averagePrice) * fillQuantity / total);
+            filledQuantity = total;
+        }
+    }
+}
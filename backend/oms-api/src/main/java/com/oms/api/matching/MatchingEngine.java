@@ -0,0 +1,134 @@
+package com.oms.api.matching;
+
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.orderbook.OrderBookManager;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * マッチングエンジン（内部対当）
+ *
+ * 銘柄IDでパーティションに振り分け、各パーティションの単一スレッドが担当銘柄の板を更新する。
+ * 同一銘柄のイベントは常に同じパーティションで受付順に処理されるため、パーティション同士で板のロックは競合しない
+ * （板情報の参照・積み直しとは板単位の synchronized で排他する）。
+ * パーティションのキューが offer-timeout-ms 待っても空かない場合は、発注スレッドを止め続けずに
+ * 渡せなかった新規・修正の注文を取り消す（oms.matching.unrouted で検知する）。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchingEngine implements SmartLifecycle {
+
+    /** Web サーバーより後・ExecutionWriter より前に停止する */
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 2048;
+
+    private final OrderBookManager bookManager;
+    private final ExecutionWriter writer;
+    private final MeterRegistry registry;
+
+    @Value("${oms.matching.partitions:4}")
+    private int partitionCount;
+
+    @Value("${oms.matching.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${oms.matching.offer-timeout-ms:200}")
+    private long offerTimeoutMs;
+
+    @Value("${oms.matching.crossing-enabled:true}")
+    private boolean crossingEnabled;
+
+    @Value("${oms.cluster.enabled:false}")
+    private boolean clustered;
+
+    private MatchingPartition[] partitions;
+    private Thread[] threads;
+    private Counter unrouted;
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        if (crossingEnabled && clustered) {
+            // 板は担当ユーザーの注文しか持たないため、他ノードの注文と対当できず価格・時間優先が崩れる
+            log.warn("Internal crossing is disabled in cluster mode");
+            crossingEnabled = false;
+        }
+        unrouted = Counter.builder("oms.matching.unrouted")
+                .description("キューが満杯でマッチングエンジンに渡せなかった注文イベント数")
+                .register(registry);
+        partitions = new MatchingPartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new MatchingPartition(i, queueCapacity, bookManager, writer, crossingEnabled);
+        }
+        writer.setListener((securityId, orderId, applied, restoredQuantity) ->
+                partitions[Math.floorMod(securityId, partitionCount)]
+                        .persisted(securityId, orderId, applied, restoredQuantity));
+    }
+
+    /**
+     * 注文イベントの受付（コミット後、担当パーティションのキューに積む）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        int partition = Math.floorMod(event.order().getSecurityId(), partitionCount);
+        if (partitions[partition].offer(event, TimeUnit.MILLISECONDS.toNanos(offerTimeoutMs))) {
+            return;
+        }
+        unrouted.increment();
+        log.error("Matching partition {} did not accept {} for order {} within {} ms",
+                partition, event.type(), event.order().getOrderId(), offerTimeoutMs);
+        // 取消・失効などは板に残っても、約定時に DB 側で終了済みとして捨てられる
+        if (event.type() == OrderEventType.CREATED || event.type() == OrderEventType.AMENDED) {
+            writer.cancelUnrouted(event.order().getOrderId());
+        }
+    }
+
+    @Override
+    public void start() {
+        threads = new Thread[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            threads[i] = new Thread(partitions[i], "matching-" + i);
+            threads[i].start();
+        }
+        running = true;
+        log.info("Matching engine started: {} partitions, crossing {}",
+                partitionCount, crossingEnabled ? "enabled" : "disabled");
+    }
+
+    @Override
+    public void stop() {
+        for (MatchingPartition partition : partitions) {
+            partition.stop();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        running = false;
+        log.info("Matching engine stopped");
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+}
@@ -0,0 +1,308 @@
+package com.oms.api.matching;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.orderbook.OrderBook;
+import com.oms.api.orderbook.OrderBookEntry;
+import com.oms.api.orderbook.OrderBookManager;
+import com.oms.api.orderbook.PriceLevel;
+import com.oms.api.util.FixedPoint;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.agrona.concurrent.BackoffIdleStrategy;
+import org.agrona.concurrent.IdleStrategy;
+import org.agrona.concurrent.ManyToOneConcurrentArrayQueue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * マッチングパーティション（担当銘柄の板を単一スレッドで更新するイベントループ）
+ *
+ * 注文イベントはロックフリーのリングバッファ（ManyToOneConcurrentArrayQueue）で受け取り、
+ * 受付順に対当させる。約定・取消は ExecutionWriter に渡し、DB 更新は非同期に行う。
+ * エンジンが全量約定・取消で終了させた発注は、ExecutionWriter の永続化通知が届くまで記録し、
+ * その間に届いた修正（DB 上はまだ作業中のスナップショット）で板に戻さない。
+ * 相手方が DB 上で終了済みだったため捨てられた約定は、通知を受けて数量を戻す。
+ */
+@Slf4j
+final class MatchingPartition implements Runnable {
+
+    private static final int DRAIN_LIMIT = 256;
+
+    private final int index;
+    private final ManyToOneConcurrentArrayQueue<OrderEvent> inbound;
+    private final ManyToOneConcurrentArrayQueue<Persisted> persisted;
+    private final Long2ObjectHashMap<OrderBookEntry> terminated = new Long2ObjectHashMap<>();
+    private final OrderBookManager bookManager;
+    private final ExecutionWriter writer;
+    private final boolean crossingEnabled;
+    private final IdleStrategy idleStrategy = new BackoffIdleStrategy(
+            100, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+    private volatile boolean running = true;
+
+    MatchingPartition(int index, int queueCapacity, OrderBookManager bookManager,
+                      ExecutionWriter writer, boolean crossingEnabled) {
+        this.index = index;
+        this.inbound = new ManyToOneConcurrentArrayQueue<>(queueCapacity);
+        this.persisted = new ManyToOneConcurrentArrayQueue<>(queueCapacity);
+        this.bookManager = bookManager;
+        this.writer = writer;
+        this.crossingEnabled = crossingEnabled;
+    }
+
+    /**
+     * 注文イベントの投入（満杯の間は timeoutNanos まで待機する）
+     *
+     * @return false = 待機しても空きができず投入できなかった
+     */
+    boolean offer(OrderEvent event, long timeoutNanos) {
+        if (inbound.offer(event)) {
+            return true;
+        }
+        log.warn("Matching partition {} inbound queue is full, waiting", index);
+        long deadline = System.nanoTime() + timeoutNanos;
+        IdleStrategy backoff = new BackoffIdleStrategy(
+                10, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        while (!inbound.offer(event)) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            backoff.idle();
+        }
+        return true;
+    }
+
+    /**
+     * 永続化結果の投入（ExecutionWriter のスレッドから呼ばれる。満杯の間は待機する）
+     */
+    void persisted(long securityId, long orderId, boolean applied, long restoredQuantity) {
+        Persisted result = new Persisted(securityId, orderId, applied, restoredQuantity);
+        if (persisted.offer(result)) {
+            return;
+        }
+        IdleStrategy backoff = new BackoffIdleStrategy(
+                10, 10, TimeUnit.MICROSECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(1));
+        while (!persisted.offer(result)) {
+            backoff.idle();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (running) {
+            int work = persisted.drain(this::onPersisted, DRAIN_LIMIT);
+            idleStrategy.idle(work + inbound.drain(this::process, DRAIN_LIMIT));
+        }
+        // 停止前に受付済みのイベントを処理しきる
+        while (inbound.drain(this::process) > 0) {
+            // drain
+        }
+    }
+
+    void stop() {
+        running = false;
+    }
+
+    // ===== Private Methods =====
+
+    private void process(OrderEvent event) {
+        try {
+            if (!crossingEnabled) {
+                bookManager.apply(event);
+                return;
+            }
+            OrderBook book = bookManager.bookFor(event.order().getSecurityId());
+            synchronized (book) {
+                switch (event.type()) {
+                    case CREATED -> onCreated(book, event.order());
+                    case AMENDED -> onAmended(book, event.order());
+                    case CANCELED, EXPIRED, REJECTED -> book.remove(event.order().getOrderId());
+                    case FILLED -> {
+                        // エンジン自身の約定通知のため何もしない
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Matching partition {} failed to process {} for order {}",
+                    index, event.type(), event.order().getOrderId(), e);
+        }
+    }
+
+    /**
+     * 永続化結果の反映（終了の記録を外し、DB に反映できなかった発注は板から除き、捨てられた約定の数量は戻す）
+     */
+    private void onPersisted(Persisted result) {
+        OrderBookEntry finished = terminated.remove(result.orderId());
+        if (result.applied() && result.restoredQuantity() == 0) {
+            return;
+        }
+        try {
+            OrderBook book = bookManager.bookFor(result.securityId());
+            synchronized (book) {
+                if (result.applied()) {
+                    restore(book, result.orderId(), finished, result.restoredQuantity());
+                } else {
+                    book.remove(result.orderId());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Matching partition {} failed to apply the persist result for order {}",
+                    index, result.orderId(), e);
+        }
+    }
+
+    /**
+     * 相手方が DB 上で終了済みだったため捨てられた約定の数量を戻す
+     *
+     * 板上の注文は順位を保ったまま残数量を増やす。エンジンが全量約定させた注文は、
+     * 板に置く注文なら改めて対当させ（順位は末尾）、成行・IOC・FOK なら戻した数量を取り消す。
+     */
+    private void restore(OrderBook book, long orderId, OrderBookEntry finished, long quantity) {
+        OrderBookEntry resting = book.get(orderId);
+        if (resting != null) {
+            book.restore(resting, quantity);
+            return;
+        }
+        if (finished == null) {
+            return;
+        }
+        book.restore(finished, quantity);
+        if (finished.isResting()) {
+            execute(book, finished);
+            triggerStops(book);
+        } else {
+            cancel(finished, "未約定分の自動取消");
+        }
+    }
+
+    private void onCreated(OrderBook book, OrderDto order) {
+        OrderBookEntry entry = OrderBookEntry.create(order.getOrderId(), order.getUserId(), order.getSecurityId(),
+                order.getSide(), order.getOrderType(), order.getTimeInForce(), order.getStatus(),
+                order.getPrice(), order.getStopPrice(), order.getQuantity(),
+                order.getFilledQuantity(), order.getAveragePrice());
+        if (entry == null) {
+            return;
+        }
+        if (entry.isStopPending()) {
+            book.add(entry);
+        } else {
+            execute(book, entry);
+        }
+        triggerStops(book);
+    }
+
+    /**
+     * 修正の反映（残数量はエンジンの約定済み数量から再計算し、対当可能になれば約定させる）
+     */
+    private void onAmended(OrderBook book, OrderDto order) {
+        OrderBookEntry resting = book.get(order.getOrderId());
+        if (resting == null) {
+            if (terminated.containsKey(order.getOrderId())) {
+                // エンジンが終了させ、永続化待ちの発注
+                return;
+            }
+            OrderBookEntry entry = OrderBookManager.toEntry(order);
+            if (entry != null) {
+                book.add(entry);
+            }
+            return;
+        }
+        long remaining = FixedPoint.toScaled(order.getQuantity()) - resting.getFilledQuantity();
+        if (remaining <= 0) {
+            book.remove(resting.getOrderId());
+            return;
+        }
+        book.amend(resting.getOrderId(), remaining,
+                FixedPoint.toScaled(order.getPrice()),
+                FixedPoint.toScaled(order.getStopPrice()));
+        if (!resting.isStopPending() && book.isMarketable(resting, book.bestLevel(contra(resting.getSide())))) {
+            book.remove(resting.getOrderId());
+            execute(book, resting);
+            triggerStops(book);
+        }
+    }
+
+    /**
+     * テイカー注文の対当と残数量の処理（板に残す／取り消す）
+     */
+    private void execute(OrderBook book, OrderBookEntry taker) {
+        if (taker.getTimeInForce() == TimeInForce.FOK && !book.canFill(taker)) {
+            cancel(taker, "FOK: 全量約定不可");
+            return;
+        }
+        match(book, taker);
+        if (taker.getRemainingQuantity() == 0) {
+            return;
+        }
+        if (taker.isResting()) {
+            book.add(taker);
+        } else {
+            cancel(taker, "未約定分の自動取消");
+        }
+    }
+
+    /**
+     * 価格優先・時間優先での対当（約定価格はメイカーの指値）
+     *
+     * 同一ユーザーの売買は対当させず（自己対当防止）、板上の側を取り消す。
+     */
+    private void match(OrderBook book, OrderBookEntry taker) {
+        OrderSide contraSide = contra(taker.getSide());
+        long timestamp = System.currentTimeMillis();
+        while (taker.getRemainingQuantity() > 0) {
+            PriceLevel level = book.bestLevel(contraSide);
+            if (!book.isMarketable(taker, level)) {
+                return;
+            }
+            OrderBookEntry maker = level.getHead();
+            if (maker.getUserId() == taker.getUserId()) {
+                book.remove(maker.getOrderId());
+                cancel(maker, "自己対当防止");
+                continue;
+            }
+            long price = level.getPrice();
+            long quantity = Math.min(taker.getRemainingQuantity(), maker.getRemainingQuantity());
+            book.fill(maker, price, quantity);
+            book.fill(taker, price, quantity);
+            writer.offer(fill(maker, taker, price, quantity, timestamp));
+            writer.offer(fill(taker, maker, price, quantity, timestamp));
+            if (maker.getRemainingQuantity() == 0) {
+                terminated.put(maker.getOrderId(), maker);
+            }
+            if (taker.getRemainingQuantity() == 0) {
+                terminated.put(taker.getOrderId(), taker);
+            }
+        }
+    }
+
+    private void cancel(OrderBookEntry entry, String reason) {
+        terminated.put(entry.getOrderId(), entry);
+        writer.offer(new EngineOutput.Cancel(entry.getOrderId(), entry.getSecurityId(), reason));
+    }
+
+    /**
+     * 直近約定価格で発動した逆指値注文を順に執行する（発動による約定で更に連鎖しうる）
+     */
+    private void triggerStops(OrderBook book) {
+        OrderBookEntry triggered;
+        while ((triggered = book.pollTriggeredStop()) != null) {
+            execute(book, triggered);
+        }
+    }
+
+    private static EngineOutput.Fill fill(OrderBookEntry entry, OrderBookEntry contra,
+                                          long price, long quantity, long timestamp) {
+        return new EngineOutput.Fill(entry.getOrderId(), entry.getUserId(), entry.getSecurityId(), entry.getSide(),
+                price, quantity, entry.getRemainingQuantity(),
+                contra.getOrderId(), timestamp);
+    }
+
+    private static OrderSide contra(OrderSide side) {
+        return side == OrderSide.BUY ? OrderSide.SELL : OrderSide.BUY;
+    }
+
+    private record Persisted(long securityId, long orderId, boolean applied, long restoredQuantity) {
+    }
+}
@@ -0,0 +1,113 @@
+package com.oms.api.metrics;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * 注文ライフサイクルのメトリクス
+ *
+ * 処理段階ごとのレイテンシを oms.order.latency{stage} に記録する（HDR ヒストグラムによる p99 / p999）。
+ * 注文イベントはコミット後に oms.orders.events{event,status,order_type,time_in_force} で数える。
+ * 修正・取消の楽観ロック競合（再試行の発生回数）は oms.order.conflicts で数える。
+ */
+@Component
+public class OrderMetrics {
+
+    /**
+     * 計測する処理段階
+     */
+    public enum Stage {
+        CREATE("create"),          // 発注（コミットまで）
+        UPDATE("update"),          // 修正（コミットまで）
+        CANCEL("cancel"),          // 取消（コミットまで）
+        VALIDATION("validation"),  // 業務バリデーション
+        RISK("risk"),              // 発注前リスクチェック（拘束まで）
+        ORDER_NO("order_no"),      // 注文番号採番
+        PERSIST("persist"),        // INSERT / UPDATE（flush まで）
+        JOURNAL("journal"),        // ジャーナルの fsync
+        CONVERT("convert");        // Entity -> DTO 変換
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+    private final Counter conflicts;
+
+    public OrderMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("oms.order.latency")
+                    .description("注文処理の段階別レイテンシ")
+                    .tag("stage", stage.tag)
+                    .publishPercentiles(0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(1_000))
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(registry));
+        }
+        conflicts = Counter.builder("oms.order.conflicts")
+                .description("修正・取消の楽観ロック競合回数")
+                .register(registry);
+    }
+
+    /**
+     * 段階の計測（戻り値あり）
+     */
+    public <T> T record(Stage stage, Supplier<T> action) {
+        return timers.get(stage).record(action);
+    }
+
+    /**
+     * 段階の計測（戻り値なし）
+     */
+    public void record(Stage stage, Runnable action) {
+        timers.get(stage).record(action);
+    }
+
+    /**
+     * 計測開始（例外時も含めて stop で記録する処理向け）
+     */
+    public Timer.Sample start() {
+        return Timer.start(registry);
+    }
+
+    public void stop(Timer.Sample sample, Stage stage) {
+        sample.stop(timers.get(stage));
+    }
+
+    /**
+     * 楽観ロック競合の計数
+     */
+    public void conflict() {
+        conflicts.increment();
+    }
+
+    /**
+     * 注文イベントの計数（コミット後）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        OrderDto order = event.order();
+        registry.counter("oms.orders.events",
+                "event", event.type().name(),
+                "status", String.valueOf(order.getStatus()),
+                "order_type", String.valueOf(order.getOrderType()),
+                "time_in_force", String.valueOf(order.getTimeInForce())).increment();
+    }
+}
@@ -0,0 +1,92 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * アーカイブ済み発注エンティティ（終了済みの古い注文。OrderArchiver が orders から移す。読み取り専用）
+ *
+ * 列は orders と同じ。照会時は OrderMapper#toOrder で Order に詰め替える。
+ */
+@Entity
+@Immutable
+@Table(name = "orders_archive", indexes = {
+        // schema.sql の検索用インデックス（ddl-auto で作成する組み込み DB 用）
+        @Index(name = "idx_archive_date", columnList = "order_date"),
+        @Index(name = "idx_archive_user_date", columnList = "user_id, order_date"),
+        @Index(name = "idx_archive_security_date", columnList = "security_id, order_date"),
+        @Index(name = "idx_archive_status_date", columnList = "status, order_date")
+})
+@Data
+public class ArchivedOrder {
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "security_id", nullable = false)
+    private Long securityId;
+
+    @Column(name = "order_no", nullable = false, length = 50)
+    private String orderNo;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "side", nullable = false)
+    private OrderSide side;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "order_type", nullable = false)
+    private OrderType orderType;
+
+    @Column(name = "quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "price", precision = 18, scale = 4)
+    private BigDecimal price;
+
+    @Column(name = "stop_price", precision = 18, scale = 4)
+    private BigDecimal stopPrice;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "time_in_force", nullable = false)
+    private TimeInForce timeInForce;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private OrderStatus status;
+
+    @Column(name = "filled_quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal filledQuantity;
+
+    @Column(name = "average_price", precision = 18, scale = 4)
+    private BigDecimal averagePrice;
+
+    @Column(name = "commission", precision = 18, scale = 4)
+    private BigDecimal commission;
+
+    @Column(name = "order_date", nullable = false)
+    private LocalDateTime orderDate;
+
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,14 @@
+package com.oms.api.model;
+
+/**
+ * 注文履歴ログのアクション
+ */
+public enum AuditAction {
+    CREATE,        // 新規
+    UPDATE,        // 修正
+    CANCEL,        // 取消
+    FILL,          // 全量約定
+    PARTIAL_FILL,  // 一部約定
+    REJECT,        // 拒否
+    EXPIRE         // 期限切れ
+}
@@ -0,0 +1,39 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * 日次採番エンティティ
+ *
+ * 採番キー（例: ORD20240115）ごとに次に払い出す連番を保持する。
+ * 1件ずつではなくブロック単位で予約するため、行ロックは予約時にのみ発生する。
+ */
+@Entity
+@Table(name = "daily_sequences")
+@Data
+@NoArgsConstructor
+public class DailySequence {
+    @Id
+    @Column(name = "sequence_key", length = 50)
+    private String sequenceKey;
+
+    @Column(name = "next_value", nullable = false)
+    private Long nextValue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public DailySequence(String sequenceKey, Long nextValue) {
+        this.sequenceKey = sequenceKey;
+        this.nextValue = nextValue;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,50 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 日次損益バッチの大引け時点の建玉（翌営業日以降の計算の始値になる）
+ *
+ * 取引日にその銘柄の約定があったユーザー・銘柄だけ登録する。
+ */
+@Entity
+@Table(name = "eod_positions")
+@IdClass(EodPosition.Key.class)
+@Data
+public class EodPosition {
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "security_id")
+    private Long securityId;
+
+    @Id
+    @Column(name = "trade_date")
+    private LocalDate tradeDate;
+
+    @Column(name = "quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "average_cost", precision = 18, scale = 4, nullable = false)
+    private BigDecimal averageCost;
+
+    /**
+     * 複合主キー
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long securityId;
+        private LocalDate tradeDate;
+    }
+}
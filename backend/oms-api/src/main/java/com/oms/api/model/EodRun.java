@@ -0,0 +1,66 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 日次損益バッチの実行記録（取引日ごと）
+ *
+ * checkpointUserId 以下のユーザーは処理済みで、再実行時はその次のユーザーから再開する。
+ */
+@Entity
+@Table(name = "eod_runs")
+@Data
+@NoArgsConstructor
+public class EodRun {
+    @Id
+    @Column(name = "trade_date")
+    private LocalDate tradeDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private EodRunStatus status;
+
+    @Column(name = "checkpoint_user_id", nullable = false)
+    private Long checkpointUserId;
+
+    @Column(name = "executions", nullable = false)
+    private Long executions;
+
+    @Column(name = "trades", nullable = false)
+    private Long trades;
+
+    /** 実行したノード（oms.cluster.node-id） */
+    @Column(name = "run_by", length = 64)
+    private String runBy;
+
+    @Column(name = "error_message", length = 500)
+    private String errorMessage;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public EodRun(LocalDate tradeDate) {
+        this.tradeDate = tradeDate;
+        this.status = EodRunStatus.RUNNING;
+        this.checkpointUserId = 0L;
+        this.executions = 0L;
+        this.trades = 0L;
+        this.startedAt = LocalDateTime.now();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,10 @@
+package com.oms.api.model;
+
+/**
+ * 日次損益バッチの実行状態
+ */
+public enum EodRunStatus {
+    RUNNING,    // 実行中（異常終了した場合も再実行でチェックポイントから再開）
+    COMPLETED,  // 完了
+    FAILED      // 失敗（再実行でチェックポイントから再開）
+}
@@ -0,0 +1,59 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 約定エンティティ
+ */
+@Entity
+@Table(name = "executions")
+@Data
+public class Execution {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "executions_seq")
+    @SequenceGenerator(name = "executions_seq", sequenceName = "executions_seq", allocationSize = 50)
+    @Column(name = "execution_id")
+    private Long executionId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "security_id", nullable = false)
+    private Long securityId;
+
+    @Column(name = "execution_no", unique = true, nullable = false, length = 50)
+    private String executionNo;
+
+    @Column(name = "execution_price", precision = 18, scale = 4, nullable = false)
+    private BigDecimal executionPrice;
+
+    @Column(name = "execution_quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal executionQuantity;
+
+    @Column(name = "commission", precision = 18, scale = 4, nullable = false)
+    private BigDecimal commission = BigDecimal.ZERO;
+
+    @Column(name = "execution_date", nullable = false)
+    private LocalDateTime executionDate;
+
+    @Column(name = "settlement_date", nullable = false)
+    private LocalDate settlementDate;
+
+    @Column(name = "contra_broker", length = 100)
+    private String contraBroker;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
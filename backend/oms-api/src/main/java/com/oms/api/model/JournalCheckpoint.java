@@ -0,0 +1,43 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * ジャーナル適用位置
+ *
+ * scanPosition: 再起動時に読み始める位置（未決トランザクションの先頭レコード）
+ * appliedPosition: ここより前で確定したトランザクションは DB に適用済み
+ */
+@Entity
+@Table(name = "journal_checkpoints")
+@Data
+@NoArgsConstructor
+public class JournalCheckpoint {
+    @Id
+    @Column(name = "name", length = 50)
+    private String name;
+
+    @Column(name = "scan_position", nullable = false)
+    private Long scanPosition;
+
+    @Column(name = "applied_position", nullable = false)
+    private Long appliedPosition;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    public JournalCheckpoint(String name) {
+        this.name = name;
+        this.scanPosition = 0L;
+        this.appliedPosition = 0L;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,51 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 市場データ（銘柄別の日足）エンティティ
+ */
+@Entity
+@Table(name = "market_data", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_security_date", columnNames = {"security_id", "data_date"})
+})
+@Data
+public class MarketData {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "market_data_id")
+    private Long marketDataId;
+
+    @Column(name = "security_id", nullable = false)
+    private Long securityId;
+
+    @Column(name = "data_date", nullable = false)
+    private LocalDate dataDate;
+
+    @Column(name = "open_price", precision = 18, scale = 4)
+    private BigDecimal openPrice;
+
+    @Column(name = "high_price", precision = 18, scale = 4)
+    private BigDecimal highPrice;
+
+    @Column(name = "low_price", precision = 18, scale = 4)
+    private BigDecimal lowPrice;
+
+    @Column(name = "close_price", precision = 18, scale = 4)
+    private BigDecimal closePrice;
+
+    @Column(name = "volume")
+    private Long volume;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
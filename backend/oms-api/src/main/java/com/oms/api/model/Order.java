@@ -2,6 +2,7 @@ package com.oms.api.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -9,11 +10,22 @@ import java.time.LocalDateTime;
  * 発注エンティティ
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = {
+        // schema.sql の検索用インデックス（ddl-auto で作成する組み込み DB 用）
+        // 一覧（order_date DESC, order_id DESC のキーセット）を条件なしでも並び順のまま読めるよう、並び順どおりの降順にする
+        @Index(name = "idx_order_date_id", columnList = "order_date DESC, order_id DESC"),
+        @Index(name = "idx_composite", columnList = "user_id, order_date, status"),
+        @Index(name = "idx_user_status_date", columnList = "user_id, status, order_date"),
+        @Index(name = "idx_security_date", columnList = "security_id, order_date"),
+        @Index(name = "idx_status_date", columnList = "status, order_date"),
+        @Index(name = "idx_status_valid_until", columnList = "status, valid_until")
+})
 @Data
 public class Order {
+    // IDENTITY だと Hibernate の JDBC バッチが無効になるため、プール型シーケンスで採番する
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     @Column(name = "order_id")
     private Long orderId;
 
@@ -75,6 +87,12 @@ public class Order {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // 楽観ロック（修正・取消と約定反映の競合検出。JDBC で更新する箇所も version を加算すること）
+    @Version
+    @ColumnDefault("0")
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -87,6 +105,16 @@ public class Order {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * ステータス遷移（OrderStatus の遷移表にない遷移は IllegalStateException）
+     */
+    public void transitionTo(OrderStatus next) {
+        if (!status.canTransitionTo(next)) {
+            throw new IllegalStateException("Illegal order status transition: " + status + " -> " + next);
+        }
+        status = next;
+    }
+
     // Transient計算プロパティ
     @Transient
     public BigDecimal getRemainingQuantity() {
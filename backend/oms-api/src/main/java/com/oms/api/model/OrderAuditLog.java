@@ -0,0 +1,45 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * 注文履歴ログエンティティ
+ *
+ * 書き込みは JournalApplier がジャーナルから JDBC バッチで行う（1イベント1行）。
+ */
+@Entity
+@Table(name = "order_audit_log")
+@Data
+public class OrderAuditLog {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "audit_id")
+    private Long auditId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "action", nullable = false)
+    private AuditAction action;
+
+    @Column(name = "old_status", length = 50)
+    private String oldStatus;
+
+    @Column(name = "new_status", length = 50)
+    private String newStatus;
+
+    @Column(name = "change_details", columnDefinition = "JSON")
+    private String changeDetails;
+
+    @Column(name = "ip_address", length = 45)
+    private String ipAddress;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -2,6 +2,13 @@ package com.oms.api.model;
 
 /**
  * 注文ステータス
+ *
+ * 状態遷移:
+ * <pre>
+ * NEW     -> PARTIAL / FILLED / CANCELED / REJECTED / EXPIRED
+ * PARTIAL -> PARTIAL / FILLED / CANCELED / EXPIRED
+ * FILLED / CANCELED / REJECTED / EXPIRED は終端（遷移不可）
+ * </pre>
  */
 public enum OrderStatus {
     NEW,       // 新規
@@ -9,5 +16,30 @@ public enum OrderStatus {
     FILLED,    // 全量約定
     CANCELED,  // キャンセル
     REJECTED,  // 拒否
-    EXPIRED    // 期限切れ
+    EXPIRED;   // 期限切れ
+
+    /**
+     * 約定・修正・取消の対象となるステータスか
+     */
+    public boolean isActive() {
+        return this == NEW || this == PARTIAL;
+    }
+
+    /**
+     * 終端ステータスか
+     */
+    public boolean isTerminal() {
+        return !isActive();
+    }
+
+    /**
+     * next への遷移が許可されているか
+     */
+    public boolean canTransitionTo(OrderStatus next) {
+        return switch (this) {
+            case NEW -> next != NEW;
+            case PARTIAL -> next == PARTIAL || next == FILLED || next == CANCELED || next == EXPIRED;
+            default -> false;
+        };
+    }
 }
@@ -0,0 +1,67 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * ポジションエンティティ
+ */
+@Entity
+@Table(name = "positions")
+@Data
+public class Position {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "position_id")
+    private Long positionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "security_id", nullable = false)
+    private Long securityId;
+
+    @Column(name = "quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal quantity = BigDecimal.ZERO;
+
+    @Column(name = "average_cost", precision = 18, scale = 4, nullable = false)
+    private BigDecimal averageCost = BigDecimal.ZERO;
+
+    @Column(name = "current_price", precision = 18, scale = 4)
+    private BigDecimal currentPrice;
+
+    @Column(name = "unrealized_pnl", precision = 18, scale = 4)
+    private BigDecimal unrealizedPnl;
+
+    @Column(name = "realized_pnl", precision = 18, scale = 4, nullable = false)
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+
+    @Column(name = "last_updated", nullable = false)
+    private LocalDateTime lastUpdated;
+
+    /** 反映済みの最後の約定ID（null = トリガー時代の行。起動時の約定の再適用の対象外） */
+    @Column(name = "last_execution_id")
+    private Long lastExecutionId;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+        if (lastUpdated == null) {
+            lastUpdated = updatedAt;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,64 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 銘柄マスタエンティティ
+ */
+@Entity
+@Table(name = "securities")
+@Data
+public class Security {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "security_id")
+    private Long securityId;
+
+    @Column(name = "security_code", unique = true, nullable = false, length = 20)
+    private String securityCode;
+
+    @Column(name = "security_name", nullable = false, length = 200)
+    private String securityName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "security_type", nullable = false)
+    private SecurityType securityType;
+
+    @Column(name = "market", length = 50)
+    private String market;
+
+    @Column(name = "sector", length = 50)
+    private String sector;
+
+    @Column(name = "currency", nullable = false, length = 3)
+    private String currency = "JPY";
+
+    @Column(name = "lot_size", nullable = false)
+    private Integer lotSize = 100;
+
+    @Column(name = "tick_size", precision = 10, scale = 4, nullable = false)
+    private BigDecimal tickSize = BigDecimal.ONE;
+
+    @Column(name = "is_active", nullable = false)
+    private Boolean isActive = true;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,13 @@
+package com.oms.api.model;
+
+/**
+ * 銘柄種別
+ */
+public enum SecurityType {
+    STOCK,      // 株式
+    BOND,       // 債券
+    ETF,        // 上場投資信託
+    REIT,       // 不動産投資信託
+    FUND,       // 投資信託
+    DERIVATIVE  // デリバティブ
+}
@@ -0,0 +1,72 @@
+package com.oms.api.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 取引履歴エンティティ（約定ごとの金額・純額・実現損益。日次バッチ EodPnlJob が登録する）
+ */
+@Entity
+@Table(name = "trade_history", indexes = {
+        // schema.sql のインデックス（ddl-auto で作成する組み込み DB 用）
+        @Index(name = "idx_trade_date", columnList = "trade_date"),
+        @Index(name = "idx_trade_user_date_side", columnList = "user_id, trade_date, side")
+})
+@Data
+public class TradeHistory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "trade_id")
+    private Long tradeId;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "execution_id")
+    private Long executionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "security_id", nullable = false)
+    private Long securityId;
+
+    @Column(name = "trade_date", nullable = false)
+    private LocalDate tradeDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "side", nullable = false)
+    private OrderSide side;
+
+    @Column(name = "quantity", precision = 18, scale = 4, nullable = false)
+    private BigDecimal quantity;
+
+    @Column(name = "price", precision = 18, scale = 4, nullable = false)
+    private BigDecimal price;
+
+    @Column(name = "amount", precision = 18, scale = 4, nullable = false)
+    private BigDecimal amount;
+
+    @Column(name = "commission", precision = 18, scale = 4, nullable = false)
+    private BigDecimal commission = BigDecimal.ZERO;
+
+    @Column(name = "net_amount", precision = 18, scale = 4, nullable = false)
+    private BigDecimal netAmount;
+
+    @Column(name = "pnl", precision = 18, scale = 4)
+    private BigDecimal pnl;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
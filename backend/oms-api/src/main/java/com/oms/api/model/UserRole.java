@@ -0,0 +1,10 @@
+package com.oms.api.model;
+
+/**
+ * ユーザー権限
+ */
+public enum UserRole {
+    TRADER,   // トレーダー
+    MANAGER,  // マネージャー
+    ADMIN     // 管理者
+}
@@ -0,0 +1,276 @@
+package com.oms.api.orderbook;
+
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.util.FixedPoint;
+import org.agrona.collections.Long2ObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+/**
+ * 銘柄ごとの板（価格優先・時間優先）
+ *
+ * 指値注文は買い板・売り板、発動待ちの逆指値注文は逆指値価格の板に置く。
+ * 注文イベントによる更新は銘柄を担当するマッチングパーティションのスレッドが行うが、
+ * 起動時・担当パーティション変更時の積み直し（OrderBookManager）と板情報の参照は別スレッドから行われる。
+ * スレッドセーフではないため、呼び出し側はすべて板単位に synchronized (book) で排他すること
+ * （パーティションスレッド同士は銘柄が重ならないため、ロックは通常競合しない）。
+ */
+public final class OrderBook {
+
+    private final long securityId;
+    private final PriceLevels bids = new PriceLevels(true);
+    private final PriceLevels asks = new PriceLevels(false);
+    // 買い逆指値は低い価格から、売り逆指値は高い価格から発動する
+    private final PriceLevels buyStops = new PriceLevels(false);
+    private final PriceLevels sellStops = new PriceLevels(true);
+    private final Long2ObjectHashMap<OrderBookEntry> orders = new Long2ObjectHashMap<>();
+    private long sequence;
+    private long lastTradePrice = FixedPoint.NULL;
+
+    public OrderBook(long securityId) {
+        this.securityId = securityId;
+    }
+
+    /**
+     * 注文を追加（同一注文IDが既にあれば置き換える）
+     */
+    public void add(OrderBookEntry entry) {
+        remove(entry.getOrderId());
+        entry.sequence = ++sequence;
+        levelsFor(entry).getOrCreate(entry.bookPrice()).add(entry);
+        orders.put(entry.getOrderId(), entry);
+    }
+
+    /**
+     * 注文を取り除く（O(1)）
+     *
+     * @return 取り除いた注文（板になければ null）
+     */
+    public OrderBookEntry remove(long orderId) {
+        OrderBookEntry entry = orders.remove(orderId);
+        if (entry != null) {
+            detach(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * 対象ユーザーの注文をすべて取り除く（クラスタモードで担当でなくなったユーザー）
+     *
+     * @return 取り除いた件数
+     */
+    public int removeUsers(LongPredicate users) {
+        List<OrderBookEntry> removed = new ArrayList<>();
+        for (OrderBookEntry entry : orders.values()) {
+            if (users.test(entry.getUserId())) {
+                removed.add(entry);
+            }
+        }
+        for (OrderBookEntry entry : removed) {
+            remove(entry.getOrderId());
+        }
+        return removed.size();
+    }
+
+    /**
+     * 注文を修正
+     *
+     * 価格が変わらず数量が減るだけの場合は時間優先順位を維持し、
+     * それ以外（価格変更・数量増）は順位を失って末尾に並び直す。
+     *
+     * @return 板に注文があれば true
+     */
+    public boolean amend(long orderId, long remainingQuantity, long limitPrice, long stopPrice) {
+        OrderBookEntry entry = orders.get(orderId);
+        if (entry == null) {
+            return false;
+        }
+        boolean priceChanged = entry.getLimitPrice() != limitPrice || entry.getStopPrice() != stopPrice;
+        if (!priceChanged && remainingQuantity <= entry.getRemainingQuantity()) {
+            entry.level.reduce(entry, entry.getRemainingQuantity() - remainingQuantity);
+            return true;
+        }
+        detach(entry);
+        entry.setLimitPrice(limitPrice);
+        entry.setStopPrice(stopPrice);
+        entry.setRemainingQuantity(remainingQuantity);
+        entry.sequence = ++sequence;
+        levelsFor(entry).getOrCreate(entry.bookPrice()).add(entry);
+        return true;
+    }
+
+    /**
+     * 約定の反映（残数量を減らし、板上の注文が全量約定したら板から外す）
+     *
+     * 板に置かれていない注文（成行・IOC などのテイカー）にも使える。
+     */
+    public void fill(OrderBookEntry entry, long price, long quantity) {
+        if (entry.level != null) {
+            entry.level.reduce(entry, quantity);
+            if (entry.getRemainingQuantity() == 0) {
+                orders.remove(entry.getOrderId());
+                detach(entry);
+            }
+        } else {
+            entry.setRemainingQuantity(entry.getRemainingQuantity() - quantity);
+        }
+        entry.recordFill(price, quantity);
+        lastTradePrice = price;
+    }
+
+    /**
+     * 約定の取り消し（DB に反映できなかった約定の数量を残数量に戻す。板上の注文は順位を保つ）
+     */
+    public void restore(OrderBookEntry entry, long quantity) {
+        if (entry.level != null) {
+            entry.level.restore(entry, quantity);
+        } else {
+            entry.setRemainingQuantity(entry.getRemainingQuantity() + quantity);
+        }
+        entry.revertFill(quantity);
+    }
+
+    /**
+     * テイカー注文が相手方のレベルと約定可能か（成行は常に可）
+     */
+    public boolean isMarketable(OrderBookEntry taker, PriceLevel contra) {
+        if (contra == null) {
+            return false;
+        }
+        if (taker.getOrderType() == OrderType.MARKET) {
+            return true;
+        }
+        return taker.getSide() == OrderSide.BUY
+                ? contra.getPrice() <= taker.getLimitPrice()
+                : contra.getPrice() >= taker.getLimitPrice();
+    }
+
+    /**
+     * テイカー注文の全量が即時約定可能か（FOK 判定。自己対当防止で対当しない同一ユーザーの注文は数えない）
+     */
+    public boolean canFill(OrderBookEntry taker) {
+        OrderSide contraSide = taker.getSide() == OrderSide.BUY ? OrderSide.SELL : OrderSide.BUY;
+        long needed = taker.getRemainingQuantity();
+        int depth = depth(contraSide);
+        for (int i = 0; i < depth && needed > 0; i++) {
+            PriceLevel level = levelAt(contraSide, i);
+            if (!isMarketable(taker, level)) {
+                break;
+            }
+            needed -= level.getTotalQuantity();
+            for (OrderBookEntry entry = level.getHead(); entry != null; entry = entry.next) {
+                if (entry.getUserId() == taker.getUserId()) {
+                    needed += entry.getRemainingQuantity();
+                }
+            }
+        }
+        return needed <= 0;
+    }
+
+    /**
+     * 直近約定価格で発動条件を満たした逆指値注文を1件取り出す（なければ null）
+     *
+     * 買い逆指値は直近約定価格 >= 逆指値価格、売り逆指値は直近約定価格 <= 逆指値価格で発動し、
+     * 逆指値は成行、逆指値付き指値は指値に変わって板から外れる（受付順に処理する）。
+     */
+    public OrderBookEntry pollTriggeredStop() {
+        if (lastTradePrice == FixedPoint.NULL) {
+            return null;
+        }
+        PriceLevel buy = buyStops.best();
+        PriceLevel sell = sellStops.best();
+        OrderBookEntry buyHead = buy != null && lastTradePrice >= buy.getPrice() ? buy.getHead() : null;
+        OrderBookEntry sellHead = sell != null && lastTradePrice <= sell.getPrice() ? sell.getHead() : null;
+        OrderBookEntry triggered;
+        if (buyHead == null) {
+            triggered = sellHead;
+        } else if (sellHead == null) {
+            triggered = buyHead;
+        } else {
+            triggered = buyHead.sequence < sellHead.sequence ? buyHead : sellHead;
+        }
+        if (triggered == null) {
+            return null;
+        }
+        remove(triggered.getOrderId());
+        triggered.setOrderType(triggered.getOrderType() == OrderType.STOP ? OrderType.MARKET : OrderType.LIMIT);
+        return triggered;
+    }
+
+    /**
+     * 直近約定価格（約定がなければ FixedPoint.NULL）
+     */
+    public long getLastTradePrice() {
+        return lastTradePrice;
+    }
+
+    public OrderBookEntry get(long orderId) {
+        return orders.get(orderId);
+    }
+
+    /**
+     * 最良買い気配（なければ FixedPoint.NULL）
+     */
+    public long bestBid() {
+        PriceLevel level = bids.best();
+        return level == null ? FixedPoint.NULL : level.getPrice();
+    }
+
+    /**
+     * 最良売り気配（なければ FixedPoint.NULL）
+     */
+    public long bestAsk() {
+        PriceLevel level = asks.best();
+        return level == null ? FixedPoint.NULL : level.getPrice();
+    }
+
+    /**
+     * 指定サイドの最良レベル（なければ null）
+     */
+    public PriceLevel bestLevel(OrderSide side) {
+        return (side == OrderSide.BUY ? bids : asks).best();
+    }
+
+    /**
+     * 指定サイドのレベル数
+     */
+    public int depth(OrderSide side) {
+        return (side == OrderSide.BUY ? bids : asks).size();
+    }
+
+    /**
+     * 指定サイドの最良から depth 番目のレベル（0 = 最良）
+     */
+    public PriceLevel levelAt(OrderSide side, int depth) {
+        return (side == OrderSide.BUY ? bids : asks).levelAt(depth);
+    }
+
+    public long getSecurityId() {
+        return securityId;
+    }
+
+    /**
+     * 板上の注文数（発動待ちの逆指値を含む）
+     */
+    public int size() {
+        return orders.size();
+    }
+
+    // ===== Private Methods =====
+
+    private void detach(OrderBookEntry entry) {
+        PriceLevel level = entry.level;
+        level.remove(entry);
+        levelsFor(entry).removeIfEmpty(level);
+    }
+
+    private PriceLevels levelsFor(OrderBookEntry entry) {
+        if (entry.isStopPending()) {
+            return entry.getSide() == OrderSide.BUY ? buyStops : sellStops;
+        }
+        return entry.getSide() == OrderSide.BUY ? bids : asks;
+    }
+}
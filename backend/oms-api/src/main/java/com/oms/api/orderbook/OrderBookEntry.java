@@ -0,0 +1,205 @@
+package com.oms.api.orderbook;
+
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.util.FixedPoint;
+
+import java.math.BigDecimal;
+
+/**
+ * 板上の注文（価格・数量は FixedPoint の long 表現）
+ *
+ * 価格レベル内の FIFO 待ち行列を双方向リンクで保持するため、
+ * 注文IDからの取消は O(1) で行える。
+ */
+public final class OrderBookEntry {
+
+    private final long orderId;
+    private final long userId;
+    private final long securityId;
+    private final OrderSide side;
+    private OrderType orderType;
+    private TimeInForce timeInForce;
+    private long limitPrice;
+    private long stopPrice;
+    private long remainingQuantity;
+    private long filledQuantity;
+    private long averagePrice = FixedPoint.NULL;
+
+    /** 時間優先順位（板ごとの受付順） */
+    long sequence;
+
+    // 価格レベル内の FIFO リンク
+    PriceLevel level;
+    OrderBookEntry prev;
+    OrderBookEntry next;
+
+    public OrderBookEntry(long orderId, long userId, long securityId, OrderSide side, OrderType orderType,
+                          TimeInForce timeInForce, long limitPrice, long stopPrice, long remainingQuantity) {
+        this.orderId = orderId;
+        this.userId = userId;
+        this.securityId = securityId;
+        this.side = side;
+        this.orderType = orderType;
+        this.timeInForce = timeInForce;
+        this.limitPrice = limitPrice;
+        this.stopPrice = stopPrice;
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    /**
+     * 注文項目からエントリを作成（終了ステータス・残数量なしの注文は null）
+     *
+     * 成行・IOC・FOK も作成する。板に置くかどうかは呼び出し側で判断する。
+     */
+    public static OrderBookEntry create(Long orderId, Long userId, Long securityId, OrderSide side,
+                                        OrderType orderType, TimeInForce timeInForce, OrderStatus status,
+                                        BigDecimal price, BigDecimal stopPrice,
+                                        BigDecimal quantity, BigDecimal filledQuantity, BigDecimal averagePrice) {
+        if (status != OrderStatus.NEW && status != OrderStatus.PARTIAL) {
+            return null;
+        }
+        long filled = filledQuantity == null ? 0 : FixedPoint.toScaled(filledQuantity);
+        long remaining = FixedPoint.toScaled(quantity) - filled;
+        if (remaining <= 0) {
+            return null;
+        }
+        OrderBookEntry entry = new OrderBookEntry(orderId, userId, securityId, side, orderType, timeInForce,
+                FixedPoint.toScaled(price), FixedPoint.toScaled(stopPrice), remaining);
+        entry.filledQuantity = filled;
+        entry.averagePrice = FixedPoint.toScaled(averagePrice);
+        return entry;
+    }
+
+    /**
+     * 板に置く注文か（成行・IOC・FOK は板に残らない）
+     */
+    public boolean isResting() {
+        return orderType != OrderType.MARKET && timeInForce != TimeInForce.IOC && timeInForce != TimeInForce.FOK;
+    }
+
+    /**
+     * 逆指値の発動待ちか（発動前は逆指値価格の板に置かれる）
+     */
+    public boolean isStopPending() {
+        return orderType == OrderType.STOP || orderType == OrderType.STOP_LIMIT;
+    }
+
+    /**
+     * 板上の価格（発動待ちの逆指値は逆指値価格、それ以外は指値価格）
+     */
+    public long bookPrice() {
+        return isStopPending() ? stopPrice : limitPrice;
+    }
+
+    public long getOrderId() {
+        return orderId;
+    }
+
+    public long getUserId() {
+        return userId;
+    }
+
+    public long getSecurityId() {
+        return securityId;
+    }
+
+    public OrderSide getSide() {
+        return side;
+    }
+
+    public OrderType getOrderType() {
+        return orderType;
+    }
+
+    void setOrderType(OrderType orderType) {
+        this.orderType = orderType;
+    }
+
+    public TimeInForce getTimeInForce() {
+        return timeInForce;
+    }
+
+    void setTimeInForce(TimeInForce timeInForce) {
+        this.timeInForce = timeInForce;
+    }
+
+    public long getLimitPrice() {
+        return limitPrice;
+    }
+
+    void setLimitPrice(long limitPrice) {
+        this.limitPrice = limitPrice;
+    }
+
+    public long getStopPrice() {
+        return stopPrice;
+    }
+
+    void setStopPrice(long stopPrice) {
+        this.stopPrice = stopPrice;
+    }
+
+    public long getRemainingQuantity() {
+        return remainingQuantity;
+    }
+
+    void setRemainingQuantity(long remainingQuantity) {
+        this.remainingQuantity = remainingQuantity;
+    }
+
+    /**
+     * 約定済み数量（エンジンが約定させた分を含む）
+     */
+    public long getFilledQuantity() {
+        return filledQuantity;
+    }
+
+    /**
+     * 平均約定価格（未約定は FixedPoint.NULL）
+     */
+    public long getAveragePrice() {
+        return averagePrice;
+    }
+
+    /**
+     * 約定の記録（残数量は呼び出し側で減らす）
+     */
+    void recordFill(long price, long quantity) {
+        long total = filledQuantity + quantity;
+        averagePrice = averagePrice == FixedPoint.NULL
+                ? price
+                : averagePrice + Math.round((double) (price - averagePrice) * quantity / total);
+        filledQuantity = total;
+    }
+
+    /**
+     * 約定の取り消し（平均約定価格は戻さない。残数量は呼び出し側で増やす）
+     */
+    void revertFill(long quantity) {
+        filledQuantity -= quantity;
+        if (filledQuantity == 0) {
+            averagePrice = FixedPoint.NULL;
+        }
+    }
+
+    /**
+     * 同一価格レベルで次に並ぶ注文（末尾なら null）
+     */
+    public OrderBookEntry getNext() {
+        return next;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    @Override
+    public String toString() {
+        return "OrderBookEntry{orderId=" + orderId + ", side=" + side + ", type=" + orderType +
+                ", price=" + FixedPoint.toDecimal(bookPrice()) +
+                ", remaining=" + FixedPoint.toDecimal(remainingQuantity) + '}';
+    }
+}
@@ -0,0 +1,179 @@
+package com.oms.api.orderbook;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.PartitionListener;
+import com.oms.api.cluster.PartitionSet;
+import com.oms.api.dto.OrderBookDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.PriceLevelDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.model.*;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.util.FixedPoint;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 板管理サービス
+ *
+ * アクティブ（NEW/PARTIAL）な指値・逆指値注文を銘柄ごとの板に保持する。
+ * 起動時に DB から再構築し、以降はマッチングエンジン（MatchingEngine）の
+ * 各パーティションスレッドが担当銘柄の板を更新する。
+ * 積み直し・担当外ユーザーの除去・板情報の参照はパーティションスレッド以外から行うため、
+ * 板へのアクセスはすべて板単位の synchronized で排他する。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookManager implements PartitionListener {
+
+    private final OrderRepository orderRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ClusterMembership> cluster;
+    private final ConcurrentHashMap<Long, OrderBook> books = new ConcurrentHashMap<>();
+
+    /**
+     * 起動時の板の再構築（受付順に積み直して時間優先順位を復元する）
+     *
+     * クラスタモードでは担当パーティションのユーザーの注文だけを積む。
+     */
+    @PostConstruct
+    public void rebuild() {
+        ClusterMembership membership = cluster.getIfAvailable();
+        int count = load(membership != null ? membership.ownedPartitions() : userId -> true);
+        log.info("Order books rebuilt: {} resting orders in {} securities", count, books.size());
+    }
+
+    /**
+     * 担当になったユーザーの注文を板に積み直す（時間優先順位は既存の注文の後ろになる）
+     */
+    @Override
+    public void onPartitionsAssigned(PartitionSet partitions) {
+        removeUsers(partitions);
+        int count = load(partitions);
+        log.info("Order books loaded {} resting orders for {} assigned partitions", count, partitions.size());
+    }
+
+    @Override
+    public void onPartitionsRevoked(PartitionSet partitions) {
+        removeUsers(partitions);
+    }
+
+    /**
+     * 注文イベントをそのまま板に反映（対当させない。マッチング無効時に使用）
+     */
+    public void apply(OrderEvent event) {
+        OrderDto order = event.order();
+        OrderBook book = bookFor(order.getSecurityId());
+        OrderBookEntry entry = toEntry(order);
+        synchronized (book) {
+            if (entry == null) {
+                book.remove(order.getOrderId());
+            } else if (!book.amend(entry.getOrderId(), entry.getRemainingQuantity(),
+                    entry.getLimitPrice(), entry.getStopPrice())) {
+                book.add(entry);
+            }
+        }
+    }
+
+    /**
+     * 板情報取得（最良気配 + 上位 depth 段）
+     */
+    public OrderBookDto getOrderBook(long securityId, int depth) {
+        OrderBookDto dto = new OrderBookDto();
+        dto.setSecurityId(securityId);
+        OrderBook book = books.get(securityId);
+        if (book == null) {
+            dto.setBids(List.of());
+            dto.setAsks(List.of());
+            return dto;
+        }
+        synchronized (book) {
+            dto.setBestBid(FixedPoint.toDecimal(book.bestBid()));
+            dto.setBestAsk(FixedPoint.toDecimal(book.bestAsk()));
+            dto.setLastTradePrice(FixedPoint.toDecimal(book.getLastTradePrice()));
+            dto.setBids(levels(book, OrderSide.BUY, depth));
+            dto.setAsks(levels(book, OrderSide.SELL, depth));
+        }
+        return dto;
+    }
+
+    /**
+     * 銘柄の板（なければ作成）
+     */
+    public OrderBook bookFor(long securityId) {
+        return books.computeIfAbsent(securityId, OrderBook::new);
+    }
+
+    // ===== Private Methods =====
+
+    private int load(LongPredicate users) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            int loaded = 0;
+            try (Stream<Order> orders = orderRepository.streamActiveOrders()) {
+                for (Order order : (Iterable<Order>) orders::iterator) {
+                    if (!users.test(order.getUserId())) {
+                        continue;
+                    }
+                    OrderBookEntry entry = OrderBookEntry.create(order.getOrderId(), order.getUserId(),
+                            order.getSecurityId(), order.getSide(), order.getOrderType(), order.getTimeInForce(),
+                            order.getStatus(), order.getPrice(), order.getStopPrice(), order.getQuantity(),
+                            order.getFilledQuantity(), order.getAveragePrice());
+                    if (entry != null && entry.isResting()) {
+                        OrderBook book = bookFor(entry.getSecurityId());
+                        synchronized (book) {
+                            book.add(entry);
+                        }
+                        loaded++;
+                    }
+                }
+            }
+            return loaded;
+        });
+    }
+
+    private void removeUsers(LongPredicate users) {
+        for (OrderBook book : books.values()) {
+            synchronized (book) {
+                book.removeUsers(users);
+            }
+        }
+    }
+
+    private static List<PriceLevelDto> levels(OrderBook book, OrderSide side, int depth) {
+        int n = Math.min(depth, book.depth(side));
+        List<PriceLevelDto> levels = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            PriceLevel level = book.levelAt(side, i);
+            levels.add(new PriceLevelDto(
+                    FixedPoint.toDecimal(level.getPrice()),
+                    FixedPoint.toDecimal(level.getTotalQuantity()),
+                    level.getOrderCount()));
+        }
+        return levels;
+    }
+
+    /**
+     * 注文DTOからエントリ作成（板に置く注文のみ、それ以外は null）
+     */
+    public static OrderBookEntry toEntry(OrderDto order) {
+        OrderBookEntry entry = OrderBookEntry.create(order.getOrderId(), order.getUserId(), order.getSecurityId(),
+                order.getSide(), order.getOrderType(), order.getTimeInForce(), order.getStatus(),
+                order.getPrice(), order.getStopPrice(), order.getQuantity(),
+                order.getFilledQuantity(), order.getAveragePrice());
+        return entry != null && entry.isResting() ? entry : null;
+    }
+}
@@ -0,0 +1,91 @@
+package com.oms.api.orderbook;
+
+/**
+ * 価格レベル（同一価格の注文の FIFO 待ち行列）
+ */
+public final class PriceLevel {
+
+    private final long price;
+    private OrderBookEntry head;
+    private OrderBookEntry tail;
+    private long totalQuantity;
+    private int orderCount;
+
+    PriceLevel(long price) {
+        this.price = price;
+    }
+
+    /**
+     * 末尾に追加（時間優先）
+     */
+    void add(OrderBookEntry entry) {
+        entry.level = this;
+        entry.prev = tail;
+        entry.next = null;
+        if (tail != null) {
+            tail.next = entry;
+        } else {
+            head = entry;
+        }
+        tail = entry;
+        totalQuantity += entry.getRemainingQuantity();
+        orderCount++;
+    }
+
+    /**
+     * 待ち行列から外す（O(1)）
+     */
+    void remove(OrderBookEntry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            head = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        } else {
+            tail = entry.prev;
+        }
+        totalQuantity -= entry.getRemainingQuantity();
+        orderCount--;
+        entry.level = null;
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    /**
+     * 順位を保ったまま数量を減らす（一部約定・数量減の修正）
+     */
+    void reduce(OrderBookEntry entry, long quantity) {
+        entry.setRemainingQuantity(entry.getRemainingQuantity() - quantity);
+        totalQuantity -= quantity;
+    }
+
+    /**
+     * 順位を保ったまま数量を戻す（DB に反映できなかった約定の取り消し）
+     */
+    void restore(OrderBookEntry entry, long quantity) {
+        entry.setRemainingQuantity(entry.getRemainingQuantity() + quantity);
+        totalQuantity += quantity;
+    }
+
+    public long getPrice() {
+        return price;
+    }
+
+    public OrderBookEntry getHead() {
+        return head;
+    }
+
+    public long getTotalQuantity() {
+        return totalQuantity;
+    }
+
+    public int getOrderCount() {
+        return orderCount;
+    }
+
+    public boolean isEmpty() {
+        return head == null;
+    }
+}
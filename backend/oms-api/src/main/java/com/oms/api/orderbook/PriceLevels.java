@@ -0,0 +1,98 @@
+package com.oms.api.orderbook;
+
+import java.util.Arrays;
+
+/**
+ * 板の片側の価格レベル一覧
+ *
+ * 価格をキーとするソート済み long 配列で保持し、最良レベルを配列末尾に置く。
+ * 最良レベルの参照・削除は O(1)、それ以外の挿入・削除は二分探索 + 配列シフト。
+ */
+final class PriceLevels {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** true: 高い価格が優先（買い板）、false: 低い価格が優先（売り板） */
+    private final boolean higherIsBetter;
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private PriceLevel[] levels = new PriceLevel[INITIAL_CAPACITY];
+    private int size;
+
+    PriceLevels(boolean higherIsBetter) {
+        this.higherIsBetter = higherIsBetter;
+    }
+
+    /**
+     * 価格レベルを取得（なければ作成）
+     */
+    PriceLevel getOrCreate(long price) {
+        long key = key(price);
+        int idx = Arrays.binarySearch(keys, 0, size, key);
+        if (idx >= 0) {
+            return levels[idx];
+        }
+        int insertAt = -idx - 1;
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            levels = Arrays.copyOf(levels, size * 2);
+        }
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(levels, insertAt, levels, insertAt + 1, size - insertAt);
+        PriceLevel level = new PriceLevel(price);
+        keys[insertAt] = key;
+        levels[insertAt] = level;
+        size++;
+        return level;
+    }
+
+    /**
+     * 空になった価格レベルを削除
+     */
+    void removeIfEmpty(PriceLevel level) {
+        if (!level.isEmpty()) {
+            return;
+        }
+        int idx;
+        if (size > 0 && levels[size - 1] == level) {
+            idx = size - 1;
+        } else {
+            idx = Arrays.binarySearch(keys, 0, size, key(level.getPrice()));
+            if (idx < 0) {
+                return;
+            }
+        }
+        System.arraycopy(keys, idx + 1, keys, idx, size - idx - 1);
+        System.arraycopy(levels, idx + 1, levels, idx, size - idx - 1);
+        size--;
+        levels[size] = null;
+    }
+
+    /**
+     * 最良レベル（なければ null）
+     */
+    PriceLevel best() {
+        return size == 0 ? null : levels[size - 1];
+    }
+
+    /**
+     * 最良から数えて depth 番目のレベル（0 = 最良）
+     */
+    PriceLevel levelAt(int depth) {
+        return levels[size - 1 - depth];
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * price が limit と同じかそれより優先される価格か
+     */
+    boolean isAtOrBetter(long price, long limit) {
+        return higherIsBetter ? price >= limit : price <= limit;
+    }
+
+    private long key(long price) {
+        return higherIsBetter ? price : -price;
+    }
+}
@@ -0,0 +1,69 @@
+package com.oms.api.position;
+
+import com.oms.api.model.OrderSide;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 建玉数量と平均取得単価（移動平均法）
+ *
+ * 数量は売り越しを負数で表す。ポジション管理と日次損益計算で同じ計算を使う。
+ */
+public final class CostBasis {
+
+    private static final int SCALE = 4;
+
+    private BigDecimal quantity;
+    private BigDecimal averageCost;
+
+    public CostBasis() {
+        this(BigDecimal.ZERO, BigDecimal.ZERO);
+    }
+
+    public CostBasis(BigDecimal quantity, BigDecimal averageCost) {
+        this.quantity = quantity;
+        this.averageCost = averageCost;
+    }
+
+    /**
+     * 約定の反映（差分計算）
+     *
+     * 建玉と同方向は平均取得単価を加重平均で更新し、反対方向は決済分の実現損益を計上する。
+     * ドテン（売買の向きが反転）した場合、超過分は約定価格で新規建てとする。
+     *
+     * @return この約定で確定した実現損益（新規建てのみの場合は 0）
+     */
+    public BigDecimal apply(OrderSide side, BigDecimal price, BigDecimal executionQuantity) {
+        BigDecimal signed = side == OrderSide.BUY ? executionQuantity : executionQuantity.negate();
+        BigDecimal newQuantity = quantity.add(signed);
+        BigDecimal realized = BigDecimal.ZERO;
+        if (quantity.signum() == 0 || quantity.signum() == signed.signum()) {
+            averageCost = quantity.abs().multiply(averageCost)
+                    .add(executionQuantity.multiply(price))
+                    .divide(newQuantity.abs(), SCALE, RoundingMode.HALF_UP);
+        } else {
+            BigDecimal closed = quantity.abs().min(executionQuantity);
+            BigDecimal pnlPerUnit = price.subtract(averageCost);
+            if (quantity.signum() < 0) {
+                pnlPerUnit = pnlPerUnit.negate();
+            }
+            realized = pnlPerUnit.multiply(closed).setScale(SCALE, RoundingMode.HALF_UP);
+            if (newQuantity.signum() == 0) {
+                averageCost = BigDecimal.ZERO;
+            } else if (newQuantity.signum() != quantity.signum()) {
+                averageCost = price;
+            }
+        }
+        quantity = newQuantity;
+        return realized;
+    }
+
+    public BigDecimal getQuantity() {
+        return quantity;
+    }
+
+    public BigDecimal getAverageCost() {
+        return averageCost;
+    }
+}
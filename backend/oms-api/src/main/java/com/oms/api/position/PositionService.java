@@ -0,0 +1,337 @@
+package com.oms.api.position;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.PartitionListener;
+import com.oms.api.cluster.PartitionSet;
+import com.oms.api.dto.ExecutionDto;
+import com.oms.api.dto.PositionDto;
+import com.oms.api.event.ExecutionEvent;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.Position;
+import com.oms.api.repository.PositionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+
+/**
+ * ポジション管理サービス（トリガー trg_after_execution_insert の置き換え）
+ *
+ * 口座・銘柄ごとのポジションをメモリ上に保持し、約定イベントで差分更新する。
+ * ロックは口座単位のため、異なる口座の約定は並行に処理される。
+ * 変更は positions テーブルに一定間隔でまとめて書き戻す（write-behind）。
+ * 書き戻しには反映済みの最後の約定ID（last_execution_id）を含め、起動時はそれより後の約定を再適用して
+ * 書き戻し前に停止した分（約定は executions にコミット済み）を取り戻す。
+ * 時価による値洗いは銘柄別の保有者索引から、その銘柄のポジションだけを再計算する。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.position.engine.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PositionService implements PartitionListener {
+
+    private static final String UPDATE_SQL =
+            "UPDATE positions SET quantity = ?, average_cost = ?, realized_pnl = ?, current_price = ?, " +
+            "unrealized_pnl = ?, last_updated = ?, last_execution_id = ?, updated_at = ? WHERE position_id = ?";
+
+    /**
+     * positions に未反映の約定（約定ID順）
+     *
+     * 行のないポジションはすべての約定、行のあるポジションは last_execution_id より後の約定が対象。
+     * last_execution_id が null の行（トリガーで更新されていた行）は反映済みとみなす。
+     */
+    public static final String UNFLUSHED_EXECUTIONS_SQL =
+            "SELECT e.execution_id, o.user_id, e.security_id, o.side, e.execution_price, e.execution_quantity, " +
+            "e.execution_date " +
+            "FROM executions e JOIN (SELECT order_id, user_id, side FROM orders " +
+            "UNION ALL SELECT order_id, user_id, side FROM orders_archive) o ON o.order_id = e.order_id " +
+            "LEFT JOIN positions p ON p.user_id = o.user_id AND p.security_id = e.security_id " +
+            "WHERE p.position_id IS NULL OR e.execution_id > p.last_execution_id " +
+            "ORDER BY e.execution_id";
+
+    private final PositionRepository positionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    private final ConcurrentHashMap<Long, UserPositions> accounts = new ConcurrentHashMap<>();
+    /** 銘柄ID → その銘柄のポジション（値洗いの対象） */
+    private final ConcurrentHashMap<Long, Set<PositionState>> holders = new ConcurrentHashMap<>();
+    private final Set<PositionState> dirty = ConcurrentHashMap.newKeySet();
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    /**
+     * 口座単位のポジション（ロックの単位）
+     */
+    private static final class UserPositions {
+        final Long2ObjectHashMap<PositionState> bySecurity = new Long2ObjectHashMap<>();
+    }
+
+    /**
+     * 起動時のポジション読み込み（クラスタモードでは担当パーティションのユーザーのみ）
+     */
+    @PostConstruct
+    public void load() {
+        ClusterMembership membership = cluster.getIfAvailable();
+        int loaded = loadAccounts(membership != null ? membership.ownedPartitions() : userId -> true);
+        log.info("Positions loaded: {} positions in {} accounts", loaded, accounts.size());
+    }
+
+    /**
+     * 担当になったユーザーのポジションを positions から読み込み直す（前の担当ノードの書き戻し後）
+     */
+    @Override
+    public void onPartitionsAssigned(PartitionSet partitions) {
+        dropAccounts(partitions);
+        int loaded = loadAccounts(partitions);
+        log.info("Positions loaded: {} positions for {} assigned partitions", loaded, partitions.size());
+    }
+
+    /**
+     * 担当でなくなったユーザーのポジションを書き戻してから破棄する
+     */
+    @Override
+    public void onPartitionsRevoked(PartitionSet partitions) {
+        flush();
+        // 書き戻しに失敗した変更は dirty に残し、次回の書き戻しで再試行する
+        long pending = dirty.stream().filter(state -> partitions.containsUser(state.getUserId())).count();
+        if (pending > 0) {
+            log.error("{} positions of revoked partitions are not flushed yet", pending);
+        }
+        dropAccounts(partitions);
+    }
+
+    /**
+     * 約定の反映（約定のコミット後）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExecution(ExecutionEvent event) {
+        ExecutionDto execution = event.execution();
+        UserPositions account = accountFor(execution.getUserId());
+        PositionState state;
+        synchronized (account) {
+            state = account.bySecurity.get(execution.getSecurityId());
+            if (state == null) {
+                state = new PositionState(execution.getUserId(), execution.getSecurityId());
+                account.bySecurity.put(execution.getSecurityId(), state);
+                holdersOf(execution.getSecurityId()).add(state);
+            }
+            state.apply(execution.getExecutionId(), execution.getSide(), execution.getExecutionPrice(),
+                    execution.getExecutionQuantity(), execution.getExecutionDate());
+        }
+        dirty.add(state);
+    }
+
+    /**
+     * 時価による値洗い（その銘柄のポジションの評価損益だけを再計算し、書き戻し対象にする）
+     */
+    public void markToMarket(long securityId, BigDecimal price) {
+        Set<PositionState> states = holders.get(securityId);
+        if (states == null) {
+            return;
+        }
+        for (PositionState state : states) {
+            synchronized (accountFor(state.getUserId())) {
+                state.mark(price);
+            }
+            dirty.add(state);
+        }
+    }
+
+    /**
+     * ユーザーのポジション一覧
+     */
+    public List<PositionDto> getPositions(Long userId) {
+        UserPositions account = accounts.get(userId);
+        if (account == null) {
+            return List.of();
+        }
+        synchronized (account) {
+            List<PositionDto> result = new ArrayList<>(account.bySecurity.size());
+            for (PositionState state : account.bySecurity.values()) {
+                result.add(state.toDto());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 停止時に未書き込みの変更を書き戻す
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    /**
+     * 変更されたポジションの一括書き戻し
+     *
+     * 新規ポジションは INSERT（採番のため JPA）、既存は JDBC バッチで UPDATE する。
+     * 失敗時は次回の書き戻しで再試行する。
+     */
+    @Scheduled(fixedDelayString = "${oms.position.flush-interval-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        // DB I/O を挟むため synchronized ではなく ReentrantLock（仮想スレッドのピン留め回避）
+        flushLock.lock();
+        try {
+            doFlush();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    private void doFlush() {
+        // 取り出してからスナップショットを取るため、以降の更新は次回の書き戻し対象になる
+        List<PositionState> states = new ArrayList<>();
+        for (Iterator<PositionState> it = dirty.iterator(); it.hasNext(); ) {
+            states.add(it.next());
+            it.remove();
+        }
+        List<PositionState> insertStates = new ArrayList<>();
+        List<Position> inserts = new ArrayList<>();
+        List<Position> updates = new ArrayList<>();
+        for (PositionState state : states) {
+            Position snapshot;
+            synchronized (accountFor(state.getUserId())) {
+                snapshot = state.toEntity();
+            }
+            if (snapshot.getPositionId() == null) {
+                insertStates.add(state);
+                inserts.add(snapshot);
+            } else {
+                updates.add(snapshot);
+            }
+        }
+        try {
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            List<Position> saved = transactionTemplate.execute(status -> {
+                List<Position> created = positionRepository.saveAll(inserts);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(UPDATE_SQL, updates, jdbcBatchSize, (ps, position) -> {
+                    ps.setBigDecimal(1, position.getQuantity());
+                    ps.setBigDecimal(2, position.getAverageCost());
+                    ps.setBigDecimal(3, position.getRealizedPnl());
+                    ps.setBigDecimal(4, position.getCurrentPrice());
+                    ps.setBigDecimal(5, position.getUnrealizedPnl());
+                    ps.setTimestamp(6, Timestamp.valueOf(position.getLastUpdated()));
+                    ps.setObject(7, position.getLastExecutionId(), Types.BIGINT);
+                    ps.setTimestamp(8, now);
+                    ps.setLong(9, position.getPositionId());
+                });
+                return created;
+            });
+            for (int i = 0; i < insertStates.size(); i++) {
+                insertStates.get(i).setPositionId(saved.get(i).getPositionId());
+            }
+            log.debug("Positions flushed: {} inserted, {} updated", inserts.size(), updates.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to flush {} positions, will retry", states.size(), e);
+            dirty.addAll(states);
+        }
+    }
+
+    /**
+     * positions の読み込みと、書き戻し前に停止して未反映のまま残った約定の再適用
+     */
+    private int loadAccounts(LongPredicate users) {
+        int loaded = 0;
+        for (Position position : positionRepository.findAll()) {
+            if (!users.test(position.getUserId())) {
+                continue;
+            }
+            PositionState state = PositionState.of(position);
+            UserPositions account = accountFor(state.getUserId());
+            synchronized (account) {
+                account.bySecurity.put(state.getSecurityId(), state);
+            }
+            holdersOf(state.getSecurityId()).add(state);
+            loaded++;
+        }
+
+        int[] replayed = {0};
+        jdbcTemplate.query(UNFLUSHED_EXECUTIONS_SQL, rs -> {
+            long userId = rs.getLong("user_id");
+            if (!users.test(userId)) {
+                return;
+            }
+            long securityId = rs.getLong("security_id");
+            UserPositions account = accountFor(userId);
+            PositionState state;
+            synchronized (account) {
+                state = account.bySecurity.get(securityId);
+                if (state == null) {
+                    state = new PositionState(userId, securityId);
+                    account.bySecurity.put(securityId, state);
+                    holdersOf(securityId).add(state);
+                }
+                state.apply(rs.getLong("execution_id"), OrderSide.valueOf(rs.getString("side")),
+                        rs.getBigDecimal("execution_price"), rs.getBigDecimal("execution_quantity"),
+                        rs.getTimestamp("execution_date").toLocalDateTime());
+            }
+            dirty.add(state);
+            replayed[0]++;
+        });
+        if (replayed[0] > 0) {
+            log.warn("Replayed {} executions not yet flushed to positions", replayed[0]);
+        }
+        return loaded;
+    }
+
+    private void dropAccounts(LongPredicate users) {
+        for (Iterator<Map.Entry<Long, UserPositions>> it = accounts.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, UserPositions> entry = it.next();
+            if (!users.test(entry.getKey())) {
+                continue;
+            }
+            it.remove();
+            synchronized (entry.getValue()) {
+                for (PositionState state : entry.getValue().bySecurity.values()) {
+                    Set<PositionState> states = holders.get(state.getSecurityId());
+                    if (states != null) {
+                        states.remove(state);
+                    }
+                }
+            }
+        }
+    }
+
+    private Set<PositionState> holdersOf(long securityId) {
+        return holders.computeIfAbsent(securityId, id -> ConcurrentHashMap.newKeySet());
+    }
+
+    private UserPositions accountFor(long userId) {
+        return accounts.computeIfAbsent(userId, id -> new UserPositions());
+    }
+}
@@ -0,0 +1,118 @@
+package com.oms.api.position;
+
+import com.oms.api.dto.PositionDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.Position;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * 1口座・1銘柄のポジション（メモリ上の正本）
+ *
+ * 数量は売り越しを負数で表す。更新は口座単位のロック（UserPositions）の内側で行う。
+ */
+final class PositionState {
+
+    private static final int SCALE = 4;
+
+    private final long userId;
+    private final long securityId;
+    /** DB の position_id（未登録は null。書き込みスレッドのみが設定する） */
+    private volatile Long positionId;
+    private CostBasis basis = new CostBasis();
+    private BigDecimal realizedPnl = BigDecimal.ZERO;
+    /** 値洗いに使った時価（未取得は null） */
+    private BigDecimal currentPrice;
+    private BigDecimal unrealizedPnl;
+    private LocalDateTime lastUpdated;
+    /** 反映済みの最後の約定ID（書き戻しの基準点。null = 未記録） */
+    private Long lastExecutionId;
+
+    PositionState(long userId, long securityId) {
+        this.userId = userId;
+        this.securityId = securityId;
+    }
+
+    static PositionState of(Position position) {
+        PositionState state = new PositionState(position.getUserId(), position.getSecurityId());
+        state.positionId = position.getPositionId();
+        state.basis = new CostBasis(position.getQuantity(), position.getAverageCost());
+        state.realizedPnl = position.getRealizedPnl();
+        state.currentPrice = position.getCurrentPrice();
+        state.unrealizedPnl = position.getUnrealizedPnl();
+        state.lastUpdated = position.getLastUpdated();
+        state.lastExecutionId = position.getLastExecutionId();
+        return state;
+    }
+
+    /**
+     * 約定の反映（平均取得単価と実現損益の計算は CostBasis）
+     */
+    void apply(long executionId, OrderSide side, BigDecimal price, BigDecimal executionQuantity,
+               LocalDateTime executedAt) {
+        realizedPnl = realizedPnl.add(basis.apply(side, price, executionQuantity));
+        lastUpdated = executedAt;
+        lastExecutionId = lastExecutionId == null ? executionId : Math.max(lastExecutionId, executionId);
+        if (currentPrice != null) {
+            mark(currentPrice);
+        }
+    }
+
+    /**
+     * 値洗い（時価と平均取得単価の差 × 数量。売り越しは数量が負のため符号が反転する）
+     */
+    void mark(BigDecimal price) {
+        currentPrice = price;
+        unrealizedPnl = price.subtract(basis.getAverageCost()).multiply(basis.getQuantity())
+                .setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * 書き込み用のスナップショット
+     */
+    Position toEntity() {
+        Position position = new Position();
+        position.setPositionId(positionId);
+        position.setUserId(userId);
+        position.setSecurityId(securityId);
+        position.setQuantity(basis.getQuantity());
+        position.setAverageCost(basis.getAverageCost());
+        position.setRealizedPnl(realizedPnl);
+        position.setCurrentPrice(currentPrice);
+        position.setUnrealizedPnl(unrealizedPnl);
+        position.setLastUpdated(lastUpdated);
+        position.setLastExecutionId(lastExecutionId);
+        return position;
+    }
+
+    PositionDto toDto() {
+        PositionDto dto = new PositionDto();
+        dto.setUserId(userId);
+        dto.setSecurityId(securityId);
+        dto.setQuantity(basis.getQuantity());
+        dto.setAverageCost(basis.getAverageCost());
+        dto.setRealizedPnl(realizedPnl);
+        dto.setCurrentPrice(currentPrice);
+        dto.setUnrealizedPnl(unrealizedPnl);
+        dto.setLastUpdated(lastUpdated);
+        return dto;
+    }
+
+    long getUserId() {
+        return userId;
+    }
+
+    long getSecurityId() {
+        return securityId;
+    }
+
+    Long getPositionId() {
+        return positionId;
+    }
+
+    void setPositionId(Long positionId) {
+        this.positionId = positionId;
+    }
+}
@@ -0,0 +1,201 @@
+package com.oms.api.push;
+
+import com.oms.api.dto.ExecutionDto;
+import com.oms.api.dto.OrderDeltaDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.PushMessageDto;
+import com.oms.api.event.ExecutionEvent;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 注文・約定のリアルタイム配信（STOMP）
+ *
+ * イベントはユーザーごとの配信待ちに積み、一定間隔でまとめて送る。
+ * 同一注文の連続した変更は最新の1件に集約される（約定は集約しない）。
+ *
+ * チャネルは購読（STOMP の SUBSCRIBE）またはスナップショットの取得で作り、最後の購読の解除・切断、
+ * または購読のないまま oms.push.idle-evict-ms を過ぎたときに破棄する。チャネルのないユーザーの
+ * イベントは送らない。破棄後の購読では連番が続かないため、最初に RESYNC を送って再同期させる。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderPushService {
+
+    private static final Pattern USER_TOPIC = Pattern.compile("^/topic/users/(\\d{1,18})/(orders|executions)$");
+
+    private final SimpMessagingTemplate messagingTemplate;
+
+    @Value("${oms.push.max-pending-per-user:1000}")
+    private int maxPendingPerUser;
+
+    @Value("${oms.push.idle-evict-ms:60000}")
+    private long idleEvictMs;
+
+    private final Map<Long, UserChannel> channels = new ConcurrentHashMap<>();
+    /** セッション ID → 購読 ID → ユーザー ID（解除・切断時に購読数を戻すため） */
+    private final Map<String, Map<String, Long>> subscriptions = new ConcurrentHashMap<>();
+
+    /**
+     * 注文イベントの受付（コミット後）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        OrderDto order = event.order();
+        UserChannel channel = channels.get(order.getUserId());
+        if (channel != null) {
+            channel.addOrder(toDelta(event), order);
+        }
+    }
+
+    /**
+     * 約定イベントの受付（コミット後）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExecution(ExecutionEvent event) {
+        ExecutionDto execution = event.execution();
+        UserChannel channel = channels.get(execution.getUserId());
+        if (channel != null) {
+            channel.addExecution(execution);
+        }
+    }
+
+    /**
+     * 現在の配信連番（スナップショットと合わせて返す）
+     */
+    public long currentSequence(Long userId) {
+        return channels.computeIfAbsent(userId, id -> new UserChannel(maxPendingPerUser)).sequence();
+    }
+
+    /**
+     * ユーザーのトピックの購読（チャネルがなければ RESYNC から始まるチャネルを作る）
+     */
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long userId = userIdOf(accessor.getDestination());
+        if (userId == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        subscriptions.computeIfAbsent(accessor.getSessionId(), id -> new ConcurrentHashMap<>())
+                .put(accessor.getSubscriptionId(), userId);
+        channels.compute(userId, (id, channel) -> {
+            UserChannel subscribed = channel != null ? channel : new UserChannel(maxPendingPerUser, true);
+            subscribed.subscribe();
+            return subscribed;
+        });
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> session = accessor.getSessionId() != null
+                ? subscriptions.get(accessor.getSessionId()) : null;
+        if (session == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+        Long userId = session.remove(accessor.getSubscriptionId());
+        if (userId != null) {
+            release(userId);
+        }
+    }
+
+    /**
+     * 切断（解除されずに残っていたセッションの購読をすべて戻す）
+     */
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> session = subscriptions.remove(event.getSessionId());
+        if (session != null) {
+            session.values().forEach(this::release);
+        }
+    }
+
+    /**
+     * 配信待ちの送信
+     */
+    @Scheduled(fixedDelayString = "${oms.push.coalesce-interval-ms:50}")
+    public void flush() {
+        long now = System.nanoTime();
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMs);
+        channels.forEach((userId, channel) -> {
+            if (!channel.hasPending()) {
+                if (channel.isIdle(now, idleNanos)) {
+                    // スナップショットを取得したまま購読されなかったチャネル
+                    channels.computeIfPresent(userId, (id, c) -> c.isIdle(now, idleNanos) ? null : c);
+                }
+                return;
+            }
+            UserChannel.Drained drained = channel.drain();
+            try {
+                for (PushMessageDto<ExecutionDto> message : drained.executions()) {
+                    messagingTemplate.convertAndSend("/topic/users/" + userId + "/executions", message);
+                }
+                for (PushMessageDto<OrderDeltaDto> message : drained.orders()) {
+                    messagingTemplate.convertAndSend("/topic/users/" + userId + "/orders", message);
+                }
+            } catch (RuntimeException e) {
+                // 送れなかった分は欠番となり、クライアントはスナップショットで再同期する
+                log.warn("Failed to push updates to user {}: {}", userId, e.getMessage());
+            }
+        });
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 購読を1件戻し、最後の購読ならチャネルを破棄する
+     */
+    private void release(Long userId) {
+        channels.computeIfPresent(userId, (id, channel) -> channel.unsubscribe() == 0 ? null : channel);
+    }
+
+    private static Long userIdOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = USER_TOPIC.matcher(destination);
+        return matcher.matches() ? Long.valueOf(matcher.group(1)) : null;
+    }
+
+    private static OrderDeltaDto toDelta(OrderEvent event) {
+        OrderDto order = event.order();
+        OrderDeltaDto delta = new OrderDeltaDto();
+        delta.setOrderId(order.getOrderId());
+        delta.setOrderNo(order.getOrderNo());
+        delta.setEventType(event.type());
+        delta.setStatus(order.getStatus());
+        delta.setQuantity(order.getQuantity());
+        delta.setPrice(order.getPrice());
+        delta.setStopPrice(order.getStopPrice());
+        delta.setFilledQuantity(order.getFilledQuantity());
+        delta.setAveragePrice(order.getAveragePrice());
+        delta.setRemainingQuantity(order.getRemainingQuantity());
+        delta.setUpdatedAt(order.getUpdatedAt());
+        delta.setVersion(order.getVersion());
+        if (event.type() == OrderEventType.CREATED) {
+            delta.setOrder(order);
+        }
+        return delta;
+    }
+}
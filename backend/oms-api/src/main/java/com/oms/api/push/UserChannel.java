@@ -0,0 +1,139 @@
+package com.oms.api.push;
+
+import com.oms.api.dto.ExecutionDto;
+import com.oms.api.dto.OrderDeltaDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.PushMessageDto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユーザーごとの配信待ち（注文差分は注文単位に集約、約定はすべて保持）
+ *
+ * 配信待ちが上限を超えたら保留分をすべて捨て、次回の配信で RESYNC を1件だけ送る。
+ * 購読数と最後に使われた時刻を持ち、購読のないチャネルは OrderPushService が破棄する。
+ */
+final class UserChannel {
+
+    static final String ORDER = "ORDER";
+    static final String EXECUTION = "EXECUTION";
+    static final String RESYNC = "RESYNC";
+
+    private final int maxPending;
+    private final Map<Long, OrderDeltaDto> pendingOrders = new LinkedHashMap<>();
+    private final List<ExecutionDto> pendingExecutions = new ArrayList<>();
+    private boolean resyncRequired;
+    private long sequence;
+    private int subscribers;
+    private long lastUsedNanos = System.nanoTime();
+
+    UserChannel(int maxPending) {
+        this(maxPending, false);
+    }
+
+    /**
+     * @param resyncRequired 最初の配信で RESYNC を送る（破棄後に作り直したチャネルで、連番が続かないため）
+     */
+    UserChannel(int maxPending, boolean resyncRequired) {
+        this.maxPending = maxPending;
+        this.resyncRequired = resyncRequired;
+    }
+
+    /**
+     * 注文差分の追加（同じ注文の未配信差分は最新で置き換える）
+     *
+     * 未配信の新規注文に変更が重なった場合は、最新の全項目を付けて新規として送る。
+     */
+    synchronized void addOrder(OrderDeltaDto delta, OrderDto order) {
+        if (resyncRequired) {
+            return;
+        }
+        OrderDeltaDto previous = pendingOrders.remove(delta.getOrderId());
+        if (previous != null && previous.getOrder() != null) {
+            delta.setOrder(order);
+        }
+        pendingOrders.put(delta.getOrderId(), delta);
+        checkOverflow();
+    }
+
+    synchronized void addExecution(ExecutionDto execution) {
+        if (resyncRequired) {
+            return;
+        }
+        pendingExecutions.add(execution);
+        checkOverflow();
+    }
+
+    /**
+     * 配信待ちを取り出して連番を振る
+     */
+    synchronized Drained drain() {
+        if (resyncRequired) {
+            resyncRequired = false;
+            return new Drained(List.of(new PushMessageDto<>(RESYNC, ++sequence, null)), List.of());
+        }
+        if (pendingOrders.isEmpty() && pendingExecutions.isEmpty()) {
+            return Drained.EMPTY;
+        }
+        List<PushMessageDto<ExecutionDto>> executions = new ArrayList<>(pendingExecutions.size());
+        for (ExecutionDto execution : pendingExecutions) {
+            executions.add(new PushMessageDto<>(EXECUTION, ++sequence, execution));
+        }
+        List<PushMessageDto<OrderDeltaDto>> orders = new ArrayList<>(pendingOrders.size());
+        for (OrderDeltaDto delta : pendingOrders.values()) {
+            orders.add(new PushMessageDto<>(ORDER, ++sequence, delta));
+        }
+        pendingExecutions.clear();
+        pendingOrders.clear();
+        return new Drained(orders, executions);
+    }
+
+    synchronized boolean hasPending() {
+        return resyncRequired || !pendingOrders.isEmpty() || !pendingExecutions.isEmpty();
+    }
+
+    /**
+     * 現在の連番（スナップショット取得時点の位置）
+     */
+    synchronized long sequence() {
+        lastUsedNanos = System.nanoTime();
+        return sequence;
+    }
+
+    synchronized void subscribe() {
+        subscribers++;
+    }
+
+    /**
+     * 購読の解除（残りの購読数を返す）
+     */
+    synchronized int unsubscribe() {
+        if (subscribers > 0) {
+            subscribers--;
+        }
+        lastUsedNanos = System.nanoTime();
+        return subscribers;
+    }
+
+    /**
+     * 購読がなく、最後に使われてから idleNanos 以上経っている
+     */
+    synchronized boolean isIdle(long nowNanos, long idleNanos) {
+        return subscribers == 0 && nowNanos - lastUsedNanos >= idleNanos;
+    }
+
+    private void checkOverflow() {
+        if (pendingOrders.size() + pendingExecutions.size() > maxPending) {
+            pendingOrders.clear();
+            pendingExecutions.clear();
+            resyncRequired = true;
+        }
+    }
+
+    record Drained(List<PushMessageDto<OrderDeltaDto>> orders, List<PushMessageDto<ExecutionDto>> executions) {
+        static final Drained EMPTY = new Drained(List.of(), List.of());
+    }
+}
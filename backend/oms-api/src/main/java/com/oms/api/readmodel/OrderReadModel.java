@@ -0,0 +1,313 @@
+package com.oms.api.readmodel;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.PartitionListener;
+import com.oms.api.cluster.PartitionSet;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 注文照会用の読み取りモデル（v_order_details 相当の銘柄・ユーザー項目を付けた OrderDto をメモリ上に保持）
+ *
+ * 注文イベント（コミット後）のスナップショットで差分更新し、照会は orders テーブルを読まない。
+ * 保持範囲は全アクティブ注文と、発注日が horizon（retention-days 日前の 0 時）以降の注文。
+ * それより古い終了済み注文は定期的に破棄し、照会は OrderReadRepository が DB に振り分ける。
+ * 一覧は (order_date DESC, order_id DESC) 順の索引（全体・ユーザー別・銘柄別）から読む。
+ */
+@Component
+@ConditionalOnProperty(name = "oms.readmodel.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReadModel implements PartitionListener {
+
+    private static final Comparator<Key> ORDER = Comparator.comparing(Key::orderDate).reversed()
+            .thenComparing(Comparator.comparingLong(Key::orderId).reversed());
+
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    @Value("${oms.readmodel.retention-days:7}")
+    private int retentionDays;
+
+    private final Map<Long, OrderDto> byId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Key, OrderDto> all = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<Long, ConcurrentSkipListMap<Key, OrderDto>> byUser = new ConcurrentHashMap<>();
+    private final Map<Long, ConcurrentSkipListMap<Key, OrderDto>> bySecurity = new ConcurrentHashMap<>();
+    private volatile LocalDateTime horizon;
+    private volatile boolean ready;
+
+    /**
+     * 一覧の並びキー（order_date, order_id。発注日は変更されない）
+     */
+    private record Key(LocalDateTime orderDate, long orderId) {
+    }
+
+    @PostConstruct
+    public void load() {
+        long started = System.nanoTime();
+        horizon = currentHorizon();
+        // クラスタモードでは担当パーティションのユーザーの注文だけを保持する
+        ClusterMembership membership = cluster.getIfAvailable();
+        int count = loadOrders(membership != null ? membership.ownedPartitions() : userId -> true);
+        ready = true;
+        log.info("Order read model loaded: {} orders since {} ({} ms)",
+                count, horizon, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Override
+    public void onPartitionsAssigned(PartitionSet partitions) {
+        dropUsers(partitions);
+        int count = loadOrders(partitions);
+        log.info("Order read model loaded {} orders for {} assigned partitions", count, partitions.size());
+    }
+
+    @Override
+    public void onPartitionsRevoked(PartitionSet partitions) {
+        dropUsers(partitions);
+    }
+
+    /**
+     * 注文イベントの反映（version が古いスナップショットは無視する）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        apply(event.order());
+    }
+
+    /**
+     * 保持範囲外になった終了済み注文の破棄（horizon は日付が変わったときだけ進む）
+     */
+    @Scheduled(fixedDelayString = "${oms.readmodel.evict-interval-ms:60000}")
+    public void evict() {
+        LocalDateTime next = currentHorizon();
+        if (!ready || !next.isAfter(horizon)) {
+            return;
+        }
+        // 先に horizon を進め、以降の照会では horizon より前を DB から読む
+        horizon = next;
+        int evicted = 0;
+        for (OrderDto order : all.tailMap(new Key(next, Long.MIN_VALUE), false).values()) {
+            if (order.getStatus() != null && order.getStatus().isTerminal()) {
+                remove(order);
+                evicted++;
+            }
+        }
+        log.info("Order read model evicted {} orders before {}: {} remaining", evicted, next, byId.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 保持している終了済み注文の発注日の下限（アクティブ注文は発注日に関わらず全件保持）
+     */
+    public LocalDateTime horizon() {
+        return horizon;
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * 条件に合致する注文を (order_date DESC, order_id DESC) 順に最大 limit 件取得
+     *
+     * @param floor この日時より前の注文は返さない（null の場合は保持している全件が対象）
+     */
+    public List<OrderDto> find(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId, int limit,
+                               LocalDateTime floor) {
+        NavigableMap<Key, OrderDto> source;
+        if (criteria.getUserId() != null) {
+            source = byUser.get(criteria.getUserId());
+        } else if (criteria.getSecurityId() != null) {
+            source = bySecurity.get(criteria.getSecurityId());
+        } else {
+            source = all;
+        }
+        List<OrderDto> result = new ArrayList<>(Math.min(limit, 1024));
+        if (source == null) {
+            return result;
+        }
+
+        Key from = null;
+        boolean inclusive = true;
+        if (criteria.getEndDate() != null) {
+            from = new Key(criteria.getEndDate(), Long.MAX_VALUE);
+        }
+        if (cursorDate != null) {
+            Key cursor = new Key(cursorDate, cursorId);
+            if (from == null || ORDER.compare(cursor, from) >= 0) {
+                from = cursor;
+                inclusive = false;
+            }
+        }
+        LocalDateTime lowest = floor;
+        if (criteria.getStartDate() != null && (lowest == null || criteria.getStartDate().isAfter(lowest))) {
+            lowest = criteria.getStartDate();
+        }
+
+        for (OrderDto order : (from != null ? source.tailMap(from, inclusive) : source).values()) {
+            if (lowest != null && order.getOrderDate().isBefore(lowest)) {
+                break;
+            }
+            if (matches(order, criteria)) {
+                result.add(order);
+                if (result.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * ユーザーのアクティブな注文（発注日降順）
+     */
+    public List<OrderDto> findActiveByUserId(Long userId) {
+        ConcurrentSkipListMap<Key, OrderDto> orders = byUser.get(userId);
+        List<OrderDto> result = new ArrayList<>();
+        if (orders == null) {
+            return result;
+        }
+        for (OrderDto order : orders.values()) {
+            if (order.getStatus() != null && order.getStatus().isActive()) {
+                result.add(order);
+            }
+        }
+        return result;
+    }
+
+    // ===== Private Methods =====
+
+    private int loadOrders(LongPredicate users) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> {
+            int loaded = 0;
+            try (Stream<Order> orders = orderRepository.streamActiveOrSince(horizon)) {
+                for (Order order : (Iterable<Order>) orders::iterator) {
+                    if (users.test(order.getUserId())) {
+                        apply(referenceDataCache.enrich(orderMapper.toDto(order)));
+                        loaded++;
+                    }
+                    entityManager.detach(order);
+                }
+            }
+            return loaded;
+        });
+    }
+
+    private void dropUsers(LongPredicate users) {
+        for (Map.Entry<Long, ConcurrentSkipListMap<Key, OrderDto>> entry : byUser.entrySet()) {
+            if (!users.test(entry.getKey())) {
+                continue;
+            }
+            for (OrderDto order : entry.getValue().values()) {
+                byId.computeIfPresent(order.getOrderId(), (id, current) -> {
+                    unindex(current);
+                    return null;
+                });
+            }
+            byUser.remove(entry.getKey());
+        }
+    }
+
+    private void apply(OrderDto order) {
+        if (order.getOrderId() == null || order.getOrderDate() == null || order.getStatus() == null) {
+            return;
+        }
+        // 同一注文の更新は compute で直列化し、索引も同じ版で置き換える
+        byId.compute(order.getOrderId(), (id, current) -> {
+            if (current != null && isOlder(order, current)) {
+                return current;
+            }
+            if (!order.getStatus().isActive() && order.getOrderDate().isBefore(horizon)) {
+                unindex(current != null ? current : order);
+                return null;
+            }
+            Key key = new Key(order.getOrderDate(), id);
+            all.put(key, order);
+            byUser.computeIfAbsent(order.getUserId(), k -> new ConcurrentSkipListMap<>(ORDER)).put(key, order);
+            bySecurity.computeIfAbsent(order.getSecurityId(), k -> new ConcurrentSkipListMap<>(ORDER)).put(key, order);
+            return order;
+        });
+    }
+
+    private void remove(OrderDto order) {
+        byId.computeIfPresent(order.getOrderId(), (id, current) -> {
+            if (current.getStatus().isActive()) {
+                return current;
+            }
+            unindex(current);
+            return null;
+        });
+    }
+
+    private void unindex(OrderDto order) {
+        Key key = new Key(order.getOrderDate(), order.getOrderId());
+        all.remove(key);
+        ConcurrentSkipListMap<Key, OrderDto> user = byUser.get(order.getUserId());
+        if (user != null) {
+            user.remove(key);
+        }
+        ConcurrentSkipListMap<Key, OrderDto> security = bySecurity.get(order.getSecurityId());
+        if (security != null) {
+            security.remove(key);
+        }
+    }
+
+    private static boolean isOlder(OrderDto order, OrderDto current) {
+        return order.getVersion() != null && current.getVersion() != null && order.getVersion() < current.getVersion();
+    }
+
+    private static boolean matches(OrderDto order, OrderSearchCriteria criteria) {
+        if (criteria.getUserId() != null && !criteria.getUserId().equals(order.getUserId())) {
+            return false;
+        }
+        if (criteria.getSecurityId() != null && !criteria.getSecurityId().equals(order.getSecurityId())) {
+            return false;
+        }
+        List<OrderStatus> statuses = criteria.getStatuses();
+        return statuses == null || statuses.isEmpty() || statuses.contains(order.getStatus());
+    }
+
+    private LocalDateTime currentHorizon() {
+        return LocalDate.now().minusDays(retentionDays).atStartOfDay();
+    }
+}
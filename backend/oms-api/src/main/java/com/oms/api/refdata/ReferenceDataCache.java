@@ -0,0 +1,286 @@
+package com.oms.api.refdata;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.model.Security;
+import com.oms.api.model.User;
+import com.oms.api.repository.SecurityRepository;
+import com.oms.api.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 銘柄・ユーザーの参照データキャッシュ
+ *
+ * 起動時に一括ロードし、以降は updated_at による差分リフレッシュで更新する。
+ * 常駐マップは書き込み時コピー（copy-on-write）で差し替えるため、参照はロックなしで行える。
+ * 取引停止銘柄は常駐させず、参照された分だけ上限付きの LRU に保持する。
+ */
+@Service
+@Slf4j
+public class ReferenceDataCache {
+
+    private final SecurityRepository securityRepository;
+    private final UserRepository userRepository;
+    private final int inactiveCapacity;
+
+    private volatile Long2ObjectHashMap<SecurityRef> securities = new Long2ObjectHashMap<>();
+    private volatile Long2ObjectHashMap<UserRef> users = new Long2ObjectHashMap<>();
+    private final LinkedHashMap<Long, SecurityRef> inactiveSecurities;
+    private LocalDateTime securityWatermark;
+    private LocalDateTime userWatermark;
+    /** 常駐マップの差し替えを直列化する（リフレッシュは DB を読むため、仮想スレッドをピン留めしない ReentrantLock） */
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private final Counter securityHits;
+    private final Counter securityMisses;
+    private final Counter userHits;
+    private final Counter userMisses;
+    private final Timer securityRefresh;
+    private final Timer userRefresh;
+
+    public ReferenceDataCache(SecurityRepository securityRepository,
+                              UserRepository userRepository,
+                              MeterRegistry meterRegistry,
+                              @Value("${oms.refdata.inactive-security-capacity:1000}") int inactiveCapacity) {
+        this.securityRepository = securityRepository;
+        this.userRepository = userRepository;
+        this.inactiveCapacity = inactiveCapacity;
+        this.inactiveSecurities = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, SecurityRef> eldest) {
+                return size() > ReferenceDataCache.this.inactiveCapacity;
+            }
+        };
+        this.securityHits = lookups(meterRegistry, "securities", "hit");
+        this.securityMisses = lookups(meterRegistry, "securities", "miss");
+        this.userHits = lookups(meterRegistry, "users", "hit");
+        this.userMisses = lookups(meterRegistry, "users", "miss");
+        this.securityRefresh = Timer.builder("oms.refdata.refresh").tag("cache", "securities")
+                .description("参照データの差分リフレッシュ時間").register(meterRegistry);
+        this.userRefresh = Timer.builder("oms.refdata.refresh").tag("cache", "users")
+                .description("参照データの差分リフレッシュ時間").register(meterRegistry);
+        Gauge.builder("oms.refdata.size", this, c -> c.securities.size())
+                .tag("cache", "securities").tag("tier", "resident").register(meterRegistry);
+        Gauge.builder("oms.refdata.size", this, ReferenceDataCache::inactiveSize)
+                .tag("cache", "securities").tag("tier", "inactive").register(meterRegistry);
+        Gauge.builder("oms.refdata.size", this, c -> c.users.size())
+                .tag("cache", "users").tag("tier", "resident").register(meterRegistry);
+    }
+
+    /**
+     * 起動時の一括ロード（取引可能な銘柄と全ユーザー）
+     */
+    @PostConstruct
+    public void load() {
+        List<Security> activeSecurities = securityRepository.findByIsActiveTrue();
+        Long2ObjectHashMap<SecurityRef> loadedSecurities = new Long2ObjectHashMap<>(activeSecurities.size() * 2, 0.65f);
+        for (Security security : activeSecurities) {
+            loadedSecurities.put(security.getSecurityId().longValue(), SecurityRef.of(security));
+            securityWatermark = later(securityWatermark, security.getUpdatedAt());
+        }
+        List<User> allUsers = userRepository.findAll();
+        Long2ObjectHashMap<UserRef> loadedUsers = new Long2ObjectHashMap<>(allUsers.size() * 2, 0.65f);
+        for (User user : allUsers) {
+            loadedUsers.put(user.getUserId().longValue(), UserRef.of(user));
+            userWatermark = later(userWatermark, user.getUpdatedAt());
+        }
+        securities = loadedSecurities;
+        users = loadedUsers;
+        log.info("Reference data loaded: {} securities, {} users", loadedSecurities.size(), loadedUsers.size());
+    }
+
+    /**
+     * 差分リフレッシュ（前回までの最大 updated_at 以降の行を反映）
+     */
+    @Scheduled(fixedDelayString = "${oms.refdata.refresh-interval-ms:30000}")
+    public void refresh() {
+        writeLock.lock();
+        try {
+            securityRefresh.record(this::refreshSecurities);
+            userRefresh.record(this::refreshUsers);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 銘柄参照（キャッシュになければ DB から読み込む。存在しなければ null）
+     */
+    public SecurityRef getSecurity(Long securityId) {
+        if (securityId == null) {
+            return null;
+        }
+        SecurityRef ref = securities.get(securityId.longValue());
+        if (ref == null) {
+            synchronized (inactiveSecurities) {
+                ref = inactiveSecurities.get(securityId);
+            }
+        }
+        if (ref != null) {
+            securityHits.increment();
+            return ref;
+        }
+        securityMisses.increment();
+        ref = securityRepository.findById(securityId).map(SecurityRef::of).orElse(null);
+        if (ref != null) {
+            synchronized (inactiveSecurities) {
+                inactiveSecurities.put(securityId, ref);
+            }
+        }
+        return ref;
+    }
+
+    /**
+     * ユーザー参照（キャッシュになければ DB から読み込む。存在しなければ null）
+     */
+    public UserRef getUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        UserRef ref = users.get(userId.longValue());
+        if (ref != null) {
+            userHits.increment();
+            return ref;
+        }
+        userMisses.increment();
+        ref = userRepository.findById(userId).map(UserRef::of).orElse(null);
+        if (ref != null) {
+            putUser(ref);
+        }
+        return ref;
+    }
+
+    /**
+     * 発注DTOの関連項目（銘柄コード・銘柄名・ユーザー名）を設定
+     */
+    public OrderDto enrich(OrderDto dto) {
+        SecurityRef security = getSecurity(dto.getSecurityId());
+        if (security != null) {
+            dto.setSecurityCode(security.securityCode());
+            dto.setSecurityName(security.securityName());
+        }
+        UserRef user = getUser(dto.getUserId());
+        if (user != null) {
+            dto.setUsername(user.username());
+        }
+        return dto;
+    }
+
+    // ===== Private Methods =====
+
+    private void refreshSecurities() {
+        List<Security> changed = securityWatermark == null
+                ? securityRepository.findByIsActiveTrue()
+                : securityRepository.findByUpdatedAtGreaterThanEqual(securityWatermark);
+        // 透かしと同じ updated_at の行は毎回返るため、内容が変わった行があるときだけコピーして差し替える
+        Long2ObjectHashMap<SecurityRef> current = securities;
+        Long2ObjectHashMap<SecurityRef> copy = null;
+        int updated = 0;
+        for (Security security : changed) {
+            SecurityRef ref = SecurityRef.of(security);
+            securityWatermark = later(securityWatermark, security.getUpdatedAt());
+            if (ref.active()) {
+                synchronized (inactiveSecurities) {
+                    inactiveSecurities.remove(ref.securityId());
+                }
+                if (ref.equals(current.get(ref.securityId()))) {
+                    continue;
+                }
+                if (copy == null) {
+                    copy = new Long2ObjectHashMap<>(current);
+                }
+                copy.put(ref.securityId(), ref);
+                updated++;
+            } else {
+                synchronized (inactiveSecurities) {
+                    // 既に参照されている取引停止銘柄のみ内容を更新する
+                    inactiveSecurities.replace(ref.securityId(), ref);
+                }
+                if (!current.containsKey(ref.securityId())) {
+                    continue;
+                }
+                if (copy == null) {
+                    copy = new Long2ObjectHashMap<>(current);
+                }
+                copy.remove(ref.securityId());
+                updated++;
+            }
+        }
+        if (copy == null) {
+            return;
+        }
+        securities = copy;
+        log.debug("Security reference data refreshed: {} changed", updated);
+    }
+
+    private void refreshUsers() {
+        List<User> changed = userWatermark == null
+                ? userRepository.findAll()
+                : userRepository.findByUpdatedAtGreaterThanEqual(userWatermark);
+        // 銘柄と同じく、内容が変わったユーザーがいるときだけ差し替える
+        Long2ObjectHashMap<UserRef> current = users;
+        Long2ObjectHashMap<UserRef> copy = null;
+        int updated = 0;
+        for (User user : changed) {
+            UserRef ref = UserRef.of(user);
+            userWatermark = later(userWatermark, user.getUpdatedAt());
+            if (ref.equals(current.get(ref.userId()))) {
+                continue;
+            }
+            if (copy == null) {
+                copy = new Long2ObjectHashMap<>(current);
+            }
+            copy.put(ref.userId(), ref);
+            updated++;
+        }
+        if (copy == null) {
+            return;
+        }
+        users = copy;
+        log.debug("User reference data refreshed: {} changed", updated);
+    }
+
+    private void putUser(UserRef ref) {
+        writeLock.lock();
+        try {
+            Long2ObjectHashMap<UserRef> copy = new Long2ObjectHashMap<>(users);
+            copy.put(ref.userId(), ref);
+            users = copy;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private int inactiveSize() {
+        synchronized (inactiveSecurities) {
+            return inactiveSecurities.size();
+        }
+    }
+
+    private static LocalDateTime later(LocalDateTime current, LocalDateTime candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.isAfter(current) ? candidate : current;
+    }
+
+    private static Counter lookups(MeterRegistry registry, String cache, String result) {
+        return Counter.builder("oms.refdata.lookups")
+                .tag("cache", cache).tag("result", result)
+                .description("参照データキャッシュの参照回数").register(registry);
+    }
+}
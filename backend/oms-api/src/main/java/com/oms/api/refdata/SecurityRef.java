@@ -0,0 +1,17 @@
+package com.oms.api.refdata;
+
+import com.oms.api.model.Security;
+
+import java.math.BigDecimal;
+
+/**
+ * 銘柄参照データ（キャッシュに保持する不変スナップショット）
+ */
+public record SecurityRef(long securityId, String securityCode, String securityName,
+                          int lotSize, BigDecimal tickSize, boolean active) {
+
+    static SecurityRef of(Security security) {
+        return new SecurityRef(security.getSecurityId(), security.getSecurityCode(), security.getSecurityName(),
+                security.getLotSize(), security.getTickSize(), Boolean.TRUE.equals(security.getIsActive()));
+    }
+}
@@ -0,0 +1,14 @@
+package com.oms.api.refdata;
+
+import com.oms.api.model.User;
+
+/**
+ * ユーザー参照データ（キャッシュに保持する不変スナップショット）
+ */
+public record UserRef(long userId, String username, String fullName, boolean active) {
+
+    static UserRef of(User user) {
+        return new UserRef(user.getUserId(), user.getUsername(), user.getFullName(),
+                Boolean.TRUE.equals(user.getIsActive()));
+    }
+}
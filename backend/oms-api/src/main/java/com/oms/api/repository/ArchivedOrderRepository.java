@@ -0,0 +1,12 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * アーカイブ済み発注リポジトリ（条件検索は OrderQueryRepository の find/streamArchived…）
+ */
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+}
@@ -0,0 +1,25 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.DailySequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * 日次採番リポジトリ
+ */
+@Repository
+public interface DailySequenceRepository extends JpaRepository<DailySequence, String> {
+
+    /**
+     * 採番キーで検索（ブロック予約用に行ロックを取得）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM DailySequence s WHERE s.sequenceKey = :sequenceKey")
+    Optional<DailySequence> findForUpdate(@Param("sequenceKey") String sequenceKey);
+}
@@ -0,0 +1,32 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.EodRun;
+import com.oms.api.model.EodRunStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * 日次損益バッチの実行記録リポジトリ
+ */
+@Repository
+public interface EodRunRepository extends JpaRepository<EodRun, LocalDate> {
+
+    /**
+     * 指定日より前で最後に完了した実行（次の計算の始点）
+     */
+    Optional<EodRun> findFirstByTradeDateBeforeAndStatusOrderByTradeDateDesc(LocalDate tradeDate, EodRunStatus status);
+
+    /**
+     * 取引日で検索（実行の開始を複数ノードで直列化するため行ロックを取得）
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM EodRun r WHERE r.tradeDate = :tradeDate")
+    Optional<EodRun> findForUpdate(@Param("tradeDate") LocalDate tradeDate);
+}
@@ -0,0 +1,25 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.Execution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 約定リポジトリ
+ */
+@Repository
+public interface ExecutionRepository extends JpaRepository<Execution, Long> {
+
+    /**
+     * 発注IDで検索（約定日時順）
+     */
+    List<Execution> findByOrderIdOrderByExecutionDate(Long orderId);
+
+    /**
+     * 日付範囲の約定件数（採番キー作成時の初期値算出用）
+     */
+    long countByExecutionDateBetween(LocalDateTime start, LocalDateTime end);
+}
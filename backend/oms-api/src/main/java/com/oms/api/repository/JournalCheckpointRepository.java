@@ -0,0 +1,12 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.JournalCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * ジャーナル適用位置リポジトリ
+ */
+@Repository
+public interface JournalCheckpointRepository extends JpaRepository<JournalCheckpoint, String> {
+}
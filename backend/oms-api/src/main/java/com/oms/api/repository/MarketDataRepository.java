@@ -0,0 +1,25 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.MarketData;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 市場データ（日足）リポジトリ
+ */
+@Repository
+public interface MarketDataRepository extends JpaRepository<MarketData, Long> {
+
+    /**
+     * 銘柄・期間の日足（日付昇順）
+     */
+    List<MarketData> findBySecurityIdAndDataDateBetweenOrderByDataDate(Long securityId, LocalDate from, LocalDate to);
+
+    /**
+     * 指定日の日足（起動時の当日足の復元用）
+     */
+    List<MarketData> findByDataDate(LocalDate dataDate);
+}
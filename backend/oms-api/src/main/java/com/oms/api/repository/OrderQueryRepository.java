@@ -0,0 +1,41 @@
+package com.oms.api.repository;
+
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.model.ArchivedOrder;
+import com.oms.api.model.Order;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 検索条件による注文検索（指定された条件だけを WHERE 句に含める動的クエリ）
+ *
+ * 並び順はいずれも order_date 降順・order_id 降順。アーカイブ（orders_archive）にも同じ条件で検索できる。
+ */
+public interface OrderQueryRepository {
+
+    /**
+     * 条件に合致する注文のキーセットページ取得（cursorDate/cursorId が null の場合は先頭ページ）
+     */
+    List<Order> findPageByCriteria(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId, int limit);
+
+    /**
+     * 条件に合致する注文のストリーム取得（エクスポート用）
+     *
+     * 結果セットを fetch size 単位で読み進めるため、件数に関わらずヒープ使用量は一定。
+     * 呼び出し側はトランザクション内で Stream を close すること。
+     */
+    Stream<Order> streamByCriteria(OrderSearchCriteria criteria);
+
+    /**
+     * アーカイブ済み注文のキーセットページ取得（条件・並び順は findPageByCriteria と同じ）
+     */
+    List<ArchivedOrder> findArchivedPageByCriteria(OrderSearchCriteria criteria, LocalDateTime cursorDate,
+                                                   Long cursorId, int limit);
+
+    /**
+     * アーカイブ済み注文のストリーム取得（エクスポート用。扱いは streamByCriteria と同じ）
+     */
+    Stream<ArchivedOrder> streamArchivedByCriteria(OrderSearchCriteria criteria);
+}
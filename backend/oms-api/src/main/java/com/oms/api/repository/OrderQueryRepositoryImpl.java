@@ -0,0 +1,107 @@
+package com.oms.api.repository;
+
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.model.ArchivedOrder;
+import com.oms.api.model.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * OrderQueryRepository の実装（JPA Criteria API）
+ *
+ * 「:x IS NULL OR col = :x」の形では未指定の条件もオプティマイザから見えるためインデックスを選べない。
+ * 指定された条件だけを述語にし、条件の組み合わせごとに schema.sql の複合インデックス
+ * （並び順の order_date を末尾に含む）で範囲走査できる形にする。
+ * アーカイブ（ArchivedOrder）は列名が同じため、同じ述語をエンティティだけ替えて組み立てる。
+ */
+class OrderQueryRepositoryImpl implements OrderQueryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Order> findPageByCriteria(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId,
+                                          int limit) {
+        return entityManager.createQuery(query(Order.class, criteria, cursorDate, cursorId))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<Order> streamByCriteria(OrderSearchCriteria criteria) {
+        return stream(Order.class, criteria);
+    }
+
+    @Override
+    public List<ArchivedOrder> findArchivedPageByCriteria(OrderSearchCriteria criteria, LocalDateTime cursorDate,
+                                                          Long cursorId, int limit) {
+        return entityManager.createQuery(query(ArchivedOrder.class, criteria, cursorDate, cursorId))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Stream<ArchivedOrder> streamArchivedByCriteria(OrderSearchCriteria criteria) {
+        return stream(ArchivedOrder.class, criteria);
+    }
+
+    // ===== Private Methods =====
+
+    private <T> Stream<T> stream(Class<T> type, OrderSearchCriteria criteria) {
+        return entityManager.createQuery(query(type, criteria, null, null))
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 1000)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    private <T> CriteriaQuery<T> query(Class<T> type, OrderSearchCriteria criteria, LocalDateTime cursorDate,
+                                       Long cursorId) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<T> query = cb.createQuery(type);
+        Root<T> order = query.from(type);
+        Path<LocalDateTime> orderDate = order.get("orderDate");
+        Path<Long> orderId = order.get("orderId");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (criteria.getUserId() != null) {
+            predicates.add(cb.equal(order.get("userId"), criteria.getUserId()));
+        }
+        if (criteria.getSecurityId() != null) {
+            predicates.add(cb.equal(order.get("securityId"), criteria.getSecurityId()));
+        }
+        if (criteria.getStatuses() != null && !criteria.getStatuses().isEmpty()) {
+            // 1件の場合は等価条件にして (…, status, order_date) のインデックスで並び順のまま読めるようにする
+            predicates.add(criteria.getStatuses().size() == 1
+                    ? cb.equal(order.get("status"), criteria.getStatuses().get(0))
+                    : order.get("status").in(criteria.getStatuses()));
+        }
+        if (criteria.getStartDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(orderDate, criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(orderDate, criteria.getEndDate()));
+        }
+        if (cursorDate != null) {
+            // order_date <= :cursorDate を別に付け、インデックスの範囲条件として使えるようにする
+            predicates.add(cb.lessThanOrEqualTo(orderDate, cursorDate));
+            predicates.add(cb.or(
+                    cb.lessThan(orderDate, cursorDate),
+                    cb.and(cb.equal(orderDate, cursorDate),
+                            cb.lessThan(orderId, cursorId))));
+        }
+        return query.select(order)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(orderDate), cb.desc(orderId));
+    }
+}
@@ -0,0 +1,292 @@
+package com.oms.api.repository;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.ArchivedOrder;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.readmodel.OrderReadModel;
+import com.oms.api.refdata.ReferenceDataCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * 注文照会の振り分け（読み取りモデル / orders テーブル / orders_archive テーブル）
+ *
+ * 読み取りモデルが保持している範囲（アクティブ注文と horizon 以降の注文）はメモリから返し、
+ * horizon より前にかかる分だけ OrderRepository で orders を読む。読み取りモデルが無効の場合は常に DB。
+ * クラスタモードの読み取りモデルは担当ユーザーの注文しか持たないため、ユーザー指定で担当の照会だけをメモリから返す。
+ *
+ * 終了済みで発注日が archiveHorizon より前の注文は OrderArchiver が orders_archive に移すため、
+ * その範囲にかかる照会は両方を同じ条件で読み、並び順のまま併合する。移動中に両方から読めた注文は1件にする。
+ */
+@Repository
+public class OrderReadRepository {
+
+    private static final Comparator<OrderDto> DTO_ORDER = Comparator.comparing(OrderDto::getOrderDate)
+            .thenComparing(OrderDto::getOrderId).reversed();
+    private static final Comparator<Order> ENTITY_ORDER = Comparator.comparing(Order::getOrderDate)
+            .thenComparing(Order::getOrderId).reversed();
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final EntityManager entityManager;
+    private final ObjectProvider<OrderReadModel> readModel;
+    private final ObjectProvider<ClusterMembership> cluster;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final Counter memoryQueries;
+    private final Counter databaseQueries;
+    private final Counter archiveQueries;
+
+    @Value("${oms.archive.age-days:30}")
+    private int archiveAgeDays;
+
+    public OrderReadRepository(OrderRepository orderRepository,
+                               ArchivedOrderRepository archivedOrderRepository,
+                               EntityManager entityManager,
+                               ObjectProvider<OrderReadModel> readModel,
+                               ObjectProvider<ClusterMembership> cluster,
+                               OrderMapper orderMapper,
+                               ReferenceDataCache referenceDataCache,
+                               MeterRegistry registry) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.entityManager = entityManager;
+        this.readModel = readModel;
+        this.cluster = cluster;
+        this.orderMapper = orderMapper;
+        this.referenceDataCache = referenceDataCache;
+        this.memoryQueries = Counter.builder("oms.orders.queries")
+                .description("Order list queries by source")
+                .tag("source", "readmodel")
+                .register(registry);
+        this.databaseQueries = Counter.builder("oms.orders.queries")
+                .description("Order list queries by source")
+                .tag("source", "database")
+                .register(registry);
+        this.archiveQueries = Counter.builder("oms.orders.queries")
+                .description("Order list queries by source")
+                .tag("source", "archive")
+                .register(registry);
+    }
+
+    /**
+     * 条件に合致する注文を (order_date DESC, order_id DESC) 順に最大 limit 件取得（キーセットページング）
+     */
+    public List<OrderDto> findPage(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId, int limit) {
+        List<OrderDto> hot = findHotPage(criteria, cursorDate, cursorId, limit);
+        // ページが埋まり末尾が archiveHorizon 以降なら、アーカイブの注文はすべてこのページより後になる
+        if (!mayMatchArchive(criteria)
+                || (hot.size() >= limit && !hot.get(hot.size() - 1).getOrderDate().isBefore(archiveHorizon()))) {
+            return hot;
+        }
+        archiveQueries.increment();
+        List<ArchivedOrder> archived =
+                orderRepository.findArchivedPageByCriteria(criteria, cursorDate, cursorId, limit);
+        List<OrderDto> cold = new ArrayList<>(archived.size());
+        for (ArchivedOrder order : archived) {
+            cold.add(referenceDataCache.enrich(orderMapper.toDto(orderMapper.toOrder(order))));
+        }
+        List<OrderDto> result = new ArrayList<>(Math.min(limit, hot.size() + cold.size()));
+        Iterator<OrderDto> merged = new MergedIterator<>(hot.iterator(), cold.iterator(), DTO_ORDER);
+        while (result.size() < limit && merged.hasNext()) {
+            result.add(merged.next());
+        }
+        return result;
+    }
+
+    /**
+     * 注文取得（orders になければ orders_archive。アーカイブ済みの注文は永続化コンテキストに属さない）
+     */
+    public Optional<Order> findById(Long orderId) {
+        Optional<Order> order = orderRepository.findById(orderId);
+        if (order.isPresent()) {
+            return order;
+        }
+        return archivedOrderRepository.findById(orderId).map(orderMapper::toOrder);
+    }
+
+    /**
+     * アーカイブ済みの注文か（修正・取消の対象外）
+     */
+    public boolean isArchived(Long orderId) {
+        return archivedOrderRepository.existsById(orderId);
+    }
+
+    /**
+     * 条件に合致する注文を orders と orders_archive を併合して (order_date DESC, order_id DESC) 順にストリーム取得
+     *
+     * エクスポート用。読み進めたアーカイブの行は都度 detach する。呼び出し側はトランザクション内で Stream を close すること。
+     */
+    public Stream<Order> streamByCriteria(OrderSearchCriteria criteria) {
+        Stream<Order> hot = orderRepository.streamByCriteria(criteria);
+        if (!mayMatchArchive(criteria)) {
+            return hot;
+        }
+        archiveQueries.increment();
+        Stream<Order> cold = orderRepository.streamArchivedByCriteria(criteria).map(archived -> {
+            entityManager.detach(archived);
+            return orderMapper.toOrder(archived);
+        });
+        Iterator<Order> merged = new MergedIterator<>(hot.iterator(), cold.iterator(), ENTITY_ORDER);
+        return StreamSupport.stream(
+                        Spliterators.spliteratorUnknownSize(merged, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(hot::close)
+                .onClose(cold::close);
+    }
+
+    /**
+     * アーカイブ済み注文の発注日の上限（age-days 日前の 0 時。アーカイブ済みの注文はすべてこれより前）
+     *
+     * age-days を大きくすると既にアーカイブした注文が上限以降に残るため、小さくする方向にだけ変更すること。
+     */
+    public LocalDateTime archiveHorizon() {
+        return LocalDate.now().minusDays(archiveAgeDays).atStartOfDay();
+    }
+
+    /**
+     * ユーザーのアクティブな注文（発注日降順）
+     */
+    public List<OrderDto> findActiveByUserId(Long userId) {
+        OrderReadModel model = readModel.getIfAvailable();
+        if (model != null && model.isReady() && covers(userId)) {
+            memoryQueries.increment();
+            return model.findActiveByUserId(userId);
+        }
+        databaseQueries.increment();
+        return toDtos(orderRepository.findActiveOrdersByUserId(userId));
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 条件に合致する注文を orders から (order_date DESC, order_id DESC) 順に最大 limit 件取得（読み取りモデル優先）
+     */
+    private List<OrderDto> findHotPage(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId,
+                                       int limit) {
+        OrderReadModel model = readModel.getIfAvailable();
+        if (model == null || !model.isReady() || !covers(criteria.getUserId())) {
+            return fromDatabase(criteria, cursorDate, cursorId, limit);
+        }
+        if (isActiveOnly(criteria)) {
+            // アクティブ注文は発注日に関わらず全件保持している
+            memoryQueries.increment();
+            return model.find(criteria, cursorDate, cursorId, limit, null);
+        }
+        LocalDateTime horizon = model.horizon();
+        if (cursorDate != null && cursorDate.isBefore(horizon)) {
+            return fromDatabase(criteria, cursorDate, cursorId, limit);
+        }
+
+        memoryQueries.increment();
+        List<OrderDto> orders = model.find(criteria, cursorDate, cursorId, limit, horizon);
+        if (orders.size() >= limit
+                || (criteria.getStartDate() != null && !criteria.getStartDate().isBefore(horizon))) {
+            return orders;
+        }
+        // 残りは horizon より前の注文（orderId < Long.MIN_VALUE は成立しないため order_date < horizon になる）
+        List<OrderDto> result = new ArrayList<>(orders);
+        result.addAll(fromDatabase(criteria, horizon, Long.MIN_VALUE, limit - orders.size()));
+        return result;
+    }
+
+    private List<OrderDto> fromDatabase(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId,
+                                        int limit) {
+        databaseQueries.increment();
+        return toDtos(orderRepository.findPageByCriteria(criteria, cursorDate, cursorId, limit));
+    }
+
+    private List<OrderDto> toDtos(List<Order> orders) {
+        List<OrderDto> dtos = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            dtos.add(referenceDataCache.enrich(orderMapper.toDto(order)));
+        }
+        return dtos;
+    }
+
+    /**
+     * 読み取りモデルがユーザーの注文を保持しているか（クラスタモードでは担当かつ読み込み済みのユーザーのみ）
+     */
+    private boolean covers(Long userId) {
+        ClusterMembership membership = cluster.getIfAvailable();
+        return membership == null || (userId != null && membership.isReady(userId));
+    }
+
+    /**
+     * 条件がアーカイブ済みの注文（終了済みで発注日が archiveHorizon より前）に合致しうるか
+     */
+    private boolean mayMatchArchive(OrderSearchCriteria criteria) {
+        return !isActiveOnly(criteria)
+                && (criteria.getStartDate() == null || criteria.getStartDate().isBefore(archiveHorizon()));
+    }
+
+    private static boolean isActiveOnly(OrderSearchCriteria criteria) {
+        List<OrderStatus> statuses = criteria.getStatuses();
+        return statuses != null && !statuses.isEmpty() && statuses.stream().allMatch(OrderStatus::isActive);
+    }
+
+    /**
+     * 並び順が同じ2つの列の併合（同じ位置の要素は同じ注文のため first 側だけを返す）
+     */
+    private static final class MergedIterator<T> implements Iterator<T> {
+
+        private final Iterator<T> first;
+        private final Iterator<T> second;
+        private final Comparator<T> order;
+        private T nextFirst;
+        private T nextSecond;
+
+        MergedIterator(Iterator<T> first, Iterator<T> second, Comparator<T> order) {
+            this.first = first;
+            this.second = second;
+            this.order = order;
+            this.nextFirst = first.hasNext() ? first.next() : null;
+            this.nextSecond = second.hasNext() ? second.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextFirst != null || nextSecond != null;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int cmp = nextFirst == null ? 1 : nextSecond == null ? -1 : order.compare(nextFirst, nextSecond);
+            T result;
+            if (cmp <= 0) {
+                result = nextFirst;
+                nextFirst = first.hasNext() ? first.next() : null;
+                if (cmp == 0) {
+                    nextSecond = second.hasNext() ? second.next() : null;
+                }
+            } else {
+                result = nextSecond;
+                nextSecond = second.hasNext() ? second.next() : null;
+            }
+            return result;
+        }
+    }
+}
@@ -2,26 +2,36 @@ package com.oms.api.repository;
 
 import com.oms.api.model.Order;
 import com.oms.api.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 発注リポジトリ
  */
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderQueryRepository {
 
     /**
      * 注文番号で検索
      */
     Optional<Order> findByOrderNo(String orderNo);
 
+    /**
+     * 注文のユーザーID（クラスタモードで担当ノードを決めるため）
+     */
+    @Query("SELECT o.userId FROM Order o WHERE o.orderId = :orderId")
+    Optional<Long> findUserIdByOrderId(@Param("orderId") Long orderId);
+
     /**
      * ユーザーIDで検索（注文日降順）
      */
@@ -43,23 +53,6 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate);
 
-    /**
-     * 高度なフィルター検索
-     */
-    @Query("SELECT o FROM Order o WHERE " +
-           "(:userId IS NULL OR o.userId = :userId) AND " +
-           "(:securityId IS NULL OR o.securityId = :securityId) AND " +
-           "(:statuses IS NULL OR o.status IN :statuses) AND " +
-           "(:startDate IS NULL OR o.orderDate >= :startDate) AND " +
-           "(:endDate IS NULL OR o.orderDate <= :endDate) " +
-           "ORDER BY o.orderDate DESC")
-    List<Order> findByFilters(
-            @Param("userId") Long userId,
-            @Param("securityId") Long securityId,
-            @Param("statuses") List<OrderStatus> statuses,
-            @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate);
-
     /**
      * アクティブな注文を取得
      */
@@ -69,7 +62,28 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findActiveOrdersByUserId(@Param("userId") Long userId);
 
     /**
-     * 次の注文番号を生成するためのカウント
+     * 全ユーザーのアクティブな注文をストリーム取得（板の再構築用、受付順）
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status IN ('NEW', 'PARTIAL') " +
+           "ORDER BY o.orderDate, o.orderId")
+    Stream<Order> streamActiveOrders();
+
+    /**
+     * アクティブな注文と since 以降に発注された注文をストリーム取得（読み取りモデルの構築用）
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o WHERE o.status IN ('NEW', 'PARTIAL') OR o.orderDate >= :since")
+    Stream<Order> streamActiveOrSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 日付範囲の注文件数（採番キー作成時の初期値算出用）
      */
     long countByOrderDateBetween(LocalDateTime start, LocalDateTime end);
 }
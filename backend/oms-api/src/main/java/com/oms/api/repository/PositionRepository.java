@@ -0,0 +1,12 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.Position;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * ポジションリポジトリ
+ */
+@Repository
+public interface PositionRepository extends JpaRepository<Position, Long> {
+}
@@ -0,0 +1,25 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.Security;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 銘柄マスタリポジトリ
+ */
+@Repository
+public interface SecurityRepository extends JpaRepository<Security, Long> {
+
+    /**
+     * 取引可能な銘柄（参照データキャッシュの初期ロード用）
+     */
+    List<Security> findByIsActiveTrue();
+
+    /**
+     * 指定日時以降に更新された銘柄（差分リフレッシュ用）
+     */
+    List<Security> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
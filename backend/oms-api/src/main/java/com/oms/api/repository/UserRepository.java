@@ -0,0 +1,20 @@
+package com.oms.api.repository;
+
+import com.oms.api.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ユーザーマスタリポジトリ
+ */
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+
+    /**
+     * 指定日時以降に更新されたユーザー（差分リフレッシュ用）
+     */
+    List<User> findByUpdatedAtGreaterThanEqual(LocalDateTime since);
+}
@@ -0,0 +1,732 @@
+package com.oms.api.risk;
+
+import com.oms.api.cluster.ClusterMembership;
+import com.oms.api.cluster.PartitionListener;
+import com.oms.api.cluster.PartitionSet;
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.ExecutionDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.RiskExposureDto;
+import com.oms.api.dto.SecurityRiskLimitsDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.dto.UserRiskLimitsDto;
+import com.oms.api.event.ExecutionEvent;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.Position;
+import com.oms.api.position.PositionService;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.repository.PositionRepository;
+import com.oms.api.util.FixedPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.agrona.collections.Hashing;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongPredicate;
+import java.util.stream.Stream;
+
+/**
+ * 発注前リスクチェック
+ *
+ * 口座ごとの限度（買付余力・1注文の上限金額・銘柄別の建玉上限）と銘柄ごとの限度
+ * （1注文の上限数量・直近約定価格からの値幅）をメモリ上で検査し、合格した注文の数量・代金を拘束する。
+ * 口座の状態はユーザーIDで振り分けたストライプのロックで保護するため、チェックと拘束は DB を参照せず原子的に行う。
+ * 拘束はトランザクションがロールバックされたら戻し、取消・失効で解放、約定で約定分を解放する。
+ * 価格・数量・代金は FixedPoint の long で保持する。
+ */
+@Service
+@ConditionalOnProperty(name = "oms.risk.enabled", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RiskEngine implements PartitionListener {
+
+    private static final String LAST_PRICES_SQL =
+            "SELECT e.security_id, e.execution_price FROM executions e " +
+            "JOIN (SELECT security_id, MAX(execution_id) AS execution_id FROM executions GROUP BY security_id) l " +
+            "ON e.execution_id = l.execution_id";
+    private static final String EXECUTED_NOTIONAL_SQL =
+            "SELECT o.user_id, SUM(CASE WHEN o.side = 'BUY' THEN e.execution_price * e.execution_quantity " +
+            "ELSE -e.execution_price * e.execution_quantity END) " +
+            "FROM executions e JOIN orders o ON o.order_id = e.order_id " +
+            "WHERE e.execution_date >= ? GROUP BY o.user_id";
+
+    private final OrderRepository orderRepository;
+    private final PositionRepository positionRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<ClusterMembership> cluster;
+
+    @Value("${oms.risk.stripes:64}")
+    private int stripeCount;
+
+    @Value("${oms.risk.buying-power:1000000000}")
+    private BigDecimal defaultBuyingPower;
+
+    @Value("${oms.risk.max-order-notional:100000000}")
+    private BigDecimal defaultMaxOrderNotional;
+
+    @Value("${oms.risk.max-position-quantity:1000000}")
+    private BigDecimal defaultMaxPositionQuantity;
+
+    @Value("${oms.risk.max-order-quantity:100000}")
+    private BigDecimal defaultMaxOrderQuantity;
+
+    @Value("${oms.risk.price-band-percent:10}")
+    private BigDecimal defaultPriceBandPercent;
+
+    private Stripe[] stripes;
+    private int stripeMask;
+    private final ConcurrentHashMap<Long, SecurityRisk> securities = new ConcurrentHashMap<>();
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    /**
+     * ロックの単位（担当する口座の状態はこのロックの内側でのみ読み書きする）
+     */
+    private static final class Stripe {
+        final ReentrantLock lock = new ReentrantLock();
+        final Long2ObjectHashMap<Account> accounts = new Long2ObjectHashMap<>();
+    }
+
+    /**
+     * 口座の限度と拘束状況
+     */
+    private static final class Account {
+        long buyingPower;
+        long maxOrderNotional;
+        long maxPositionQuantity;
+        /** 未約定の買い注文の拘束代金（orders の notional の合計） */
+        long reservedNotional;
+        /** 当日の約定代金（買いは加算、売りは減算。読み込み時に当日の約定から集計し、以降は約定ごとに加減する） */
+        long executedNotional;
+        /** executedNotional の対象日（日付が変わったら最初の参照で 0 に戻す） */
+        LocalDate executedDate;
+        final Long2ObjectHashMap<Exposure> bySecurity = new Long2ObjectHashMap<>();
+        final Long2ObjectHashMap<OrderRisk> orders = new Long2ObjectHashMap<>();
+
+        /**
+         * 当日の約定代金（前日以前の値なら 0 に戻してから返す）
+         */
+        long executedNotional(LocalDate today) {
+            if (!today.equals(executedDate)) {
+                executedDate = today;
+                executedNotional = 0;
+            }
+            return executedNotional;
+        }
+
+        Exposure exposure(long securityId) {
+            Exposure exposure = bySecurity.get(securityId);
+            if (exposure == null) {
+                exposure = new Exposure();
+                bySecurity.put(securityId, exposure);
+            }
+            return exposure;
+        }
+    }
+
+    /**
+     * 口座・銘柄ごとの建玉と未約定数量
+     */
+    private static final class Exposure {
+        long position;
+        long openBuy;
+        long openSell;
+    }
+
+    /**
+     * 注文ごとの拘束（残数量と拘束単価、買いの場合は拘束代金）
+     */
+    private static final class OrderRisk {
+        final long securityId;
+        final OrderSide side;
+        long remaining;
+        long price;
+        long notional;
+
+        OrderRisk(long securityId, OrderSide side) {
+            this.securityId = securityId;
+            this.side = side;
+        }
+    }
+
+    /**
+     * 銘柄の限度と値幅の基準価格
+     */
+    private static final class SecurityRisk {
+        volatile long maxOrderQuantity;
+        volatile long priceBandBps;
+        volatile long referencePrice = FixedPoint.NULL;
+    }
+
+    /**
+     * 拘束の取り消し用の記録（発注・修正で適用した差分）
+     */
+    public static final class RiskTicket {
+        private final long userId;
+        private final OrderRisk order;
+        private final long remainingDelta;
+        private final long previousPrice;
+        private long orderId;
+
+        private RiskTicket(long userId, OrderRisk order, long remainingDelta, long previousPrice, long orderId) {
+            this.userId = userId;
+            this.order = order;
+            this.remainingDelta = remainingDelta;
+            this.previousPrice = previousPrice;
+            this.orderId = orderId;
+        }
+    }
+
+    @PostConstruct
+    public void load() {
+        stripeMask = Integer.highestOneBit(Math.max(1, stripeCount - 1)) * 2 - 1;
+        stripes = new Stripe[stripeMask + 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe();
+        }
+
+        jdbcTemplate.query(LAST_PRICES_SQL, rs -> {
+            security(rs.getLong(1)).referencePrice = FixedPoint.toScaled(rs.getBigDecimal(2));
+        });
+        // クラスタモードでは担当パーティションのユーザーだけを読み込む
+        ClusterMembership membership = cluster.getIfAvailable();
+        int count = loadAccounts(membership != null ? membership.ownedPartitions() : userId -> true);
+        log.info("Risk engine loaded: {} open orders, {} securities with reference price, {} stripes",
+                count, securities.size(), stripes.length);
+    }
+
+    /**
+     * 担当になったユーザーの建玉・未約定注文を読み込み直す（ユーザー別限度の変更は既定値に戻る）
+     */
+    @Override
+    public void onPartitionsAssigned(PartitionSet partitions) {
+        dropAccounts(partitions);
+        int count = loadAccounts(partitions);
+        log.info("Risk engine loaded {} open orders for {} assigned partitions", count, partitions.size());
+    }
+
+    @Override
+    public void onPartitionsRevoked(PartitionSet partitions) {
+        dropAccounts(partitions);
+    }
+
+    /**
+     * 新規注文のチェックと拘束（不合格は RiskRejectedException）
+     *
+     * トランザクション内で呼ばれた場合、ロールバック時に拘束を戻す。
+     * 注文IDの確定後に bind すること。
+     */
+    public RiskTicket reserve(long userId, CreateOrderDto dto) {
+        long securityId = dto.getSecurityId();
+        long quantity = FixedPoint.toScaled(dto.getQuantity());
+        long price = FixedPoint.toScaled(dto.getPrice());
+        SecurityRisk security = security(securityId);
+        checkOrder(security, quantity, price);
+        long reservePrice = reservePrice(dto.getOrderType(), price, FixedPoint.toScaled(dto.getStopPrice()),
+                security.referencePrice);
+        long orderNotional = notional(quantity, reservePrice);
+
+        Stripe stripe = stripe(userId);
+        RiskTicket ticket;
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, userId);
+            if (orderNotional > account.maxOrderNotional) {
+                throw reject("max-order-notional", "Order notional exceeds limit: "
+                        + FixedPoint.toDecimal(orderNotional) + " > " + FixedPoint.toDecimal(account.maxOrderNotional));
+            }
+            OrderRisk order = new OrderRisk(securityId, dto.getSide());
+            checkIncrease(account, order, quantity, orderNotional);
+            update(account, order, quantity, reservePrice);
+            ticket = new RiskTicket(userId, order, quantity, reservePrice, 0);
+        } finally {
+            stripe.lock.unlock();
+        }
+        undoOnRollback(ticket);
+        return ticket;
+    }
+
+    /**
+     * 新規注文の拘束に注文IDを対応付ける（以降の約定・取消で解放できるようにする）
+     */
+    public void bind(RiskTicket ticket, long orderId) {
+        Stripe stripe = stripe(ticket.userId);
+        stripe.lock.lock();
+        try {
+            ticket.orderId = orderId;
+            account(stripe, ticket.userId).orders.put(orderId, ticket.order);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 修正後の数量・価格でのチェックと拘束の変更（不合格は RiskRejectedException）
+     *
+     * 増える分だけを余力・建玉上限と照合する。トランザクション内ならロールバック時に戻す。
+     */
+    public RiskTicket amend(Order current, UpdateOrderDto dto) {
+        long userId = current.getUserId();
+        long quantity = FixedPoint.toScaled(dto.getQuantity() != null ? dto.getQuantity() : current.getQuantity());
+        long price = FixedPoint.toScaled(dto.getPrice() != null ? dto.getPrice() : current.getPrice());
+        long stopPrice = FixedPoint.toScaled(dto.getStopPrice() != null ? dto.getStopPrice() : current.getStopPrice());
+        long remaining = Math.max(0, quantity - FixedPoint.toScaled(current.getFilledQuantity()));
+        SecurityRisk security = security(current.getSecurityId());
+        checkOrder(security, quantity, dto.getPrice() != null ? price : FixedPoint.NULL);
+        long reservePrice = reservePrice(current.getOrderType(), price, stopPrice, security.referencePrice);
+
+        Stripe stripe = stripe(userId);
+        RiskTicket ticket;
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, userId);
+            long orderNotional = notional(quantity, reservePrice);
+            if (orderNotional > account.maxOrderNotional) {
+                throw reject("max-order-notional", "Order notional exceeds limit: "
+                        + FixedPoint.toDecimal(orderNotional) + " > " + FixedPoint.toDecimal(account.maxOrderNotional));
+            }
+            OrderRisk order = account.orders.get(current.getOrderId());
+            boolean tracked = order != null;
+            if (!tracked) {
+                order = new OrderRisk(current.getSecurityId(), current.getSide());
+            }
+            long previousPrice = order.price;
+            long remainingDelta = remaining - order.remaining;
+            long notionalDelta = order.side == OrderSide.BUY ? notional(remaining, reservePrice) - order.notional : 0;
+            checkIncrease(account, order, remainingDelta, notionalDelta);
+            update(account, order, remaining, reservePrice);
+            if (!tracked) {
+                account.orders.put(current.getOrderId(), order);
+            }
+            ticket = new RiskTicket(userId, order, remainingDelta, previousPrice, current.getOrderId());
+        } finally {
+            stripe.lock.unlock();
+        }
+        undoOnRollback(ticket);
+        return ticket;
+    }
+
+    /**
+     * 拘束を適用前に戻す（注文が登録されなかった場合・修正が反映されなかった場合）
+     */
+    public void undo(RiskTicket ticket) {
+        Stripe stripe = stripe(ticket.userId);
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, ticket.userId);
+            OrderRisk order = ticket.order;
+            update(account, order, Math.max(0, order.remaining - ticket.remainingDelta), ticket.previousPrice);
+            if (order.remaining == 0 && ticket.orderId != 0) {
+                account.orders.remove(ticket.orderId);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * 取消・失効・拒否された注文の拘束を解放する（コミット後）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderEvent(OrderEvent event) {
+        switch (event.type()) {
+            case CANCELED, EXPIRED, REJECTED -> release(event.order());
+            default -> {
+                // 新規・修正は発注時に拘束済み、約定は onExecution で反映する
+            }
+        }
+    }
+
+    /**
+     * 約定の反映（建玉・約定代金の更新、約定分の拘束の解放、基準価格の更新）
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onExecution(ExecutionEvent event) {
+        ExecutionDto execution = event.execution();
+        long quantity = FixedPoint.toScaled(execution.getExecutionQuantity());
+        long price = FixedPoint.toScaled(execution.getExecutionPrice());
+        boolean buy = execution.getSide() == OrderSide.BUY;
+        Stripe stripe = stripe(execution.getUserId());
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, execution.getUserId());
+            account.exposure(execution.getSecurityId()).position += buy ? quantity : -quantity;
+            // 日付の切り替わり前の約定が切り替わり後に届いた場合は当日分に含めない
+            LocalDate today = LocalDate.now();
+            account.executedNotional(today);
+            if (!execution.getExecutionDate().toLocalDate().isBefore(today)) {
+                account.executedNotional += buy ? notional(quantity, price) : -notional(quantity, price);
+            }
+            OrderRisk order = account.orders.get(execution.getOrderId());
+            if (order != null) {
+                update(account, order, Math.max(0, order.remaining - quantity), order.price);
+                if (order.remaining == 0) {
+                    account.orders.remove(execution.getOrderId());
+                }
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        security(execution.getSecurityId()).referencePrice = price;
+    }
+
+    /**
+     * ユーザーのリスク限度と拘束状況
+     */
+    public RiskExposureDto getExposure(long userId) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, userId);
+            RiskExposureDto dto = new RiskExposureDto();
+            dto.setUserId(userId);
+            dto.setBuyingPower(FixedPoint.toDecimal(account.buyingPower));
+            dto.setMaxOrderNotional(FixedPoint.toDecimal(account.maxOrderNotional));
+            dto.setMaxPositionQuantity(FixedPoint.toDecimal(account.maxPositionQuantity));
+            dto.setReservedNotional(FixedPoint.toDecimal(account.reservedNotional));
+            long executedNotional = account.executedNotional(LocalDate.now());
+            dto.setExecutedNotional(FixedPoint.toDecimal(executedNotional));
+            dto.setAvailableBuyingPower(FixedPoint.toDecimal(
+                    account.buyingPower - account.reservedNotional - executedNotional));
+            dto.setOpenOrders(account.orders.size());
+            List<RiskExposureDto.SecurityExposure> exposures = new ArrayList<>(account.bySecurity.size());
+            account.bySecurity.forEach((securityId, exposure) -> {
+                RiskExposureDto.SecurityExposure item = new RiskExposureDto.SecurityExposure();
+                item.setSecurityId(securityId);
+                item.setPosition(FixedPoint.toDecimal(exposure.position));
+                item.setOpenBuyQuantity(FixedPoint.toDecimal(exposure.openBuy));
+                item.setOpenSellQuantity(FixedPoint.toDecimal(exposure.openSell));
+                exposures.add(item);
+            });
+            dto.setSecurities(exposures);
+            return dto;
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * ユーザー別限度の変更（メモリ上のみ。再起動で既定値に戻る）
+     */
+    public RiskExposureDto updateUserLimits(long userId, UserRiskLimitsDto limits) {
+        Stripe stripe = stripe(userId);
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, userId);
+            if (limits.getBuyingPower() != null) {
+                account.buyingPower = FixedPoint.toScaled(limits.getBuyingPower());
+            }
+            if (limits.getMaxOrderNotional() != null) {
+                account.maxOrderNotional = FixedPoint.toScaled(limits.getMaxOrderNotional());
+            }
+            if (limits.getMaxPositionQuantity() != null) {
+                account.maxPositionQuantity = FixedPoint.toScaled(limits.getMaxPositionQuantity());
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+        log.info("Risk limits updated for user {}: {}", userId, limits);
+        return getExposure(userId);
+    }
+
+    /**
+     * 銘柄別限度
+     */
+    public SecurityRiskLimitsDto getSecurityLimits(long securityId) {
+        SecurityRisk security = security(securityId);
+        SecurityRiskLimitsDto dto = new SecurityRiskLimitsDto();
+        dto.setSecurityId(securityId);
+        dto.setMaxOrderQuantity(FixedPoint.toDecimal(security.maxOrderQuantity));
+        dto.setPriceBandPercent(BigDecimal.valueOf(security.priceBandBps, 2));
+        dto.setReferencePrice(FixedPoint.toDecimal(security.referencePrice));
+        return dto;
+    }
+
+    /**
+     * 銘柄別限度の変更（メモリ上のみ。再起動で既定値に戻る）
+     */
+    public SecurityRiskLimitsDto updateSecurityLimits(long securityId, SecurityRiskLimitsDto limits) {
+        SecurityRisk security = security(securityId);
+        if (limits.getMaxOrderQuantity() != null) {
+            security.maxOrderQuantity = FixedPoint.toScaled(limits.getMaxOrderQuantity());
+        }
+        if (limits.getPriceBandPercent() != null) {
+            security.priceBandBps = toBps(limits.getPriceBandPercent());
+        }
+        log.info("Risk limits updated for security {}: {}", securityId, limits);
+        return getSecurityLimits(securityId);
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 銘柄の限度チェック（数量上限、指値の値幅）。基準価格（約定実績）のない銘柄は値幅を見ない
+     */
+    private void checkOrder(SecurityRisk security, long quantity, long price) {
+        if (quantity > security.maxOrderQuantity) {
+            throw reject("max-order-quantity", "Order quantity exceeds limit: "
+                    + FixedPoint.toDecimal(quantity) + " > " + FixedPoint.toDecimal(security.maxOrderQuantity));
+        }
+        long reference = security.referencePrice;
+        if (price != FixedPoint.NULL && reference != FixedPoint.NULL
+                && Math.abs(price - reference) * 10_000 > reference * security.priceBandBps) {
+            throw reject("price-band", "Price " + FixedPoint.toDecimal(price) + " is outside the "
+                    + BigDecimal.valueOf(security.priceBandBps, 2) + "% band around " + FixedPoint.toDecimal(reference));
+        }
+    }
+
+    /**
+     * 拘束を増やしてよいか（買いは余力、売買とも銘柄別の建玉上限）
+     */
+    private void checkIncrease(Account account, OrderRisk order, long quantityDelta, long notionalDelta) {
+        Exposure exposure = account.exposure(order.securityId);
+        if (quantityDelta > 0) {
+            long projected = order.side == OrderSide.BUY
+                    ? exposure.position + exposure.openBuy + quantityDelta
+                    : exposure.openSell - exposure.position + quantityDelta;
+            if (projected > account.maxPositionQuantity) {
+                throw reject("max-position", "Position limit exceeded for security " + order.securityId + ": "
+                        + FixedPoint.toDecimal(projected) + " > " + FixedPoint.toDecimal(account.maxPositionQuantity));
+            }
+        }
+        if (notionalDelta > 0 && order.side == OrderSide.BUY) {
+            long available = account.buyingPower - account.reservedNotional
+                    - account.executedNotional(LocalDate.now());
+            if (notionalDelta > available) {
+                throw reject("buying-power", "Insufficient buying power: required "
+                        + FixedPoint.toDecimal(notionalDelta) + ", available " + FixedPoint.toDecimal(available));
+            }
+        }
+    }
+
+    /**
+     * 注文の残数量・拘束単価を変更し、口座の合計を差分で更新する
+     */
+    private static void update(Account account, OrderRisk order, long remaining, long price) {
+        Exposure exposure = account.exposure(order.securityId);
+        if (order.side == OrderSide.BUY) {
+            long orderNotional = notional(remaining, price);
+            exposure.openBuy += remaining - order.remaining;
+            account.reservedNotional += orderNotional - order.notional;
+            order.notional = orderNotional;
+        } else {
+            exposure.openSell += remaining - order.remaining;
+        }
+        order.remaining = remaining;
+        order.price = price;
+    }
+
+    /**
+     * 対象ユーザーの建玉（positions と未反映の約定）・当日の約定代金と未約定注文の拘束を読み込む
+     *
+     * @return 読み込んだ未約定注文の件数
+     */
+    private int loadAccounts(LongPredicate users) {
+        for (Position position : positionRepository.findAll()) {
+            if (!users.test(position.getUserId())) {
+                continue;
+            }
+            Stripe stripe = stripe(position.getUserId());
+            stripe.lock.lock();
+            try {
+                account(stripe, position.getUserId()).exposure(position.getSecurityId()).position =
+                        FixedPoint.toScaled(position.getQuantity());
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        // positions への書き戻し前に停止した約定を建玉に加える
+        jdbcTemplate.query(PositionService.UNFLUSHED_EXECUTIONS_SQL, rs -> {
+            long userId = rs.getLong("user_id");
+            if (!users.test(userId)) {
+                return;
+            }
+            long quantity = FixedPoint.toScaled(rs.getBigDecimal("execution_quantity"));
+            Stripe stripe = stripe(userId);
+            stripe.lock.lock();
+            try {
+                account(stripe, userId).exposure(rs.getLong("security_id")).position +=
+                        OrderSide.BUY.name().equals(rs.getString("side")) ? quantity : -quantity;
+            } finally {
+                stripe.lock.unlock();
+            }
+        });
+
+        // 再起動・引き継ぎで当日の約定代金が 0 に戻り、買付余力が過大にならないようにする
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.query(EXECUTED_NOTIONAL_SQL, rs -> {
+            long userId = rs.getLong(1);
+            if (!users.test(userId)) {
+                return;
+            }
+            Stripe stripe = stripe(userId);
+            stripe.lock.lock();
+            try {
+                Account account = account(stripe, userId);
+                account.executedDate = today;
+                account.executedNotional = FixedPoint.toScaled(rs.getBigDecimal(2));
+            } finally {
+                stripe.lock.unlock();
+            }
+        }, Timestamp.valueOf(today.atStartOfDay()));
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Integer count = readOnly.execute(status -> {
+            int loaded = 0;
+            try (Stream<Order> orders = orderRepository.streamActiveOrders()) {
+                for (Order order : (Iterable<Order>) orders::iterator) {
+                    if (!users.test(order.getUserId())) {
+                        continue;
+                    }
+                    long remaining = FixedPoint.toScaled(order.getQuantity()) - FixedPoint.toScaled(order.getFilledQuantity());
+                    SecurityRisk security = security(order.getSecurityId());
+                    long price = reservePrice(order.getOrderType(), FixedPoint.toScaled(order.getPrice()),
+                            FixedPoint.toScaled(order.getStopPrice()), security.referencePrice);
+                    Stripe stripe = stripe(order.getUserId());
+                    stripe.lock.lock();
+                    try {
+                        Account account = account(stripe, order.getUserId());
+                        OrderRisk risk = new OrderRisk(order.getSecurityId(), order.getSide());
+                        update(account, risk, Math.max(0, remaining), price);
+                        account.orders.put(order.getOrderId(), risk);
+                    } finally {
+                        stripe.lock.unlock();
+                    }
+                    loaded++;
+                }
+            }
+            return loaded;
+        });
+        return count;
+    }
+
+    private void dropAccounts(LongPredicate users) {
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                stripe.accounts.keySet().removeIf(users::test);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private void release(OrderDto dto) {
+        Stripe stripe = stripe(dto.getUserId());
+        stripe.lock.lock();
+        try {
+            Account account = account(stripe, dto.getUserId());
+            OrderRisk order = account.orders.remove(dto.getOrderId().longValue());
+            if (order != null) {
+                update(account, order, 0, order.price);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    private void undoOnRollback(RiskTicket ticket) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        undo(ticket);
+                    }
+                }
+            });
+        }
+    }
+
+    private RiskRejectedException reject(String check, String message) {
+        rejections.computeIfAbsent(check, c -> Counter.builder("oms.risk.rejections")
+                .description("発注前リスクチェックの拒否件数")
+                .tag("check", c)
+                .register(meterRegistry)).increment();
+        return new RiskRejectedException(check, message);
+    }
+
+    /**
+     * 拘束単価（成行は基準価格、逆指値は逆指値価格。基準価格のない成行は代金を拘束しない）
+     */
+    private static long reservePrice(OrderType type, long price, long stopPrice, long referencePrice) {
+        long reservePrice = switch (type) {
+            case MARKET -> referencePrice;
+            case STOP -> stopPrice;
+            case LIMIT, STOP_LIMIT -> price;
+        };
+        return reservePrice == FixedPoint.NULL ? 0 : reservePrice;
+    }
+
+    /**
+     * 数量 × 単価（桁あふれは上限値に丸めて限度超過として扱う）
+     */
+    static long notional(long quantity, long price) {
+        long high = Math.multiplyHigh(quantity, price);
+        long low = quantity * price;
+        if (high != 0 || low < 0) {
+            return Long.MAX_VALUE;
+        }
+        return low / FixedPoint.ONE;
+    }
+
+    private Stripe stripe(long userId) {
+        return stripes[Hashing.hash(userId, stripeMask)];
+    }
+
+    private Account account(Stripe stripe, long userId) {
+        Account account = stripe.accounts.get(userId);
+        if (account == null) {
+            account = new Account();
+            account.buyingPower = FixedPoint.toScaled(defaultBuyingPower);
+            account.maxOrderNotional = FixedPoint.toScaled(defaultMaxOrderNotional);
+            account.maxPositionQuantity = FixedPoint.toScaled(defaultMaxPositionQuantity);
+            stripe.accounts.put(userId, account);
+        }
+        return account;
+    }
+
+    private SecurityRisk security(long securityId) {
+        SecurityRisk security = securities.get(securityId);
+        if (security != null) {
+            return security;
+        }
+        return securities.computeIfAbsent(securityId, id -> {
+            SecurityRisk created = new SecurityRisk();
+            created.maxOrderQuantity = FixedPoint.toScaled(defaultMaxOrderQuantity);
+            created.priceBandBps = toBps(defaultPriceBandPercent);
+            return created;
+        });
+    }
+
+    private static long toBps(BigDecimal percent) {
+        return percent.movePointRight(2).longValue();
+    }
+}
@@ -0,0 +1,21 @@
+package com.oms.api.risk;
+
+/**
+ * 発注前リスクチェックで拒否された場合の例外（バリデーションエラーと同じく HTTP 400）
+ */
+public class RiskRejectedException extends IllegalArgumentException {
+
+    private final String check;
+
+    public RiskRejectedException(String check, String message) {
+        super(message);
+        this.check = check;
+    }
+
+    /**
+     * 拒否したチェック（メトリクスのタグ）
+     */
+    public String getCheck() {
+        return check;
+    }
+}
@@ -0,0 +1,162 @@
+package com.oms.api.service;
+
+import com.oms.api.model.DailySequence;
+import com.oms.api.repository.DailySequenceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+
+/**
+ * 日次連番の採番（プレフィックス + YYYYMMDD + "-" + 連番）
+ *
+ * daily_sequences テーブルから連番をブロック単位で予約し、
+ * ブロック内はメモリ上で CAS により払い出す。1件ごとのクエリは発生しない。
+ * 日付が変わった時点で新しい採番キーのブロックを取得し直す。
+ */
+@Slf4j
+public class DailyNumberAllocator {
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final String prefix;
+    private final DailySequenceRepository sequenceRepository;
+    private final TransactionTemplate requiresNewTransaction;
+    private final int blockSize;
+    private final ToLongFunction<LocalDate> initialValue;
+    private final Clock clock;
+
+    private final AtomicReference<Block> current = new AtomicReference<>();
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    /**
+     * @param prefix       番号のプレフィックス（採番キーにも使用）
+     * @param initialValue 採番キー作成時の初期値（旧方式で払い出し済みの番号を避けるため）
+     */
+    public DailyNumberAllocator(
+            String prefix,
+            int blockSize,
+            DailySequenceRepository sequenceRepository,
+            PlatformTransactionManager transactionManager,
+            ToLongFunction<LocalDate> initialValue) {
+        this(prefix, blockSize, sequenceRepository, transactionManager, initialValue, Clock.systemDefaultZone());
+    }
+
+    /**
+     * @param clock 採番日付の基準（テストで日付の切り替わりを再現するため）
+     */
+    DailyNumberAllocator(
+            String prefix,
+            int blockSize,
+            DailySequenceRepository sequenceRepository,
+            PlatformTransactionManager transactionManager,
+            ToLongFunction<LocalDate> initialValue,
+            Clock clock) {
+        this.prefix = prefix;
+        this.blockSize = blockSize;
+        this.sequenceRepository = sequenceRepository;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.initialValue = initialValue;
+        this.clock = clock;
+    }
+
+    /**
+     * 次の番号を払い出す
+     */
+    public String next() {
+        LocalDate today = LocalDate.now(clock);
+        while (true) {
+            Block block = current.get();
+            // 日付の切り替わり直前に日付を読んだスレッドは、他スレッドが取得した翌日のブロックから払い出す
+            if (block != null && !block.date.isBefore(today)) {
+                long value = block.next.getAndIncrement();
+                if (value < block.limit) {
+                    return block.format(value);
+                }
+            }
+            refill(block != null && block.date.isAfter(today) ? block.date : today, block);
+        }
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * ブロック再取得（他スレッドが既に差し替えていれば何もしない）
+     */
+    private void refill(LocalDate today, Block exhausted) {
+        refillLock.lock();
+        try {
+            if (current.get() != exhausted) {
+                return;
+            }
+            current.set(reserveBlock(today));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    /**
+     * daily_sequences から blockSize 件分の連番を予約
+     */
+    private Block reserveBlock(LocalDate date) {
+        String dateStr = date.format(DATE_FORMAT);
+        String sequenceKey = prefix + dateStr;
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                Long first = requiresNewTransaction.execute(status -> {
+                    DailySequence sequence = sequenceRepository.findForUpdate(sequenceKey)
+                            .orElseGet(() -> new DailySequence(sequenceKey, initialValue.applyAsLong(date)));
+                    long start = sequence.getNextValue();
+                    sequence.setNextValue(start + blockSize);
+                    sequenceRepository.saveAndFlush(sequence);
+                    return start;
+                });
+                log.debug("Reserved sequence block: {} [{}, {})", sequenceKey, first, first + blockSize);
+                return new Block(date, prefix + dateStr + "-", first, first + blockSize);
+            } catch (DataIntegrityViolationException e) {
+                // 同日キーを他ノードが同時に作成した場合は再試行
+                if (attempt >= MAX_RESERVE_ATTEMPTS) {
+                    throw e;
+                }
+                log.debug("Sequence row {} created concurrently, retrying", sequenceKey);
+            }
+        }
+    }
+
+    /**
+     * 予約済みブロック
+     */
+    private static final class Block {
+        final LocalDate date;
+        final String prefix;
+        final AtomicLong next;
+        final long limit;
+
+        Block(LocalDate date, String prefix, long first, long limit) {
+            this.date = date;
+            this.prefix = prefix;
+            this.next = new AtomicLong(first);
+            this.limit = limit;
+        }
+
+        String format(long value) {
+            StringBuilder sb = new StringBuilder(prefix.length() + 8).append(prefix);
+            if (value < 1000) sb.append('0');
+            if (value < 100) sb.append('0');
+            if (value < 10) sb.append('0');
+            return sb.append(value).toString();
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.oms.api.service;
+
+import com.oms.api.repository.DailySequenceRepository;
+import com.oms.api.repository.ExecutionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 約定番号採番（EXE + YYYYMMDD + "-" + 連番）
+ */
+@Component
+public class ExecutionNoAllocator {
+
+    private final DailyNumberAllocator allocator;
+
+    public ExecutionNoAllocator(
+            DailySequenceRepository sequenceRepository,
+            ExecutionRepository executionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${oms.order-no.block-size:1000}") int blockSize) {
+        this.allocator = new DailyNumberAllocator("EXE", blockSize, sequenceRepository, transactionManager,
+                date -> executionRepository.countByExecutionDateBetween(date.atStartOfDay(), date.atTime(23, 59, 59)) + 1);
+    }
+
+    /**
+     * 次の約定番号を払い出す
+     */
+    public String nextExecutionNo() {
+        return allocator.next();
+    }
+}
@@ -0,0 +1,201 @@
+package com.oms.api.service;
+
+import com.oms.api.dto.MassCancelResultDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.journal.JournalAckMode;
+import com.oms.api.journal.JournalNotAppliedException;
+import com.oms.api.journal.OrderJournalRecorder;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Order;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.OrderRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 一括取消（ユーザー・銘柄・検索条件の指定）
+ *
+ * 対象のアクティブな注文を order_id 順にチャンク単位で行ロックし（SELECT ... FOR UPDATE）、
+ * 1チャンクを1回の UPDATE ... WHERE order_id IN (...) で取り消す。チャンクごとにコミットし、
+ * 取消イベントはそのチャンクのトランザクション内でまとめて発行する（ジャーナルの fsync もチャンクに1回）。
+ * 開始時点の最大 order_id までを対象とし、処理中に受け付けた注文は含めない。
+ * journal 応答モードでは、開始時点でジャーナルのみで確定している新規注文の DB 登録を待ってから対象を決める。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MassCancelService {
+
+    private static final Set<OrderStatus> CANCELABLE = EnumSet.of(OrderStatus.NEW, OrderStatus.PARTIAL);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderRepository orderRepository;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectProvider<OrderJournalRecorder> journalRecorder;
+
+    @Value("${oms.order.mass-cancel.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${oms.journal.ack-mode:commit}")
+    private JournalAckMode journalAckMode;
+
+    /**
+     * 条件に合致するアクティブな注文を取り消す
+     *
+     * criteria.statuses を指定した場合は NEW / PARTIAL のうち指定されたものだけを対象にする。
+     *
+     * @throws JournalNotAppliedException journal 応答モードで未登録の新規注文が apply-wait-ms 以内に登録されなかった場合
+     */
+    public MassCancelResultDto cancelAll(OrderSearchCriteria criteria) {
+        List<String> statuses = targetStatuses(criteria.getStatuses());
+        MassCancelResultDto result = new MassCancelResultDto();
+        if (statuses.isEmpty()) {
+            result.setMessage("No cancelable status in filter");
+            return result;
+        }
+        if (journalAckMode == JournalAckMode.JOURNAL) {
+            // 受付済みで DB 未登録の注文が最大 order_id から漏れ、取り消されずに残らないようにする
+            journalRecorder.getObject().awaitAllApplied();
+        }
+        Long maxOrderId = jdbcTemplate.queryForObject("SELECT MAX(order_id) FROM orders", Long.class);
+        if (maxOrderId == null) {
+            return result;
+        }
+
+        List<Object> args = new ArrayList<>();
+        String select = selectSql(criteria, statuses, args);
+        long started = System.nanoTime();
+        long lastOrderId = 0;
+        int chunks = 0;
+        while (true) {
+            List<Object> chunkArgs = new ArrayList<>(args);
+            chunkArgs.add(lastOrderId);
+            chunkArgs.add(maxOrderId);
+            chunkArgs.add(chunkSize);
+            List<MassCancelResultDto.Item> canceled;
+            try {
+                canceled = transactionTemplate.execute(tx -> cancelChunk(select, chunkArgs));
+            } catch (RuntimeException e) {
+                log.error("Mass cancel failed after {} orders in {} chunks", result.getCanceledCount(), chunks, e);
+                result.setComplete(false);
+                result.setMessage("Mass cancel stopped after " + result.getCanceledCount() + " orders: " + e.getMessage());
+                break;
+            }
+            if (canceled.isEmpty()) {
+                break;
+            }
+            result.getResults().addAll(canceled);
+            result.setCanceledCount(result.getCanceledCount() + canceled.size());
+            lastOrderId = canceled.get(canceled.size() - 1).getOrderId();
+            chunks++;
+            if (canceled.size() < chunkSize) {
+                break;
+            }
+        }
+        log.info("Mass cancel {}: {} orders in {} chunks ({} ms)", criteria, result.getCanceledCount(), chunks,
+                (System.nanoTime() - started) / 1_000_000);
+        return result;
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 1チャンクの取消（行ロック → 一括 UPDATE → 取消後の注文を読み直してイベント発行）
+     */
+    private List<MassCancelResultDto.Item> cancelChunk(String select, List<Object> args) {
+        Map<Long, OrderStatus> previous = new LinkedHashMap<>();
+        jdbcTemplate.query(select, rs -> {
+            previous.put(rs.getLong(1), OrderStatus.valueOf(rs.getString(2)));
+        }, args.toArray());
+        if (previous.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        String placeholders = previous.keySet().stream().map(id -> "?").collect(Collectors.joining(","));
+        List<Object> updateArgs = new ArrayList<>(previous.size() + 1);
+        updateArgs.add(Timestamp.valueOf(LocalDateTime.now()));
+        updateArgs.addAll(previous.keySet());
+        jdbcTemplate.update("UPDATE orders SET status = 'CANCELED', version = version + 1, updated_at = ? " +
+                "WHERE order_id IN (" + placeholders + ")", updateArgs.toArray());
+
+        Map<Long, Order> orders = new LinkedHashMap<>();
+        for (Order order : orderRepository.findAllById(previous.keySet())) {
+            orders.put(order.getOrderId(), order);
+        }
+        List<MassCancelResultDto.Item> items = new ArrayList<>(previous.size());
+        for (Map.Entry<Long, OrderStatus> entry : previous.entrySet()) {
+            Order order = orders.get(entry.getKey());
+            OrderDto dto = referenceDataCache.enrich(orderMapper.toDto(order));
+            eventPublisher.publishEvent(OrderEvent.of(OrderEventType.CANCELED, entry.getValue(), dto));
+
+            MassCancelResultDto.Item item = new MassCancelResultDto.Item();
+            item.setOrderId(order.getOrderId());
+            item.setOrderNo(order.getOrderNo());
+            item.setPreviousStatus(entry.getValue());
+            item.setStatus(order.getStatus());
+            item.setVersion(order.getVersion());
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static List<String> targetStatuses(List<OrderStatus> requested) {
+        List<String> statuses = new ArrayList<>();
+        for (OrderStatus status : CANCELABLE) {
+            if (requested == null || requested.isEmpty() || requested.contains(status)) {
+                statuses.add(status.name());
+            }
+        }
+        return statuses;
+    }
+
+    /**
+     * 対象行のロック取得 SQL（条件は OrderQueryRepository と同じ。末尾の order_id 範囲と件数はチャンクごとに指定）
+     */
+    private static String selectSql(OrderSearchCriteria criteria, List<String> statuses, List<Object> args) {
+        StringBuilder sql = new StringBuilder("SELECT order_id, status FROM orders WHERE status IN (");
+        sql.append(statuses.stream().map(s -> "?").collect(Collectors.joining(","))).append(")");
+        args.addAll(statuses);
+        if (criteria.getUserId() != null) {
+            sql.append(" AND user_id = ?");
+            args.add(criteria.getUserId());
+        }
+        if (criteria.getSecurityId() != null) {
+            sql.append(" AND security_id = ?");
+            args.add(criteria.getSecurityId());
+        }
+        if (criteria.getStartDate() != null) {
+            sql.append(" AND order_date >= ?");
+            args.add(Timestamp.valueOf(criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            sql.append(" AND order_date <= ?");
+            args.add(Timestamp.valueOf(criteria.getEndDate()));
+        }
+        return sql.append(" AND order_id > ? AND order_id <= ? ORDER BY order_id LIMIT ? FOR UPDATE").toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.oms.api.service;
+
+/**
+ * 注文の同時更新が再試行上限を超えて競合した場合の例外（HTTP 409）
+ */
+public class OrderConflictException extends RuntimeException {
+
+    public OrderConflictException(Long orderId, int attempts) {
+        super("Order " + orderId + " was modified concurrently (" + attempts + " attempts)");
+    }
+}
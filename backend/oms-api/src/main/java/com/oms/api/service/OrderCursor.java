@@ -0,0 +1,44 @@
+package com.oms.api.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * キーセットページングのカーソル（order_date, order_id）
+ *
+ * 一覧は (order_date DESC, order_id DESC) で並ぶため、
+ * 直前ページ末尾のキーより小さい行を次ページとして取得する。
+ */
+public record OrderCursor(LocalDateTime orderDate, Long orderId) {
+
+    private static final char SEPARATOR = '|';
+
+    /**
+     * 不透明な文字列へエンコード
+     */
+    public String encode() {
+        String raw = orderDate.toString() + SEPARATOR + orderId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 文字列からデコード（null・空文字は先頭ページ）
+     */
+    public static OrderCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int idx = raw.lastIndexOf(SEPARATOR);
+            return new OrderCursor(
+                    LocalDateTime.parse(raw.substring(0, idx)),
+                    Long.parseLong(raw.substring(idx + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
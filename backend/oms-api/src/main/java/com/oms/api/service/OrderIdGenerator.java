@@ -0,0 +1,34 @@
+package com.oms.api.service;
+
+import com.oms.api.model.Order;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 注文IDの払い出し（INSERT を伴わない採番）
+ *
+ * Order の ID ジェネレーター（orders_seq のプール型シーケンス）をそのまま使うため、
+ * JPA で登録する注文と同じ範囲から重複なく払い出される。DB アクセスは allocationSize 件に1回。
+ */
+@Component
+public class OrderIdGenerator {
+
+    private final SessionFactoryImplementor sessionFactory;
+    private final IdentifierGenerator generator;
+
+    public OrderIdGenerator(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        this.generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Order.class).getGenerator();
+    }
+
+    public long nextId() {
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            return ((Number) generator.generate((SharedSessionContractImplementor) session, null)).longValue();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.oms.api.service;
+
+import com.oms.api.repository.DailySequenceRepository;
+import com.oms.api.repository.OrderRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 注文番号採番（ORD + YYYYMMDD + "-" + 連番）
+ *
+ * 連番は daily_sequences からブロック単位で予約し、注文ごとのクエリは発生しない。
+ */
+@Component
+public class OrderNoAllocator {
+
+    private final DailyNumberAllocator allocator;
+
+    @Autowired
+    public OrderNoAllocator(
+            DailySequenceRepository sequenceRepository,
+            OrderRepository orderRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${oms.order-no.block-size:1000}") int blockSize) {
+        // 採番キー作成時は当日の既存件数の次から始める（旧方式「当日件数 + 1」との衝突回避。1日1回のみ実行）
+        this.allocator = new DailyNumberAllocator("ORD", blockSize, sequenceRepository, transactionManager,
+                date -> orderRepository.countByOrderDateBetween(date.atStartOfDay(), date.atTime(23, 59, 59)) + 1);
+    }
+
+    OrderNoAllocator(DailyNumberAllocator allocator) {
+        this.allocator = allocator;
+    }
+
+    /**
+     * 次の注文番号を払い出す
+     */
+    public String nextOrderNo() {
+        return allocator.next();
+    }
+}
@@ -1,19 +1,42 @@
 package com.oms.api.service;
 
 import com.oms.api.dto.*;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.journal.JournalAckMode;
+import com.oms.api.journal.OrderJournalRecorder;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.metrics.OrderMetrics;
+import com.oms.api.metrics.OrderMetrics.Stage;
 import com.oms.api.model.*;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.risk.RiskEngine;
+import com.oms.api.risk.RiskEngine.RiskTicket;
+import com.oms.api.risk.RiskRejectedException;
+import com.oms.api.repository.OrderReadRepository;
 import com.oms.api.repository.OrderRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * 発注サービス
@@ -24,102 +47,296 @@ import java.util.stream.Collectors;
 public class OrderService {
 
     private final OrderRepository orderRepository;
-    private final ModelMapper modelMapper;
+    private final OrderReadRepository orderReadRepository;
+    private final OrderNoAllocator orderNoAllocator;
+    private final OrderMapper orderMapper;
+    private final ReferenceDataCache referenceDataCache;
+    private final EntityManager entityManager;
+    private final OrderValidator orderValidator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderMetrics orderMetrics;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderIdGenerator orderIdGenerator;
+    private final ObjectProvider<OrderJournalRecorder> journalRecorder;
+    private final ObjectProvider<RiskEngine> riskEngine;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:500}")
+    private int jdbcBatchSize;
+
+    @Value("${oms.batch.max-orders:10000}")
+    private int maxBatchOrders;
+
+    @Value("${oms.query.default-page-size:500}")
+    private int defaultPageSize;
+
+    @Value("${oms.query.max-page-size:5000}")
+    private int maxPageSize;
+
+    @Value("${oms.order.conflict.max-attempts:5}")
+    private int maxConflictAttempts;
+
+    @Value("${oms.order.conflict.backoff-micros:200}")
+    private long conflictBackoffMicros;
+
+    @Value("${oms.journal.ack-mode:commit}")
+    private JournalAckMode journalAckMode;
+
+    @PostConstruct
+    public void checkJournalSettings() {
+        if (journalAckMode == JournalAckMode.JOURNAL && journalRecorder.getIfAvailable() == null) {
+            throw new IllegalStateException("oms.journal.ack-mode=journal requires oms.journal.enabled=true");
+        }
+    }
 
     /**
      * 発注作成
+     *
+     * ack-mode=journal の場合はジャーナルの fsync 後に応答し、DB への登録は非同期に行う。
      */
-    @Transactional
     public OrderDto createOrder(Long userId, CreateOrderDto dto) {
         log.info("Creating order for user: {}, security: {}", userId, dto.getSecurityId());
 
         // バリデーション
-        validateOrder(dto);
-
-        // エンティティ作成
-        Order order = new Order();
-        order.setUserId(userId);
-        order.setSecurityId(dto.getSecurityId());
-        order.setOrderNo(generateOrderNo());
-        order.setSide(dto.getSide());
-        order.setOrderType(dto.getOrderType());
-        order.setQuantity(dto.getQuantity());
-        order.setPrice(dto.getPrice());
-        order.setStopPrice(dto.getStopPrice());
-        order.setTimeInForce(dto.getTimeInForce());
-        order.setValidUntil(dto.getValidUntil());
-        order.setNotes(dto.getNotes());
-        order.setStatus(OrderStatus.NEW);
-        order.setFilledQuantity(BigDecimal.ZERO);
+        orderMetrics.record(Stage.VALIDATION, () -> orderValidator.validate(dto));
 
-        // 保存
-        Order savedOrder = orderRepository.save(order);
-        log.info("Order created successfully: {}", savedOrder.getOrderNo());
+        if (journalAckMode == JournalAckMode.JOURNAL) {
+            return createJournaledOrder(userId, dto);
+        }
+        return transactionTemplate.execute(tx -> {
+            // 発注前リスクチェック（ロールバック時は拘束を戻す）
+            RiskTicket ticket = reserveRisk(userId, dto);
+
+            // エンティティ作成
+            Order order = buildOrder(userId, dto);
+
+            // 保存（INSERT の時間を計測するため flush まで行う）
+            Order savedOrder = orderMetrics.record(Stage.PERSIST, () -> orderRepository.saveAndFlush(order));
+            bindRisk(ticket, savedOrder.getOrderId());
+            log.info("Order created successfully: {}", savedOrder.getOrderNo());
+
+            OrderDto result = orderMetrics.record(Stage.CONVERT, () -> convertToDto(savedOrder));
+            eventPublisher.publishEvent(OrderEvent.created(result));
+            return result;
+        });
+    }
 
-        return convertToDto(savedOrder);
+    /**
+     * 一括発注作成
+     *
+     * 明細ごとにバリデーションし、合格した注文のみを1トランザクションで JDBC バッチ登録する。
+     * 不合格の明細はエラー内容とともに結果に含める。
+     */
+    @Transactional
+    public BatchOrderResultDto createOrders(Long userId, List<CreateOrderDto> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new IllegalArgumentException("Order list is empty");
+        }
+        if (dtos.size() > maxBatchOrders) {
+            throw new IllegalArgumentException("Too many orders in batch: " + dtos.size() + " (max " + maxBatchOrders + ")");
+        }
+        log.info("Creating {} orders for user: {}", dtos.size(), userId);
+
+        List<BatchOrderItemResultDto> results = new ArrayList<>(dtos.size());
+        int pending = 0;
+        int successCount = 0;
+        for (int i = 0; i < dtos.size(); i++) {
+            CreateOrderDto dto = dtos.get(i);
+            List<String> errors = orderValidator.errors(dto);
+            if (!errors.isEmpty()) {
+                results.add(BatchOrderItemResultDto.failure(i, errors));
+                continue;
+            }
+            RiskTicket ticket;
+            try {
+                ticket = reserveRisk(userId, dto);
+            } catch (RiskRejectedException e) {
+                results.add(BatchOrderItemResultDto.failure(i, List.of(e.getMessage())));
+                continue;
+            }
+
+            Order order = buildOrder(userId, dto);
+            entityManager.persist(order);
+            bindRisk(ticket, order.getOrderId());
+            OrderDto created = convertToDto(order);
+            eventPublisher.publishEvent(OrderEvent.created(created));
+            results.add(BatchOrderItemResultDto.success(i, created));
+            successCount++;
+
+            // バッチサイズごとに flush して永続化コンテキストを空にする
+            if (++pending >= jdbcBatchSize) {
+                entityManager.flush();
+                entityManager.clear();
+                pending = 0;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        BatchOrderResultDto result = new BatchOrderResultDto();
+        result.setTotalCount(dtos.size());
+        result.setSuccessCount(successCount);
+        result.setFailureCount(dtos.size() - successCount);
+        result.setResults(results);
+        log.info("Batch orders created: {}/{} succeeded", successCount, dtos.size());
+        return result;
     }
 
     /**
      * 注文取得（ID指定）
      */
     public OrderDto getOrderById(Long orderId) {
-        Order order = orderRepository.findById(orderId)
+        awaitJournaled(orderId);
+        Order order = orderReadRepository.findById(orderId)
                 .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
         return convertToDto(order);
     }
 
     /**
-     * ユーザーの注文一覧取得
+     * ユーザーの注文一覧取得（キーセットページング）
      */
-    public List<OrderDto> getOrdersByUserId(Long userId) {
-        List<Order> orders = orderRepository.findByUserIdOrderByOrderDateDesc(userId);
-        return orders.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public OrderPageDto getOrdersByUserId(Long userId, String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = normalizeLimit(limit);
+        OrderSearchCriteria criteria = new OrderSearchCriteria();
+        criteria.setUserId(userId);
+        List<OrderDto> orders = orderReadRepository.findPage(criteria, cursorDate(after), cursorId(after), size + 1);
+        return toPage(orders, size);
     }
 
     /**
-     * 全注文一覧取得
+     * 全注文一覧取得（キーセットページング）
      */
-    public List<OrderDto> getAllOrders() {
-        List<Order> orders = orderRepository.findAll();
-        return orders.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public OrderPageDto getAllOrders(String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = normalizeLimit(limit);
+        List<OrderDto> orders = orderReadRepository.findPage(
+                new OrderSearchCriteria(), cursorDate(after), cursorId(after), size + 1);
+        return toPage(orders, size);
     }
 
     /**
-     * フィルター条件で注文検索
+     * フィルター条件で注文検索（キーセットページング）
      */
-    public List<OrderDto> findOrdersByFilters(
-            Long userId,
-            Long securityId,
-            List<OrderStatus> statuses,
-            LocalDateTime startDate,
-            LocalDateTime endDate) {
-
-        List<Order> orders = orderRepository.findByFilters(
-                userId, securityId, statuses, startDate, endDate);
+    public OrderPageDto findOrdersByFilters(OrderSearchCriteria criteria, String cursor, Integer limit) {
+        OrderCursor after = OrderCursor.decode(cursor);
+        int size = normalizeLimit(limit);
+        List<OrderDto> orders = orderReadRepository.findPage(criteria, cursorDate(after), cursorId(after), size + 1);
+        return toPage(orders, size);
+    }
 
-        return orders.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    /**
+     * フィルター条件に合致する注文を1件ずつ出力（エクスポート用）
+     *
+     * JPA の Stream で読み進め、変換済みのエンティティは都度 detach するため
+     * 件数に関わらずメモリ使用量は一定。アーカイブ済みの注文も並び順のまま併合して出力する。
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OrderSearchCriteria criteria, Consumer<OrderDto> sink) {
+        try (Stream<Order> orders = orderReadRepository.streamByCriteria(criteria)) {
+            orders.forEach(order -> {
+                sink.accept(convertToDto(order));
+                entityManager.detach(order);
+            });
+        }
     }
 
     /**
      * 注文更新
+     *
+     * 読み込み時の version を条件に更新し、競合した場合は最新状態を読み直して再適用する。
      */
-    @Transactional
     public OrderDto updateOrder(Long orderId, UpdateOrderDto dto) {
         log.info("Updating order: {}", orderId);
+        awaitJournaled(orderId);
+        return retryOnConflict(orderId, () -> transactionTemplate.execute(tx -> doUpdateOrder(orderId, dto)));
+    }
+
+    /**
+     * 注文取消（競合時の扱いは updateOrder と同じ）
+     */
+    public OrderDto cancelOrder(Long orderId) {
+        log.info("Canceling order: {}", orderId);
+        awaitJournaled(orderId);
+        return retryOnConflict(orderId, () -> transactionTemplate.execute(tx -> doCancelOrder(orderId)));
+    }
+
+    /**
+     * アクティブな注文取得
+     */
+    public List<OrderDto> getActiveOrders(Long userId) {
+        return orderReadRepository.findActiveByUserId(userId);
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * ジャーナルのみで確定させる新規発注（ID を先に払い出し、DB 登録後の通知は JournalApplier が行う）
+     */
+    private OrderDto createJournaledOrder(Long userId, CreateOrderDto dto) {
+        RiskTicket ticket = reserveRisk(userId, dto);
+        try {
+            Order order = buildOrder(userId, dto);
+            LocalDateTime now = LocalDateTime.now();
+            order.setOrderId(orderIdGenerator.nextId());
+            order.setOrderDate(now);
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            order.setVersion(0L);
+            bindRisk(ticket, order.getOrderId());
+
+            OrderDto result = orderMetrics.record(Stage.CONVERT, () -> convertToDto(order));
+            journalRecorder.getObject().recordCreated(result);
+            log.info("Order journaled successfully: {}", result.getOrderNo());
+            return result;
+        } catch (RuntimeException e) {
+            // トランザクション外のため拘束は自分で戻す
+            if (ticket != null) {
+                riskEngine.getObject().undo(ticket);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 発注前リスクチェックと拘束（リスクエンジン無効時は null）
+     */
+    private RiskTicket reserveRisk(Long userId, CreateOrderDto dto) {
+        RiskEngine risk = riskEngine.getIfAvailable();
+        return risk != null ? orderMetrics.record(Stage.RISK, () -> risk.reserve(userId, dto)) : null;
+    }
+
+    private void bindRisk(RiskTicket ticket, Long orderId) {
+        if (ticket != null) {
+            riskEngine.getObject().bind(ticket, orderId);
+        }
+    }
+
+    /**
+     * ジャーナルのみで確定した注文が DB に登録されるまで待つ
+     */
+    private void awaitJournaled(Long orderId) {
+        if (journalAckMode == JournalAckMode.JOURNAL) {
+            journalRecorder.getObject().awaitApplied(orderId);
+        }
+    }
 
+    private OrderDto doUpdateOrder(Long orderId, UpdateOrderDto dto) {
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+                .orElseThrow(() -> orderNotFound(orderId));
+
+        // ステータスチェック（NEW/PARTIAL 以外は更新不可）
+        if (!order.getStatus().isActive()) {
+            throw new IllegalStateException("Cannot update order in status: " + order.getStatus());
+        }
+        // 約定済み数量以下への修正は残数量が 0 になり、板から外れたまま NEW / PARTIAL で残るため受け付けない
+        if (dto.getQuantity() != null && dto.getQuantity().compareTo(order.getFilledQuantity()) <= 0) {
+            throw new IllegalArgumentException("Quantity must be greater than filled quantity: " + order.getFilledQuantity());
+        }
 
-        // ステータスチェック（約定済み・キャンセル済みは更新不可）
-        if (order.getStatus() == OrderStatus.FILLED ||
-            order.getStatus() == OrderStatus.CANCELED) {
-            throw new RuntimeException("Cannot update order in status: " + order.getStatus());
+        // 修正後の数量・価格でのリスクチェック（ロールバック時は拘束を戻す）
+        RiskEngine risk = riskEngine.getIfAvailable();
+        if (risk != null) {
+            orderMetrics.record(Stage.RISK, () -> risk.amend(order, dto));
         }
 
         // 更新
@@ -130,87 +347,124 @@ public class OrderService {
         if (dto.getValidUntil() != null) order.setValidUntil(dto.getValidUntil());
         if (dto.getNotes() != null) order.setNotes(dto.getNotes());
 
-        Order updatedOrder = orderRepository.save(order);
+        Order updatedOrder = orderMetrics.record(Stage.PERSIST, () -> orderRepository.saveAndFlush(order));
         log.info("Order updated successfully: {}", updatedOrder.getOrderNo());
 
-        return convertToDto(updatedOrder);
+        OrderDto result = orderMetrics.record(Stage.CONVERT, () -> convertToDto(updatedOrder));
+        eventPublisher.publishEvent(OrderEvent.of(OrderEventType.AMENDED, updatedOrder.getStatus(), result));
+        return result;
     }
 
     /**
-     * 注文取消
+     * orders にない注文の例外（アーカイブ済みの注文は終了済みのため状態エラーにする）
      */
-    @Transactional
-    public OrderDto cancelOrder(Long orderId) {
-        log.info("Canceling order: {}", orderId);
+    private RuntimeException orderNotFound(Long orderId) {
+        if (orderReadRepository.isArchived(orderId)) {
+            return new IllegalStateException("Cannot modify archived order: " + orderId);
+        }
+        return new RuntimeException("Order not found: " + orderId);
+    }
 
+    private OrderDto doCancelOrder(Long orderId) {
         Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+                .orElseThrow(() -> orderNotFound(orderId));
 
         // ステータスチェック
-        if (order.getStatus() == OrderStatus.FILLED) {
-            throw new RuntimeException("Cannot cancel filled order");
-        }
         if (order.getStatus() == OrderStatus.CANCELED) {
-            throw new RuntimeException("Order is already canceled");
+            throw new IllegalStateException("Order is already canceled");
         }
 
-        order.setStatus(OrderStatus.CANCELED);
-        Order canceledOrder = orderRepository.save(order);
+        OrderStatus previousStatus = order.getStatus();
+        order.transitionTo(OrderStatus.CANCELED);
+        Order canceledOrder = orderMetrics.record(Stage.PERSIST, () -> orderRepository.saveAndFlush(order));
         log.info("Order canceled successfully: {}", canceledOrder.getOrderNo());
 
-        return convertToDto(canceledOrder);
+        OrderDto result = orderMetrics.record(Stage.CONVERT, () -> convertToDto(canceledOrder));
+        eventPublisher.publishEvent(OrderEvent.of(OrderEventType.CANCELED, previousStatus, result));
+        return result;
     }
 
     /**
-     * アクティブな注文取得
+     * 楽観ロック競合時の再試行（上限 maxConflictAttempts 回、試行ごとに短いランダム待機）
+     *
+     * 失敗したトランザクションはロールバック済みのため、イベントは発行されていない。
      */
-    public List<OrderDto> getActiveOrders(Long userId) {
-        List<Order> orders = orderRepository.findActiveOrdersByUserId(userId);
-        return orders.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    private OrderDto retryOnConflict(Long orderId, Supplier<OrderDto> attempt) {
+        for (int i = 1; ; i++) {
+            try {
+                return attempt.get();
+            } catch (OptimisticLockingFailureException e) {
+                orderMetrics.conflict();
+                if (i >= maxConflictAttempts) {
+                    log.warn("Order {} still conflicting after {} attempts", orderId, i);
+                    throw new OrderConflictException(orderId, i);
+                }
+                log.debug("Order {} modified concurrently, retrying ({}/{})", orderId, i, maxConflictAttempts);
+                LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(TimeUnit.MICROSECONDS.toNanos(conflictBackoffMicros) * i + 1));
+            }
+        }
     }
 
-    // ===== Private Methods =====
-
     /**
-     * 注文番号生成（ORD + YYYYMMDD + 連番）
+     * ページサイズの正規化（未指定はデフォルト、上限を超える値は上限に丸める）
      */
-    private String generateOrderNo() {
-        LocalDateTime now = LocalDateTime.now();
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
+    private int normalizeLimit(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(limit, maxPageSize);
+    }
 
-        LocalDateTime startOfDay = now.toLocalDate().atStartOfDay();
-        LocalDateTime endOfDay = now.toLocalDate().atTime(23, 59, 59);
-        long todayCount = orderRepository.countByOrderDateBetween(startOfDay, endOfDay);
+    private static LocalDateTime cursorDate(OrderCursor cursor) {
+        return cursor != null ? cursor.orderDate() : null;
+    }
 
-        return String.format("ORD%s-%04d", dateStr, todayCount + 1);
+    private static Long cursorId(OrderCursor cursor) {
+        return cursor != null ? cursor.orderId() : null;
     }
 
     /**
-     * バリデーション
+     * size + 1 件取得した結果からページを組み立てる
      */
-    private void validateOrder(CreateOrderDto dto) {
-        // 指値・逆指値の場合は価格必須
-        if (dto.getOrderType() == OrderType.LIMIT && dto.getPrice() == null) {
-            throw new IllegalArgumentException("Price is required for LIMIT orders");
-        }
-        if (dto.getOrderType() == OrderType.STOP && dto.getStopPrice() == null) {
-            throw new IllegalArgumentException("Stop price is required for STOP orders");
-        }
-        if (dto.getOrderType() == OrderType.STOP_LIMIT &&
-            (dto.getPrice() == null || dto.getStopPrice() == null)) {
-            throw new IllegalArgumentException("Both price and stop price are required for STOP_LIMIT orders");
+    private OrderPageDto toPage(List<OrderDto> orders, int size) {
+        boolean hasMore = orders.size() > size;
+        List<OrderDto> pageOrders = hasMore ? orders.subList(0, size) : orders;
+
+        OrderPageDto page = new OrderPageDto();
+        page.setItems(new ArrayList<>(pageOrders));
+        page.setHasMore(hasMore);
+        if (hasMore) {
+            OrderDto last = pageOrders.get(pageOrders.size() - 1);
+            page.setNextCursor(new OrderCursor(last.getOrderDate(), last.getOrderId()).encode());
         }
+        return page;
+    }
+
+    /**
+     * CreateOrderDto -> 新規注文エンティティ
+     */
+    private Order buildOrder(Long userId, CreateOrderDto dto) {
+        Order order = new Order();
+        order.setUserId(userId);
+        order.setSecurityId(dto.getSecurityId());
+        order.setOrderNo(orderMetrics.record(Stage.ORDER_NO, orderNoAllocator::nextOrderNo));
+        order.setSide(dto.getSide());
+        order.setOrderType(dto.getOrderType());
+        order.setQuantity(dto.getQuantity());
+        order.setPrice(dto.getPrice());
+        order.setStopPrice(dto.getStopPrice());
+        order.setTimeInForce(dto.getTimeInForce());
+        order.setValidUntil(dto.getValidUntil());
+        order.setNotes(dto.getNotes());
+        order.setStatus(OrderStatus.NEW);
+        order.setFilledQuantity(BigDecimal.ZERO);
+        return order;
     }
 
     /**
-     * Entity -> DTO変換
+     * Entity -> DTO変換（銘柄・ユーザーの関連項目は参照データキャッシュから設定）
      */
     private OrderDto convertToDto(Order order) {
-        OrderDto dto = modelMapper.map(order, OrderDto.class);
-        dto.setRemainingQuantity(order.getRemainingQuantity());
-        dto.setFillRate(order.getFillRate());
-        return dto;
+        return referenceDataCache.enrich(orderMapper.toDto(order));
     }
 }
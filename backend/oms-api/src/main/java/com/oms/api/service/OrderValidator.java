@@ -0,0 +1,60 @@
+package com.oms.api.service;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.model.OrderType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 新規注文のバリデーション（REST・一括発注・バイナリゲートウェイで共通）
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderValidator {
+
+    private final Validator validator;
+
+    /**
+     * 業務チェック（不正な場合は IllegalArgumentException）
+     */
+    public void validate(CreateOrderDto dto) {
+        // 指値・逆指値の場合は価格必須
+        if (dto.getOrderType() == OrderType.LIMIT && dto.getPrice() == null) {
+            throw new IllegalArgumentException("Price is required for LIMIT orders");
+        }
+        if (dto.getOrderType() == OrderType.STOP && dto.getStopPrice() == null) {
+            throw new IllegalArgumentException("Stop price is required for STOP orders");
+        }
+        if (dto.getOrderType() == OrderType.STOP_LIMIT &&
+            (dto.getPrice() == null || dto.getStopPrice() == null)) {
+            throw new IllegalArgumentException("Both price and stop price are required for STOP_LIMIT orders");
+        }
+    }
+
+    /**
+     * Bean Validation + 業務チェックのエラー一覧（@Valid を経由しない入力用）
+     */
+    public List<String> errors(CreateOrderDto dto) {
+        List<String> errors = new ArrayList<>();
+        if (dto == null) {
+            errors.add("Order is null");
+            return errors;
+        }
+        for (ConstraintViolation<CreateOrderDto> violation : validator.validate(dto)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (errors.isEmpty()) {
+            try {
+                validate(dto);
+            } catch (IllegalArgumentException e) {
+                errors.add(e.getMessage());
+            }
+        }
+        return errors;
+    }
+}
@@ -0,0 +1,42 @@
+package com.oms.api.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 固定小数点（小数4桁）の long 表現
+ *
+ * DB の DECIMAL(18,4) と同じ精度で価格・数量を long に保持し、
+ * インメモリ処理での BigDecimal の生成を避ける。
+ */
+public final class FixedPoint {
+
+    /** 小数桁数 */
+    public static final int SCALE = 4;
+
+    /** 1.0 の表現 */
+    public static final long ONE = 10_000L;
+
+    /** 値なし（null）の表現 */
+    public static final long NULL = Long.MIN_VALUE;
+
+    private FixedPoint() {
+    }
+
+    /**
+     * BigDecimal -> long（null は NULL）
+     */
+    public static long toScaled(BigDecimal value) {
+        if (value == null) {
+            return NULL;
+        }
+        return value.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * long -> BigDecimal（NULL は null）
+     */
+    public static BigDecimal toDecimal(long value) {
+        return value == NULL ? null : BigDecimal.valueOf(value, SCALE);
+    }
+}
@@ -0,0 +1,65 @@
+package com.oms.api.expiry;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.service.OrderService;
+import com.oms.api.support.H2ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * validUntil の期限切れ（tick の途中の期限を期限より前に処理して取りこぼさない）
+ *
+ * ホイールには tick の途中の期限で登録し、DB の valid_until はそれより後ろにずらす（DATETIME の丸めで
+ * 登録時より遅くなった場合と同じ）。ホイールから取り出した時点で valid_until が来ていない注文は
+ * 登録し直され、valid_until を過ぎてから EXPIRED になることを検査する。
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:expiry;DB_CLOSE_DELAY=-1",
+        "oms.expiry.enabled=true",
+        "oms.expiry.tick-ms=" + OrderExpiryServiceTest.TICK_MS
+})
+class OrderExpiryServiceTest extends H2ServiceTest {
+
+    static final long TICK_MS = 1_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void validUntilInsideTickExpiresOnceDue() throws Exception {
+        // 2 tick 以上先の tick 境界の 700ms 手前を期限にする
+        LocalDateTime boundary = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusSeconds(3);
+        CreateOrderDto dto = limitBuy(100, 2500);
+        dto.setTimeInForce(TimeInForce.GTC);
+        dto.setValidUntil(boundary.minusNanos(700_000_000));
+        long orderId = orderService.createOrder(USER_ID, dto).getOrderId();
+
+        // ホイールは boundary で取り出すが、その時点で DB の valid_until はまだ来ていない
+        LocalDateTime stored = boundary.plusNanos(900_000_000);
+        jdbc.update("UPDATE orders SET valid_until = ? WHERE order_id = ?", Timestamp.valueOf(stored), orderId);
+
+        long deadline = System.nanoTime() + 10 * TICK_MS * 1_000_000;
+        String status = "NEW";
+        while (System.nanoTime() < deadline) {
+            status = jdbc.queryForObject("SELECT status FROM orders WHERE order_id = ?", String.class, orderId);
+            if (!"NEW".equals(status)) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+
+        Map<String, Object> row = jdbc.queryForMap("SELECT status, updated_at FROM orders WHERE order_id = ?",
+                orderId);
+        assertThat(row.get("STATUS")).isEqualTo("EXPIRED");
+        assertThat(((Timestamp) row.get("UPDATED_AT")).toLocalDateTime()).isAfterOrEqualTo(stored);
+    }
+}
@@ -0,0 +1,68 @@
+package com.oms.api.expiry;
+
+import org.agrona.collections.LongArrayList;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * タイミングホイールの期限の判定（期限より前に取り出さない）
+ */
+class TimingWheelTest {
+
+    private static final long TICK = 1_000;
+
+    @Test
+    void deadlineInsideTickFiresAtNextBoundary() {
+        TimingWheel wheel = new TimingWheel(TICK, 5, 10_000);
+        LongArrayList due = new LongArrayList();
+
+        // tick の途中（10.7 秒後）の期限
+        assertThat(wheel.add(1L, 20_700, due)).isFalse();
+
+        assertThat(wheel.advance(20_000, due)).isZero();
+        assertThat(wheel.advance(20_699, due)).isZero();
+        assertThat(wheel.advance(21_000, due)).isEqualTo(1);
+        assertThat(due).containsExactly(1L);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void deadlineOnBoundaryFiresAtThatTick() {
+        TimingWheel wheel = new TimingWheel(TICK, 5, 10_000);
+        LongArrayList due = new LongArrayList();
+
+        wheel.add(1L, 12_000, due);
+
+        assertThat(wheel.advance(11_999, due)).isZero();
+        assertThat(wheel.advance(12_000, due)).isEqualTo(1);
+    }
+
+    @Test
+    void deadlineInsideCurrentTickIsNotDueYet() {
+        TimingWheel wheel = new TimingWheel(TICK, 5, 10_000);
+        LongArrayList due = new LongArrayList();
+
+        // 現在 tick（10.0〜11.0 秒）の途中の期限は次の tick まで待つ
+        assertThat(wheel.add(1L, 10_500, due)).isFalse();
+        assertThat(due).isEmpty();
+        assertThat(wheel.advance(11_000, due)).isEqualTo(1);
+
+        // 過ぎた期限はすぐに取り出す
+        assertThat(wheel.add(2L, 10_999, due)).isTrue();
+        assertThat(due).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void farDeadlineInsideTickCascadesWithoutFiringEarly() {
+        TimingWheel wheel = new TimingWheel(TICK, 2, 0);
+        LongArrayList due = new LongArrayList();
+
+        // 2 階層（64 * 64 tick）を超える期限は overflow から振り直される
+        long deadline = 5_000L * TICK + 300;
+        wheel.add(1L, deadline, due);
+
+        assertThat(wheel.advance(deadline - 1, due)).isZero();
+        assertThat(wheel.advance(5_001L * TICK, due)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,53 @@
+package com.oms.api.model;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 注文ステータスの遷移表と Order#transitionTo
+ */
+class OrderStatusTest {
+
+    @Test
+    void activeStatusesAllowTheDocumentedTransitions() {
+        for (OrderStatus next : OrderStatus.values()) {
+            assertThat(OrderStatus.NEW.canTransitionTo(next)).as("NEW -> %s", next).isEqualTo(next != OrderStatus.NEW);
+        }
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.PARTIAL)).isTrue();
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.FILLED)).isTrue();
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.CANCELED)).isTrue();
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.EXPIRED)).isTrue();
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.NEW)).isFalse();
+        assertThat(OrderStatus.PARTIAL.canTransitionTo(OrderStatus.REJECTED)).isFalse();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = OrderStatus.class, names = {"FILLED", "CANCELED", "REJECTED", "EXPIRED"})
+    void terminalStatusesRejectEveryTransition(OrderStatus terminal) {
+        assertThat(terminal.isTerminal()).isTrue();
+        for (OrderStatus next : OrderStatus.values()) {
+            assertThat(terminal.canTransitionTo(next)).as("%s -> %s", terminal, next).isFalse();
+
+            Order order = new Order();
+            order.setStatus(terminal);
+            assertThatThrownBy(() -> order.transitionTo(next))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessageContaining(terminal + " -> " + next);
+            assertThat(order.getStatus()).isEqualTo(terminal);
+        }
+    }
+
+    @Test
+    void partialCannotGoBackToNew() {
+        Order order = new Order();
+        order.setStatus(OrderStatus.PARTIAL);
+        assertThatThrownBy(() -> order.transitionTo(OrderStatus.NEW)).isInstanceOf(IllegalStateException.class);
+
+        order.transitionTo(OrderStatus.CANCELED);
+        assertThat(order.getStatus()).isEqualTo(OrderStatus.CANCELED);
+    }
+}
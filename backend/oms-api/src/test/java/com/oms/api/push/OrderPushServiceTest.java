@@ -0,0 +1,145 @@
+package com.oms.api.push;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.PushMessageDto;
+import com.oms.api.event.OrderEvent;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * ユーザーごとのチャネルの破棄（最後の購読の解除・切断と放置で破棄し、その後の購読は RESYNC から始まる）
+ */
+class OrderPushServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final String ORDERS = "/topic/users/" + USER_ID + "/orders";
+    private static final String EXECUTIONS = "/topic/users/" + USER_ID + "/executions";
+
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private OrderPushService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new OrderPushService(messagingTemplate);
+        ReflectionTestUtils.setField(service, "maxPendingPerUser", 1000);
+        ReflectionTestUtils.setField(service, "idleEvictMs", 60_000L);
+    }
+
+    @Test
+    void lastUnsubscribeEvictsChannel() {
+        service.onSubscribe(subscribe("s1", "sub-orders", ORDERS));
+        service.onSubscribe(subscribe("s1", "sub-executions", EXECUTIONS));
+        service.flush();
+
+        service.onUnsubscribe(unsubscribe("s1", "sub-orders"));
+        assertThat(channels()).containsKey(USER_ID);
+
+        service.onUnsubscribe(unsubscribe("s1", "sub-executions"));
+        assertThat(channels()).isEmpty();
+
+        // 購読のないユーザーのイベントはチャネルを作らない
+        service.onOrderEvent(orderEvent());
+        assertThat(channels()).isEmpty();
+    }
+
+    @Test
+    void disconnectReleasesRemainingSubscriptions() {
+        service.onSubscribe(subscribe("s1", "sub-orders", ORDERS));
+        service.onSubscribe(subscribe("s2", "sub-orders", ORDERS));
+
+        service.onDisconnect(disconnect("s1"));
+        assertThat(channels()).containsKey(USER_ID);
+
+        service.onDisconnect(disconnect("s2"));
+        assertThat(channels()).isEmpty();
+    }
+
+    @Test
+    void subscribeAfterEvictionStartsWithResync() {
+        // スナップショットを取得してから購読したチャネルは RESYNC を送らない
+        service.currentSequence(USER_ID);
+        service.onSubscribe(subscribe("s1", "sub-orders", ORDERS));
+        service.flush();
+        service.onDisconnect(disconnect("s1"));
+
+        service.onSubscribe(subscribe("s2", "sub-orders", ORDERS));
+        service.flush();
+
+        ArgumentCaptor<Object> sent = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate).convertAndSend(eq(ORDERS), sent.capture());
+        assertThat(((PushMessageDto<?>) sent.getValue()).getType()).isEqualTo(UserChannel.RESYNC);
+    }
+
+    @Test
+    void unsubscribedSnapshotChannelIsEvictedWhenIdle() {
+        ReflectionTestUtils.setField(service, "idleEvictMs", 0L);
+        service.currentSequence(USER_ID);
+
+        service.flush();
+
+        assertThat(channels()).isEmpty();
+        verify(messagingTemplate, never()).convertAndSend(any(String.class), any(Object.class));
+    }
+
+    // ===== Private Methods =====
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserChannel> channels() {
+        return (Map<Long, UserChannel>) ReflectionTestUtils.getField(service, "channels");
+    }
+
+    private static OrderEvent orderEvent() {
+        OrderDto order = new OrderDto();
+        order.setOrderId(1L);
+        order.setUserId(USER_ID);
+        order.setStatus(OrderStatus.NEW);
+        return OrderEvent.of(OrderEventType.CREATED, null, order);
+    }
+
+    private SessionSubscribeEvent subscribe(String sessionId, String subscriptionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.SUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        return new SessionSubscribeEvent(this, message(accessor));
+    }
+
+    private SessionUnsubscribeEvent unsubscribe(String sessionId, String subscriptionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.UNSUBSCRIBE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        return new SessionUnsubscribeEvent(this, message(accessor));
+    }
+
+    private SessionDisconnectEvent disconnect(String sessionId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.DISCONNECT);
+        accessor.setSessionId(sessionId);
+        return new SessionDisconnectEvent(this, message(accessor), sessionId, CloseStatus.NORMAL);
+    }
+
+    private static Message<byte[]> message(StompHeaderAccessor accessor) {
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,98 @@
+package com.oms.api.refdata;
+
+import com.oms.api.model.Security;
+import com.oms.api.model.User;
+import com.oms.api.repository.SecurityRepository;
+import com.oms.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 差分リフレッシュ（透かしと同じ updated_at の行だけが返るときは常駐マップを差し替えない）
+ */
+class ReferenceDataCacheTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 1, 5, 9, 0);
+
+    private final SecurityRepository securityRepository = mock(SecurityRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(securityRepository.findByIsActiveTrue()).thenReturn(List.of(security("Toyota", true)));
+        when(userRepository.findAll()).thenReturn(List.of(user("trader1")));
+        cache = new ReferenceDataCache(securityRepository, userRepository, new SimpleMeterRegistry(), 10);
+        cache.load();
+    }
+
+    @Test
+    void unchangedBoundaryRowsKeepResidentMaps() {
+        Object securities = ReflectionTestUtils.getField(cache, "securities");
+        Object users = ReflectionTestUtils.getField(cache, "users");
+        when(securityRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(security("Toyota", true)));
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(user("trader1")));
+
+        cache.refresh();
+
+        assertThat(ReflectionTestUtils.getField(cache, "securities")).isSameAs(securities);
+        assertThat(ReflectionTestUtils.getField(cache, "users")).isSameAs(users);
+    }
+
+    @Test
+    void changedRowsReplaceResidentMaps() {
+        when(securityRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(security("Toyota Motor", true)));
+        when(userRepository.findByUpdatedAtGreaterThanEqual(any())).thenReturn(List.of(user("trader-one")));
+
+        cache.refresh();
+
+        assertThat(cache.getSecurity(1L).securityName()).isEqualTo("Toyota Motor");
+        assertThat(cache.getUser(1L).username()).isEqualTo("trader-one");
+
+        // 取引停止になった銘柄は常駐マップから外れる
+        when(securityRepository.findByUpdatedAtGreaterThanEqual(any()))
+                .thenReturn(List.of(security("Toyota Motor", false)));
+        when(securityRepository.findById(1L)).thenReturn(Optional.of(security("Toyota Motor", false)));
+
+        cache.refresh();
+
+        assertThat(cache.getSecurity(1L).active()).isFalse();
+    }
+
+    // ===== Private Methods =====
+
+    private static Security security(String name, boolean active) {
+        Security security = new Security();
+        security.setSecurityId(1L);
+        security.setSecurityCode("7203");
+        security.setSecurityName(name);
+        security.setLotSize(100);
+        security.setTickSize(BigDecimal.ONE);
+        security.setIsActive(active);
+        security.setUpdatedAt(UPDATED_AT);
+        return security;
+    }
+
+    private static User user(String username) {
+        User user = new User();
+        user.setUserId(1L);
+        user.setUsername(username);
+        user.setFullName("Trader 1");
+        user.setIsActive(true);
+        user.setUpdatedAt(UPDATED_AT);
+        return user;
+    }
+}
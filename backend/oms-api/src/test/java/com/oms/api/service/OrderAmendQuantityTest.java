@@ -0,0 +1,70 @@
+package com.oms.api.service;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.support.H2ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 数量の修正の下限（約定済み数量以下への修正で、板から外れたアクティブな注文が残らない）
+ */
+@TestPropertySource(properties = "spring.datasource.url=jdbc:h2:mem:amend-quantity;DB_CLOSE_DELAY=-1")
+class OrderAmendQuantityTest extends H2ServiceTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void amendNewOrderToZeroIsRejected() {
+        OrderDto created = orderService.createOrder(USER_ID, limitBuy(100, 2500));
+
+        assertThatThrownBy(() -> orderService.updateOrder(created.getOrderId(), quantity(0)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("greater than filled quantity");
+
+        assertUnchanged(created.getOrderId(), "NEW", 100, created.getVersion());
+    }
+
+    @Test
+    void amendPartialOrderToFilledQuantityIsRejected() {
+        OrderDto created = orderService.createOrder(USER_ID, limitBuy(300, 2500));
+        // 100 株約定済みの状態にする
+        jdbc.update("UPDATE orders SET status = 'PARTIAL', filled_quantity = 100 WHERE order_id = ?",
+                created.getOrderId());
+
+        assertThatThrownBy(() -> orderService.updateOrder(created.getOrderId(), quantity(100)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("greater than filled quantity");
+
+        assertUnchanged(created.getOrderId(), "PARTIAL", 300, created.getVersion());
+
+        // 約定済み数量を上回る修正は受け付ける
+        OrderDto amended = orderService.updateOrder(created.getOrderId(), quantity(200));
+        assertThat(amended.getQuantity()).isEqualByComparingTo("200");
+        assertThat(amended.getStatus().name()).isEqualTo("PARTIAL");
+    }
+
+    // ===== Private Methods =====
+
+    private void assertUnchanged(long orderId, String status, long quantity, long version) {
+        Map<String, Object> row = jdbc.queryForMap(
+                "SELECT status, quantity, version FROM orders WHERE order_id = ?", orderId);
+        assertThat(row.get("STATUS")).isEqualTo(status);
+        assertThat((BigDecimal) row.get("QUANTITY")).isEqualByComparingTo(BigDecimal.valueOf(quantity));
+        assertThat(((Number) row.get("VERSION")).longValue()).isEqualTo(version);
+    }
+
+    private static UpdateOrderDto quantity(long quantity) {
+        UpdateOrderDto dto = new UpdateOrderDto();
+        dto.setQuantity(BigDecimal.valueOf(quantity));
+        return dto;
+    }
+}
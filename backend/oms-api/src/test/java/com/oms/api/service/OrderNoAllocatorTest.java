@@ -0,0 +1,132 @@
+package com.oms.api.service;
+
+import com.oms.api.model.DailySequence;
+import com.oms.api.repository.DailySequenceRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 注文番号採番の並行性（日付の切り替わりをまたいでも番号が重複しない）
+ */
+class OrderNoAllocatorTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Tokyo");
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 20_000;
+    private static final int BLOCK_SIZE = 16;
+
+    @Test
+    void nextIsUniqueAcrossDayRollover() throws Exception {
+        MutableClock clock = new MutableClock(Instant.parse("2024-01-15T14:59:59Z"), ZONE);
+        OrderNoAllocator allocator = new OrderNoAllocator(new DailyNumberAllocator(
+                "ORD", BLOCK_SIZE, inMemorySequences(), mock(PlatformTransactionManager.class), date -> 1, clock));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger issued = new AtomicInteger();
+        List<Future<List<String>>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            results.add(executor.submit(() -> {
+                start.await();
+                List<String> numbers = new ArrayList<>(PER_THREAD);
+                for (int i = 0; i < PER_THREAD; i++) {
+                    numbers.add(allocator.nextOrderNo());
+                    issued.incrementAndGet();
+                }
+                return numbers;
+            }));
+        }
+        start.countDown();
+        // 払い出しの途中で日付を進める
+        while (issued.get() < THREADS * PER_THREAD / 2) {
+            Thread.onSpinWait();
+        }
+        clock.advance(Duration.ofSeconds(1));
+
+        Set<String> unique = ConcurrentHashMap.newKeySet();
+        int total = 0;
+        for (Future<List<String>> result : results) {
+            List<String> numbers = result.get(60, TimeUnit.SECONDS);
+            unique.addAll(numbers);
+            total += numbers.size();
+        }
+        executor.shutdown();
+
+        assertThat(total).isEqualTo(THREADS * PER_THREAD);
+        assertThat(unique).hasSize(total);
+        assertThat(unique).allMatch(no -> no.startsWith("ORD20240115-") || no.startsWith("ORD20240116-"));
+        assertThat(unique).anyMatch(no -> no.startsWith("ORD20240115-"));
+        assertThat(unique).anyMatch(no -> no.startsWith("ORD20240116-"));
+    }
+
+    /**
+     * daily_sequences の代わり（予約は DailyNumberAllocator 内で直列化されるため単純なマップでよい）
+     */
+    private static DailySequenceRepository inMemorySequences() {
+        Map<String, DailySequence> rows = new ConcurrentHashMap<>();
+        DailySequenceRepository repository = mock(DailySequenceRepository.class);
+        when(repository.findForUpdate(anyString())).thenAnswer(invocation -> {
+            DailySequence row = rows.get(invocation.<String>getArgument(0));
+            return Optional.ofNullable(row == null ? null : new DailySequence(row.getSequenceKey(), row.getNextValue()));
+        });
+        when(repository.saveAndFlush(any(DailySequence.class))).thenAnswer(invocation -> {
+            DailySequence row = invocation.getArgument(0);
+            rows.put(row.getSequenceKey(), new DailySequence(row.getSequenceKey(), row.getNextValue()));
+            return row;
+        });
+        return repository;
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+        private final ZoneId zone;
+
+        MutableClock(Instant now, ZoneId zone) {
+            this.now = now;
+            this.zone = zone;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MutableClock(now, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
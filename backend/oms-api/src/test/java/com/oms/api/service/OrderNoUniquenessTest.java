@@ -0,0 +1,118 @@
+package com.oms.api.service;
+
+import com.oms.api.repository.DailySequenceRepository;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.support.H2ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 注文番号採番の並行性（DB の daily_sequences を使った発注の同時実行で order_no が重複しない）
+ *
+ * 発注スレッドと、同じ DB を共有する別ノード相当の採番器のスレッドを同時に走らせる。
+ * ブロックを小さくしてブロックの予約（daily_sequences の行ロック）を頻繁に競合させ、
+ * 登録された order_no と別ノード相当の払い出しがすべて異なることを検査する。
+ * 採番器単体の大量の払い出し（日付の切り替わりを含む）は OrderNoAllocatorTest で検査する。
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-no;DB_CLOSE_DELAY=-1",
+        "oms.order-no.block-size=" + OrderNoUniquenessTest.BLOCK_SIZE
+})
+class OrderNoUniquenessTest extends H2ServiceTest {
+
+    static final int BLOCK_SIZE = 8;
+    /** 発注はブロック予約の別トランザクションを含めて接続を2本使うため、接続プールに収まるスレッド数にする */
+    private static final int THREADS = 8;
+    private static final int ORDERS_PER_THREAD = 500;
+    private static final int PEER_THREADS = 2;
+    private static final int PEER_PER_THREAD = 4_000;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private DailySequenceRepository sequenceRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void concurrentCreateOrderNeverReusesOrderNo() throws Exception {
+        // 同じ daily_sequences から予約する別ノードの採番器
+        OrderNoAllocator peer = new OrderNoAllocator(sequenceRepository, orderRepository, transactionManager,
+                BLOCK_SIZE);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + PEER_THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> created = new ArrayList<>();
+        List<Future<List<String>>> reserved = new ArrayList<>();
+        try {
+            for (int t = 0; t < THREADS; t++) {
+                created.add(executor.submit(() -> {
+                    start.await();
+                    List<String> numbers = new ArrayList<>(ORDERS_PER_THREAD);
+                    for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                        // 拘束代金が買付余力に収まる金額にする
+                        numbers.add(orderService.createOrder(USER_ID, limitBuy(100, 1000)).getOrderNo());
+                    }
+                    return numbers;
+                }));
+            }
+            for (int t = 0; t < PEER_THREADS; t++) {
+                reserved.add(executor.submit(() -> {
+                    start.await();
+                    List<String> numbers = new ArrayList<>(PEER_PER_THREAD);
+                    for (int i = 0; i < PEER_PER_THREAD; i++) {
+                        numbers.add(peer.nextOrderNo());
+                    }
+                    return numbers;
+                }));
+            }
+            start.countDown();
+
+            List<String> orderNos = collect(created);
+            List<String> peerNos = collect(reserved);
+
+            assertThat(orderNos).hasSize(THREADS * ORDERS_PER_THREAD).doesNotHaveDuplicates();
+            assertThat(peerNos).hasSize(PEER_THREADS * PEER_PER_THREAD).doesNotHaveDuplicates();
+            assertThat(orderNos).doesNotContainAnyElementsOf(new HashSet<>(peerNos));
+
+            // 登録された行も重複しない（unique 制約違反で失敗した発注がない）
+            Integer rows = jdbc.queryForObject("SELECT COUNT(*) FROM orders", Integer.class);
+            Integer distinct = jdbc.queryForObject("SELECT COUNT(DISTINCT order_no) FROM orders", Integer.class);
+            assertThat(rows).isEqualTo(THREADS * ORDERS_PER_THREAD);
+            assertThat(distinct).isEqualTo(rows);
+            Set<String> stored = new HashSet<>(jdbc.queryForList("SELECT order_no FROM orders", String.class));
+            assertThat(stored).containsExactlyInAnyOrderElementsOf(orderNos);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    private static List<String> collect(List<Future<List<String>>> futures) throws Exception {
+        List<String> numbers = new ArrayList<>();
+        for (Future<List<String>> future : futures) {
+            numbers.addAll(future.get(120, TimeUnit.SECONDS));
+        }
+        return numbers;
+    }
+}
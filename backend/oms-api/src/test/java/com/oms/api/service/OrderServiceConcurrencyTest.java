@@ -0,0 +1,125 @@
+package com.oms.api.service;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.support.H2ServiceTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 同一注文への修正・取消の同時実行（楽観ロックと状態遷移で後勝ちの上書きが起きないこと）
+ *
+ * 注文ごとに修正スレッドと取消スレッドを同時に走らせ、終了後に DB の状態を検査する:
+ * 取消に成功した注文は取消時点の数量・version のまま CANCELED であり、
+ * 成功した更新の version はすべて異なり、最終 version は成功した更新の件数だけ進んでいる。
+ */
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:amend-cancel;DB_CLOSE_DELAY=-1",
+        "oms.order.conflict.max-attempts=50"
+})
+class OrderServiceConcurrencyTest extends H2ServiceTest {
+
+    private static final int ORDERS = 20;
+    private static final int AMEND_THREADS = 4;
+    private static final int AMENDS_PER_THREAD = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Test
+    void concurrentAmendAndCancelNeverOverwriteEachOther() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(AMEND_THREADS + 1);
+        try {
+            for (int n = 0; n < ORDERS; n++) {
+                runRace(executor, orderService.createOrder(USER_ID, limitBuy(100, 2500)));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 1注文に対する修正・取消の同時実行と検査
+     */
+    private void runRace(ExecutorService executor, OrderDto created) throws Exception {
+        long orderId = created.getOrderId();
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<OrderDto> applied = new ConcurrentLinkedQueue<>();
+        Map<String, AtomicInteger> failures = new ConcurrentHashMap<>();
+        List<Future<?>> tasks = new ArrayList<>();
+
+        for (int t = 0; t < AMEND_THREADS; t++) {
+            int thread = t;
+            tasks.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < AMENDS_PER_THREAD; i++) {
+                    UpdateOrderDto dto = new UpdateOrderDto();
+                    // 修正ごとに異なる数量（取消時点の数量と照合できるようにする）
+                    dto.setQuantity(BigDecimal.valueOf(100L * (2 + thread * AMENDS_PER_THREAD + i)));
+                    try {
+                        applied.add(orderService.updateOrder(orderId, dto));
+                    } catch (IllegalStateException | OrderConflictException e) {
+                        failures.computeIfAbsent(e.getClass().getSimpleName(), k -> new AtomicInteger())
+                                .incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        Future<OrderDto> cancel = executor.submit(() -> {
+            start.await();
+            TimeUnit.MICROSECONDS.sleep(ThreadLocalRandom.current().nextInt(2000));
+            return orderService.cancelOrder(orderId);
+        });
+        start.countDown();
+        for (Future<?> task : tasks) {
+            task.get(60, TimeUnit.SECONDS);
+        }
+        OrderDto canceled = cancel.get(60, TimeUnit.SECONDS);
+
+        Map<String, Object> row = jdbc.queryForMap(
+                "SELECT status, quantity, version FROM orders WHERE order_id = ?", orderId);
+        long version = ((Number) row.get("VERSION")).longValue();
+
+        // 取消が最後の更新であり、取消後の修正は状態遷移違反で拒否されている
+        assertThat(row.get("STATUS")).isEqualTo("CANCELED");
+        assertThat((BigDecimal) row.get("QUANTITY")).isEqualByComparingTo(canceled.getQuantity());
+        assertThat(version).isEqualTo(canceled.getVersion());
+
+        // 成功した更新ごとに version が1つずつ進む（同じ version を2つの更新が使っていない）
+        List<Long> versions = new ArrayList<>();
+        versions.add(created.getVersion());
+        applied.forEach(dto -> versions.add(dto.getVersion()));
+        versions.add(canceled.getVersion());
+        assertThat(versions).doesNotHaveDuplicates();
+        assertThat(version).isEqualTo(created.getVersion() + applied.size() + 1);
+        assertThat(applied).allSatisfy(dto -> assertThat(dto.getVersion()).isLessThan(canceled.getVersion()));
+        if (applied.isEmpty()) {
+            assertThat(canceled.getQuantity()).isEqualByComparingTo(created.getQuantity());
+        } else {
+            OrderDto last = applied.stream().max((a, b) -> Long.compare(a.getVersion(), b.getVersion())).orElseThrow();
+            assertThat(canceled.getQuantity()).isEqualByComparingTo(last.getQuantity());
+        }
+        assertThat(failures.keySet()).isSubsetOf("IllegalStateException", "OrderConflictException");
+    }
+}
@@ -0,0 +1,87 @@
+package com.oms.api.support;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.refdata.ReferenceDataCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.math.BigDecimal;
+import java.time.ZoneId;
+
+/**
+ * H2 のインメモリ DB でサービスを動かす結合テストの共通設定
+ *
+ * ジャーナル・読み取りモデル・アーカイブ・日次損益バッチと内部対当を止め、注文は orders に同期で登録する。
+ * DB 名はテストクラスごとに @TestPropertySource で spring.datasource.url を指定して分けること
+ * （同じ DB を共有すると件数の検査が他のテストの注文を数える）。
+ * 期限切れ処理（oms.expiry.enabled）はテストする場合だけ有効にする。
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "oms.journal.enabled=false",
+        "oms.journal.ack-mode=commit",
+        // 約定による更新を検査の対象外にする
+        "oms.matching.crossing-enabled=false",
+        "oms.expiry.enabled=false",
+        "oms.readmodel.enabled=false",
+        "oms.archive.enabled=false",
+        "oms.eod.enabled=false"
+})
+public abstract class H2ServiceTest {
+
+    protected static final long USER_ID = 1L;
+    protected static final long SECURITY_ID = 1L;
+
+    @Autowired
+    protected JdbcTemplate jdbc;
+
+    @Autowired
+    protected ReferenceDataCache referenceDataCache;
+
+    /**
+     * JPA の日時を JdbcTemplate と同じ JVM のタイムゾーンで読み書きする
+     * （既定の Asia/Tokyo のままだと、JVM が別のタイムゾーンのときに JDBC で比較する日時がずれる）
+     */
+    @DynamicPropertySource
+    static void jdbcTimeZone(DynamicPropertyRegistry registry) {
+        registry.add("spring.jpa.properties.hibernate.jdbc.time_zone", () -> ZoneId.systemDefault().getId());
+    }
+
+    @BeforeEach
+    void seedReferenceData() {
+        jdbc.update("MERGE INTO users (user_id, username, email, password_hash, full_name, role, is_active, " +
+                "created_at, updated_at) KEY (user_id) VALUES (?, 'trader1', 'trader1@example.com', 'x', " +
+                "'Trader 1', 'TRADER', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)", USER_ID);
+        jdbc.update("MERGE INTO securities (security_id, security_code, security_name, security_type, currency, " +
+                "lot_size, tick_size, is_active, created_at, updated_at) KEY (security_id) VALUES " +
+                "(?, '7203', 'Test Security', 'STOCK', 'JPY', 100, 1, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)",
+                SECURITY_ID);
+        referenceDataCache.load();
+    }
+
+    /**
+     * SECURITY_ID の DAY の指値買い注文
+     */
+    protected static CreateOrderDto limitBuy(long quantity, long price) {
+        CreateOrderDto dto = new CreateOrderDto();
+        dto.setSecurityId(SECURITY_ID);
+        dto.setSide(OrderSide.BUY);
+        dto.setOrderType(OrderType.LIMIT);
+        dto.setQuantity(BigDecimal.valueOf(quantity));
+        dto.setPrice(BigDecimal.valueOf(price));
+        dto.setTimeInForce(TimeInForce.DAY);
+        return dto;
+    }
+}
@@ -0,0 +1,166 @@
+package com.oms.benchmarks;
+
+import com.oms.api.OmsApiApplication;
+import com.oms.api.refdata.ReferenceDataCache;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ベンチマーク用の組み込み H2 + Spring コンテキスト
+ *
+ * 行数ごとに target/bench-db 配下のファイル DB（と注文ジャーナル）を作成し、初回のみ注文データを投入する。
+ * 2回目以降（別 fork・別ビルド）は投入済みの DB を再利用する。
+ */
+public final class BenchmarkDatabase {
+
+    /** 投入データの注文番号プレフィックス（アプリの採番 ORDyyyyMMdd-NNNN と衝突しない） */
+    public static final String SEED_PREFIX = "BENCH-";
+
+    /** 投入データのユーザー数・銘柄数 */
+    public static final int USERS = 1000;
+    public static final int SECURITIES = 500;
+
+    /** Order / Execution の @SequenceGenerator の allocationSize */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * rows 件の注文を投入済みの DB でアプリケーションコンテキストを起動
+     */
+    public static ConfigurableApplicationContext start(long rows, String... extraArgs) {
+        return start(rows, WebApplicationType.NONE, extraArgs);
+    }
+
+    /**
+     * rows 件の注文を投入済みの DB でアプリケーションコンテキストを起動（Web 種別指定）
+     */
+    public static ConfigurableApplicationContext start(long rows, WebApplicationType webType, String... extraArgs) {
+        return start(rows, webType, true, extraArgs);
+    }
+
+    /**
+     * rows 件の注文を投入済みの DB でアプリケーションコンテキストを起動
+     *
+     * @param quietLogging true: SQL・アプリのログを抑止する。false: プロファイルのログ設定をそのまま使う（ログ設定の比較用）
+     */
+    public static ConfigurableApplicationContext start(long rows, WebApplicationType webType, boolean quietLogging,
+                                                       String... extraArgs) {
+        List<String> args = new ArrayList<>(List.of(
+                "--spring.datasource.url=jdbc:h2:file:./target/bench-db/oms-" + rows + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.hibernate.ddl-auto=update",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.h2.console.enabled=false",
+                "--oms.journal.dir=./target/bench-db/journal-" + rows,
+                // リスクチェックは実行するが、投入データと計測中の発注で限度に達しないようにする
+                "--oms.risk.buying-power=100000000000000",
+                "--oms.risk.max-position-quantity=100000000000",
+                // 投入済みの DAY 注文が起動時の大引け処理で期限切れにならないようにする
+                "--oms.expiry.enabled=false",
+                // 照会は既定で DB を計測する（投入済みのアクティブ注文をメモリに載せない）
+                "--oms.readmodel.enabled=false",
+                // 投入済みの終了済み注文（2024 年発注）を orders から移さない
+                "--oms.archive.enabled=false"));
+        if (quietLogging) {
+            args.addAll(List.of(
+                    "--spring.jpa.show-sql=false",
+                    "--spring.jpa.properties.hibernate.format_sql=false",
+                    "--logging.level.root=WARN",
+                    "--logging.level.com.oms.api=WARN",
+                    "--logging.level.org.hibernate.SQL=OFF",
+                    "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=OFF",
+                    "--logging.file.name="));
+        }
+        // extraArgs で指定したプロパティは既定値より優先する
+        for (String extra : extraArgs) {
+            String key = extra.contains("=") ? extra.substring(0, extra.indexOf('=') + 1) : extra;
+            args.removeIf(arg -> arg.startsWith(key));
+        }
+        args.addAll(Arrays.asList(extraArgs));
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OmsApiApplication.class)
+                .web(webType)
+                .run(args.toArray(String[]::new));
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        if (seedReferenceData(jdbc)) {
+            context.getBean(ReferenceDataCache.class).load();
+        }
+        seedOrders(jdbc, rows);
+        return context;
+    }
+
+    /**
+     * ユーザー・銘柄マスタ投入（投入済みの場合は何もしない）
+     *
+     * @return 投入した場合 true
+     */
+    public static boolean seedReferenceData(JdbcTemplate jdbc) {
+        Long users = jdbc.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+        if (users != null && users >= USERS) {
+            return false;
+        }
+        jdbc.update("DELETE FROM users");
+        jdbc.update("DELETE FROM securities");
+        jdbc.update(
+                "INSERT INTO users (user_id, username, email, password_hash, full_name, role, is_active, " +
+                "created_at, updated_at) " +
+                "SELECT X, CONCAT('bench', X), CONCAT('bench', X, '@example.com'), 'x', CONCAT('Bench User ', X), " +
+                "'TRADER', TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", USERS);
+        jdbc.update(
+                "INSERT INTO securities (security_id, security_code, security_name, security_type, currency, " +
+                "lot_size, tick_size, is_active, created_at, updated_at) " +
+                "SELECT X, CONCAT('B', X), CONCAT('Bench Security ', X), 'STOCK', 'JPY', 100, 1, TRUE, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP FROM SYSTEM_RANGE(1, ?)", SECURITIES);
+        return true;
+    }
+
+    /**
+     * 注文データ投入（投入済みの場合は何もしない）
+     *
+     * order_id = 1..rows。5件に1件が FILLED、残りは NEW。orders_archive に移した注文も投入済みとして数える。
+     */
+    public static void seedOrders(JdbcTemplate jdbc, long rows) {
+        Long seeded = jdbc.queryForObject(
+                "SELECT (SELECT COUNT(*) FROM orders WHERE order_no LIKE '" + SEED_PREFIX + "%') + " +
+                "(SELECT COUNT(*) FROM orders_archive WHERE order_no LIKE '" + SEED_PREFIX + "%')", Long.class);
+        if (seeded != null && seeded == rows) {
+            return;
+        }
+
+        jdbc.update("DELETE FROM orders_archive");
+        jdbc.update("DELETE FROM orders");
+        jdbc.update(
+                "INSERT INTO orders (order_id, user_id, security_id, order_no, side, order_type, quantity, price, " +
+                "time_in_force, status, filled_quantity, average_price, order_date, created_at, updated_at) " +
+                "SELECT X, MOD(X, " + USERS + ") + 1, MOD(X, " + SECURITIES + ") + 1, CONCAT('" + SEED_PREFIX + "', X), " +
+                "CASE WHEN MOD(X, 2) = 0 THEN 'BUY' ELSE 'SELL' END, 'LIMIT', 100, 2500 + MOD(X, 100), 'GTC', " +
+                "CASE WHEN MOD(X, 5) = 0 THEN 'FILLED' ELSE 'NEW' END, " +
+                "CASE WHEN MOD(X, 5) = 0 THEN 100 ELSE 0 END, " +
+                "CASE WHEN MOD(X, 5) = 0 THEN 2500 + MOD(X, 100) ELSE NULL END, " +
+                "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 09:00:00'), " +
+                "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 09:00:00'), " +
+                "DATEADD('SECOND', X, TIMESTAMP '2024-01-01 09:00:00') " +
+                "FROM SYSTEM_RANGE(1, ?)", rows);
+        // アプリからの新規発注が投入済みIDと衝突しないようシーケンスを進める
+        // （プール型オプティマイザは取得値をブロックの上端とみなすため、rows + allocationSize にする）
+        jdbc.execute("ALTER SEQUENCE orders_seq RESTART WITH " + (rows + ID_ALLOCATION_SIZE));
+    }
+
+    /**
+     * 投入データのうち NEW 状態の注文ID（5の倍数以外）を返す
+     */
+    public static long activeOrderId(long rows, long random) {
+        long id = Math.floorMod(random, rows) + 1;
+        return id % 5 == 0 ? (id == rows ? id - 1 : id + 1) : id;
+    }
+}
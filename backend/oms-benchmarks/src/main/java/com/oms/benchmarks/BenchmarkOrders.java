@@ -0,0 +1,55 @@
+package com.oms.benchmarks;
+
+import com.oms.api.model.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ベンチマーク用の注文データ生成
+ */
+public final class BenchmarkOrders {
+
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 26, 9, 0);
+
+    private BenchmarkOrders() {
+    }
+
+    /**
+     * 連番 i に対応する注文エンティティ（一部約定の指値注文）
+     */
+    public static Order order(long i) {
+        Order order = new Order();
+        order.setOrderId(i + 1);
+        order.setUserId(i % 100 + 1);
+        order.setSecurityId(i % 500 + 1);
+        order.setOrderNo(String.format("ORD20240126-%04d", i + 1));
+        order.setSide(i % 2 == 0 ? OrderSide.BUY : OrderSide.SELL);
+        order.setOrderType(OrderType.LIMIT);
+        order.setQuantity(BigDecimal.valueOf(1000));
+        order.setPrice(BigDecimal.valueOf(2500 + i % 100, 0).setScale(4));
+        order.setTimeInForce(TimeInForce.DAY);
+        order.setStatus(OrderStatus.PARTIAL);
+        order.setFilledQuantity(BigDecimal.valueOf(i % 1000));
+        order.setAveragePrice(BigDecimal.valueOf(2498.5));
+        order.setOrderDate(BASE_DATE.plusSeconds(i));
+        order.setValidUntil(BASE_DATE.withHour(15));
+        order.setNotes("benchmark");
+        order.setCreatedAt(BASE_DATE.plusSeconds(i));
+        order.setUpdatedAt(BASE_DATE.plusSeconds(i));
+        return order;
+    }
+
+    /**
+     * size 件の注文エンティティ
+     */
+    public static List<Order> orders(int size) {
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            orders.add(order(i));
+        }
+        return orders;
+    }
+}
@@ -0,0 +1,65 @@
+package com.oms.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JMH の JSON 結果（-rf json）を2ビルド分比較して差分を表示する
+ *
+ * 使い方: java -cp benchmarks.jar com.oms.benchmarks.BenchmarkResultComparator base.json current.json
+ */
+public final class BenchmarkResultComparator {
+
+    private BenchmarkResultComparator() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: BenchmarkResultComparator <base.json> <current.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> base = load(new File(args[0]));
+        Map<String, JsonNode> current = load(new File(args[1]));
+
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Base", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue().path("primaryMetric");
+            JsonNode before = base.containsKey(entry.getKey())
+                    ? base.get(entry.getKey()).path("primaryMetric") : null;
+            double score = now.path("score").asDouble();
+            String unit = now.path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", score, "new", unit);
+                continue;
+            }
+            double baseScore = before.path("score").asDouble();
+            double change = baseScore == 0 ? 0 : (score - baseScore) / baseScore * 100;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%n",
+                    entry.getKey(), baseScore, score, change, unit);
+        }
+    }
+
+    /**
+     * ベンチマーク名 + パラメータをキーに結果を読み込む
+     */
+    private static Map<String, JsonNode> load(File file) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText())
+                    .append(" [").append(result.path("mode").asText()).append(']');
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,86 @@
+package com.oms.benchmarks.eod;
+
+import com.oms.api.dto.EodRunDto;
+import com.oms.api.eod.EodPnlJob;
+import com.oms.api.model.EodRunStatus;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 日次損益バッチの所要時間（並列度の比較）
+ *
+ * 投入済みの FILLED 注文（5件に1件）ごとに1件の約定を発注日時で登録し、tradeDate の取引履歴を毎回作り直す。
+ * 前日以前に完了した実行がないため、毎回 2024-01-01 からの約定を再生して建玉を計算する。
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class EodPnlBenchmark {
+
+    private static final LocalDate TRADE_DATE = LocalDate.of(2024, 1, 5);
+
+    @Param({"1000000"})
+    public long rows;
+
+    /** 0 は既定値（コア数と接続プールの空きの小さい方） */
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private ConfigurableApplicationContext context;
+    private EodPnlJob job;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(rows, "--oms.eod.parallelism=" + parallelism,
+                "--oms.eod.cron=-", "--oms.position.engine.enabled=false");
+        seedExecutions(context.getBean(JdbcTemplate.class));
+        job = context.getBean(EodPnlJob.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public EodRunDto runTradeDate() {
+        EodRunDto run = job.run(TRADE_DATE, true);
+        if (run.getStatus() != EodRunStatus.COMPLETED) {
+            throw new IllegalStateException("EOD run failed: " + run.getErrorMessage());
+        }
+        return run;
+    }
+
+    /**
+     * FILLED 注文ごとに約定を1件登録（投入済みの場合は何もしない）
+     */
+    private static void seedExecutions(JdbcTemplate jdbc) {
+        Long filled = jdbc.queryForObject("SELECT COUNT(*) FROM orders WHERE status = 'FILLED'", Long.class);
+        Long seeded = jdbc.queryForObject(
+                "SELECT COUNT(*) FROM executions WHERE execution_no LIKE '" + BenchmarkDatabase.SEED_PREFIX + "%'",
+                Long.class);
+        if (seeded != null && seeded.equals(filled)) {
+            return;
+        }
+        jdbc.update("DELETE FROM trade_history");
+        jdbc.update("DELETE FROM eod_positions");
+        jdbc.update("DELETE FROM eod_runs");
+        jdbc.update("DELETE FROM executions");
+        jdbc.update(
+                "INSERT INTO executions (execution_id, order_id, security_id, execution_no, execution_price, " +
+                "execution_quantity, commission, execution_date, settlement_date, created_at) " +
+                "SELECT order_id, order_id, security_id, CONCAT('" + BenchmarkDatabase.SEED_PREFIX + "E', order_id), " +
+                "average_price, filled_quantity, 0, order_date, DATEADD('DAY', 2, CAST(order_date AS DATE)), order_date " +
+                "FROM orders WHERE status = 'FILLED'");
+        Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(execution_id), 0) FROM executions", Long.class);
+        jdbc.execute("ALTER SEQUENCE executions_seq RESTART WITH " + (maxId + BenchmarkDatabase.ID_ALLOCATION_SIZE));
+    }
+}
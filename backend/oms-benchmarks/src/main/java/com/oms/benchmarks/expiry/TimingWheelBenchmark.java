@@ -0,0 +1,78 @@
+package com.oms.benchmarks.expiry;
+
+import com.oms.api.expiry.TimingWheel;
+import org.agrona.collections.LongArrayList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.PriorityQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 期限管理の登録と期限到来分の取り出し（タイミングホイールと PriorityQueue の比較）
+ *
+ * 1回の呼び出しで orders 件の期限（現在から最大 horizonDays 日後、1秒 tick）を登録し、
+ * 全件が到来するまで1時間ずつ時刻を進めて取り出す。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class TimingWheelBenchmark {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final long STEP_MILLIS = TimeUnit.HOURS.toMillis(1);
+
+    @Param({"100000", "1000000"})
+    public int orders;
+
+    @Param({"1", "30"})
+    public int horizonDays;
+
+    private long[] deadlines;
+    private final LongArrayList due = new LongArrayList();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(42);
+        long horizon = TimeUnit.DAYS.toMillis(horizonDays);
+        deadlines = new long[orders];
+        for (int i = 0; i < orders; i++) {
+            deadlines[i] = 1 + random.nextLong(horizon);
+        }
+    }
+
+    @Benchmark
+    public int timingWheel() {
+        TimingWheel wheel = new TimingWheel(TICK_MILLIS, 5, 0);
+        due.clear();
+        for (int i = 0; i < deadlines.length; i++) {
+            wheel.add(i + 1, deadlines[i], due);
+        }
+        long now = 0;
+        while (wheel.size() > 0) {
+            now += STEP_MILLIS;
+            wheel.advance(now, due);
+        }
+        return due.size();
+    }
+
+    @Benchmark
+    public int priorityQueue() {
+        PriorityQueue<long[]> queue = new PriorityQueue<>(deadlines.length, (a, b) -> Long.compare(a[1], b[1]));
+        due.clear();
+        for (int i = 0; i < deadlines.length; i++) {
+            queue.add(new long[] {i + 1, deadlines[i]});
+        }
+        long now = 0;
+        while (!queue.isEmpty()) {
+            now += STEP_MILLIS;
+            while (!queue.isEmpty() && queue.peek()[1] <= now) {
+                due.addLong(queue.poll()[0]);
+            }
+        }
+        return due.size();
+    }
+}
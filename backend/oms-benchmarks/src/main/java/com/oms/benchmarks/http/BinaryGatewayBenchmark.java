@@ -0,0 +1,144 @@
+package com.oms.benchmarks.http;
+
+import com.oms.api.gateway.BinaryOrderGateway;
+import com.oms.api.gateway.BinaryProtocol;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.util.FixedPoint;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * バイナリゲートウェイ経由の新規発注スループット（CreateOrderHttpBenchmark と比較）
+ *
+ * 1回の呼び出しで WINDOW 件を発注する。
+ * pipelined=false: 1件ごとに応答を待つ / true: WINDOW 件を続けて送ってから応答をまとめて受け取る
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BinaryGatewayBenchmark {
+
+    private static final int WINDOW = 64;
+
+    @Param({"false", "true"})
+    public boolean pipelined;
+
+    private ConfigurableApplicationContext context;
+    private int port;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(10_000,
+                "--oms.gateway.binary.enabled=true", "--oms.gateway.binary.port=0");
+        port = context.getBean(BinaryOrderGateway.class).localPort();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * スレッドごとの接続
+     */
+    @State(Scope.Thread)
+    public static class Client {
+        private SocketChannel channel;
+        private final ByteBuffer requests = ByteBuffer.allocateDirect(WINDOW * BinaryProtocol.NEW_ORDER_LENGTH)
+                .order(BinaryProtocol.BYTE_ORDER);
+        private final ByteBuffer acks = ByteBuffer.allocateDirect(64 * 1024).order(BinaryProtocol.BYTE_ORDER);
+        private long correlationId;
+
+        @Setup(Level.Trial)
+        public void connect(BinaryGatewayBenchmark benchmark) throws IOException {
+            channel = SocketChannel.open(new InetSocketAddress("localhost", benchmark.port));
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+            for (int i = 0; i < WINDOW; i++) {
+                int offset = i * BinaryProtocol.NEW_ORDER_LENGTH;
+                requests.putInt(offset, BinaryProtocol.NEW_ORDER_LENGTH)
+                        .put(offset + 4, BinaryProtocol.NEW_ORDER)
+                        .putLong(offset + 16, userId)
+                        .putLong(offset + 24, 1L)
+                        .putLong(offset + 32, 100 * FixedPoint.ONE)
+                        .putLong(offset + 40, 2500 * FixedPoint.ONE)
+                        .putLong(offset + 48, FixedPoint.NULL)
+                        .putLong(offset + 56, FixedPoint.NULL)
+                        .put(offset + 64, (byte) OrderSide.BUY.ordinal())
+                        .put(offset + 65, (byte) OrderType.LIMIT.ordinal())
+                        .put(offset + 66, (byte) TimeInForce.DAY.ordinal());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            channel.close();
+        }
+
+        void send(int from, int count) throws IOException {
+            for (int i = from; i < from + count; i++) {
+                requests.putLong(i * BinaryProtocol.NEW_ORDER_LENGTH + 8, ++correlationId);
+            }
+            requests.limit((from + count) * BinaryProtocol.NEW_ORDER_LENGTH)
+                    .position(from * BinaryProtocol.NEW_ORDER_LENGTH);
+            while (requests.hasRemaining()) {
+                channel.write(requests);
+            }
+        }
+
+        /**
+         * count 件の応答を受け取る（受付以外の応答があれば失敗）
+         */
+        void receive(int count) throws IOException {
+            int received = 0;
+            while (received < count) {
+                if (channel.read(acks) < 0) {
+                    throw new IllegalStateException("Gateway closed the connection");
+                }
+                acks.flip();
+                while (acks.remaining() >= BinaryProtocol.HEADER_LENGTH) {
+                    int offset = acks.position();
+                    int length = BinaryProtocol.length(acks, offset);
+                    if (acks.remaining() < length) {
+                        break;
+                    }
+                    if (acks.get(offset + 32) != BinaryProtocol.ACCEPTED) {
+                        throw new IllegalStateException("Order rejected: result " + acks.get(offset + 32));
+                    }
+                    acks.position(offset + length);
+                    received++;
+                }
+                acks.compact();
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(WINDOW)
+    public void createOrders(Client client) throws IOException {
+        if (pipelined) {
+            client.send(0, WINDOW);
+            client.receive(WINDOW);
+        } else {
+            for (int i = 0; i < WINDOW; i++) {
+                client.send(i, 1);
+                client.receive(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.oms.benchmarks.http;
+
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /api/orders のスループット（ログ設定の比較）
+ *
+ * default: application.properties のまま（SQL の DEBUG/TRACE 出力 + 同期ファイル出力）
+ * prod:    application-prod.properties（非同期アペンダー + サンプリングしたスロークエリログのみ）
+ *
+ * 組み込み Tomcat を起動し、HTTP 経由で計測する。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class CreateOrderHttpBenchmark {
+
+    private static final long ROWS = 10_000;
+    private static final String BODY = "{\"securityId\":1,\"side\":\"BUY\",\"orderType\":\"LIMIT\"," +
+            "\"quantity\":100,\"price\":2500,\"timeInForce\":\"DAY\"}";
+
+    @Param({"default", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String[] args = "prod".equals(profile)
+                ? new String[]{"--server.port=0", "--spring.profiles.active=prod"}
+                : new String[]{"--server.port=0"};
+        context = BenchmarkDatabase.start(ROWS, WebApplicationType.SERVLET, false, args);
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/orders?userId=1"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int createOrder() throws IOException, InterruptedException {
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("POST /api/orders returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,91 @@
+package com.oms.benchmarks.http;
+
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * プラットフォームスレッドと仮想スレッドの負荷比較（寄り付き時のバーストを想定した高並行度）
+ *
+ * platform: Tomcat 標準のスレッドプール（最大 200）
+ * virtual:  virtual-threads プロファイル（仮想スレッド + 同時実行数制限 + 接続プール調整）
+ *
+ * virtual は Java 21 以上で実行すること。ピン留めは -Djdk.tracePinnedThreads=short の出力で確認できる。
+ * 503（同時実行数制限による拒否）は失敗として数えず、レスポンスとして返す。
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Threads(400)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g", "-Djdk.tracePinnedThreads=short"})
+public class ThreadModelLoadBenchmark {
+
+    private static final long ROWS = 1_000_000;
+    private static final String BODY = "{\"securityId\":1,\"side\":\"BUY\",\"orderType\":\"LIMIT\"," +
+            "\"quantity\":100,\"price\":2500,\"timeInForce\":\"DAY\"}";
+
+    @Param({"platform", "virtual"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        if ("virtual".equals(mode) && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("virtual mode requires Java 21+");
+        }
+        String[] args = "virtual".equals(mode)
+                ? new String[]{"--server.port=0", "--spring.profiles.active=virtual-threads"}
+                : new String[]{"--server.port=0"};
+        context = BenchmarkDatabase.start(ROWS, WebApplicationType.SERVLET, args);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 新規発注
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public int createOrder() throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders?userId=" + userId))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(BODY))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * アクティブ注文照会（クライアントのポーリング相当）
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public int activeOrders() throws IOException, InterruptedException {
+        long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/orders/active?userId=" + userId))
+                .GET()
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
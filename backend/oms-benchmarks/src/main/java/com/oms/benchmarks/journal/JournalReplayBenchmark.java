@@ -0,0 +1,97 @@
+package com.oms.benchmarks.journal;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.event.OrderEventType;
+import com.oms.api.journal.JournalCodec;
+import com.oms.api.journal.JournalEntry;
+import com.oms.api.journal.JournalReplayTool;
+import com.oms.api.journal.JournalReplayer;
+import com.oms.api.journal.OrderJournal;
+import com.oms.api.model.*;
+import org.agrona.collections.Long2ObjectHashMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * ジャーナルのリプレイ速度（events/s）
+ *
+ * 新規（自動コミット）と、修正・約定・取消（3イベントずつのトランザクション）を events 件書き込んだ
+ * ジャーナルから、注文ごとの最新状態をメモリ上に再構築する。スコアは1秒あたりのイベント数。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class JournalReplayBenchmark {
+
+    private static final int EVENTS = 2_000_000;
+
+    private Path directory;
+    private OrderJournal journal;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("journal-replay");
+        journal = OrderJournal.open(directory, 256 * 1024 * 1024);
+        OrderDto order = new OrderDto();
+        order.setUserId(1L);
+        order.setSecurityId(1L);
+        order.setSide(OrderSide.BUY);
+        order.setOrderType(OrderType.LIMIT);
+        order.setTimeInForce(TimeInForce.DAY);
+        order.setPrice(BigDecimal.valueOf(2500));
+        order.setFilledQuantity(BigDecimal.ZERO);
+        order.setOrderDate(LocalDateTime.of(2024, 1, 15, 9, 0));
+
+        long now = System.currentTimeMillis();
+        long txId = 1;
+        for (long orderId = 1, written = 0; written < EVENTS; orderId++, txId++) {
+            order.setOrderId(orderId);
+            order.setOrderNo("ORD20240115-" + orderId);
+            order.setQuantity(BigDecimal.valueOf(100));
+            order.setStatus(OrderStatus.NEW);
+            order.setVersion(0L);
+            journal.append(JournalCodec.encodeEvent(0, now, OrderEventType.CREATED, null, order));
+
+            order.setQuantity(BigDecimal.valueOf(200));
+            order.setVersion(1L);
+            journal.append(JournalCodec.encodeEvent(txId, now, OrderEventType.AMENDED, OrderStatus.NEW, order));
+            order.setStatus(OrderStatus.PARTIAL);
+            order.setVersion(2L);
+            journal.append(JournalCodec.encodeEvent(txId, now, OrderEventType.FILLED, OrderStatus.NEW, order));
+            order.setStatus(OrderStatus.CANCELED);
+            order.setVersion(3L);
+            journal.append(JournalCodec.encodeEvent(txId, now, OrderEventType.CANCELED, OrderStatus.PARTIAL, order));
+            journal.append(JournalCodec.encodeMarker(JournalEntry.Kind.PREPARE, txId, now));
+            journal.append(JournalCodec.encodeMarker(JournalEntry.Kind.COMMIT, txId, now));
+            written += 4;
+        }
+        journal.sync(journal.writtenPosition());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS)
+    public int replay() {
+        Long2ObjectHashMap<JournalEntry> orders = new Long2ObjectHashMap<>(EVENTS / 2, 0.65f);
+        JournalReplayTool.rebuild(new JournalReplayer(journal, journal.startPosition(), 0), orders);
+        return orders.size();
+    }
+}
@@ -0,0 +1,63 @@
+package com.oms.benchmarks.journal;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.service.OrderService;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 新規発注の応答レイテンシ（DB コミット後の応答とジャーナル fsync 後の応答の比較）
+ *
+ * commit:  INSERT + ジャーナル PREPARE の fsync + DB コミット
+ * journal: ジャーナル追記 + fsync のみ（DB 登録は JournalApplier が非同期に行う）
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Threads(8)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderAckLatencyBenchmark {
+
+    @Param({"commit", "journal"})
+    public String ackMode;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderDto createDto;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(10_000, "--oms.journal.ack-mode=" + ackMode);
+        orderService = context.getBean(OrderService.class);
+
+        createDto = new CreateOrderDto();
+        createDto.setSecurityId(1L);
+        createDto.setSide(OrderSide.BUY);
+        createDto.setOrderType(OrderType.LIMIT);
+        createDto.setQuantity(BigDecimal.valueOf(100));
+        createDto.setPrice(BigDecimal.valueOf(2500));
+        createDto.setTimeInForce(TimeInForce.DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto createOrder() {
+        long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+        return orderService.createOrder(userId, createDto);
+    }
+}
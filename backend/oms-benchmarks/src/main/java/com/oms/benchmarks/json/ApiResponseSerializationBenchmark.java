@@ -0,0 +1,57 @@
+package com.oms.benchmarks.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.oms.api.dto.ApiResponse;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Order;
+import com.oms.benchmarks.BenchmarkOrders;
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ApiResponse&lt;List&lt;OrderDto&gt;&gt; の JSON シリアライズ
+ *
+ * ObjectMapper は application.properties の spring.jackson.* と同じ設定で構築する。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiResponseSerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<List<OrderDto>> response;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .timeZone(TimeZone.getTimeZone("Asia/Tokyo"))
+                .build();
+
+        OrderMapper orderMapper = Mappers.getMapper(OrderMapper.class);
+        List<OrderDto> orders = new ArrayList<>(size);
+        for (Order order : BenchmarkOrders.orders(size)) {
+            orders.add(orderMapper.toDto(order));
+        }
+        response = ApiResponse.success(orders);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return objectMapper.writeValueAsBytes(response);
+    }
+}
@@ -0,0 +1,79 @@
+package com.oms.benchmarks.mapping;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.Order;
+import com.oms.benchmarks.BenchmarkOrders;
+import org.mapstruct.factory.Mappers;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order -> OrderDto 変換の比較
+ *
+ * - modelMapper*: 旧 convertToDto（ModelMapper による反射ベース変換 + 計算フィールド設定）
+ * - generated*  : MapStruct 生成コード（OrderMapper）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderMappingBenchmark {
+
+    @Param({"10000"})
+    public int listSize;
+
+    private ModelMapper modelMapper;
+    private OrderMapper orderMapper;
+    private Order single;
+    private List<Order> orders;
+
+    @Setup
+    public void setup() {
+        modelMapper = new ModelMapper();
+        orderMapper = Mappers.getMapper(OrderMapper.class);
+        single = BenchmarkOrders.order(0);
+        orders = BenchmarkOrders.orders(listSize);
+    }
+
+    @Benchmark
+    public OrderDto modelMapperSingle() {
+        return modelMapperConvert(single);
+    }
+
+    @Benchmark
+    public OrderDto generatedSingle() {
+        return orderMapper.toDto(single);
+    }
+
+    @Benchmark
+    public List<OrderDto> modelMapperList() {
+        List<OrderDto> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            result.add(modelMapperConvert(order));
+        }
+        return result;
+    }
+
+    @Benchmark
+    public List<OrderDto> generatedList() {
+        List<OrderDto> result = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            result.add(orderMapper.toDto(order));
+        }
+        return result;
+    }
+
+    private OrderDto modelMapperConvert(Order order) {
+        OrderDto dto = modelMapper.map(order, OrderDto.class);
+        dto.setRemainingQuantity(order.getRemainingQuantity());
+        dto.setFillRate(order.getFillRate());
+        return dto;
+    }
+}
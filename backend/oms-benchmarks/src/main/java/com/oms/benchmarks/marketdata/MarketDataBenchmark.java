@@ -0,0 +1,60 @@
+package com.oms.benchmarks.marketdata;
+
+import com.oms.api.marketdata.DailyBar;
+import com.oms.api.marketdata.TickSeries;
+import com.oms.api.util.FixedPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDate;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ティック系列への追加と期間集計のスループット
+ *
+ * 系列は capacity 件のティック（1ms 間隔）で満たしておき、集計は直近 window 件の範囲を二分探索で切り出して走査する。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class MarketDataBenchmark {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 4);
+
+    @Param({"16384", "262144"})
+    public int capacity;
+
+    @Param({"1000", "10000"})
+    public int window;
+
+    private TickSeries series;
+    private final SplittableRandom random = new SplittableRandom(42);
+    private long now;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        series = new TickSeries(1, capacity, new ConcurrentLinkedQueue<DailyBar>());
+        for (int i = 0; i < capacity; i++) {
+            append();
+        }
+    }
+
+    @Benchmark
+    public void appendTick() {
+        append();
+    }
+
+    @Benchmark
+    public TickSeries.Stats windowStats() {
+        return series.stats(now - window, Long.MAX_VALUE);
+    }
+
+    private void append() {
+        long price = (2400 + random.nextInt(200)) * FixedPoint.ONE;
+        series.append(++now, TODAY, price, 100L * (1 + random.nextInt(50)));
+    }
+}
@@ -0,0 +1,78 @@
+package com.oms.benchmarks.risk;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.risk.RiskEngine;
+import com.oms.api.risk.RiskEngine.RiskTicket;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 発注前リスクチェック（チェック + 拘束 + 取り消し）のレイテンシ
+ *
+ * トランザクション外で呼ぶため拘束は自動では戻らず、計測内で undo する。
+ * ストライプのロック競合は -t でスレッド数を変えて比較する（既定 4 スレッド）。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class RiskCheckBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private RiskEngine riskEngine;
+    private CreateOrderDto buyDto;
+    private CreateOrderDto sellDto;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(10_000);
+        riskEngine = context.getBean(RiskEngine.class);
+        buyDto = order(OrderSide.BUY);
+        sellDto = order(OrderSide.SELL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public RiskTicket buy() {
+        RiskTicket ticket = riskEngine.reserve(randomUser(), buyDto);
+        riskEngine.undo(ticket);
+        return ticket;
+    }
+
+    @Benchmark
+    public RiskTicket sell() {
+        RiskTicket ticket = riskEngine.reserve(randomUser(), sellDto);
+        riskEngine.undo(ticket);
+        return ticket;
+    }
+
+    private static long randomUser() {
+        return ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+    }
+
+    private static CreateOrderDto order(OrderSide side) {
+        CreateOrderDto dto = new CreateOrderDto();
+        dto.setSecurityId(1L);
+        dto.setSide(side);
+        dto.setOrderType(OrderType.LIMIT);
+        dto.setQuantity(BigDecimal.valueOf(100));
+        dto.setPrice(BigDecimal.valueOf(2500));
+        dto.setTimeInForce(TimeInForce.DAY);
+        return dto;
+    }
+}
@@ -0,0 +1,160 @@
+package com.oms.benchmarks.service;
+
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.service.OrderConflictException;
+import com.oms.api.service.OrderService;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 同一注文への修正・取消の競合と整合性検査
+ *
+ * 少数の注文（HOT_ORDERS 件）に対して修正スレッドと取消スレッドを同時に実行する。
+ * 取消スレッドは取り消した枠に新規注文を補充するため、競合は計測中ずっと続く。
+ * イテレーション終了時に、取消に成功した注文が DB 上で取消時点の状態（CANCELED・数量・version）の
+ * ままであることを確認し、後勝ちの修正による上書き・復活があれば失敗させる。
+ *
+ * 板との対当による約定は競合の対象外とするため、マッチングは無効にして実行する。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AmendCancelContentionBenchmark {
+
+    private static final int HOT_ORDERS = 16;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private JdbcTemplate jdbc;
+    private CreateOrderDto createDto;
+
+    /** 競合対象の注文ID（取消後に補充される） */
+    private AtomicLongArray hot;
+
+    /** 取消に成功した注文の取消時点の状態 */
+    private final Map<Long, OrderDto> canceled = new ConcurrentHashMap<>();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(10_000, "--oms.matching.crossing-enabled=false");
+        orderService = context.getBean(OrderService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        createDto = new CreateOrderDto();
+        createDto.setSecurityId(1L);
+        createDto.setSide(OrderSide.BUY);
+        createDto.setOrderType(OrderType.LIMIT);
+        createDto.setQuantity(BigDecimal.valueOf(100));
+        createDto.setPrice(BigDecimal.valueOf(2500));
+        createDto.setTimeInForce(TimeInForce.DAY);
+
+        hot = new AtomicLongArray(HOT_ORDERS);
+        for (int i = 0; i < HOT_ORDERS; i++) {
+            hot.set(i, orderService.createOrder(1L, createDto).getOrderId());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() {
+        List<String> violations = new ArrayList<>();
+        canceled.forEach((orderId, expected) -> {
+            Map<String, Object> row = jdbc.queryForMap(
+                    "SELECT status, quantity, version FROM orders WHERE order_id = ?", orderId);
+            String status = (String) row.get("STATUS");
+            BigDecimal quantity = (BigDecimal) row.get("QUANTITY");
+            long version = ((Number) row.get("VERSION")).longValue();
+            if (!"CANCELED".equals(status)
+                    || quantity.compareTo(expected.getQuantity()) != 0
+                    || version != expected.getVersion()) {
+                violations.add(orderId + ": expected CANCELED/" + expected.getQuantity() + "/v" + expected.getVersion()
+                        + " but was " + status + "/" + quantity + "/v" + version);
+            }
+        });
+        canceled.clear();
+        if (!violations.isEmpty()) {
+            throw new IllegalStateException(violations.size() + " canceled orders were overwritten: "
+                    + violations.subList(0, Math.min(10, violations.size())));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * スレッドごとの結果件数（JMH の補助カウンタとして出力）
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcomes {
+        public long applied;
+        /** 相手側が先に取り消したため拒否（状態遷移違反） */
+        public long rejected;
+        /** 再試行上限まで競合（409） */
+        public long conflicted;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            applied = 0;
+            rejected = 0;
+            conflicted = 0;
+        }
+    }
+
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(6)
+    public void amend(Outcomes outcomes) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long orderId = hot.get(random.nextInt(HOT_ORDERS));
+        UpdateOrderDto dto = new UpdateOrderDto();
+        dto.setQuantity(BigDecimal.valueOf(100L * (1 + random.nextInt(10))));
+        dto.setPrice(BigDecimal.valueOf(2400 + random.nextInt(200)));
+        try {
+            orderService.updateOrder(orderId, dto);
+            outcomes.applied++;
+        } catch (OrderConflictException e) {
+            outcomes.conflicted++;
+        } catch (IllegalStateException e) {
+            outcomes.rejected++;
+        }
+    }
+
+    @Benchmark
+    @Group("contention")
+    @GroupThreads(2)
+    public void cancel(Outcomes outcomes) {
+        int slot = ThreadLocalRandom.current().nextInt(HOT_ORDERS);
+        long orderId = hot.get(slot);
+        try {
+            OrderDto result = orderService.cancelOrder(orderId);
+            canceled.put(orderId, result);
+            outcomes.applied++;
+            hot.compareAndSet(slot, orderId, orderService.createOrder(1L, createDto).getOrderId());
+        } catch (OrderConflictException e) {
+            outcomes.conflicted++;
+        } catch (IllegalStateException e) {
+            outcomes.rejected++;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.oms.benchmarks.service;
+
+import com.oms.api.archive.OrderArchiver;
+import com.oms.api.dto.CreateOrderDto;
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.OrderPageDto;
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.model.OrderSide;
+import com.oms.api.model.OrderType;
+import com.oms.api.model.TimeInForce;
+import com.oms.api.service.OrderService;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 終了済み注文のアーカイブの有無による発注・照会のレイテンシ
+ *
+ * 投入済みの注文のうち 10 件に 9 件を FILLED にし、archived=true では orders_archive に移してから計測する
+ * （archived ごとに別の DB ファイルを使う）。一覧・履歴の照会は orders と orders_archive の併合になる。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OrderArchiveBenchmark {
+
+    /** 投入データの発注日時（2024-01-01 09:00 から1秒ずつ）の中ほど */
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(2024, 1, 6, 0, 0);
+
+    @Param({"1000000"})
+    public long rows;
+
+    @Param({"false", "true"})
+    public boolean archived;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private CreateOrderDto createDto;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        String db = "./target/bench-db/oms-archive-" + archived + "-" + rows;
+        context = BenchmarkDatabase.start(rows,
+                "--spring.datasource.url=jdbc:h2:file:" + db + ";DB_CLOSE_ON_EXIT=FALSE",
+                "--oms.journal.dir=" + db + "-journal",
+                "--oms.archive.enabled=" + archived,
+                "--oms.archive.cron=-",
+                "--oms.eod.enabled=false");
+        context.getBean(JdbcTemplate.class).update(
+                "UPDATE orders SET status = 'FILLED', filled_quantity = quantity, average_price = price " +
+                "WHERE status = 'NEW' AND MOD(order_id, 10) <> 1");
+        if (archived) {
+            context.getBean(OrderArchiver.class).archive();
+        }
+        orderService = context.getBean(OrderService.class);
+
+        createDto = new CreateOrderDto();
+        createDto.setSecurityId(1L);
+        createDto.setSide(OrderSide.BUY);
+        createDto.setOrderType(OrderType.LIMIT);
+        createDto.setQuantity(BigDecimal.valueOf(100));
+        createDto.setPrice(BigDecimal.valueOf(2500));
+        createDto.setTimeInForce(TimeInForce.DAY);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public OrderDto createOrder() {
+        return orderService.createOrder(randomUser(), createDto);
+    }
+
+    @Benchmark
+    public List<OrderDto> activeOrders() {
+        return orderService.getActiveOrders(randomUser());
+    }
+
+    @Benchmark
+    public OrderPageDto userOrders() {
+        return orderService.getOrdersByUserId(randomUser(), null, 100);
+    }
+
+    @Benchmark
+    public OrderPageDto userHistory() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(randomUser(), null, null, null, HISTORY_END);
+        return orderService.findOrdersByFilters(criteria, null, 100);
+    }
+
+    private static long randomUser() {
+        return ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+    }
+}
@@ -0,0 +1,50 @@
+package com.oms.benchmarks.service;
+
+import com.oms.api.service.OrderNoAllocator;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注文番号採番の並行スループットと重複検査
+ *
+ * 8スレッドから同時に採番し、払い出した番号に重複があればトライアル終了時に失敗させる。
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class OrderNoAllocatorBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private OrderNoAllocator allocator;
+    private Set<String> issued;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(10_000);
+        allocator = context.getBean(OrderNoAllocator.class);
+        issued = ConcurrentHashMap.newKeySet();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean nextOrderNo() {
+        String orderNo = allocator.nextOrderNo();
+        if (!issued.add(orderNo)) {
+            throw new IllegalStateException("Duplicate order no issued: " + orderNo);
+        }
+        return true;
+    }
+}
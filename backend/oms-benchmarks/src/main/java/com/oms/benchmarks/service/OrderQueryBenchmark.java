@@ -0,0 +1,80 @@
+package com.oms.benchmarks.service;
+
+import com.oms.api.dto.OrderDto;
+import com.oms.api.dto.OrderPageDto;
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.dto.UpdateOrderDto;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.service.OrderService;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 注文照会（ブロッター）のレイテンシ: 読み取りモデルと orders テーブルの比較
+ *
+ * blotter グループでは照会 3 スレッドと並行して 1 スレッドが注文修正を続け、発注側の更新と競合させる。
+ * 投入データはアクティブ注文が 8 割のため、readModel=true ではアクティブ注文の照会がすべてメモリから返る。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OrderQueryBenchmark {
+
+    private static final List<OrderStatus> ACTIVE = List.of(OrderStatus.NEW, OrderStatus.PARTIAL);
+
+    @Param({"100000", "1000000"})
+    public long rows;
+
+    @Param({"false", "true"})
+    public boolean readModel;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(rows, "--oms.readmodel.enabled=" + readModel);
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<OrderDto> activeOrders() {
+        return orderService.getActiveOrders(randomUser());
+    }
+
+    @Benchmark
+    @Group("blotter")
+    @GroupThreads(3)
+    public OrderPageDto activeBlotterPage() {
+        OrderSearchCriteria criteria = new OrderSearchCriteria(randomUser(), null, ACTIVE, null, null);
+        return orderService.findOrdersByFilters(criteria, null, 100);
+    }
+
+    @Benchmark
+    @Group("blotter")
+    @GroupThreads(1)
+    public OrderDto amendOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        UpdateOrderDto dto = new UpdateOrderDto();
+        dto.setPrice(BigDecimal.valueOf(2400 + random.nextInt(200)));
+        return orderService.updateOrder(BenchmarkDatabase.activeOrderId(rows, random.nextLong()), dto);
+    }
+
+    private static long randomUser() {
+        return ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.oms.benchmarks.service;
+
+import com.oms.api.dto.*;
+import com.oms.api.mapper.OrderMapper;
+import com.oms.api.model.*;
+import com.oms.api.refdata.ReferenceDataCache;
+import com.oms.api.repository.OrderRepository;
+import com.oms.api.service.OrderService;
+import com.oms.benchmarks.BenchmarkDatabase;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService の発注ライフサイクル（作成・修正・取消・検索・DTO変換）
+ *
+ * rows 件の注文を投入した組み込み H2 に対して計測する。
+ * SampleTime モードのため、JSON 結果には p50/p99/p99.9 等のパーセンタイルが含まれる。
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class OrderServiceBenchmark {
+
+    @Param({"10000", "1000000", "10000000"})
+    public long rows;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private OrderRepository orderRepository;
+    private OrderMapper orderMapper;
+    private ReferenceDataCache referenceDataCache;
+
+    private CreateOrderDto createDto;
+    private Order loadedOrder;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkDatabase.start(rows);
+        orderService = context.getBean(OrderService.class);
+        orderRepository = context.getBean(OrderRepository.class);
+        orderMapper = context.getBean(OrderMapper.class);
+        referenceDataCache = context.getBean(ReferenceDataCache.class);
+
+        createDto = new CreateOrderDto();
+        createDto.setSecurityId(1L);
+        createDto.setSide(OrderSide.BUY);
+        createDto.setOrderType(OrderType.LIMIT);
+        createDto.setQuantity(BigDecimal.valueOf(100));
+        createDto.setPrice(BigDecimal.valueOf(2500));
+        createDto.setTimeInForce(TimeInForce.DAY);
+
+        loadedOrder = orderRepository.findById(1L).orElseThrow();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * 取消対象の注文（呼び出しごとに新規作成し、取消のみを計測する）
+     */
+    @State(Scope.Thread)
+    public static class CancelTarget {
+        Long orderId;
+
+        @Setup(Level.Invocation)
+        public void create(OrderServiceBenchmark bench) {
+            orderId = bench.orderService.createOrder(1L, bench.createDto).getOrderId();
+        }
+    }
+
+    @Benchmark
+    public OrderDto createOrder() {
+        long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+        return orderService.createOrder(userId, createDto);
+    }
+
+    @Benchmark
+    public OrderDto updateOrder() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long orderId = BenchmarkDatabase.activeOrderId(rows, random.nextLong());
+        UpdateOrderDto dto = new UpdateOrderDto();
+        dto.setPrice(BigDecimal.valueOf(2400 + random.nextInt(200)));
+        return orderService.updateOrder(orderId, dto);
+    }
+
+    @Benchmark
+    public OrderDto cancelOrder(CancelTarget target) {
+        return orderService.cancelOrder(target.orderId);
+    }
+
+    @Benchmark
+    public OrderPageDto findOrdersByFilters() {
+        long userId = ThreadLocalRandom.current().nextLong(BenchmarkDatabase.USERS) + 1;
+        OrderSearchCriteria criteria = new OrderSearchCriteria(
+                userId, null, List.of(OrderStatus.NEW, OrderStatus.PARTIAL),
+                LocalDateTime.of(2024, 1, 1, 0, 0), null);
+        return orderService.findOrdersByFilters(criteria, null, 100);
+    }
+
+    /**
+     * OrderService の DTO 変換と同じ経路（マッピング＋参照データの付与）
+     */
+    @Benchmark
+    public OrderDto convertToDto() {
+        return referenceDataCache.enrich(orderMapper.toDto(loadedOrder));
+    }
+}
@@ -0,0 +1,191 @@
+package com.oms.benchmarks;
+
+import com.oms.api.dto.OrderSearchCriteria;
+import com.oms.api.model.OrderStatus;
+import com.oms.api.repository.OrderRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 注文検索クエリの実行計画の回帰テスト（EXPLAIN）
+ *
+ * 注文を投入した組み込み H2 で、検索条件の組み合わせごとに OrderQueryRepository が実際に発行した SQL を
+ * EXPLAIN し、想定したインデックスを使っていること（全件走査でないこと）を確認する。
+ * 行数は既定 200k（通常のビルド）。large-dataset プロファイルでは 10M 行で実行する:
+ * mvn -pl oms-benchmarks -P large-dataset test -Dtest=QueryPlanCheckTest
+ */
+class QueryPlanCheckTest {
+
+    private static final int PAGE_SIZE = 101;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 3, 31, 23, 59, 59);
+    private static final LocalDateTime CURSOR = LocalDateTime.of(2024, 3, 15, 12, 0);
+
+    private static final String LEGACY_SQL =
+            "SELECT * FROM orders o WHERE (CAST(? AS BIGINT) IS NULL OR o.user_id = ?) " +
+            "AND (CAST(? AS BIGINT) IS NULL OR o.security_id = ?) " +
+            "AND (CAST(? AS TIMESTAMP) IS NULL OR o.order_date >= ?) " +
+            "ORDER BY o.order_date DESC, o.order_id DESC LIMIT 101";
+
+    private static long rows;
+    private static ConfigurableApplicationContext context;
+    private static OrderRepository repository;
+    private static JdbcTemplate jdbc;
+
+    /**
+     * 検索条件の組み合わせと、使ってよいインデックス
+     */
+    record Shape(String name, OrderSearchCriteria criteria, boolean cursor, String... indexes) {
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    static List<Shape> shapes() {
+        return List.of(
+                new Shape("all", criteria(null, null, null, null, null), false, "idx_order_date_id"),
+                new Shape("all + cursor", criteria(null, null, null, null, null), true, "idx_order_date_id"),
+                new Shape("user", criteria(42L, null, null, null, null), false,
+                        "idx_composite", "idx_user_status_date"),
+                new Shape("user + cursor", criteria(42L, null, null, null, null), true,
+                        "idx_composite", "idx_user_status_date"),
+                new Shape("user + status", criteria(42L, null, List.of(OrderStatus.NEW), null, null), false,
+                        "idx_user_status_date"),
+                new Shape("user + active + date", criteria(42L, null, List.of(OrderStatus.NEW, OrderStatus.PARTIAL),
+                        START, null), false, "idx_composite", "idx_user_status_date"),
+                new Shape("user + date range", criteria(42L, null, null, START, END), false, "idx_composite"),
+                new Shape("security", criteria(null, 7L, null, null, null), false, "idx_security_date"),
+                new Shape("security + date range", criteria(null, 7L, null, START, END), false, "idx_security_date"),
+                new Shape("status", criteria(null, null, List.of(OrderStatus.NEW), null, null), false,
+                        "idx_status_date"),
+                new Shape("status + date range", criteria(null, null, List.of(OrderStatus.NEW), START, END), false,
+                        "idx_status_date"),
+                new Shape("date range", criteria(null, null, null, START, END), false, "idx_order_date_id"));
+    }
+
+    @BeforeAll
+    static void start() {
+        rows = Long.getLong("oms.query-plan.rows", 200_000L);
+        context = BenchmarkDatabase.start(rows,
+                "--spring.jpa.properties.hibernate.session_factory.statement_inspector=" + SqlCapture.class.getName());
+        repository = context.getBean(OrderRepository.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+    }
+
+    @AfterAll
+    static void stop() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("shapes")
+    void usesExpectedIndex(Shape shape) {
+        LocalDateTime cursorDate = shape.cursor() ? CURSOR : null;
+        Long cursorId = shape.cursor() ? Long.MAX_VALUE : null;
+        SqlCapture.thread = Thread.currentThread();
+        SqlCapture.last = null;
+        long started = System.nanoTime();
+        int found = repository.findPageByCriteria(shape.criteria(), cursorDate, cursorId, PAGE_SIZE).size();
+        long elapsedMicros = (System.nanoTime() - started) / 1_000;
+        String sql = SqlCapture.last;
+        assertThat(sql).as("captured SQL").isNotNull();
+
+        List<Object> params = params(shape.criteria(), cursorDate, cursorId);
+        long placeholders = sql.chars().filter(c -> c == '?').count();
+        if (placeholders == params.size() + 1) {
+            params.add(PAGE_SIZE);
+        }
+        assertThat(placeholders).as("parameters in %s", sql).isEqualTo(params.size());
+
+        String plan = plan(sql, params);
+        System.out.printf("%-24s %4d rows %8d us  %s%n", shape.name(), found, elapsedMicros, plan.replaceAll("\\s+", " "));
+        String normalized = plan.toLowerCase(Locale.ROOT);
+        assertThat(normalized).as("plan of %s (%d rows)", shape.name(), rows).doesNotContain("tablescan");
+        assertThat(Arrays.stream(shape.indexes()).anyMatch(normalized::contains))
+                .as("plan of %s uses one of %s: %s", shape.name(), Arrays.toString(shape.indexes()), plan)
+                .isTrue();
+    }
+
+    /**
+     * 比較用に旧クエリ（:x IS NULL OR ...）の計画を表示する（検査はしない）
+     */
+    @Test
+    void printsLegacyPlan() {
+        String legacy = plan(LEGACY_SQL, Arrays.asList(42L, 42L, null, null, START, START));
+        System.out.printf("[legacy :x IS NULL OR] %s%n", legacy);
+        assertThat(legacy).isNotBlank();
+    }
+
+    // ===== Private Methods =====
+
+    /**
+     * 条件の追加順（OrderQueryRepositoryImpl と同じ）でパラメータを並べる
+     */
+    private static List<Object> params(OrderSearchCriteria criteria, LocalDateTime cursorDate, Long cursorId) {
+        List<Object> params = new ArrayList<>();
+        if (criteria.getUserId() != null) {
+            params.add(criteria.getUserId());
+        }
+        if (criteria.getSecurityId() != null) {
+            params.add(criteria.getSecurityId());
+        }
+        if (criteria.getStatuses() != null) {
+            criteria.getStatuses().forEach(status -> params.add(status.name()));
+        }
+        if (criteria.getStartDate() != null) {
+            params.add(criteria.getStartDate());
+        }
+        if (criteria.getEndDate() != null) {
+            params.add(criteria.getEndDate());
+        }
+        if (cursorDate != null) {
+            params.addAll(List.of(cursorDate, cursorDate, cursorDate, cursorId));
+        }
+        return params;
+    }
+
+    private static String plan(String sql, List<Object> params) {
+        return String.join(" ", jdbc.queryForList("EXPLAIN " + sql, String.class, params.toArray()));
+    }
+
+    private static OrderSearchCriteria criteria(Long userId, Long securityId, List<OrderStatus> statuses,
+                                                LocalDateTime startDate, LocalDateTime endDate) {
+        return new OrderSearchCriteria(userId, securityId, statuses, startDate, endDate);
+    }
+
+    /**
+     * テストのスレッドで Hibernate が発行した直近の SQL を保持する
+     * （参照データキャッシュの定期更新など、他スレッドの SQL は無視する）
+     */
+    public static class SqlCapture implements StatementInspector {
+
+        static volatile Thread thread;
+        static volatile String last;
+
+        @Override
+        public String inspect(String sql) {
+            if (Thread.currentThread() == thread) {
+                last = sql;
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+-- ================================================================
+-- 任意: 約定時のポジション更新トリガー
+--
+-- ポジションは API の PositionService（メモリ上で差分更新し positions に一括書き戻し）が
+-- 管理する。API を経由せずに executions へ直接登録する運用でのみ適用すること。
+-- このトリガーを適用する場合は二重更新を避けるため oms.position.engine.enabled=false にする。
+-- ================================================================
+DELIMITER $$
+
+CREATE TRIGGER trg_after_execution_insert
+AFTER INSERT ON executions
+FOR EACH ROW
+BEGIN
+    DECLARE v_user_id BIGINT;
+    DECLARE v_side ENUM('BUY', 'SELL');
+    DECLARE v_current_qty DECIMAL(18,4);
+    DECLARE v_current_avg_cost DECIMAL(18,4);
+    DECLARE v_new_qty DECIMAL(18,4);
+    DECLARE v_new_avg_cost DECIMAL(18,4);
+
+    -- 注文情報取得
+    SELECT user_id, side INTO v_user_id, v_side
+    FROM orders WHERE order_id = NEW.order_id;
+
+    -- 既存ポジション取得
+    SELECT quantity, average_cost INTO v_current_qty, v_current_avg_cost
+    FROM positions
+    WHERE user_id = v_user_id AND security_id = NEW.security_id;
+
+    -- ポジション計算
+    IF v_side = 'BUY' THEN
+        SET v_new_qty = COALESCE(v_current_qty, 0) + NEW.execution_quantity;
+        SET v_new_avg_cost = ((COALESCE(v_current_qty, 0) * COALESCE(v_current_avg_cost, 0)) +
+                               (NEW.execution_quantity * NEW.execution_price)) / v_new_qty;
+    ELSE -- SELL
+        SET v_new_qty = COALESCE(v_current_qty, 0) - NEW.execution_quantity;
+        SET v_new_avg_cost = COALESCE(v_current_avg_cost, 0);
+    END IF;
+
+    -- ポジション更新または挿入
+    INSERT INTO positions (user_id, security_id, quantity, average_cost)
+    VALUES (v_user_id, NEW.security_id, v_new_qty, v_new_avg_cost)
+    ON DUPLICATE KEY UPDATE
+        quantity = v_new_qty,
+        average_cost = v_new_avg_cost,
+        updated_at = CURRENT_TIMESTAMP;
+END$$
+
+DELIMITER ;
@@ -76,17 +76,28 @@ CREATE TABLE orders (
     notes TEXT COMMENT '備考',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新日時',
+    version BIGINT NOT NULL DEFAULT 0 COMMENT '楽観ロック用バージョン',
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (security_id) REFERENCES securities(security_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     INDEX idx_user_id (user_id),
-    INDEX idx_security_id (security_id),
     INDEX idx_order_no (order_no),
     INDEX idx_status (status),
-    INDEX idx_order_date (order_date),
+    INDEX idx_order_date_id (order_date DESC, order_id DESC),
     INDEX idx_side (side),
-    INDEX idx_composite (user_id, order_date, status)
+    -- 注文検索（OrderQueryRepository）の条件の組み合わせごと。末尾の order_date（+ 主キー）で並び順のまま読む
+    INDEX idx_composite (user_id, order_date, status),
+    INDEX idx_user_status_date (user_id, status, order_date),
+    INDEX idx_security_date (security_id, order_date),
+    INDEX idx_status_date (status, order_date),
+    INDEX idx_status_valid_until (status, valid_until)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='発注テーブル';
 
+-- 発注IDシーケンス（Hibernate のプール型シーケンス。MySQL ではテーブルで代替）
+CREATE TABLE orders_seq (
+    next_val BIGINT NOT NULL COMMENT '次に予約するID'
+) ENGINE=InnoDB COMMENT='発注IDシーケンス';
+INSERT INTO orders_seq (next_val) VALUES (1);
+
 -- ================================================================
 -- 4. 約定テーブル (executions)
 -- ================================================================
@@ -103,7 +114,7 @@ CREATE TABLE executions (
     contra_broker VARCHAR(100) COMMENT '相手方証券会社',
     notes TEXT COMMENT '備考',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
-    FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    -- order_id は orders_archive に移った注文も指すため外部キーにしない
     FOREIGN KEY (security_id) REFERENCES securities(security_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     INDEX idx_order_id (order_id),
     INDEX idx_security_id (security_id),
@@ -112,6 +123,12 @@ CREATE TABLE executions (
     INDEX idx_settlement_date (settlement_date)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='約定テーブル';
 
+-- 約定IDシーケンス（Hibernate のプール型シーケンス。約定エンジンの一括登録用）
+CREATE TABLE executions_seq (
+    next_val BIGINT NOT NULL COMMENT '次に予約するID'
+) ENGINE=InnoDB COMMENT='約定IDシーケンス';
+INSERT INTO executions_seq (next_val) VALUES (1);
+
 -- ================================================================
 -- 5. ポジションテーブル (positions)
 -- ================================================================
@@ -125,6 +142,7 @@ CREATE TABLE positions (
     unrealized_pnl DECIMAL(18,4) COMMENT '評価損益',
     realized_pnl DECIMAL(18,4) NOT NULL DEFAULT 0 COMMENT '実現損益',
     last_updated DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '最終更新日時',
+    last_execution_id BIGINT NULL COMMENT '反映済みの最後の約定ID（PositionService の書き戻し。NULL はトリガーで更新した行）',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
     updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新日時',
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE RESTRICT ON UPDATE CASCADE,
@@ -154,7 +172,7 @@ CREATE TABLE trade_history (
     pnl DECIMAL(18,4) COMMENT '損益',
     notes TEXT COMMENT '備考',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
-    FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    -- order_id は orders_archive に移った注文も指すため外部キーにしない
     FOREIGN KEY (execution_id) REFERENCES executions(execution_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     FOREIGN KEY (security_id) REFERENCES securities(security_id) ON DELETE RESTRICT ON UPDATE CASCADE,
@@ -162,7 +180,7 @@ CREATE TABLE trade_history (
     INDEX idx_security_id (security_id),
     INDEX idx_trade_date (trade_date),
     INDEX idx_order_id (order_id),
-    INDEX idx_composite (user_id, trade_date, side)
+    INDEX idx_trade_user_date_side (user_id, trade_date, side)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='取引履歴テーブル';
 
 -- ================================================================
@@ -194,7 +212,7 @@ CREATE TABLE order_audit_log (
     change_details JSON COMMENT '変更詳細（JSON形式）',
     ip_address VARCHAR(45) COMMENT 'IPアドレス',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
-    FOREIGN KEY (order_id) REFERENCES orders(order_id) ON DELETE RESTRICT ON UPDATE CASCADE,
+    -- order_id は orders_archive に移った注文も指すため外部キーにしない
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE RESTRICT ON UPDATE CASCADE,
     INDEX idx_order_id (order_id),
     INDEX idx_user_id (user_id),
@@ -271,7 +289,7 @@ CREATE TABLE notifications (
     related_execution_id BIGINT COMMENT '関連約定ID',
     created_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '作成日時',
     FOREIGN KEY (user_id) REFERENCES users(user_id) ON DELETE CASCADE ON UPDATE CASCADE,
-    FOREIGN KEY (related_order_id) REFERENCES orders(order_id) ON DELETE SET NULL ON UPDATE CASCADE,
+    -- related_order_id は orders_archive に移った注文も指すため外部キーにしない
     FOREIGN KEY (related_execution_id) REFERENCES executions(execution_id) ON DELETE SET NULL ON UPDATE CASCADE,
     INDEX idx_user_id (user_id),
     INDEX idx_notification_type (notification_type),
@@ -281,50 +299,99 @@ CREATE TABLE notifications (
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='通知履歴';
 
 -- ================================================================
--- トリガー: 約定時のポジション更新
+-- 13. 日次採番 (daily_sequences)
 -- ================================================================
-DELIMITER $$
-
-CREATE TRIGGER trg_after_execution_insert
-AFTER INSERT ON executions
-FOR EACH ROW
-BEGIN
-    DECLARE v_user_id BIGINT;
-    DECLARE v_side ENUM('BUY', 'SELL');
-    DECLARE v_current_qty DECIMAL(18,4);
-    DECLARE v_current_avg_cost DECIMAL(18,4);
-    DECLARE v_new_qty DECIMAL(18,4);
-    DECLARE v_new_avg_cost DECIMAL(18,4);
+CREATE TABLE daily_sequences (
+    sequence_key VARCHAR(50) PRIMARY KEY COMMENT '採番キー（例: ORD20240115）',
+    next_value BIGINT NOT NULL COMMENT '次に予約する連番',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新日時'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日次採番';
 
-    -- 注文情報取得
-    SELECT user_id, side INTO v_user_id, v_side
-    FROM orders WHERE order_id = NEW.order_id;
+-- ================================================================
+-- 14. ジャーナル適用位置 (journal_checkpoints)
+-- ================================================================
+CREATE TABLE journal_checkpoints (
+    name VARCHAR(50) PRIMARY KEY COMMENT '適用先の名前',
+    scan_position BIGINT NOT NULL COMMENT '再起動時の読み込み開始位置',
+    applied_position BIGINT NOT NULL COMMENT '適用済みの確定位置',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新日時'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='ジャーナル適用位置';
 
-    -- 既存ポジション取得
-    SELECT quantity, average_cost INTO v_current_qty, v_current_avg_cost
-    FROM positions
-    WHERE user_id = v_user_id AND security_id = NEW.security_id;
+-- ================================================================
+-- 15. 日次損益バッチの実行記録 (eod_runs)
+-- ================================================================
+CREATE TABLE eod_runs (
+    trade_date DATE PRIMARY KEY COMMENT '取引日',
+    status VARCHAR(20) NOT NULL COMMENT '状態（RUNNING / COMPLETED / FAILED）',
+    checkpoint_user_id BIGINT NOT NULL DEFAULT 0 COMMENT '処理済みユーザーIDの上限（再開位置）',
+    executions BIGINT NOT NULL DEFAULT 0 COMMENT '処理済みの約定件数',
+    trades BIGINT NOT NULL DEFAULT 0 COMMENT '登録した取引履歴の件数',
+    run_by VARCHAR(64) COMMENT '実行したノード（oms.cluster.node-id）',
+    error_message VARCHAR(500) COMMENT 'エラーメッセージ',
+    started_at DATETIME NOT NULL COMMENT '開始日時',
+    completed_at DATETIME COMMENT '完了日時',
+    updated_at DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新日時'
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='日次損益バッチの実行記録';
 
-    -- ポジション計算
-    IF v_side = 'BUY' THEN
-        SET v_new_qty = COALESCE(v_current_qty, 0) + NEW.execution_quantity;
-        SET v_new_avg_cost = ((COALESCE(v_current_qty, 0) * COALESCE(v_current_avg_cost, 0)) +
-                               (NEW.execution_quantity * NEW.execution_price)) / v_new_qty;
-    ELSE -- SELL
-        SET v_new_qty = COALESCE(v_current_qty, 0) - NEW.execution_quantity;
-        SET v_new_avg_cost = COALESCE(v_current_avg_cost, 0);
-    END IF;
+-- ================================================================
+-- 16. 大引け建玉 (eod_positions)
+-- ================================================================
+CREATE TABLE eod_positions (
+    user_id BIGINT NOT NULL COMMENT 'ユーザーID',
+    security_id BIGINT NOT NULL COMMENT '銘柄ID',
+    trade_date DATE NOT NULL COMMENT '取引日',
+    quantity DECIMAL(18,4) NOT NULL COMMENT '大引け時点の数量（売り越しは負数）',
+    average_cost DECIMAL(18,4) NOT NULL COMMENT '大引け時点の平均取得単価',
+    PRIMARY KEY (user_id, security_id, trade_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='大引け建玉（日次損益バッチの始値）';
 
-    -- ポジション更新または挿入
-    INSERT INTO positions (user_id, security_id, quantity, average_cost)
-    VALUES (v_user_id, NEW.security_id, v_new_qty, v_new_avg_cost)
-    ON DUPLICATE KEY UPDATE
-        quantity = v_new_qty,
-        average_cost = v_new_avg_cost,
-        updated_at = CURRENT_TIMESTAMP;
-END$$
+-- ================================================================
+-- 17. アーカイブ済み注文 (orders_archive)
+-- ================================================================
+-- 終了済みで古い注文を API の OrderArchiver が orders から移す（列は orders と同じ + archived_at）。
+-- 発注日の年ごとのパーティションに分け、期間指定の照会は該当パーティションだけを読む。
+-- パーティション化のため主キーは (order_id, order_date)、order_no は一意制約にしない（orders で一意なまま移る）。
+-- 年が変わる前に pmax を REORGANIZE PARTITION で分割して次年のパーティションを追加する。
+CREATE TABLE orders_archive (
+    order_id BIGINT NOT NULL COMMENT '発注ID',
+    user_id BIGINT NOT NULL COMMENT 'ユーザーID',
+    security_id BIGINT NOT NULL COMMENT '銘柄ID',
+    order_no VARCHAR(50) NOT NULL COMMENT '注文番号',
+    side ENUM('BUY', 'SELL') NOT NULL COMMENT '売買区分',
+    order_type ENUM('MARKET', 'LIMIT', 'STOP', 'STOP_LIMIT') NOT NULL COMMENT '注文タイプ',
+    quantity DECIMAL(18,4) NOT NULL COMMENT '数量',
+    price DECIMAL(18,4) COMMENT '指値価格',
+    stop_price DECIMAL(18,4) COMMENT '逆指値価格',
+    time_in_force ENUM('DAY', 'GTC', 'IOC', 'FOK') NOT NULL COMMENT '有効期限',
+    status ENUM('NEW', 'PARTIAL', 'FILLED', 'CANCELED', 'REJECTED', 'EXPIRED') NOT NULL COMMENT 'ステータス',
+    filled_quantity DECIMAL(18,4) NOT NULL COMMENT '約定済数量',
+    average_price DECIMAL(18,4) COMMENT '平均約定価格',
+    commission DECIMAL(18,4) COMMENT '手数料',
+    order_date DATETIME NOT NULL COMMENT '発注日時',
+    valid_until DATETIME COMMENT '有効期限日時',
+    notes TEXT COMMENT '備考',
+    created_at DATETIME NOT NULL COMMENT '作成日時',
+    updated_at DATETIME NOT NULL COMMENT '更新日時',
+    version BIGINT NOT NULL COMMENT '楽観ロック用バージョン',
+    archived_at DATETIME NOT NULL COMMENT 'アーカイブ日時',
+    PRIMARY KEY (order_id, order_date),
+    -- 注文検索（OrderQueryRepository の find/streamArchived…）用。末尾の order_date で並び順のまま読む
+    INDEX idx_archive_date (order_date),
+    INDEX idx_archive_user_date (user_id, order_date),
+    INDEX idx_archive_security_date (security_id, order_date),
+    INDEX idx_archive_status_date (status, order_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='アーカイブ済み注文'
+PARTITION BY RANGE COLUMNS (order_date) (
+    PARTITION p2024 VALUES LESS THAN ('2025-01-01'),
+    PARTITION p2025 VALUES LESS THAN ('2026-01-01'),
+    PARTITION p2026 VALUES LESS THAN ('2027-01-01'),
+    PARTITION pmax VALUES LESS THAN (MAXVALUE)
+);
 
-DELIMITER ;
+-- ================================================================
+-- ポジション更新は API の PositionService が行う
+-- （従来のトリガーは optional/trg_after_execution_insert.sql）
+-- ================================================================
 
 -- ================================================================
 -- ビュー: 発注詳細ビュー
@@ -384,7 +451,11 @@ SELECT
     e.notes,
     e.created_at
 FROM executions e
-INNER JOIN orders o ON e.order_id = o.order_id
+INNER JOIN (
+    SELECT order_id, order_no, user_id, side FROM orders
+    UNION ALL
+    SELECT order_id, order_no, user_id, side FROM orders_archive
+) o ON e.order_id = o.order_id
 INNER JOIN users u ON o.user_id = u.user_id
 INNER JOIN securities s ON e.security_id = s.security_id;
 
@@ -17,6 +17,7 @@ TRUNCATE TABLE user_settings;
 TRUNCATE TABLE market_data;
 TRUNCATE TABLE securities;
 TRUNCATE TABLE users;
+TRUNCATE TABLE daily_sequences;
 SET FOREIGN_KEY_CHECKS = 1;
 
 -- ================================================================
@@ -130,6 +131,10 @@ INSERT INTO orders (user_id, security_id, order_no, side, order_type, quantity,
 -- キャンセル済み
 (1, 4, 'ORD20240125-0001', 'BUY', 'LIMIT', 50, 12500.00, 'DAY', 'CANCELED', 0, NULL, '2024-01-25 10:00:00', '2024-01-25 15:00:00');
 
+-- 発注IDシーケンスを投入済みIDの次に合わせる
+-- （プール型オプティマイザは初期値以外の値をブロックの上端として [値-49, 値] を払い出すため、MAX + allocationSize(50) にする）
+UPDATE orders_seq SET next_val = (SELECT COALESCE(MAX(order_id), 0) + 50 FROM orders);
+
 -- ================================================================
 -- 7. 約定データ
 -- ================================================================
@@ -149,6 +154,9 @@ INSERT INTO executions (order_id, security_id, execution_no, execution_price, ex
 (4, 7, 'EXE20240126-0006', 1250.00, 400, 60.00, '2024-01-26 14:02:12', '2024-01-29'),
 (4, 7, 'EXE20240126-0007', 1249.50, 300, 45.00, '2024-01-26 14:30:45', '2024-01-29');
 
+-- 約定IDシーケンスを投入済みIDの次に合わせる（発注IDと同じく MAX + allocationSize(50)）
+UPDATE executions_seq SET next_val = (SELECT COALESCE(MAX(execution_id), 0) + 50 FROM executions);
+
 -- ================================================================
 -- 8. 取引履歴
 -- ================================================================
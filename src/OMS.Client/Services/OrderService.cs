@@ -15,6 +15,9 @@ namespace OMS.Client.Services;
 /// </summary>
 public class OrderService
 {
+    /// <summary>一覧が先頭ページで打ち切られた場合の次ページのカーソル</summary>
+    private const string NextCursorHeader = "X-Next-Cursor";
+
     private readonly HttpClient _httpClient;
     private readonly ILogger<OrderService>? _logger;
     private readonly JsonSerializerOptions _jsonOptions;
@@ -32,6 +35,10 @@ public class OrderService
     /// <summary>
     /// 注文一覧を取得
     /// </summary>
+    /// <remarks>
+    /// /api/orders は先頭ページだけを返し、続きがある場合は X-Next-Cursor ヘッダーにカーソルを返すため、
+    /// ヘッダーがある間は /api/orders/page で残りを取得して全件を返す
+    /// </remarks>
     public async Task<List<OrderModel>> GetOrdersAsync()
     {
         try
@@ -58,9 +65,19 @@ public class OrderService
             }
 
             var orders = System.Text.Json.JsonSerializer.Deserialize<List<OrderModel>>(
-                apiResponse.Data.ToString() ?? "[]", _jsonOptions);
+                apiResponse.Data.ToString() ?? "[]", _jsonOptions) ?? new List<OrderModel>();
 
-            return orders ?? new List<OrderModel>();
+            var cursor = response.Headers.TryGetValues(NextCursorHeader, out var values)
+                ? string.Join(",", values)
+                : null;
+            while (!string.IsNullOrEmpty(cursor))
+            {
+                var page = await GetOrderPageAsync(cursor);
+                orders.AddRange(page.Items ?? new List<OrderModel>());
+                cursor = page.HasMore ? page.NextCursor : null;
+            }
+
+            return orders;
         }
         catch (Exception ex)
         {
@@ -123,6 +140,33 @@ public class OrderService
         }
     }
 
+    /// <summary>
+    /// 注文一覧ページを取得（キーセットページング）
+    /// </summary>
+    private async Task<OrderPage> GetOrderPageAsync(string cursor)
+    {
+        var response = await _httpClient.GetAsync($"/api/orders/page?cursor={Uri.EscapeDataString(cursor)}");
+
+        if (!response.IsSuccessStatusCode)
+        {
+            var errorContent = await response.Content.ReadAsStringAsync();
+            _logger?.LogError("注文一覧ページ取得エラー: StatusCode={StatusCode}, Content={Content}",
+                response.StatusCode, errorContent);
+            throw new Exception($"注文一覧の取得に失敗しました: {response.StatusCode}");
+        }
+
+        // ApiResponse<OrderPageDto>の形式でレスポンスが返ってくる
+        var apiResponse = await response.Content.ReadFromJsonAsync<ApiResponse>(_jsonOptions);
+
+        if (apiResponse?.Data == null)
+        {
+            return new OrderPage();
+        }
+
+        return System.Text.Json.JsonSerializer.Deserialize<OrderPage>(
+            apiResponse.Data.ToString() ?? "{}", _jsonOptions) ?? new OrderPage();
+    }
+
     private class ApiResponse
     {
         public bool Success { get; set; }
@@ -137,6 +181,13 @@ public class OrderService
         public object? Data { get; set; }
     }
 
+    private class OrderPage
+    {
+        public List<OrderModel>? Items { get; set; }
+        public string? NextCursor { get; set; }
+        public bool HasMore { get; set; }
+    }
+
     /// <summary>
     /// 注文をキャンセル
     /// </summary>